@@ -49,6 +49,19 @@ public class AdminClientRegisterCommand extends BoomTool.BaseCommand {
       required = true)
   String callbackEndpoint;
 
+  @Option(
+      names = {"--cb-batch-window"},
+      description =
+          "Deliver tasks expiring within this many milliseconds together in one batch (0 disables)",
+      defaultValue = "0")
+  long callbackBatchWindowMs;
+
+  @Option(
+      names = {"--cb-batch-max-size"},
+      description = "Maximum number of tasks per batch (0 uses the server default)",
+      defaultValue = "0")
+  int callbackBatchMaxSize;
+
   // Retry options
   @Option(
       names = {"--retry-max"},
@@ -58,7 +71,7 @@ public class AdminClientRegisterCommand extends BoomTool.BaseCommand {
 
   @Option(
       names = {"--retry-strategy"},
-      description = "Retry strategy (FIXED, EXPONENTIAL)",
+      description = "Retry strategy (FIXED, EXPONENTIAL, FULL_JITTER, DECORRELATED_JITTER)",
       defaultValue = "FIXED")
   RetryPolicy.BackoffStrategy retryStrategy;
 
@@ -81,6 +94,12 @@ public class AdminClientRegisterCommand extends BoomTool.BaseCommand {
       required = true)
   String dlqDestination;
 
+  @Option(
+      names = {"--dlq-retention"},
+      description = "How long dead-letter entries are kept in milliseconds (0 for server default)",
+      defaultValue = "0")
+  long dlqRetentionMs;
+
   @Override
   protected Integer executeWithClient(BoomerangClient client) throws Exception {
     try {
@@ -88,6 +107,8 @@ public class AdminClientRegisterCommand extends BoomTool.BaseCommand {
           CallbackConfig.newBuilder()
               .setProtocol(callbackProtocol)
               .setEndpoint(callbackEndpoint)
+              .setBatchWindowMs(callbackBatchWindowMs)
+              .setMaxBatchSize(callbackBatchMaxSize)
               .build();
 
       RetryPolicy retry =
@@ -98,7 +119,10 @@ public class AdminClientRegisterCommand extends BoomTool.BaseCommand {
               .setMaxIntervalMs(retryMaxIntervalMs)
               .build();
 
-      DLQPolicy dlq = DLQPolicy.newBuilder().setDestination(dlqDestination).build();
+      DLQPolicy dlq = DLQPolicy.newBuilder()
+              .setDestination(dlqDestination)
+              .setRetentionMs(dlqRetentionMs)
+              .build();
 
       ClientRegistrationRequest request =
           ClientRegistrationRequest.newBuilder()
@@ -32,7 +32,11 @@ import picocli.shell.jline3.PicocliCommands;
     mixinStandardHelpOptions = true,
     version = "0.1.0",
     description = "Boomerang CLI tool for task and client management.",
-    subcommands = {BoomTool.TaskCommand.class, BoomTool.AdminCommand.class})
+    subcommands = {
+      BoomTool.TaskCommand.class,
+      BoomTool.DlqCommand.class,
+      BoomTool.AdminCommand.class
+    })
 public class BoomTool implements Runnable {
   private static final Logger log = LoggerFactory.getLogger(BoomTool.class);
 
@@ -171,6 +175,7 @@ public class BoomTool implements Runnable {
       subcommands = {
         TaskRegisterCommand.class,
         TaskCancelCommand.class,
+        TaskRescheduleCommand.class,
         TaskListCommand.class,
         TaskGetCommand.class
       })
@@ -182,6 +187,18 @@ public class BoomTool implements Runnable {
   }
 
   /** Subcommand for administrative management. */
+  /** Subcommand for dead-letter queue management. */
+  @Command(
+      name = "dlq",
+      description = "Manage the dead-letter queue.",
+      subcommands = {DlqListCommand.class, DlqPurgeCommand.class, DlqReplayCommand.class})
+  static class DlqCommand implements Runnable {
+    @Override
+    public void run() {
+      CommandLine.usage(this, System.out);
+    }
+  }
+
   @Command(
       name = "admin",
       description = "Administrative commands.",
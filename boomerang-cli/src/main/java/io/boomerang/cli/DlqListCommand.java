@@ -0,0 +1,85 @@
+package io.boomerang.cli;
+
+import io.boomerang.client.BoomerangClient;
+import io.boomerang.proto.DLQEntryDetails;
+import io.boomerang.proto.ListDLQRequest;
+import io.boomerang.proto.ListDLQResponse;
+import io.boomerang.proto.Status;
+import java.time.Instant;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+/**
+ * Subcommand for listing the dead-letter queue page by page.
+ *
+ * @since 0.1.0
+ */
+@Command(name = "list", description = "List dead-letter queue entries with pagination.")
+public class DlqListCommand extends BoomTool.BaseCommand {
+
+  @Option(
+      names = {"--client-id"},
+      description = "Filter by client (Admin only)")
+  String clientId;
+
+  @Option(
+      names = {"-l", "--limit"},
+      description = "Maximum number of entries to display per page (default: ${DEFAULT-VALUE})",
+      defaultValue = "20")
+  int limit;
+
+  @Option(
+      names = {"--all"},
+      description = "Fetch all pages automatically")
+  boolean all;
+
+  @Option(
+      names = {"--next-token"},
+      description = "Pagination token for the next page")
+  String nextTokenOption;
+
+  @Override
+  protected Integer executeWithClient(BoomerangClient client) throws Exception {
+    String nextToken = nextTokenOption != null ? nextTokenOption : "";
+    boolean hasMore = true;
+
+    System.out.printf(
+        "%-36s | %-15s | %-24s | %-8s | %s%n",
+        "Task ID", "Client ID", "Failed At", "Attempts", "Last Error");
+    System.out.println("-".repeat(117));
+
+    while (hasMore) {
+      ListDLQRequest.Builder requestBuilder =
+          ListDLQRequest.newBuilder().setLimit(limit).setNextToken(nextToken);
+      if (clientId != null) {
+        requestBuilder.setClientId(clientId);
+      }
+
+      ListDLQResponse response = client.listDLQ(requestBuilder.build());
+
+      if (response.getStatus() != Status.OK) {
+        System.err.printf("Error listing dead-letter queue: %s%n", response.getErrorMessage());
+        return 1;
+      }
+
+      for (DLQEntryDetails entry : response.getEntriesList()) {
+        System.out.printf(
+            "%-36s | %-15s | %-24s | %-8d | %s%n",
+            entry.getTask().getTaskId(),
+            entry.getTask().getClientId(),
+            Instant.ofEpochMilli(entry.getFailedAtMs()),
+            entry.getAttemptCount(),
+            entry.getErrorMessage());
+      }
+
+      nextToken = response.getNextToken();
+      if (!nextToken.isEmpty() && !all) {
+        System.out.printf(
+            "--- More entries available. Use --next-token %s to see more. ---%n", nextToken);
+      }
+      hasMore = all && !nextToken.isEmpty();
+    }
+
+    return 0;
+  }
+}
@@ -0,0 +1,40 @@
+package io.boomerang.cli;
+
+import io.boomerang.client.BoomerangClient;
+import io.boomerang.proto.PurgeDLQRequest;
+import io.boomerang.proto.PurgeDLQResponse;
+import io.boomerang.proto.Status;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+/**
+ * Subcommand for removing all dead-letter queue entries of a client.
+ *
+ * @since 0.1.0
+ */
+@Command(name = "purge", description = "Remove all dead-letter queue entries of a client.")
+public class DlqPurgeCommand extends BoomTool.BaseCommand {
+
+  @Option(
+      names = {"--client-id"},
+      description = "The client to purge (Admin only); defaults to your own, or all for admins")
+  String clientId;
+
+  @Override
+  protected Integer executeWithClient(BoomerangClient client) throws Exception {
+    PurgeDLQRequest.Builder requestBuilder = PurgeDLQRequest.newBuilder();
+    if (clientId != null) {
+      requestBuilder.setClientId(clientId);
+    }
+
+    PurgeDLQResponse response = client.purgeDLQ(requestBuilder.build());
+
+    if (response.getStatus() == Status.OK) {
+      System.out.println("Dead-letter queue purged successfully!");
+      return 0;
+    } else {
+      System.err.printf("Error purging dead-letter queue: %s%n", response.getErrorMessage());
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,50 @@
+package io.boomerang.cli;
+
+import io.boomerang.client.BoomerangClient;
+import io.boomerang.proto.ReplayDLQRequest;
+import io.boomerang.proto.ReplayDLQResponse;
+import io.boomerang.proto.Status;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+/**
+ * Subcommand for scheduling dead-letter queue entries again.
+ *
+ * @since 0.1.0
+ */
+@Command(
+    name = "replay",
+    description =
+        "Schedule dead-letter queue entries again with fresh retry attempts, paced by the server.")
+public class DlqReplayCommand extends BoomTool.BaseCommand {
+
+  @Option(
+      names = {"--client-id"},
+      description = "The client to replay (Admin only); defaults to your own, or all for admins")
+  String clientId;
+
+  @Option(
+      names = {"-l", "--limit"},
+      description =
+          "Maximum number of entries to replay; 0 replays all (default: ${DEFAULT-VALUE})",
+      defaultValue = "0")
+  int limit;
+
+  @Override
+  protected Integer executeWithClient(BoomerangClient client) throws Exception {
+    ReplayDLQRequest.Builder requestBuilder = ReplayDLQRequest.newBuilder().setLimit(limit);
+    if (clientId != null) {
+      requestBuilder.setClientId(clientId);
+    }
+
+    ReplayDLQResponse response = client.replayDLQ(requestBuilder.build());
+
+    if (response.getStatus() == Status.OK) {
+      System.out.printf("Replayed %d dead-letter queue entries.%n", response.getReplayedCount());
+      return 0;
+    } else {
+      System.err.printf("Error replaying dead-letter queue: %s%n", response.getErrorMessage());
+    }
+    return 1;
+  }
+}
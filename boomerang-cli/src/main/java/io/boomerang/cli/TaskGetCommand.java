@@ -2,6 +2,7 @@ package io.boomerang.cli;
 
 import io.boomerang.client.BoomerangClient;
 import io.boomerang.proto.GetTaskResponse;
+import io.boomerang.proto.Schedule;
 import io.boomerang.proto.Status;
 import io.boomerang.proto.TaskDetails;
 import java.nio.charset.Charset;
@@ -43,8 +44,14 @@ public class TaskGetCommand extends BoomTool.BaseCommand {
     System.out.printf(
         "Expiration:      %s (%d ms)%n",
         Instant.ofEpochMilli(task.getExpirationMs()), task.getExpirationMs());
-    System.out.printf("Recurring:       %b%n", task.getRepeatIntervalMs() > 0);
-    if (task.getRepeatIntervalMs() > 0) {
+    System.out.printf(
+        "Recurring:       %b%n", task.getRepeatIntervalMs() > 0 || task.hasSchedule());
+    if (task.hasSchedule()) {
+      Schedule schedule = task.getSchedule();
+      System.out.printf(
+          "Schedule:        %s (%s, jitter %d ms)%n",
+          schedule.getCron(), schedule.getTimeZone(), schedule.getJitterMs());
+    } else if (task.getRepeatIntervalMs() > 0) {
       System.out.printf("Repeat Interval: %d ms%n", task.getRepeatIntervalMs());
     }
 
@@ -92,7 +92,7 @@ public class TaskListCommand extends BoomTool.BaseCommand {
             task.getTaskId(),
             task.getClientId(),
             task.getExpirationMs(),
-            task.getRepeatIntervalMs() > 0);
+            task.getRepeatIntervalMs() > 0 || task.hasSchedule());
       }
 
       nextToken = response.getNextToken();
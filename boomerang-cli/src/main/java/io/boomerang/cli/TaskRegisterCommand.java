@@ -2,6 +2,7 @@ package io.boomerang.cli;
 
 import io.boomerang.client.BoomerangClient;
 import io.boomerang.proto.RegistrationResponse;
+import io.boomerang.proto.Schedule;
 import io.boomerang.proto.Status;
 import io.boomerang.proto.Task;
 import java.nio.charset.Charset;
@@ -35,6 +36,29 @@ public class TaskRegisterCommand extends BoomTool.BaseCommand {
       defaultValue = "0")
   String repeat;
 
+  @Option(
+      names = {"--cron"},
+      description =
+          "Cron expression (minute hour day-of-month month day-of-week) for a calendar schedule;"
+              + " takes precedence over --repeat")
+  String cron;
+
+  @Option(
+      names = {"--time-zone"},
+      description = "IANA time zone for the cron expression (default: UTC)")
+  String timeZone;
+
+  @Option(
+      names = {"--jitter"},
+      description = "Maximum random offset added to each cron fire time (e.g., 500, 30s)",
+      defaultValue = "0")
+  String jitter;
+
+  @Option(
+      names = {"--task-id"},
+      description = "ID to register the task under; registering it again replaces the task")
+  String taskId;
+
   @Option(
       names = {"-c", "--charset"},
       description = "Charset for payload encoding (default: ${DEFAULT-VALUE})",
@@ -46,17 +70,30 @@ public class TaskRegisterCommand extends BoomTool.BaseCommand {
     long delayMs = parseIntervalToMs(delay);
     long repeatIntervalMs = parseIntervalToMs(repeat);
 
-    Task task =
+    Task.Builder taskBuilder =
         Task.newBuilder()
             .setPayload(com.google.protobuf.ByteString.copyFrom(payload, Charset.forName(charset)))
             .setDelayMs(delayMs)
-            .setRepeatIntervalMs(repeatIntervalMs)
-            .build();
+            .setRepeatIntervalMs(repeatIntervalMs);
+    if (cron != null) {
+      Schedule.Builder schedule =
+          Schedule.newBuilder().setCron(cron).setJitterMs(parseIntervalToMs(jitter));
+      if (timeZone != null) {
+        schedule.setTimeZone(timeZone);
+      }
+      taskBuilder.setSchedule(schedule);
+    }
+    if (taskId != null) {
+      taskBuilder.setTaskId(taskId);
+    }
+    Task task = taskBuilder.build();
 
     RegistrationResponse response = client.register(task);
 
     if (response.getStatus() == Status.OK) {
-      System.out.printf("Task registered successfully! ID: %s%n", response.getTaskId());
+      System.out.printf(
+          "Task %s successfully! ID: %s%n",
+          response.getReplaced() ? "replaced" : "registered", response.getTaskId());
       System.out.printf(
           "Scheduled at:    %s (%d ms)%n",
           Instant.ofEpochMilli(response.getScheduledTimeMs()), response.getScheduledTimeMs());
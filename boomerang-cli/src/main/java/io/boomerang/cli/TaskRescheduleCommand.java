@@ -0,0 +1,46 @@
+package io.boomerang.cli;
+
+import io.boomerang.client.BoomerangClient;
+import io.boomerang.proto.RescheduleResponse;
+import io.boomerang.proto.Status;
+import java.time.Instant;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+/**
+ * Subcommand for moving an existing task to a new expiration.
+ *
+ * @since 0.1.0
+ */
+@Command(
+    name = "reschedule",
+    description = "Move an existing task to a new expiration without registering it again.")
+public class TaskRescheduleCommand extends BoomTool.BaseCommand {
+
+  @Option(
+      names = {"-t", "--task-id"},
+      description = "The ID of the task to reschedule",
+      required = true)
+  String taskId;
+
+  @Option(
+      names = {"-d", "--delay"},
+      description = "New delay from now (e.g., 5000, 5m, 1h)",
+      required = true)
+  String delay;
+
+  @Override
+  protected Integer executeWithClient(BoomerangClient client) throws Exception {
+    RescheduleResponse response = client.reschedule(taskId, parseIntervalToMs(delay));
+
+    if (response.getStatus() == Status.OK) {
+      System.out.printf("Task %s rescheduled successfully!%n", taskId);
+      System.out.printf(
+          "Scheduled at:    %s (%d ms)%n",
+          Instant.ofEpochMilli(response.getScheduledTimeMs()), response.getScheduledTimeMs());
+      return 0;
+    }
+    System.err.printf("Error rescheduling task: %s%n", response.getErrorMessage());
+    return 1;
+  }
+}
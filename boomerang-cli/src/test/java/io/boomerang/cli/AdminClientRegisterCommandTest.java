@@ -8,10 +8,12 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.boomerang.client.BoomerangClient;
+import io.boomerang.proto.ClientRegistrationRequest;
 import io.boomerang.proto.ClientRegistrationResponse;
 import io.boomerang.proto.Status;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import picocli.CommandLine;
 import picocli.CommandLine.IFactory;
 
@@ -85,4 +87,55 @@ class AdminClientRegisterCommandTest {
     verify(mockClient).login(any(), any());
     verify(mockClient).registerClient(any());
   }
+
+  @Test
+  void shouldRegisterClientWithBatchDelivery() throws Exception {
+    // Arrange
+    ClientRegistrationResponse response =
+        ClientRegistrationResponse.newBuilder().setStatus(Status.OK).build();
+    when(mockClient.registerClient(any())).thenReturn(response);
+
+    IFactory factory =
+        new IFactory() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public <K> K create(Class<K> cls) throws Exception {
+            if (cls == AdminClientRegisterCommand.class) {
+              return (K) cmd;
+            }
+            return CommandLine.defaultFactory().create(cls);
+          }
+        };
+
+    // Act
+    int exitCode =
+        new CommandLine(root, factory)
+            .execute(
+                "--user",
+                "admin-user",
+                "--password",
+                "admin123",
+                "admin",
+                "register",
+                "-i",
+                "new-client",
+                "-W",
+                "new-pass",
+                "--cb-endpoint",
+                "localhost:8081",
+                "--cb-batch-window",
+                "50",
+                "--cb-batch-max-size",
+                "200",
+                "--dlq-destination",
+                "dlq-topic");
+
+    // Assert
+    assertEquals(0, exitCode);
+    ArgumentCaptor<ClientRegistrationRequest> captor =
+        ArgumentCaptor.forClass(ClientRegistrationRequest.class);
+    verify(mockClient).registerClient(captor.capture());
+    assertEquals(50, captor.getValue().getCallback().getBatchWindowMs());
+    assertEquals(200, captor.getValue().getCallback().getMaxBatchSize());
+  }
 }
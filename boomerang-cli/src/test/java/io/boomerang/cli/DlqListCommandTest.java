@@ -0,0 +1,81 @@
+package io.boomerang.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.boomerang.client.BoomerangClient;
+import io.boomerang.proto.DLQEntryDetails;
+import io.boomerang.proto.ListDLQRequest;
+import io.boomerang.proto.ListDLQResponse;
+import io.boomerang.proto.Status;
+import io.boomerang.proto.TaskDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import picocli.CommandLine;
+import picocli.CommandLine.IFactory;
+
+class DlqListCommandTest {
+  private BoomerangClient mockClient;
+  private DlqListCommand cmd;
+  private BoomTool root;
+
+  @BeforeEach
+  void setUp() {
+    mockClient = mock(BoomerangClient.class);
+    root =
+        new BoomTool() {
+          @Override
+          protected BoomerangClient createClient(
+              String host, int port, String clientId, String password) {
+            return mockClient;
+          }
+        };
+    cmd = new DlqListCommand();
+  }
+
+  @Test
+  void shouldFetchAllPages() throws Exception {
+    // Arrange
+    DLQEntryDetails entry =
+        DLQEntryDetails.newBuilder()
+            .setTask(TaskDetails.newBuilder().setTaskId("task-1").setClientId("client-1"))
+            .setErrorMessage("connection refused")
+            .setAttemptCount(3)
+            .build();
+    when(mockClient.listDLQ(any()))
+        .thenReturn(
+            ListDLQResponse.newBuilder()
+                .setStatus(Status.OK)
+                .addEntries(entry)
+                .setNextToken("page-2")
+                .build(),
+            ListDLQResponse.newBuilder().setStatus(Status.OK).addEntries(entry).build());
+
+    IFactory factory =
+        new IFactory() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public <K> K create(Class<K> cls) throws Exception {
+            if (cls == DlqListCommand.class) {
+              return (K) cmd;
+            }
+            return CommandLine.defaultFactory().create(cls);
+          }
+        };
+
+    // Act
+    int exitCode =
+        new CommandLine(root, factory).execute("-u", "user", "-p", "pass", "dlq", "list", "--all");
+
+    // Assert
+    assertEquals(0, exitCode);
+    ArgumentCaptor<ListDLQRequest> captor = ArgumentCaptor.forClass(ListDLQRequest.class);
+    verify(mockClient, times(2)).listDLQ(captor.capture());
+    assertEquals("page-2", captor.getAllValues().get(1).getNextToken());
+  }
+}
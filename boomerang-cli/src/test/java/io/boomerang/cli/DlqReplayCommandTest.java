@@ -0,0 +1,71 @@
+package io.boomerang.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.boomerang.client.BoomerangClient;
+import io.boomerang.proto.ReplayDLQRequest;
+import io.boomerang.proto.ReplayDLQResponse;
+import io.boomerang.proto.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import picocli.CommandLine;
+import picocli.CommandLine.IFactory;
+
+class DlqReplayCommandTest {
+  private BoomerangClient mockClient;
+  private DlqReplayCommand cmd;
+  private BoomTool root;
+
+  @BeforeEach
+  void setUp() {
+    mockClient = mock(BoomerangClient.class);
+    root =
+        new BoomTool() {
+          @Override
+          protected BoomerangClient createClient(
+              String host, int port, String clientId, String password) {
+            return mockClient;
+          }
+        };
+    cmd = new DlqReplayCommand();
+  }
+
+  @Test
+  void shouldReplayDlqOfClient() throws Exception {
+    // Arrange
+    ReplayDLQResponse response =
+        ReplayDLQResponse.newBuilder().setStatus(Status.OK).setReplayedCount(3).build();
+    when(mockClient.replayDLQ(any())).thenReturn(response);
+
+    IFactory factory =
+        new IFactory() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public <K> K create(Class<K> cls) throws Exception {
+            if (cls == DlqReplayCommand.class) {
+              return (K) cmd;
+            }
+            return CommandLine.defaultFactory().create(cls);
+          }
+        };
+
+    // Act
+    int exitCode =
+        new CommandLine(root, factory)
+            .execute(
+                "-u", "admin", "-p", "pass", "dlq", "replay", "--client-id", "client-1", "-l",
+                "100");
+
+    // Assert
+    assertEquals(0, exitCode);
+    ArgumentCaptor<ReplayDLQRequest> captor = ArgumentCaptor.forClass(ReplayDLQRequest.class);
+    verify(mockClient).replayDLQ(captor.capture());
+    assertEquals("client-1", captor.getValue().getClientId());
+    assertEquals(100, captor.getValue().getLimit());
+  }
+}
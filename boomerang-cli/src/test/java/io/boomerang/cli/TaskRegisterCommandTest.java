@@ -9,9 +9,12 @@ import static org.mockito.Mockito.when;
 
 import io.boomerang.client.BoomerangClient;
 import io.boomerang.proto.RegistrationResponse;
+import io.boomerang.proto.Schedule;
 import io.boomerang.proto.Status;
+import io.boomerang.proto.Task;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import picocli.CommandLine;
 import picocli.CommandLine.IFactory;
 
@@ -152,4 +155,58 @@ class TaskRegisterCommandTest {
     assertEquals(0, exitCode);
     verify(mockClient).register(any());
   }
+
+  @Test
+  void shouldRegisterTaskWithCronSchedule() throws Exception {
+    // Arrange
+    RegistrationResponse response =
+        RegistrationResponse.newBuilder()
+            .setStatus(Status.OK)
+            .setTaskId("test-task-id")
+            .setScheduledTimeMs(1000L)
+            .build();
+    when(mockClient.register(any())).thenReturn(response);
+
+    IFactory factory =
+        new IFactory() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public <K> K create(Class<K> cls) throws Exception {
+            if (cls == TaskRegisterCommand.class) {
+              return (K) cmd;
+            }
+            return CommandLine.defaultFactory().create(cls);
+          }
+        };
+
+    // Act
+    int exitCode =
+        new CommandLine(root, factory)
+            .execute(
+                "-u",
+                "user",
+                "-p",
+                "pass",
+                "task",
+                "register",
+                "-l",
+                "hello",
+                "-d",
+                "0",
+                "--cron",
+                "0 9 * * MON-FRI",
+                "--time-zone",
+                "Europe/Berlin",
+                "--jitter",
+                "30s");
+
+    // Assert
+    assertEquals(0, exitCode);
+    ArgumentCaptor<Task> captor = ArgumentCaptor.forClass(Task.class);
+    verify(mockClient).register(captor.capture());
+    Schedule schedule = captor.getValue().getSchedule();
+    assertEquals("0 9 * * MON-FRI", schedule.getCron());
+    assertEquals("Europe/Berlin", schedule.getTimeZone());
+    assertEquals(30_000L, schedule.getJitterMs());
+  }
 }
@@ -0,0 +1,69 @@
+package io.boomerang.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.boomerang.client.BoomerangClient;
+import io.boomerang.proto.RescheduleResponse;
+import io.boomerang.proto.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import picocli.CommandLine;
+import picocli.CommandLine.IFactory;
+
+class TaskRescheduleCommandTest {
+  private BoomerangClient mockClient;
+  private TaskRescheduleCommand cmd;
+  private BoomTool root;
+
+  @BeforeEach
+  void setUp() {
+    mockClient = mock(BoomerangClient.class);
+    root =
+        new BoomTool() {
+          @Override
+          protected BoomerangClient createClient(
+              String host, int port, String clientId, String password) {
+            return mockClient;
+          }
+        };
+    cmd = new TaskRescheduleCommand();
+  }
+
+  @Test
+  void shouldRescheduleTaskWithParsedDelay() throws Exception {
+    // Arrange
+    when(mockClient.reschedule(eq("test-task-id"), anyLong()))
+        .thenReturn(
+            RescheduleResponse.newBuilder()
+                .setStatus(Status.OK)
+                .setScheduledTimeMs(1_700_000_000_000L)
+                .build());
+
+    IFactory factory =
+        new IFactory() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public <K> K create(Class<K> cls) throws Exception {
+            if (cls == TaskRescheduleCommand.class) {
+              return (K) cmd;
+            }
+            return CommandLine.defaultFactory().create(cls);
+          }
+        };
+
+    // Act
+    int exitCode =
+        new CommandLine(root, factory)
+            .execute(
+                "-u", "user", "-p", "pass", "task", "reschedule", "-t", "test-task-id", "-d", "5m");
+
+    // Assert
+    assertEquals(0, exitCode);
+    verify(mockClient).reschedule("test-task-id", 300_000L);
+  }
+}
@@ -5,9 +5,16 @@ import io.boomerang.proto.ClientDeregistrationResponse;
 import io.boomerang.proto.ClientRegistrationRequest;
 import io.boomerang.proto.ClientRegistrationResponse;
 import io.boomerang.proto.GetTaskResponse;
+import io.boomerang.proto.ListDLQRequest;
+import io.boomerang.proto.ListDLQResponse;
 import io.boomerang.proto.ListTasksRequest;
 import io.boomerang.proto.ListTasksResponse;
+import io.boomerang.proto.PurgeDLQRequest;
+import io.boomerang.proto.PurgeDLQResponse;
 import io.boomerang.proto.RegistrationResponse;
+import io.boomerang.proto.ReplayDLQRequest;
+import io.boomerang.proto.ReplayDLQResponse;
+import io.boomerang.proto.RescheduleResponse;
 import io.boomerang.proto.Task;
 
 /**
@@ -51,6 +58,20 @@ public interface BoomerangClient extends AutoCloseable {
    */
   boolean cancel(String taskId) throws BoomerangException;
 
+  /**
+   * Moves an existing task to a new expiration without sending it again.
+   *
+   * <p>This is cheaper than registering the task again under the same ID, e.g., to extend a
+   * heartbeat or lease timeout, since the payload of the task is neither sent nor rewritten. For a
+   * recurring task, only the current cycle is moved.
+   *
+   * @param taskId the unique identifier of the task
+   * @param delayMs the new delay from now in milliseconds
+   * @return the reschedule response, which carries the new expiration
+   * @throws BoomerangException if the task does not exist or rescheduling fails
+   */
+  RescheduleResponse reschedule(String taskId, long delayMs) throws BoomerangException;
+
   /**
    * Retrieves details for a specific task.
    *
@@ -69,6 +90,37 @@ public interface BoomerangClient extends AutoCloseable {
    */
   ListTasksResponse listTasks(ListTasksRequest request) throws BoomerangException;
 
+  /**
+   * Lists one page of the dead-letter queue.
+   *
+   * <p>Regular clients can only list their own entries; admins can list those of any client, or of
+   * all clients if none is given.
+   *
+   * @param request the listing request
+   * @return the listing response, with a cursor for the next page if there may be more entries
+   * @throws BoomerangException if listing fails
+   */
+  ListDLQResponse listDLQ(ListDLQRequest request) throws BoomerangException;
+
+  /**
+   * Removes all dead-letter queue entries of a client.
+   *
+   * @param request the purge request
+   * @return the purge response
+   * @throws BoomerangException if purging fails
+   */
+  PurgeDLQResponse purgeDLQ(PurgeDLQRequest request) throws BoomerangException;
+
+  /**
+   * Schedules dead-letter queue entries again with fresh retry attempts and removes them from the
+   * DLQ.
+   *
+   * @param request the replay request
+   * @return the replay response with the number of entries replayed
+   * @throws BoomerangException if replaying fails
+   */
+  ReplayDLQResponse replayDLQ(ReplayDLQRequest request) throws BoomerangException;
+
   /**
    * Registers a new client (Admin only).
    *
@@ -1,5 +1,8 @@
 package io.boomerang.client;
 
+import io.boomerang.proto.CallbackAck;
+import io.boomerang.proto.CallbackBatchRequest;
+import io.boomerang.proto.CallbackBatchResponse;
 import io.boomerang.proto.CallbackRequest;
 import io.boomerang.proto.CallbackResponse;
 
@@ -18,4 +21,28 @@ public interface CallbackHandler {
    * @return the response acknowledging receipt of the callback
    */
   CallbackResponse onTaskExpired(CallbackRequest request);
+
+  /**
+   * Invoked when the server delivers several expired tasks at once, for clients registered with
+   * batch delivery.
+   *
+   * <p>The default implementation handles each task with {@link #onTaskExpired(CallbackRequest)}
+   * and acknowledges it with the status of its response. Tasks acknowledged with a status other
+   * than OK, or not acknowledged at all, are retried by the server.
+   *
+   * @param batch the callback requests of the expired tasks
+   * @return the acknowledgement of each task
+   */
+  default CallbackBatchResponse onTasksExpired(CallbackBatchRequest batch) {
+    CallbackBatchResponse.Builder response = CallbackBatchResponse.newBuilder();
+    for (CallbackRequest request : batch.getRequestsList()) {
+      CallbackResponse result = onTaskExpired(request);
+      response.addAcks(
+          CallbackAck.newBuilder()
+              .setTaskId(request.getTaskId())
+              .setStatus(result.getStatus())
+              .setErrorMessage(result.getErrorMessage()));
+    }
+    return response.build();
+  }
 }
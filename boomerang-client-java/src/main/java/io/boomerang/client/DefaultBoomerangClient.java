@@ -9,9 +9,17 @@ import io.boomerang.proto.ClientRegistrationRequest;
 import io.boomerang.proto.ClientRegistrationResponse;
 import io.boomerang.proto.GetTaskRequest;
 import io.boomerang.proto.GetTaskResponse;
+import io.boomerang.proto.ListDLQRequest;
+import io.boomerang.proto.ListDLQResponse;
 import io.boomerang.proto.ListTasksRequest;
 import io.boomerang.proto.ListTasksResponse;
+import io.boomerang.proto.PurgeDLQRequest;
+import io.boomerang.proto.PurgeDLQResponse;
 import io.boomerang.proto.RegistrationResponse;
+import io.boomerang.proto.ReplayDLQRequest;
+import io.boomerang.proto.ReplayDLQResponse;
+import io.boomerang.proto.RescheduleRequest;
+import io.boomerang.proto.RescheduleResponse;
 import io.boomerang.proto.Status;
 import io.boomerang.proto.Task;
 import java.io.DataInputStream;
@@ -126,6 +134,21 @@ public class DefaultBoomerangClient implements BoomerangClient {
     throw new BoomerangException("Unexpected response type: " + response.getPayloadCase());
   }
 
+  @Override
+  public RescheduleResponse reschedule(String taskId, long delayMs) throws BoomerangException {
+    RescheduleRequest request =
+        RescheduleRequest.newBuilder().setTaskId(taskId).setDelayMs(delayMs).build();
+    BoomerangEnvelope envelope = createEnvelope().toBuilder().setRescheduleRequest(request).build();
+    BoomerangEnvelope response = sendAndReceive(envelope);
+    if (response.hasRescheduleResponse()) {
+      checkStatus(
+          response.getRescheduleResponse().getStatus(),
+          response.getRescheduleResponse().getErrorMessage());
+      return response.getRescheduleResponse();
+    }
+    throw new BoomerangException("Unexpected response type: " + response.getPayloadCase());
+  }
+
   @Override
   public GetTaskResponse getTask(String taskId) throws BoomerangException {
     GetTaskRequest request = GetTaskRequest.newBuilder().setTaskId(taskId).build();
@@ -153,6 +176,45 @@ public class DefaultBoomerangClient implements BoomerangClient {
     throw new BoomerangException("Unexpected response type: " + response.getPayloadCase());
   }
 
+  @Override
+  public ListDLQResponse listDLQ(ListDLQRequest request) throws BoomerangException {
+    BoomerangEnvelope envelope = createEnvelope().toBuilder().setListDlqRequest(request).build();
+    BoomerangEnvelope response = sendAndReceive(envelope);
+    if (response.hasListDlqResponse()) {
+      checkStatus(
+          response.getListDlqResponse().getStatus(),
+          response.getListDlqResponse().getErrorMessage());
+      return response.getListDlqResponse();
+    }
+    throw new BoomerangException("Unexpected response type: " + response.getPayloadCase());
+  }
+
+  @Override
+  public PurgeDLQResponse purgeDLQ(PurgeDLQRequest request) throws BoomerangException {
+    BoomerangEnvelope envelope = createEnvelope().toBuilder().setPurgeDlqRequest(request).build();
+    BoomerangEnvelope response = sendAndReceive(envelope);
+    if (response.hasPurgeDlqResponse()) {
+      checkStatus(
+          response.getPurgeDlqResponse().getStatus(),
+          response.getPurgeDlqResponse().getErrorMessage());
+      return response.getPurgeDlqResponse();
+    }
+    throw new BoomerangException("Unexpected response type: " + response.getPayloadCase());
+  }
+
+  @Override
+  public ReplayDLQResponse replayDLQ(ReplayDLQRequest request) throws BoomerangException {
+    BoomerangEnvelope envelope = createEnvelope().toBuilder().setReplayDlqRequest(request).build();
+    BoomerangEnvelope response = sendAndReceive(envelope);
+    if (response.hasReplayDlqResponse()) {
+      checkStatus(
+          response.getReplayDlqResponse().getStatus(),
+          response.getReplayDlqResponse().getErrorMessage());
+      return response.getReplayDlqResponse();
+    }
+    throw new BoomerangException("Unexpected response type: " + response.getPayloadCase());
+  }
+
   @Override
   public ClientRegistrationResponse registerClient(ClientRegistrationRequest request)
       throws BoomerangException {
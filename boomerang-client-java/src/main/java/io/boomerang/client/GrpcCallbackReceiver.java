@@ -1,6 +1,8 @@
 package io.boomerang.client;
 
 import io.boomerang.proto.BoomerangCallbackGrpc;
+import io.boomerang.proto.CallbackBatchRequest;
+import io.boomerang.proto.CallbackBatchResponse;
 import io.boomerang.proto.CallbackRequest;
 import io.boomerang.proto.CallbackResponse;
 import io.grpc.Server;
@@ -51,6 +53,19 @@ public class GrpcCallbackReceiver implements CallbackReceiver {
         responseObserver.onError(e);
       }
     }
+
+    @Override
+    public void onTasksExpired(
+        CallbackBatchRequest request, StreamObserver<CallbackBatchResponse> responseObserver) {
+      try {
+        CallbackBatchResponse response = handler.onTasksExpired(request);
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+      } catch (Exception e) {
+        log.error("Error handling gRPC batch callback", e);
+        responseObserver.onError(e);
+      }
+    }
   }
 
   @Override
@@ -4,6 +4,7 @@ import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 import io.boomerang.proto.BoomerangEnvelope;
+import io.boomerang.proto.CallbackBatchResponse;
 import io.boomerang.proto.CallbackRequest;
 import io.boomerang.proto.CallbackResponse;
 import java.io.IOException;
@@ -63,12 +64,19 @@ public class HttpCallbackReceiver implements CallbackReceiver {
         byte[] inputData = is.readAllBytes();
         BoomerangEnvelope envelope = BoomerangEnvelope.parseFrom(inputData);
 
+        BoomerangEnvelope responseEnvelope = null;
         if (envelope.hasCallbackRequest()) {
           CallbackRequest request = envelope.getCallbackRequest();
           CallbackResponse response = handler.onTaskExpired(request);
+          responseEnvelope = BoomerangEnvelope.newBuilder().setCallbackResponse(response).build();
+        } else if (envelope.hasCallbackBatchRequest()) {
+          CallbackBatchResponse response =
+              handler.onTasksExpired(envelope.getCallbackBatchRequest());
+          responseEnvelope =
+              BoomerangEnvelope.newBuilder().setCallbackBatchResponse(response).build();
+        }
 
-          BoomerangEnvelope responseEnvelope =
-              BoomerangEnvelope.newBuilder().setCallbackResponse(response).build();
+        if (responseEnvelope != null) {
           byte[] responseBytes = responseEnvelope.toByteArray();
 
           exchange.sendResponseHeaders(200, responseBytes.length);
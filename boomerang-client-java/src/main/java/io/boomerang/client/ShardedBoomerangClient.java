@@ -0,0 +1,361 @@
+package io.boomerang.client;
+
+import io.boomerang.proto.ClientDeregistrationRequest;
+import io.boomerang.proto.ClientDeregistrationResponse;
+import io.boomerang.proto.ClientRegistrationRequest;
+import io.boomerang.proto.ClientRegistrationResponse;
+import io.boomerang.proto.GetTaskResponse;
+import io.boomerang.proto.ListDLQRequest;
+import io.boomerang.proto.ListDLQResponse;
+import io.boomerang.proto.ListTasksRequest;
+import io.boomerang.proto.ListTasksResponse;
+import io.boomerang.proto.PurgeDLQRequest;
+import io.boomerang.proto.PurgeDLQResponse;
+import io.boomerang.proto.RegistrationResponse;
+import io.boomerang.proto.ReplayDLQRequest;
+import io.boomerang.proto.ReplayDLQResponse;
+import io.boomerang.proto.RescheduleResponse;
+import io.boomerang.proto.Status;
+import io.boomerang.proto.Task;
+import io.boomerang.proto.TaskDetails;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link BoomerangClient} for a partitioned deployment, where each node owns a share of the task
+ * ID space.
+ *
+ * <p>Requests are routed as follows:
+ *
+ * <ul>
+ *   <li>{@code register} is spread round-robin over the nodes; the receiving node assigns a task ID
+ *       from its own partitions. A task registered under an ID chosen by the client goes to the
+ *       node owning that ID instead.
+ *   <li>{@code cancel}, {@code reschedule} and {@code getTask} go to the node owning the task ID,
+ *       as computed by {@link PartitionMap}.
+ *   <li>{@code listTasks} is scattered to all nodes in parallel and the pages are merged by
+ *       expiration time. The returned cursor tracks the position on every node.
+ *   <li>{@code listDLQ} is scattered the same way, since each node keeps its own dead-letter
+ *       queue; purging and replaying the DLQ are applied to every node.
+ *   <li>Client administration is applied to every node, since each node keeps its own client
+ *       store.
+ * </ul>
+ *
+ * <p>A request applied to every node is attempted on all of them even if it fails on some. It
+ * then throws a single {@link BoomerangException} naming the nodes it failed on, so that it can
+ * be retried.
+ *
+ * <p>The node list and partition count must match the servers' {@code cluster.nodes} and {@code
+ * cluster.partitions} settings.
+ *
+ * @since 0.1.0
+ */
+public class ShardedBoomerangClient implements BoomerangClient {
+  private static final Logger log = LoggerFactory.getLogger(ShardedBoomerangClient.class);
+  private static final Comparator<TaskDetails> BY_EXPIRATION =
+      Comparator.comparingLong(TaskDetails::getExpirationMs).thenComparing(TaskDetails::getTaskId);
+
+  private final PartitionMap partitionMap;
+  private final Map<String, BoomerangClient> clients = new LinkedHashMap<>();
+  private final AtomicInteger nextRegistrationNode = new AtomicInteger();
+  private final ExecutorService scatterExecutor;
+
+  /**
+   * Constructs a sharded client that connects to each node with a {@link DefaultBoomerangClient}.
+   *
+   * @param nodes the {@code host:port} addresses of all nodes; must be non-empty
+   * @param partitionCount the number of partitions; must match the servers
+   */
+  public ShardedBoomerangClient(List<String> nodes, int partitionCount) {
+    this(nodes, partitionCount, ShardedBoomerangClient::newNodeClient);
+  }
+
+  /**
+   * Constructs a sharded client with a custom per-node client, e.g., a {@link
+   * SmartBoomerangClient}.
+   *
+   * @param nodes the {@code host:port} addresses of all nodes; must be non-empty
+   * @param partitionCount the number of partitions; must match the servers
+   * @param clientFactory creates the client for a node address; must be non-null
+   */
+  public ShardedBoomerangClient(
+      List<String> nodes, int partitionCount, Function<String, BoomerangClient> clientFactory) {
+    this.partitionMap = new PartitionMap(nodes, partitionCount);
+    for (String node : partitionMap.getNodes()) {
+      clients.put(node, clientFactory.apply(node));
+    }
+    this.scatterExecutor =
+        Executors.newFixedThreadPool(
+            clients.size(),
+            r -> {
+              Thread t = new Thread(r, "boomerang-scatter");
+              t.setDaemon(true);
+              return t;
+            });
+  }
+
+  private static BoomerangClient newNodeClient(String address) {
+    int separator = address.lastIndexOf(':');
+    if (separator <= 0) {
+      throw new IllegalArgumentException("Invalid node address: " + address);
+    }
+    return new DefaultBoomerangClient(
+        address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)));
+  }
+
+  @Override
+  public void connect() throws BoomerangException {
+    clients.values().forEach(BoomerangClient::connect);
+  }
+
+  @Override
+  public void login(String clientId, String password) throws BoomerangException {
+    for (BoomerangClient client : clients.values()) {
+      client.login(clientId, password);
+    }
+  }
+
+  @Override
+  public RegistrationResponse register(Task task) throws BoomerangException {
+    if (!task.getTaskId().isEmpty()) {
+      return ownerOf(task.getTaskId()).register(task);
+    }
+    List<String> nodes = partitionMap.getNodes();
+    String node = nodes.get(Math.floorMod(nextRegistrationNode.getAndIncrement(), nodes.size()));
+    return clients.get(node).register(task);
+  }
+
+  @Override
+  public boolean cancel(String taskId) throws BoomerangException {
+    return ownerOf(taskId).cancel(taskId);
+  }
+
+  @Override
+  public RescheduleResponse reschedule(String taskId, long delayMs) throws BoomerangException {
+    return ownerOf(taskId).reschedule(taskId, delayMs);
+  }
+
+  @Override
+  public GetTaskResponse getTask(String taskId) throws BoomerangException {
+    return ownerOf(taskId).getTask(taskId);
+  }
+
+  @Override
+  public ListTasksResponse listTasks(ListTasksRequest request) throws BoomerangException {
+    Map<String, String> cursors = decodeCursor(request.getNextToken());
+    int perNodeLimit =
+        request.getLimit() > 0 ? Math.ceilDiv(request.getLimit(), Math.max(1, cursors.size())) : 0;
+
+    Map<String, CompletableFuture<ListTasksResponse>> pages = new LinkedHashMap<>();
+    cursors.forEach(
+        (node, token) -> {
+          ListTasksRequest nodeRequest =
+              request.toBuilder().setLimit(perNodeLimit).setNextToken(token).build();
+          pages.put(
+              node,
+              CompletableFuture.supplyAsync(
+                  () -> clients.get(node).listTasks(nodeRequest), scatterExecutor));
+        });
+
+    List<TaskDetails> tasks = new ArrayList<>();
+    Map<String, String> nextCursors = new LinkedHashMap<>();
+    for (Map.Entry<String, CompletableFuture<ListTasksResponse>> page : pages.entrySet()) {
+      ListTasksResponse response = join(page.getValue(), "list tasks");
+      tasks.addAll(response.getTasksList());
+      if (!response.getNextToken().isEmpty()) {
+        nextCursors.put(page.getKey(), response.getNextToken());
+      }
+    }
+    tasks.sort(BY_EXPIRATION);
+
+    ListTasksResponse.Builder merged =
+        ListTasksResponse.newBuilder().setStatus(Status.OK).addAllTasks(tasks);
+    if (!nextCursors.isEmpty()) {
+      merged.setNextToken(encodeCursor(nextCursors));
+    }
+    return merged.build();
+  }
+
+  @Override
+  public ListDLQResponse listDLQ(ListDLQRequest request) throws BoomerangException {
+    Map<String, String> cursors = decodeCursor(request.getNextToken());
+    int perNodeLimit =
+        request.getLimit() > 0 ? Math.ceilDiv(request.getLimit(), Math.max(1, cursors.size())) : 0;
+
+    Map<String, CompletableFuture<ListDLQResponse>> pages = new LinkedHashMap<>();
+    cursors.forEach(
+        (node, token) -> {
+          ListDLQRequest nodeRequest =
+              request.toBuilder().setLimit(perNodeLimit).setNextToken(token).build();
+          pages.put(
+              node,
+              CompletableFuture.supplyAsync(
+                  () -> clients.get(node).listDLQ(nodeRequest), scatterExecutor));
+        });
+
+    ListDLQResponse.Builder merged = ListDLQResponse.newBuilder().setStatus(Status.OK);
+    Map<String, String> nextCursors = new LinkedHashMap<>();
+    for (Map.Entry<String, CompletableFuture<ListDLQResponse>> page : pages.entrySet()) {
+      ListDLQResponse response = join(page.getValue(), "list dead-letter queue");
+      merged.addAllEntries(response.getEntriesList());
+      if (!response.getNextToken().isEmpty()) {
+        nextCursors.put(page.getKey(), response.getNextToken());
+      }
+    }
+    if (!nextCursors.isEmpty()) {
+      merged.setNextToken(encodeCursor(nextCursors));
+    }
+    return merged.build();
+  }
+
+  @Override
+  public PurgeDLQResponse purgeDLQ(PurgeDLQRequest request) throws BoomerangException {
+    applyToAllNodes("purge dead-letter queue", nodeClient -> nodeClient.purgeDLQ(request));
+    return PurgeDLQResponse.newBuilder().setStatus(Status.OK).build();
+  }
+
+  @Override
+  public ReplayDLQResponse replayDLQ(ReplayDLQRequest request) throws BoomerangException {
+    // The limit applies per node.
+    long replayed =
+        applyToAllNodes("replay dead-letter queue", nodeClient -> nodeClient.replayDLQ(request))
+            .values()
+            .stream()
+            .mapToLong(ReplayDLQResponse::getReplayedCount)
+            .sum();
+    return ReplayDLQResponse.newBuilder().setStatus(Status.OK).setReplayedCount(replayed).build();
+  }
+
+  @Override
+  public ClientRegistrationResponse registerClient(ClientRegistrationRequest request)
+      throws BoomerangException {
+    applyToAllNodes("register client", nodeClient -> nodeClient.registerClient(request));
+    return ClientRegistrationResponse.newBuilder().setStatus(Status.OK).build();
+  }
+
+  @Override
+  public ClientDeregistrationResponse deregisterClient(ClientDeregistrationRequest request)
+      throws BoomerangException {
+    applyToAllNodes("deregister client", nodeClient -> nodeClient.deregisterClient(request));
+    return ClientDeregistrationResponse.newBuilder().setStatus(Status.OK).build();
+  }
+
+  /**
+   * Applies a request to every node, including the nodes after one that failed, so that a failure
+   * on one node does not leave the others unchanged.
+   *
+   * @return the response of each node, by node
+   * @throws BoomerangException if the request failed on any node; the message names those nodes
+   */
+  private <T> Map<String, T> applyToAllNodes(
+      String operation, Function<BoomerangClient, T> request) {
+    Map<String, T> responses = new LinkedHashMap<>();
+    Map<String, RuntimeException> failures = new LinkedHashMap<>();
+    for (Map.Entry<String, BoomerangClient> node : clients.entrySet()) {
+      try {
+        responses.put(node.getKey(), request.apply(node.getValue()));
+      } catch (RuntimeException e) {
+        log.warn("Failed to {} on node {}: {}", operation, node.getKey(), e.getMessage());
+        failures.put(node.getKey(), e);
+      }
+    }
+    if (failures.isEmpty()) {
+      return responses;
+    }
+    RuntimeException first = failures.values().iterator().next();
+    BoomerangException error =
+        new BoomerangException(
+            String.format(
+                "Failed to %s on %d of %d nodes %s: %s",
+                operation, failures.size(), clients.size(), failures.keySet(), first.getMessage()),
+            first);
+    failures.values().stream().skip(1).forEach(error::addSuppressed);
+    throw error;
+  }
+
+  /**
+   * Gets the session ID held with the first node.
+   *
+   * @return the session ID, or {@code null} if not logged in
+   */
+  @Override
+  public String getSessionId() {
+    return clients.values().iterator().next().getSessionId();
+  }
+
+  private BoomerangClient ownerOf(String taskId) {
+    String owner = partitionMap.ownerOf(taskId);
+    log.debug("Routing task {} to node {}", taskId, owner);
+    return clients.get(owner);
+  }
+
+  private static <T> T join(CompletableFuture<T> page, String operation) {
+    try {
+      return page.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof BoomerangException boomerangException) {
+        throw boomerangException;
+      }
+      throw new BoomerangException(
+          "Failed to " + operation + ": " + e.getMessage(), e.getCause());
+    }
+  }
+
+  /** A cursor lists, for every node that still has tasks, that node's own cursor. */
+  private Map<String, String> decodeCursor(String token) {
+    Map<String, String> cursors = new LinkedHashMap<>();
+    if (token == null || token.isEmpty()) {
+      partitionMap.getNodes().forEach(node -> cursors.put(node, ""));
+      return cursors;
+    }
+
+    String decoded;
+    try {
+      decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new BoomerangException("Invalid list cursor", e);
+    }
+    for (String line : decoded.split("\n")) {
+      int separator = line.indexOf('\t');
+      String node = separator > 0 ? line.substring(0, separator) : null;
+      if (node == null || !clients.containsKey(node)) {
+        throw new BoomerangException("Invalid list cursor");
+      }
+      cursors.put(node, line.substring(separator + 1));
+    }
+    return cursors;
+  }
+
+  private static String encodeCursor(Map<String, String> cursors) {
+    StringBuilder sb = new StringBuilder();
+    cursors.forEach(
+        (node, token) -> {
+          if (!sb.isEmpty()) {
+            sb.append('\n');
+          }
+          sb.append(node).append('\t').append(token);
+        });
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public void close() {
+    scatterExecutor.shutdownNow();
+    clients.values().forEach(BoomerangClient::close);
+  }
+}
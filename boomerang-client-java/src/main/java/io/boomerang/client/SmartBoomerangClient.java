@@ -5,9 +5,16 @@ import io.boomerang.proto.ClientDeregistrationResponse;
 import io.boomerang.proto.ClientRegistrationRequest;
 import io.boomerang.proto.ClientRegistrationResponse;
 import io.boomerang.proto.GetTaskResponse;
+import io.boomerang.proto.ListDLQRequest;
+import io.boomerang.proto.ListDLQResponse;
 import io.boomerang.proto.ListTasksRequest;
 import io.boomerang.proto.ListTasksResponse;
+import io.boomerang.proto.PurgeDLQRequest;
+import io.boomerang.proto.PurgeDLQResponse;
 import io.boomerang.proto.RegistrationResponse;
+import io.boomerang.proto.ReplayDLQRequest;
+import io.boomerang.proto.ReplayDLQResponse;
+import io.boomerang.proto.RescheduleResponse;
 import io.boomerang.proto.Task;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +66,11 @@ public class SmartBoomerangClient implements BoomerangClient {
     return executeWithRetry(() -> delegate.cancel(taskId));
   }
 
+  @Override
+  public RescheduleResponse reschedule(String taskId, long delayMs) throws BoomerangException {
+    return executeWithRetry(() -> delegate.reschedule(taskId, delayMs));
+  }
+
   @Override
   public GetTaskResponse getTask(String taskId) throws BoomerangException {
     return executeWithRetry(() -> delegate.getTask(taskId));
@@ -69,6 +81,21 @@ public class SmartBoomerangClient implements BoomerangClient {
     return executeWithRetry(() -> delegate.listTasks(request));
   }
 
+  @Override
+  public ListDLQResponse listDLQ(ListDLQRequest request) throws BoomerangException {
+    return executeWithRetry(() -> delegate.listDLQ(request));
+  }
+
+  @Override
+  public PurgeDLQResponse purgeDLQ(PurgeDLQRequest request) throws BoomerangException {
+    return executeWithRetry(() -> delegate.purgeDLQ(request));
+  }
+
+  @Override
+  public ReplayDLQResponse replayDLQ(ReplayDLQRequest request) throws BoomerangException {
+    return executeWithRetry(() -> delegate.replayDLQ(request));
+  }
+
   @Override
   public ClientRegistrationResponse registerClient(ClientRegistrationRequest request)
       throws BoomerangException {
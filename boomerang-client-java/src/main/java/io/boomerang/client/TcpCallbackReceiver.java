@@ -1,6 +1,7 @@
 package io.boomerang.client;
 
 import io.boomerang.proto.BoomerangEnvelope;
+import io.boomerang.proto.CallbackBatchResponse;
 import io.boomerang.proto.CallbackRequest;
 import io.boomerang.proto.CallbackResponse;
 import java.io.DataInputStream;
@@ -71,12 +72,18 @@ public class TcpCallbackReceiver implements CallbackReceiver {
       inputStream.readFully(payload);
 
       BoomerangEnvelope envelope = BoomerangEnvelope.parseFrom(payload);
+      BoomerangEnvelope responseEnvelope = null;
       if (envelope.hasCallbackRequest()) {
         CallbackRequest request = envelope.getCallbackRequest();
         CallbackResponse response = handler.onTaskExpired(request);
+        responseEnvelope = BoomerangEnvelope.newBuilder().setCallbackResponse(response).build();
+      } else if (envelope.hasCallbackBatchRequest()) {
+        CallbackBatchResponse response = handler.onTasksExpired(envelope.getCallbackBatchRequest());
+        responseEnvelope =
+            BoomerangEnvelope.newBuilder().setCallbackBatchResponse(response).build();
+      }
 
-        BoomerangEnvelope responseEnvelope =
-            BoomerangEnvelope.newBuilder().setCallbackResponse(response).build();
+      if (responseEnvelope != null) {
         byte[] responseBytes = responseEnvelope.toByteArray();
         outputStream.writeInt(responseBytes.length);
         outputStream.write(responseBytes);
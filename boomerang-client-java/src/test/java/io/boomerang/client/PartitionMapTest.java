@@ -0,0 +1,22 @@
+package io.boomerang.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PartitionMapTest {
+
+  @Test
+  void testMatchesServerMapping() {
+    // These values are shared with the server's PartitionMapTest; both sides must agree.
+    PartitionMap map =
+        new PartitionMap(List.of("localhost:9973", "localhost:9974", "localhost:9975"), 256);
+
+    assertEquals(125, map.partitionOf("task-1"));
+    assertEquals("localhost:9975", map.ownerOf("task-1"));
+    assertEquals(215, map.partitionOf("task-2"));
+    assertEquals("localhost:9973", map.ownerOf("task-2"));
+    assertEquals(8, map.partitionOf("3f2504e0-4f89-11d3-9a0c-0305e82c3301"));
+  }
+}
@@ -0,0 +1,156 @@
+package io.boomerang.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.boomerang.proto.ClientDeregistrationRequest;
+import io.boomerang.proto.ListTasksRequest;
+import io.boomerang.proto.ListTasksResponse;
+import io.boomerang.proto.ReplayDLQRequest;
+import io.boomerang.proto.ReplayDLQResponse;
+import io.boomerang.proto.Status;
+import io.boomerang.proto.Task;
+import io.boomerang.proto.TaskDetails;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShardedBoomerangClientTest {
+  private static final List<String> NODES =
+      List.of("localhost:9973", "localhost:9974", "localhost:9975");
+
+  private final Map<String, BoomerangClient> nodeClients = new LinkedHashMap<>();
+  private ShardedBoomerangClient client;
+
+  @BeforeEach
+  void setUp() {
+    NODES.forEach(node -> nodeClients.put(node, mock(BoomerangClient.class)));
+    client = new ShardedBoomerangClient(NODES, 256, nodeClients::get);
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close();
+  }
+
+  @Test
+  void testRoutesTaskRequestsToOwner() {
+    when(nodeClients.get("localhost:9975").cancel("task-1")).thenReturn(true);
+
+    assertTrue(client.cancel("task-1"));
+    client.getTask("task-2");
+
+    verify(nodeClients.get("localhost:9975")).cancel("task-1");
+    verify(nodeClients.get("localhost:9973")).getTask("task-2");
+    verify(nodeClients.get("localhost:9974"), never()).cancel(any());
+  }
+
+  @Test
+  void testRoutesRegistrationWithChosenIdToOwner() {
+    Task task = Task.newBuilder().setTaskId("task-1").build();
+    for (int i = 0; i < NODES.size(); i++) {
+      client.register(task);
+    }
+
+    verify(nodeClients.get("localhost:9975"), times(3)).register(task);
+    verify(nodeClients.get("localhost:9973"), never()).register(any());
+  }
+
+  @Test
+  void testSpreadsRegistrationsAcrossNodes() {
+    Task task = Task.getDefaultInstance();
+    for (int i = 0; i < NODES.size(); i++) {
+      client.register(task);
+    }
+
+    nodeClients.values().forEach(nodeClient -> verify(nodeClient).register(task));
+  }
+
+  @Test
+  void testBroadcastsClientAdministration() {
+    ClientDeregistrationRequest request =
+        ClientDeregistrationRequest.newBuilder().setClientId("tenant").build();
+
+    client.deregisterClient(request);
+
+    nodeClients.values().forEach(nodeClient -> verify(nodeClient).deregisterClient(request));
+  }
+
+  @Test
+  void testAttemptsClientAdministrationOnEveryNodeDespiteFailures() {
+    ClientDeregistrationRequest request =
+        ClientDeregistrationRequest.newBuilder().setClientId("tenant").build();
+    when(nodeClients.get("localhost:9973").deregisterClient(request))
+        .thenThrow(new BoomerangException("connection refused"));
+
+    BoomerangException e =
+        assertThrows(BoomerangException.class, () -> client.deregisterClient(request));
+
+    assertTrue(e.getMessage().contains("localhost:9973"));
+    assertFalse(e.getMessage().contains("localhost:9974"));
+    nodeClients.values().forEach(nodeClient -> verify(nodeClient).deregisterClient(request));
+  }
+
+  @Test
+  void testReplaysDlqOnEveryNode() {
+    ReplayDLQRequest request = ReplayDLQRequest.newBuilder().setClientId("tenant").build();
+    for (BoomerangClient nodeClient : nodeClients.values()) {
+      when(nodeClient.replayDLQ(request))
+          .thenReturn(
+              ReplayDLQResponse.newBuilder().setStatus(Status.OK).setReplayedCount(2).build());
+    }
+
+    assertEquals(6, client.replayDLQ(request).getReplayedCount());
+  }
+
+  @Test
+  void testScatterGathersListTasks() {
+    when(nodeClients.get("localhost:9973").listTasks(any()))
+        .thenReturn(page("next-a", task("a1", 300), task("a2", 100)));
+    when(nodeClients.get("localhost:9974").listTasks(any())).thenReturn(page("", task("b1", 200)));
+    when(nodeClients.get("localhost:9975").listTasks(any())).thenReturn(page(""));
+
+    ListTasksResponse first = client.listTasks(ListTasksRequest.newBuilder().setLimit(6).build());
+
+    List<String> taskIds = first.getTasksList().stream().map(TaskDetails::getTaskId).toList();
+    assertEquals(List.of("a2", "b1", "a1"), taskIds);
+    assertTrue(!first.getNextToken().isEmpty());
+    verify(nodeClients.get("localhost:9973"))
+        .listTasks(ListTasksRequest.newBuilder().setLimit(2).build());
+
+    // The next page only asks the node that still has tasks, with its own cursor.
+    when(nodeClients.get("localhost:9973").listTasks(any())).thenReturn(page("", task("a3", 400)));
+    ListTasksResponse second =
+        client.listTasks(
+            ListTasksRequest.newBuilder().setLimit(6).setNextToken(first.getNextToken()).build());
+
+    assertEquals(1, second.getTasksCount());
+    assertEquals(Status.OK, second.getStatus());
+    assertTrue(second.getNextToken().isEmpty());
+    verify(nodeClients.get("localhost:9973"))
+        .listTasks(ListTasksRequest.newBuilder().setLimit(6).setNextToken("next-a").build());
+  }
+
+  private static TaskDetails task(String taskId, long expirationMs) {
+    return TaskDetails.newBuilder().setTaskId(taskId).setExpirationMs(expirationMs).build();
+  }
+
+  private static ListTasksResponse page(String nextToken, TaskDetails... tasks) {
+    return ListTasksResponse.newBuilder()
+        .setStatus(Status.OK)
+        .addAllTasks(List.of(tasks))
+        .setNextToken(nextToken)
+        .build();
+  }
+}
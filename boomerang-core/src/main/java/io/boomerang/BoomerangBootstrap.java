@@ -4,27 +4,46 @@ import io.boomerang.auth.AuthService;
 import io.boomerang.auth.ClientStore;
 import io.boomerang.auth.RocksDBClientStore;
 import io.boomerang.config.ServerConfig;
+import io.boomerang.replication.ReplicatingTaskStore;
+import io.boomerang.replication.ReplicationClient;
+import io.boomerang.replication.ReplicationLog;
+import io.boomerang.replication.ReplicationRole;
+import io.boomerang.replication.ReplicationServer;
 import io.boomerang.server.BoomerangServer;
+import io.boomerang.server.NettyTransport;
+import io.boomerang.server.callback.CallbackBatcher;
 import io.boomerang.server.callback.CallbackDispatcher;
+import io.boomerang.server.callback.CallbackException;
+import io.boomerang.server.callback.CircuitBreakers;
 import io.boomerang.server.callback.DefaultCallbackDispatcher;
+import io.boomerang.server.callback.EndpointParking;
+import io.boomerang.server.callback.EndpointUnavailableException;
 import io.boomerang.server.callback.GrpcCallbackHandler;
 import io.boomerang.server.callback.HttpCallbackHandler;
 import io.boomerang.server.callback.TcpCallbackHandler;
 import io.boomerang.server.callback.UdpCallbackHandler;
 import io.boomerang.session.SessionManager;
+import io.boomerang.timer.DLQService;
 import io.boomerang.timer.DLQStore;
 import io.boomerang.timer.DefaultRetryEngine;
 import io.boomerang.timer.LongTermTaskStore;
+import io.boomerang.timer.ParkedTaskStore;
 import io.boomerang.timer.RetryEngine;
 import io.boomerang.timer.RocksDBDLQStore;
 import io.boomerang.timer.RocksDBLongTermTaskStore;
+import io.boomerang.timer.RocksDBParkedTaskStore;
 import io.boomerang.timer.TieredTimer;
 import io.boomerang.timer.Timer;
 import io.boomerang.timer.TimerTask;
+import io.netty.channel.WriteBufferWaterMark;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +54,11 @@ import org.slf4j.LoggerFactory;
  * <p>This class coordinates the startup sequence, including registering the administrative client
  * and setting up auth and session services, as well as the task scheduling engine.
  *
+ * <p>With replication enabled, a primary streams its task store changes to followers. A follower
+ * keeps a standby timer in sync and only starts serving clients and dispatching tasks once it is
+ * promoted, either explicitly through {@link #promote()} or automatically after losing contact with
+ * its primary.
+ *
  * @since 1.0.0
  */
 public class BoomerangBootstrap {
@@ -45,11 +69,18 @@ public class BoomerangBootstrap {
   private final ClientStore clientStore;
   private final LongTermTaskStore taskStore;
   private final DLQStore dlqStore;
+  private final DLQService dlqService;
+  private final ParkedTaskStore parkedTaskStore;
+  private final EndpointParking endpointParking;
   private final RetryEngine retryEngine;
   private final CallbackDispatcher callbackDispatcher;
-  private final Timer timer;
+  private final TieredTimer timer;
   private final BoomerangServer server;
   private final ExecutorService callbackExecutor;
+  private final ReplicationRole replicationRole;
+  private final ReplicationServer replicationServer;
+  private final ReplicationClient replicationClient;
+  private ScheduledExecutorService failoverMonitor;
 
   /**
    * Constructs a bootstrap instance with the provided server configuration.
@@ -62,33 +93,98 @@ public class BoomerangBootstrap {
     this.sessionManager = new SessionManager(serverConfig);
     this.authService = new AuthService(clientStore, serverConfig, sessionManager);
 
+    NettyTransport transport = NettyTransport.select(serverConfig.getNettyTransport());
+
     // Initialize task storage and scheduling engine
-    this.taskStore = new RocksDBLongTermTaskStore(serverConfig);
+    this.replicationRole = ReplicationRole.of(serverConfig.getReplicationRole());
+    LongTermTaskStore localTaskStore = new RocksDBLongTermTaskStore(serverConfig);
+    if (replicationRole == ReplicationRole.STANDALONE) {
+      this.taskStore = localTaskStore;
+      this.replicationServer = null;
+    } else {
+      // Followers record their changes too, so that they can serve followers once promoted.
+      ReplicationLog replicationLog = new ReplicationLog(serverConfig.getReplicationLogCapacity());
+      this.taskStore = new ReplicatingTaskStore(localTaskStore, replicationLog);
+      this.replicationServer =
+          new ReplicationServer(
+              replicationLog,
+              localTaskStore,
+              serverConfig.getReplicationBindAddress(),
+              serverConfig.getReplicationPort(),
+              serverConfig.getReplicationHeartbeatIntervalMs(),
+              serverConfig.getEncryptionMasterKey(),
+              transport);
+    }
     this.dlqStore = new RocksDBDLQStore(serverConfig);
+    this.parkedTaskStore = new RocksDBParkedTaskStore(serverConfig);
 
     this.callbackExecutor =
-        Executors.newFixedThreadPool(
+        new ThreadPoolExecutor(
+            serverConfig.getCallbackThreads(),
             serverConfig.getCallbackThreads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            // Bounded so that expiry bursts spill back to the task store instead of the heap.
+            new ArrayBlockingQueue<>(serverConfig.getCallbackQueueCapacity()),
             r -> {
               Thread t = new Thread(r, "callback-executor");
               t.setDaemon(true);
               return t;
             });
 
-    // Initialize callback engine
+    // Tasks of endpoints whose circuit breaker is open are parked rather than retried, and
+    // released again once a probe finds the endpoint recovered.
+    this.endpointParking =
+        new EndpointParking(
+            parkedTaskStore,
+            taskStore,
+            this::releaseParkedTask,
+            serverConfig.getCallbackBreakerOpenMs(),
+            serverConfig.getCallbackBreakerDrainRatePerSecond());
+    CircuitBreakers circuitBreakers =
+        new CircuitBreakers(
+            serverConfig.getCallbackBreakerFailureThreshold(),
+            serverConfig.getCallbackBreakerOpenMs(),
+            endpointParking);
+
+    // Initialize callback engine. Clients that opted in to batch delivery get their tasks through
+    // the batcher, which reports each task's outcome once its batch has been delivered.
+    CallbackBatcher callbackBatcher =
+        new CallbackBatcher(
+            serverConfig.getCallbackBatchMaxSize(),
+            serverConfig.getCallbackBatchThreads(),
+            circuitBreakers,
+            new CallbackBatcher.Listener() {
+              @Override
+              public void onDelivered(TimerTask task) {
+                completeTask(task);
+              }
+
+              @Override
+              public void onFailed(Map<TimerTask, CallbackException> failures) {
+                retryEngine.handleFailures(failures);
+              }
+            });
     this.callbackDispatcher =
         new DefaultCallbackDispatcher(
             clientStore,
             List.of(
                 new TcpCallbackHandler(
                     serverConfig.getCallbackTcpTimeoutMs(),
-                    serverConfig.getCallbackTcpPoolMaxConnections()),
+                    serverConfig.getCallbackTcpPoolMaxConnections(),
+                    transport,
+                    serverConfig.isNettyTcpNoDelay(),
+                    new WriteBufferWaterMark(
+                        serverConfig.getNettyWriteBufferLowWaterMark(),
+                        serverConfig.getNettyWriteBufferHighWaterMark())),
                 new HttpCallbackHandler(Duration.ofMillis(serverConfig.getCallbackHttpTimeoutMs())),
                 new UdpCallbackHandler(),
                 new GrpcCallbackHandler(
                     serverConfig.getCallbackGrpcTimeoutMs(),
                     serverConfig.getCallbackGrpcPoolMaxChannels(),
-                    serverConfig.getCallbackGrpcIdleTimeoutMs())));
+                    serverConfig.getCallbackGrpcIdleTimeoutMs())),
+            callbackBatcher,
+            circuitBreakers);
 
     // The retry engine needs to reschedule tasks using the timer
     this.retryEngine = new DefaultRetryEngine(clientStore, taskStore, dlqStore, this::resubmitTask);
@@ -99,16 +195,14 @@ public class BoomerangBootstrap {
                 callbackExecutor.submit(
                     () -> {
                       try {
-                        // Dispatch the task to the registered callback endpoint
-                        callbackDispatcher.dispatch(task);
-
-                        // Task successfully dispatched (or handled by external engine)
-                        taskStore.delete(task);
-
-                        // Automatic rescheduling for repeatable tasks only on SUCCESSFUL dispatch.
-                        if (task.getRepeatIntervalMs() > 0) {
-                          resubmitTask(task.nextCycle());
+                        // Dispatch the task to the registered callback endpoint, unless it is
+                        // held back to be delivered in a batch.
+                        if (callbackDispatcher.dispatchOrBatch(task)) {
+                          completeTask(task);
                         }
+                      } catch (EndpointUnavailableException e) {
+                        // The endpoint was not contacted, so no attempt is used up.
+                        endpointParking.park(e.getEndpoint(), task);
                       } catch (Exception e) {
                         log.error(
                             "Failed to dispatch task {}: {}", task.getTaskId(), e.getMessage());
@@ -116,28 +210,125 @@ public class BoomerangBootstrap {
                       }
                     }),
             taskStore,
-            serverConfig);
+            serverConfig,
+            replicationRole == ReplicationRole.FOLLOWER);
 
-    this.server = new BoomerangServer(serverConfig, authService, sessionManager, timer);
+    this.replicationClient =
+        replicationRole == ReplicationRole.FOLLOWER
+            ? new ReplicationClient(
+                serverConfig.getReplicationPrimaryAddress(),
+                timer,
+                taskStore,
+                serverConfig.getReplicationHeartbeatIntervalMs(),
+                serverConfig.getEncryptionMasterKey(),
+                transport)
+            : null;
+
+    this.dlqService =
+        new DLQService(
+            dlqStore,
+            timer,
+            clientStore,
+            serverConfig.getDlqReplayRatePerSecond(),
+            serverConfig.getDlqRetentionMs());
+    this.server = new BoomerangServer(serverConfig, authService, sessionManager, timer, dlqService);
   }
 
-  private void resubmitTask(TimerTask task) {
+  private void completeTask(TimerTask task) {
+    // Automatic rescheduling for repeatable tasks only on SUCCESSFUL dispatch.
+    // The next cycle replaces the one that fired, so it is not deleted.
+    if (task.isRecurring()) {
+      timer.advanceCycle(task);
+    } else {
+      // Task successfully dispatched (or handled by external engine)
+      taskStore.delete(task);
+    }
+  }
+
+  private void releaseParkedTask(TimerTask task) {
     if (timer != null) {
       timer.add(task);
     }
   }
 
+  private void resubmitTask(TimerTask task) {
+    if (timer != null) {
+      timer.retry(task);
+    }
+  }
+
   /** Starts the Boomerang core services. */
   public void start() {
     log.info("Starting Boomerang core...");
+    if (replicationRole == ReplicationRole.FOLLOWER) {
+      startFollower();
+      return;
+    }
+    startServing();
+  }
+
+  private void startServing() {
+    dlqService.start(serverConfig.getDlqRetentionCheckIntervalMs());
     try {
       server.start();
+      if (replicationServer != null) {
+        replicationServer.start();
+      }
     } catch (InterruptedException e) {
       log.error("Failed to start Boomerang server", e);
       Thread.currentThread().interrupt();
     }
   }
 
+  private void startFollower() {
+    log.info("Following primary {} as a standby", serverConfig.getReplicationPrimaryAddress());
+    replicationClient.start();
+
+    long promoteAfterMs = serverConfig.getReplicationPromoteAfterMs();
+    if (promoteAfterMs <= 0) {
+      return;
+    }
+    long checkIntervalMs = Math.max(1, serverConfig.getReplicationHeartbeatIntervalMs());
+    failoverMonitor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "replication-failover");
+              t.setDaemon(true);
+              return t;
+            });
+    failoverMonitor.scheduleWithFixedDelay(
+        () -> {
+          long silentMs = System.currentTimeMillis() - replicationClient.getLastContactMs();
+          // Never promote a follower that has not caught up with the primary at least once.
+          if (replicationClient.isSynced() && silentMs > promoteAfterMs) {
+            log.warn("No contact with primary for {} ms, promoting this follower", silentMs);
+            promote();
+          }
+        },
+        checkIntervalMs,
+        checkIntervalMs,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Promotes this follower to primary.
+   *
+   * <p>The follower stops replicating, starts dispatching the tasks it holds, and starts serving
+   * clients and followers of its own. Nothing happens if this node is not a standby follower.
+   */
+  public synchronized void promote() {
+    if (!timer.isStandby()) {
+      return;
+    }
+    log.info("Promoting follower to primary");
+    if (failoverMonitor != null) {
+      failoverMonitor.shutdown();
+    }
+    replicationClient.stop();
+    timer.promote();
+    startServing();
+  }
+
   /**
    * Closes the Boomerang core services and releases resources.
    *
@@ -145,10 +336,19 @@ public class BoomerangBootstrap {
    */
   public void close() throws Exception {
     log.info("Stopping Boomerang core...");
-    // 1. Stop accepting new inbound tasks
+    // 1. Stop accepting new inbound tasks and replicated changes
     if (server != null) {
       server.stop();
     }
+    if (failoverMonitor != null) {
+      failoverMonitor.shutdownNow();
+    }
+    if (replicationClient != null) {
+      replicationClient.stop();
+    }
+    if (replicationServer != null) {
+      replicationServer.stop();
+    }
 
     // 2. Stop the timer to prevent new tasks from firing
     if (timer != null) {
@@ -163,18 +363,33 @@ public class BoomerangBootstrap {
       }
     }
 
-    // 4. Shut down protocol-specific handlers (e.g., connection pools)
+    // 4. Stop releasing parked tasks and expiring dead letters, and shut down protocol-specific
+    // handlers (e.g., connection pools)
+    if (endpointParking != null) {
+      endpointParking.shutdown();
+    }
+    if (dlqService != null) {
+      dlqService.shutdown();
+    }
     if (callbackDispatcher != null) {
       callbackDispatcher.shutdown();
     }
 
-    // 5. Close persistent stores
+    // 5. Stop the authentication executor
+    if (authService != null) {
+      authService.shutdown();
+    }
+
+    // 6. Close persistent stores
     if (taskStore instanceof AutoCloseable ac) {
       ac.close();
     }
     if (dlqStore instanceof AutoCloseable ac) {
       ac.close();
     }
+    if (parkedTaskStore instanceof AutoCloseable ac) {
+      ac.close();
+    }
     if (clientStore != null) {
       clientStore.close();
     }
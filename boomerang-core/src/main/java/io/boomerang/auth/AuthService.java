@@ -1,17 +1,30 @@
 package io.boomerang.auth;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.boomerang.config.ServerConfig;
 import io.boomerang.model.CallbackConfig;
 import io.boomerang.model.Client;
 import io.boomerang.model.DLQPolicy;
 import io.boomerang.model.RetryPolicy;
 import io.boomerang.model.Session;
+import io.boomerang.ratelimit.KeyedRateLimiter;
+import io.boomerang.ratelimit.TokenBucket;
 import io.boomerang.session.SessionManager;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 import org.slf4j.Logger;
@@ -23,6 +36,12 @@ import org.slf4j.LoggerFactory;
  * <p>This service manages client credentials using PBKDF2 hashing with a unique salt for each
  * client. It also manages default execution policies for each client.
  *
+ * <p>Network-initiated logins go through {@link #authenticateAsync(String, String)}, which runs the
+ * PBKDF2 verification on a dedicated bounded executor behind per-client and global rate limits, so
+ * that a reconnect storm cannot occupy the threads serving task registrations. Successfully
+ * verified credentials are remembered for a short period to avoid repeating PBKDF2 for the same
+ * password.
+ *
  * @since 1.0.0
  */
 public class AuthService {
@@ -34,6 +53,13 @@ public class AuthService {
   private static final int ITERATIONS = 10000;
   private static final int KEY_LENGTH = 256;
   private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+  private static final ThreadLocal<SecretKeyFactory> KEY_FACTORY =
+      ThreadLocal.withInitial(AuthService::newKeyFactory);
+  private final ExecutorService authExecutor;
+  private final TokenBucket globalAuthLimiter;
+  private final KeyedRateLimiter clientAuthLimiter;
+  private final Cache<String, VerifiedCredential> verifiedCredentials;
+  private final byte[] credentialPepper = new byte[32];
 
   /**
    * Constructs an authentication service.
@@ -47,6 +73,33 @@ public class AuthService {
     this.clientStore = clientStore;
     this.serverConfig = serverConfig;
     this.sessionManager = sessionManager;
+    this.authExecutor =
+        new ThreadPoolExecutor(
+            serverConfig.getAuthThreads(),
+            serverConfig.getAuthThreads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(serverConfig.getAuthQueueCapacity()),
+            r -> {
+              Thread t = new Thread(r, "auth-executor");
+              t.setDaemon(true);
+              return t;
+            });
+    this.globalAuthLimiter =
+        new TokenBucket(
+            serverConfig.getAuthGlobalRatePerSecond(), serverConfig.getAuthGlobalRatePerSecond());
+    this.clientAuthLimiter =
+        new KeyedRateLimiter(
+            serverConfig.getAuthClientRatePerSecond(), serverConfig.getAuthClientBurst());
+    long cacheTtlSeconds = serverConfig.getAuthCacheTtlSeconds();
+    this.verifiedCredentials =
+        cacheTtlSeconds > 0
+            ? Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .maximumSize(100_000)
+                .build()
+            : null;
+    SECURE_RANDOM.nextBytes(credentialPepper);
     provisionAdmin();
   }
 
@@ -77,6 +130,7 @@ public class AuthService {
       DLQPolicy dlq) {
     String hashedPassword = hashPassword(password);
     clientStore.save(new Client(clientId, hashedPassword, isAdmin, callback, retry, dlq));
+    forgetVerifiedCredential(clientId);
     log.info("Registered client: {} (Admin: {})", clientId, isAdmin);
   }
 
@@ -128,6 +182,8 @@ public class AuthService {
     }
 
     clientStore.delete(targetClientId);
+    forgetVerifiedCredential(targetClientId);
+    sessionManager.revokeClient(targetClientId);
     log.info("Client {} deregistered by admin {}", targetClientId, adminClientId);
     return true;
   }
@@ -146,7 +202,7 @@ public class AuthService {
     try {
       Optional<Client> clientOpt = clientStore.findById(clientId);
 
-      if (clientOpt.isEmpty() || !verifyPassword(password, clientOpt.get().hashedPassword())) {
+      if (clientOpt.isEmpty() || !verifyCredentials(clientOpt.get(), password)) {
         log.warn("Failed authentication attempt for client: {}", clientId);
         return Optional.empty();
       }
@@ -165,6 +221,38 @@ public class AuthService {
     }
   }
 
+  /**
+   * Authenticates a client on the dedicated authentication executor.
+   *
+   * <p>The attempt is rejected without touching the executor if the client or the server as a whole
+   * exceeds its configured login rate, or if the executor's queue is full.
+   *
+   * @param clientId the ID of the client to authenticate
+   * @param password the plain-text password to verify
+   * @return a future completed with the result of {@link #authenticate(String, String)}, or
+   *     completed exceptionally with {@link AuthThrottledException} if the attempt was shed
+   */
+  public CompletableFuture<Optional<Session>> authenticateAsync(String clientId, String password) {
+    if (!clientAuthLimiter.tryAcquire(clientId) || !globalAuthLimiter.tryAcquire()) {
+      log.warn("Authentication rate limit exceeded for client: {}", clientId);
+      return CompletableFuture.failedFuture(
+          new AuthThrottledException("Too many authentication attempts, retry later"));
+    }
+
+    try {
+      return CompletableFuture.supplyAsync(() -> authenticate(clientId, password), authExecutor);
+    } catch (RejectedExecutionException e) {
+      log.warn("Authentication queue full, rejecting attempt for client: {}", clientId);
+      return CompletableFuture.failedFuture(
+          new AuthThrottledException("Authentication queue is full, retry later"));
+    }
+  }
+
+  /** Stops the authentication executor, abandoning any queued authentication attempts. */
+  public void shutdown() {
+    authExecutor.shutdownNow();
+  }
+
   /**
    * Checks if the given client has administrative privileges.
    *
@@ -182,6 +270,8 @@ public class AuthService {
    */
   public void deregisterClient(String targetClientId) {
     clientStore.delete(targetClientId);
+    forgetVerifiedCredential(targetClientId);
+    sessionManager.revokeClient(targetClientId);
     log.info("Client {} deregistered", targetClientId);
   }
 
@@ -204,6 +294,41 @@ public class AuthService {
         + Base64.getEncoder().encodeToString(hash);
   }
 
+  private boolean verifyCredentials(Client client, String password) {
+    if (verifiedCredentials == null) {
+      return verifyPassword(password, client.hashedPassword());
+    }
+
+    byte[] digest = credentialDigest(password);
+    VerifiedCredential cached = verifiedCredentials.getIfPresent(client.clientId());
+    if (cached != null && cached.matches(client.hashedPassword(), digest)) {
+      return true;
+    }
+
+    if (!verifyPassword(password, client.hashedPassword())) {
+      return false;
+    }
+    verifiedCredentials.put(
+        client.clientId(), new VerifiedCredential(client.hashedPassword(), digest));
+    return true;
+  }
+
+  private void forgetVerifiedCredential(String clientId) {
+    if (verifiedCredentials != null) {
+      verifiedCredentials.invalidate(clientId);
+    }
+  }
+
+  private byte[] credentialDigest(String password) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(credentialPepper);
+      return digest.digest(password.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new SecurityException("Error digesting credential", e);
+    }
+  }
+
   private boolean verifyPassword(String password, String storedHash) {
     String[] parts = storedHash.split(":");
     if (parts.length != 2) {
@@ -212,16 +337,38 @@ public class AuthService {
     byte[] salt = Base64.getDecoder().decode(parts[0]);
     byte[] hash = Base64.getDecoder().decode(parts[1]);
     byte[] testHash = pbkdf2(password.toCharArray(), salt);
-    return java.util.Arrays.equals(hash, testHash);
+    return MessageDigest.isEqual(hash, testHash);
   }
 
   private byte[] pbkdf2(char[] password, byte[] salt) {
     PBEKeySpec spec = new PBEKeySpec(password, salt, ITERATIONS, KEY_LENGTH);
     try {
-      SecretKeyFactory factory = SecretKeyFactory.getInstance(ALGORITHM);
-      return factory.generateSecret(spec).getEncoded();
-    } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+      return KEY_FACTORY.get().generateSecret(spec).getEncoded();
+    } catch (InvalidKeySpecException e) {
       throw new SecurityException("Error hashing password", e);
+    } finally {
+      spec.clearPassword();
+    }
+  }
+
+  private static SecretKeyFactory newKeyFactory() {
+    try {
+      return SecretKeyFactory.getInstance(ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new SecurityException("Error hashing password", e);
+    }
+  }
+
+  /**
+   * A credential that recently passed PBKDF2 verification.
+   *
+   * @param hashedPassword the stored hash the password was verified against
+   * @param passwordDigest a peppered digest of the verified plain-text password
+   */
+  private record VerifiedCredential(String hashedPassword, byte[] passwordDigest) {
+    boolean matches(String currentHashedPassword, byte[] presentedDigest) {
+      return hashedPassword.equals(currentHashedPassword)
+          && MessageDigest.isEqual(passwordDigest, presentedDigest);
     }
   }
 }
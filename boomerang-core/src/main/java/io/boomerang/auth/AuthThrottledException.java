@@ -0,0 +1,13 @@
+package io.boomerang.auth;
+
+/**
+ * Exception thrown when an authentication attempt is rejected because the server is shedding login
+ * load, either due to a rate limit or a saturated authentication executor.
+ *
+ * @since 1.0.0
+ */
+public class AuthThrottledException extends SecurityException {
+  public AuthThrottledException(String message) {
+    super(message);
+  }
+}
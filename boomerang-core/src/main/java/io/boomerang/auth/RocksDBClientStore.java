@@ -164,6 +164,17 @@ public class RocksDBClientStore implements ClientStore, AutoCloseable {
         dos.writeUTF(dlq.destination());
       }
 
+      // Callback batching settings, appended after the fields of the original layout
+      if (callback != null) {
+        dos.writeLong(callback.batchWindowMs());
+        dos.writeInt(callback.maxBatchSize());
+      }
+
+      // DLQ retention, appended after the batching settings
+      if (dlq != null) {
+        dos.writeLong(dlq.retentionMs());
+      }
+
       return baos.toByteArray();
     }
   }
@@ -199,6 +210,18 @@ public class RocksDBClientStore implements ClientStore, AutoCloseable {
         dlq = new DLQPolicy(dis.readUTF());
       }
 
+      // Clients saved before batch delivery existed have no batching settings.
+      if (callback != null && dis.available() > 0) {
+        callback =
+            new CallbackConfig(
+                callback.protocol(), callback.endpoint(), dis.readLong(), dis.readInt());
+      }
+
+      // Clients saved before DLQ retention existed keep entries for the server default.
+      if (dlq != null && dis.available() > 0) {
+        dlq = new DLQPolicy(dlq.destination(), dis.readLong());
+      }
+
       return new Client(clientId, hashedPassword, isAdmin, callback, retry, dlq);
     }
   }
@@ -0,0 +1,116 @@
+package io.boomerang.cluster;
+
+import io.boomerang.config.ServerConfig;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This node's view of a partitioned deployment.
+ *
+ * <p>In a partitioned deployment, every node owns the tasks whose IDs hash to its partitions (see
+ * {@link PartitionMap}). A node only mints task IDs it owns, so a registration can be sent to any
+ * node, while lookups and cancellations must be routed to the owner. Without configured cluster
+ * nodes, the topology is standalone and this node owns everything.
+ *
+ * @since 1.0.0
+ */
+public class ClusterTopology {
+  private final PartitionMap partitionMap;
+  private final String selfAddress;
+
+  /**
+   * Constructs the topology from the server configuration.
+   *
+   * @param config the server configuration; must be non-null
+   * @throws IllegalArgumentException if cluster nodes are configured but this node is not one of
+   *     them or owns no partitions
+   */
+  public ClusterTopology(ServerConfig config) {
+    this(config.getClusterNodes(), config.getClusterSelfAddress(), config.getClusterPartitions());
+  }
+
+  /**
+   * Constructs the topology from explicit settings.
+   *
+   * @param nodes the addresses of all nodes; empty for a standalone deployment
+   * @param selfAddress the address of this node; must be one of {@code nodes} unless standalone
+   * @param partitionCount the number of partitions
+   * @throws IllegalArgumentException if {@code selfAddress} is not one of {@code nodes} or owns no
+   *     partitions
+   */
+  public ClusterTopology(List<String> nodes, String selfAddress, int partitionCount) {
+    if (nodes == null || nodes.isEmpty()) {
+      this.partitionMap = null;
+      this.selfAddress = selfAddress;
+      return;
+    }
+    if (!nodes.contains(selfAddress)) {
+      throw new IllegalArgumentException(
+          "This node's address '" + selfAddress + "' is not one of the cluster nodes " + nodes);
+    }
+    this.partitionMap = new PartitionMap(nodes, partitionCount);
+    this.selfAddress = selfAddress;
+    boolean ownsAnyPartition = false;
+    for (int partition = 0; partition < partitionCount && !ownsAnyPartition; partition++) {
+      ownsAnyPartition = partitionMap.ownerOfPartition(partition).equals(selfAddress);
+    }
+    if (!ownsAnyPartition) {
+      throw new IllegalArgumentException(
+          "Node '" + selfAddress + "' owns no partitions; increase the partition count");
+    }
+  }
+
+  /**
+   * Creates a topology for a single node that owns every task.
+   *
+   * @return a standalone topology
+   */
+  public static ClusterTopology standalone() {
+    return new ClusterTopology(List.of(), null, 0);
+  }
+
+  /**
+   * Checks if this node is part of a partitioned deployment.
+   *
+   * @return {@code true} if tasks are partitioned across several nodes
+   */
+  public boolean isPartitioned() {
+    return partitionMap != null;
+  }
+
+  /**
+   * Checks if this node owns a task.
+   *
+   * @param taskId the task ID; must be non-null
+   * @return {@code true} if the task belongs to one of this node's partitions
+   */
+  public boolean owns(String taskId) {
+    return partitionMap == null || partitionMap.ownerOf(taskId).equals(selfAddress);
+  }
+
+  /**
+   * Gets the address of the node that owns a task.
+   *
+   * @param taskId the task ID; must be non-null
+   * @return the owner's address, or this node's address when standalone
+   */
+  public String ownerOf(String taskId) {
+    return partitionMap == null ? selfAddress : partitionMap.ownerOf(taskId);
+  }
+
+  /**
+   * Generates a new random task ID owned by this node.
+   *
+   * <p>Candidates are drawn until one hashes to a local partition, which takes as many attempts as
+   * there are nodes on average.
+   *
+   * @return a new task ID
+   */
+  public String newTaskId() {
+    String taskId = UUID.randomUUID().toString();
+    while (!owns(taskId)) {
+      taskId = UUID.randomUUID().toString();
+    }
+    return taskId;
+  }
+}
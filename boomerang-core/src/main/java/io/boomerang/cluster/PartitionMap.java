@@ -0,0 +1,122 @@
+package io.boomerang.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maps task IDs to partitions and partitions to the nodes that own them.
+ *
+ * <p>Task IDs are hashed into a fixed number of partitions. Each partition is assigned to a node by
+ * rendezvous (highest random weight) hashing, a form of consistent hashing: adding or removing a
+ * node only moves the partitions that node gains or loses.
+ *
+ * <p>The hash functions are part of the wire contract. The Java SDK computes the same mapping to
+ * route requests, so any change here must be mirrored in {@code io.boomerang.client.PartitionMap}.
+ *
+ * @since 1.0.0
+ */
+public class PartitionMap {
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final List<String> nodes;
+  private final String[] owners;
+
+  /**
+   * Constructs a partition map.
+   *
+   * @param nodes the addresses ({@code host:port}) of all nodes; must be non-empty
+   * @param partitionCount the number of partitions; must be positive
+   * @throws IllegalArgumentException if there are no nodes or the partition count is not positive
+   */
+  public PartitionMap(List<String> nodes, int partitionCount) {
+    if (nodes == null || nodes.isEmpty()) {
+      throw new IllegalArgumentException("At least one node is required");
+    }
+    if (partitionCount <= 0) {
+      throw new IllegalArgumentException("Partition count must be positive: " + partitionCount);
+    }
+    this.nodes = List.copyOf(nodes);
+    this.owners = new String[partitionCount];
+    for (int partition = 0; partition < partitionCount; partition++) {
+      owners[partition] = computeOwner(partition);
+    }
+  }
+
+  /**
+   * Gets the partition a task ID belongs to.
+   *
+   * @param taskId the task ID; must be non-null
+   * @return the partition index
+   */
+  public int partitionOf(String taskId) {
+    return (int) Long.remainderUnsigned(hash(taskId), owners.length);
+  }
+
+  /**
+   * Gets the node that owns a partition.
+   *
+   * @param partition the partition index
+   * @return the owner's address
+   */
+  public String ownerOfPartition(int partition) {
+    return owners[partition];
+  }
+
+  /**
+   * Gets the node that owns a task.
+   *
+   * @param taskId the task ID; must be non-null
+   * @return the owner's address
+   */
+  public String ownerOf(String taskId) {
+    return owners[partitionOf(taskId)];
+  }
+
+  /**
+   * Gets the addresses of all nodes.
+   *
+   * @return an unmodifiable list of node addresses
+   */
+  public List<String> getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Gets the number of partitions.
+   *
+   * @return the partition count
+   */
+  public int getPartitionCount() {
+    return owners.length;
+  }
+
+  private String computeOwner(int partition) {
+    String owner = null;
+    long bestWeight = 0;
+    for (String node : nodes) {
+      long weight = hash(node + "/" + partition);
+      if (owner == null
+          || Long.compareUnsigned(weight, bestWeight) > 0
+          || (weight == bestWeight && node.compareTo(owner) < 0)) {
+        owner = node;
+        bestWeight = weight;
+      }
+    }
+    return owner;
+  }
+
+  /** FNV-1a over the UTF-8 bytes, followed by the SplitMix64 finalizer for better avalanche. */
+  static long hash(String value) {
+    Objects.requireNonNull(value, "value must not be null");
+    long h = FNV_OFFSET_BASIS;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b & 0xff;
+      h *= FNV_PRIME;
+    }
+    h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+    h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+    return h ^ (h >>> 31);
+  }
+}
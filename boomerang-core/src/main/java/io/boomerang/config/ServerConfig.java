@@ -2,6 +2,8 @@ package io.boomerang.config;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -98,6 +100,95 @@ public class ServerConfig {
     return Long.parseLong(getProperty("session.timeout.minutes", "60"));
   }
 
+  /**
+   * Gets the maximum number of concurrent sessions a single client may hold.
+   *
+   * <p>When a client exceeds this cap, its oldest session is invalidated.
+   *
+   * @return the per-client session cap; 0 means unlimited
+   */
+  public int getSessionMaxPerClient() {
+    return Integer.parseInt(getProperty("session.max.per.client", "100"));
+  }
+
+  /**
+   * Gets the maximum number of sessions kept in memory across all clients.
+   *
+   * @return the global session cap
+   */
+  public long getSessionMaxTotal() {
+    return Long.parseLong(getProperty("session.max.total", "1000000"));
+  }
+
+  /**
+   * Checks if sessions are issued as stateless signed tokens instead of being held in memory.
+   *
+   * <p>Token sessions are signed with a key derived from the encryption master key, so every node
+   * sharing that key accepts them and they survive restarts.
+   *
+   * @return {@code true} if stateless session tokens are enabled
+   */
+  public boolean isSessionTokenEnabled() {
+    return Boolean.parseBoolean(getProperty("session.token.enabled", "false"));
+  }
+
+  /**
+   * Gets the number of threads dedicated to password verification.
+   *
+   * @return the number of authentication threads
+   */
+  public int getAuthThreads() {
+    return Integer.parseInt(
+        getProperty(
+            "auth.threads",
+            String.valueOf(Math.max(1, Runtime.getRuntime().availableProcessors() / 2))));
+  }
+
+  /**
+   * Gets the maximum number of authentication attempts that may wait for an authentication thread.
+   *
+   * @return the authentication queue capacity
+   */
+  public int getAuthQueueCapacity() {
+    return Integer.parseInt(getProperty("auth.queue.capacity", "1024"));
+  }
+
+  /**
+   * Gets the maximum sustained rate of authentication attempts across all clients.
+   *
+   * @return the global authentication rate per second; 0 disables the limit
+   */
+  public double getAuthGlobalRatePerSecond() {
+    return Double.parseDouble(getProperty("auth.rate.global.per.second", "500"));
+  }
+
+  /**
+   * Gets the maximum sustained rate of authentication attempts for a single client.
+   *
+   * @return the per-client authentication rate per second; 0 disables the limit
+   */
+  public double getAuthClientRatePerSecond() {
+    return Double.parseDouble(getProperty("auth.rate.client.per.second", "5"));
+  }
+
+  /**
+   * Gets the number of authentication attempts a single client may burst above its sustained rate.
+   *
+   * @return the per-client authentication burst
+   */
+  public int getAuthClientBurst() {
+    return Integer.parseInt(getProperty("auth.rate.client.burst", "10"));
+  }
+
+  /**
+   * Gets how long a successfully verified credential is trusted without re-running PBKDF2.
+   *
+   * @return the verified-credential cache TTL in seconds; 0 disables the cache
+   */
+  public long getAuthCacheTtlSeconds() {
+    return Long.parseLong(getProperty("auth.cache.ttl.seconds", "60"));
+  }
+
   /**
    * Gets the interval at which the timer's clock should be advanced.
    *
@@ -128,6 +219,8 @@ public class ServerConfig {
   /**
    * Gets the time window for tasks to be kept in memory.
    *
+   * <p>With a task budget set, this is the largest window; see {@link #getTimerImminentMaxTasks()}.
+   *
    * @return the imminent window in milliseconds
    */
   public long getTimerImminentWindowMs() {
@@ -135,6 +228,90 @@ public class ServerConfig {
     return Long.parseLong(getProperty("timer.imminent.window.ms", "1800000"));
   }
 
+  /**
+   * Gets the smallest time window for tasks to be kept in memory when the window is sized by a task
+   * budget.
+   *
+   * @return the minimum imminent window in milliseconds
+   */
+  public long getTimerImminentMinWindowMs() {
+    return Long.parseLong(getProperty("timer.imminent.min.window.ms", "60000"));
+  }
+
+  /**
+   * Gets the number of tasks the timer aims to keep in memory at most.
+   *
+   * <p>When set, the imminent window shrinks towards {@link #getTimerImminentMinWindowMs()} while
+   * the tasks in memory exceed the budget and grows back towards {@link
+   * #getTimerImminentWindowMs()} while they are sparse.
+   *
+   * @return the task budget; 0 or less keeps the imminent window fixed
+   */
+  public int getTimerImminentMaxTasks() {
+    return Integer.parseInt(getProperty("timer.imminent.max.tasks", "0"));
+  }
+
+  /**
+   * Checks if tasks in the imminent window are held in memory without their payloads.
+   *
+   * <p>When enabled, memory use grows with the number of tasks in the window rather than the size
+   * of their payloads, and payloads are read back from the store shortly before the tasks expire;
+   * see {@link #getTimerPayloadPrefetchLeadMs()}.
+   *
+   * @return {@code true} if payloads are loaded lazily
+   */
+  public boolean isTimerPayloadLazyEnabled() {
+    return Boolean.parseBoolean(getProperty("timer.payload.lazy.enabled", "false"));
+  }
+
+  /**
+   * Gets how long before their expiration the payloads of lazily loaded tasks are prefetched.
+   *
+   * @return the prefetch lead time in milliseconds
+   */
+  public long getTimerPayloadPrefetchLeadMs() {
+    return Long.parseLong(getProperty("timer.payload.prefetch.lead.ms", "2000"));
+  }
+
+  /**
+   * Gets the number of key ranges loaded in parallel when recovering overdue tasks on startup.
+   *
+   * @return the recovery parallelism
+   */
+  public int getRecoveryParallelism() {
+    return Integer.parseInt(getProperty("recovery.parallelism", "4"));
+  }
+
+  /**
+   * Gets the maximum rate at which overdue tasks are released to the dispatcher after a restart or
+   * failover, so that callback endpoints are not flooded.
+   *
+   * @return the catch-up rate in tasks per second; 0 or less means unlimited
+   */
+  public double getRecoveryCatchUpRatePerSecond() {
+    return Double.parseDouble(getProperty("recovery.catchup.rate.per.second", "1000"));
+  }
+
+  /**
+   * Gets the maximum rate at which a single client's overdue tasks are released after a restart or
+   * failover. Tasks over the rate are postponed to a later slot rather than delaying other clients.
+   *
+   * @return the per-client catch-up rate in tasks per second; 0 or less means unlimited
+   */
+  public double getRecoveryClientCatchUpRatePerSecond() {
+    return Double.parseDouble(getProperty("recovery.catchup.client.rate.per.second", "0"));
+  }
+
+  /**
+   * Gets the number of a client's overdue tasks released back to back before the per-client
+   * catch-up rate applies.
+   *
+   * @return the per-client catch-up burst
+   */
+  public int getRecoveryClientCatchUpBurst() {
+    return Integer.parseInt(getProperty("recovery.catchup.client.burst", "100"));
+  }
+
   /**
    * Checks if RocksDB persistence is enabled.
    *
@@ -153,6 +330,48 @@ public class ServerConfig {
     return getProperty("rocksdb.path", "data/rocksdb");
   }
 
+  /**
+   * Gets how long the cursor updates of recurring tasks are buffered before they are written to
+   * RocksDB in a single batch. A crash loses the buffered updates, so the affected cycles fire
+   * again after a restart.
+   *
+   * @return the batch interval in milliseconds; 0 or less writes every update immediately
+   */
+  public long getRocksDbCursorBatchIntervalMs() {
+    return Long.parseLong(getProperty("rocksdb.cursor.batch.interval.ms", "0"));
+  }
+
+  /**
+   * Gets the interval at which cancellation markers of tasks no longer in the store are removed.
+   * Markers of stored tasks are removed together with the tasks when they come due.
+   *
+   * @return the sweep interval in milliseconds; 0 or less keeps the markers
+   */
+  public long getRocksDbCancelledSweepIntervalMs() {
+    return Long.parseLong(getProperty("rocksdb.cancelled.sweep.interval.ms", "60000"));
+  }
+
+  /**
+   * Gets the span of the time partitions of the RocksDB time index. Once the recovery watermark has
+   * passed a partition, all of its tasks have fired, and the partition is dropped as a whole rather
+   * than left to be skipped key by key.
+   *
+   * @return the partition span in milliseconds; 0 or less keeps the fired ranges
+   */
+  public long getRocksDbTimeIndexPartitionMs() {
+    return Long.parseLong(getProperty("rocksdb.time.index.partition.ms", "3600000"));
+  }
+
+  /**
+   * Gets the number of buffered cursor updates of recurring tasks that triggers an early batch
+   * write.
+   *
+   * @return the maximum batch size
+   */
+  public int getRocksDbCursorBatchMaxSize() {
+    return Integer.parseInt(getProperty("rocksdb.cursor.batch.max.size", "1000"));
+  }
+
   /**
    * Gets the filesystem path for the RocksDB client storage directory.
    *
@@ -171,6 +390,16 @@ public class ServerConfig {
     return getProperty("rocksdb.dlq.path", "data/dlq");
   }
 
+  /**
+   * Gets the filesystem path for the RocksDB directory of tasks parked while their callback
+   * endpoint is unavailable.
+   *
+   * @return the RocksDB parked task path
+   */
+  public String getRocksDbParkedPath() {
+    return getProperty("rocksdb.parked.path", "data/parked");
+  }
+
   /**
    * Gets the master key for AES encryption.
    *
@@ -196,6 +425,116 @@ public class ServerConfig {
     return Integer.parseInt(getProperty("server.port", "9973"));
   }
 
+  /**
+   * Gets the addresses of all nodes in a partitioned deployment.
+   *
+   * <p>Every node and every SDK client must be configured with the same list, in any order.
+   *
+   * @return the {@code host:port} addresses of all nodes; empty for a standalone deployment
+   */
+  public List<String> getClusterNodes() {
+    return Arrays.stream(getProperty("cluster.nodes", "").split(","))
+        .map(String::trim)
+        .filter(node -> !node.isEmpty())
+        .toList();
+  }
+
+  /**
+   * Gets the address under which this node appears in {@link #getClusterNodes()}.
+   *
+   * @return this node's {@code host:port} address
+   */
+  public String getClusterSelfAddress() {
+    return getProperty("cluster.self.address", "localhost:" + getServerPort());
+  }
+
+  /**
+   * Gets the number of partitions the task ID space is split into.
+   *
+   * <p>This must be identical on all nodes and SDK clients, and should be well above the number of
+   * nodes so that partitions spread evenly.
+   *
+   * @return the partition count
+   */
+  public int getClusterPartitions() {
+    return Integer.parseInt(getProperty("cluster.partitions", "256"));
+  }
+
+  /**
+   * Gets the replication role of this node.
+   *
+   * @return {@code standalone}, {@code primary} or {@code follower}
+   */
+  public String getReplicationRole() {
+    return getProperty("replication.role", "standalone");
+  }
+
+  /**
+   * Gets the address of the interface on which a primary streams its changes to followers.
+   *
+   * <p>The stream is authenticated but not encrypted, so it defaults to the loopback interface and
+   * should only be opened to a private network.
+   *
+   * @return the replication bind address
+   */
+  public String getReplicationBindAddress() {
+    return getProperty("replication.bind.address", "127.0.0.1");
+  }
+
+  /**
+   * Gets the port on which a primary streams its changes to followers.
+   *
+   * <p>A follower listens on this port as well once it is promoted.
+   *
+   * @return the replication port
+   */
+  public int getReplicationPort() {
+    return Integer.parseInt(getProperty("replication.port", "9980"));
+  }
+
+  /**
+   * Gets the replication address of the primary a follower replicates.
+   *
+   * @return the primary's {@code host:port} replication address, or {@code null} if not set
+   */
+  public String getReplicationPrimaryAddress() {
+    return getProperty("replication.primary.address", null);
+  }
+
+  /**
+   * Gets the number of recent changes a primary retains for followers to resume from.
+   *
+   * <p>A follower that falls further behind is resynchronized from a snapshot.
+   *
+   * @return the replication log capacity
+   */
+  public int getReplicationLogCapacity() {
+    return Integer.parseInt(getProperty("replication.log.capacity", "100000"));
+  }
+
+  /**
+   * Gets how often a primary sends heartbeats to idle followers.
+   *
+   * @return the heartbeat interval in milliseconds
+   */
+  public long getReplicationHeartbeatIntervalMs() {
+    return Long.parseLong(getProperty("replication.heartbeat.interval.ms", "1000"));
+  }
+
+  /**
+   * Gets how long a synced follower waits without hearing from its primary before it promotes
+   * itself.
+   *
+   * <p>Only one follower per primary should promote itself automatically. A primary that is only
+   * unreachable, e.g., during a long GC pause or a network partition, keeps dispatching, so both
+   * nodes then act as primary. Automatic promotion is therefore disabled by default.
+   *
+   * @return the promotion timeout in milliseconds; 0 disables automatic promotion
+   */
+  public long getReplicationPromoteAfterMs() {
+    return Long.parseLong(getProperty("replication.promote.after.ms", "0"));
+  }
+
   /**
    * Gets the number of threads for the Netty boss event loop group.
    *
@@ -226,6 +565,107 @@ public class ServerConfig {
             String.valueOf(Math.max(1, Runtime.getRuntime().availableProcessors() * 2))));
   }
 
+  /**
+   * Gets the preferred Netty I/O transport for the server and TCP callback pools.
+   *
+   * <p>Supported values are {@code auto}, {@code epoll} and {@code nio}. Unavailable transports
+   * fall back to NIO.
+   *
+   * @return the preferred transport name
+   */
+  public String getNettyTransport() {
+    return getProperty("netty.transport", "auto");
+  }
+
+  /**
+   * Gets the accept backlog of the server socket.
+   *
+   * @return the maximum number of pending connections
+   */
+  public int getNettySoBacklog() {
+    return Integer.parseInt(getProperty("netty.so.backlog", "1024"));
+  }
+
+  /**
+   * Checks if Nagle's algorithm is disabled on server and TCP callback connections.
+   *
+   * @return {@code true} if {@code TCP_NODELAY} should be set
+   */
+  public boolean isNettyTcpNoDelay() {
+    return Boolean.parseBoolean(getProperty("netty.tcp.nodelay", "true"));
+  }
+
+  /**
+   * Gets the low write-buffer water mark of a connection.
+   *
+   * <p>A connection that became unwritable becomes writable again once its outbound buffer drains
+   * below this many bytes.
+   *
+   * @return the low water mark in bytes
+   */
+  public int getNettyWriteBufferLowWaterMark() {
+    return Integer.parseInt(getProperty("netty.write.buffer.low.water.mark", "32768"));
+  }
+
+  /**
+   * Gets the high write-buffer water mark of a connection.
+   *
+   * <p>A connection becomes unwritable once more than this many bytes are queued for writing.
+   *
+   * @return the high water mark in bytes
+   */
+  public int getNettyWriteBufferHighWaterMark() {
+    return Integer.parseInt(getProperty("netty.write.buffer.high.water.mark", "65536"));
+  }
+
+  /**
+   * Gets the maximum number of blocking requests that may be queued or running across all
+   * connections before new task registrations are rejected as overloaded.
+   *
+   * @return the global pending request limit; 0 means unlimited
+   */
+  public int getAdmissionMaxPending() {
+    return Integer.parseInt(getProperty("admission.max.pending", "10000"));
+  }
+
+  /**
+   * Gets the maximum number of blocking requests a single connection may have queued or running
+   * before the server stops reading from it.
+   *
+   * @return the per-connection pending request limit; 0 means unlimited
+   */
+  public int getAdmissionMaxPendingPerConnection() {
+    return Integer.parseInt(getProperty("admission.max.pending.per.connection", "128"));
+  }
+
+  /**
+   * Gets the retry-after hint returned to clients when the server is overloaded.
+   *
+   * @return the retry-after hint in milliseconds
+   */
+  public long getAdmissionRetryAfterMs() {
+    return Long.parseLong(getProperty("admission.retry.after.ms", "1000"));
+  }
+
+  /**
+   * Gets the sustained rate of task registrations allowed per client.
+   *
+   * @return the per-client registration rate; 0 means unlimited
+   */
+  public double getAdmissionRegistrationRatePerSecond() {
+    return Double.parseDouble(
+        getProperty("admission.registration.rate.client.per.second", "1000"));
+  }
+
+  /**
+   * Gets the number of task registrations a client may burst above its sustained rate.
+   *
+   * @return the per-client registration burst
+   */
+  public int getAdmissionRegistrationBurst() {
+    return Integer.parseInt(getProperty("admission.registration.rate.client.burst", "2000"));
+  }
+
   /**
    * Gets the number of threads for the callback execution pool.
    *
@@ -238,6 +678,27 @@ public class ServerConfig {
             String.valueOf(Math.max(1, Runtime.getRuntime().availableProcessors() * 4))));
   }
 
+  /**
+   * Gets the maximum number of expired tasks waiting for a callback thread.
+   *
+   * <p>When the queue is full, expired tasks are deferred back to the long-term store instead of
+   * being held in memory.
+   *
+   * @return the callback queue capacity
+   */
+  public int getCallbackQueueCapacity() {
+    return Integer.parseInt(getProperty("callback.queue.capacity", "10000"));
+  }
+
+  /**
+   * Gets how long an expired task is deferred when the callback queue is full.
+   *
+   * @return the overflow deferral delay in milliseconds
+   */
+  public long getCallbackOverflowDeferMs() {
+    return Long.parseLong(getProperty("callback.overflow.defer.ms", "100"));
+  }
+
   /**
    * Gets the timeout for TCP callbacks.
    *
@@ -291,4 +752,82 @@ public class ServerConfig {
   public long getCallbackGrpcIdleTimeoutMs() {
     return Long.parseLong(getProperty("callback.grpc.idle.timeout.ms", "60000"));
   }
+
+  /**
+   * Gets the largest batch delivered to clients that opted in to batch delivery without setting a
+   * maximum batch size of their own.
+   *
+   * @return the default maximum batch size
+   */
+  public int getCallbackBatchMaxSize() {
+    return Integer.parseInt(getProperty("callback.batch.max.size", "500"));
+  }
+
+  /**
+   * Gets the number of threads that deliver callback batches.
+   *
+   * @return the number of batch delivery threads
+   */
+  public int getCallbackBatchThreads() {
+    return Integer.parseInt(getProperty("callback.batch.threads", "2"));
+  }
+
+  /**
+   * Gets the number of consecutive failed deliveries to a callback endpoint that opens its circuit
+   * breaker.
+   *
+   * @return the failure threshold; 0 or less disables the circuit breakers
+   */
+  public int getCallbackBreakerFailureThreshold() {
+    return Integer.parseInt(getProperty("callback.breaker.failure.threshold", "5"));
+  }
+
+  /**
+   * Gets how long the circuit breaker of a callback endpoint stays open before a single probe is
+   * let through.
+   *
+   * @return the open period in milliseconds
+   */
+  public long getCallbackBreakerOpenMs() {
+    return Long.parseLong(getProperty("callback.breaker.open.ms", "10000"));
+  }
+
+  /**
+   * Gets the rate at which tasks parked for a callback endpoint are released once its circuit
+   * breaker closes.
+   *
+   * @return the drain rate in tasks per second; 0 or less means unlimited
+   */
+  public double getCallbackBreakerDrainRatePerSecond() {
+    return Double.parseDouble(getProperty("callback.breaker.drain.rate.per.second", "100"));
+  }
+
+  /**
+   * Gets the rate at which the tasks of each client become due when the dead-letter queue is
+   * replayed into the scheduler.
+   *
+   * @return the replay rate in tasks per second per client; 0 or less means unlimited
+   */
+  public double getDlqReplayRatePerSecond() {
+    return Double.parseDouble(getProperty("dlq.replay.rate.per.second", "100"));
+  }
+
+  /**
+   * Gets how long dead-letter entries are kept for clients whose DLQ policy does not set a
+   * retention of their own.
+   *
+   * @return the retention in milliseconds; 0 or less keeps entries until they are deleted
+   */
+  public long getDlqRetentionMs() {
+    return Long.parseLong(getProperty("dlq.retention.ms", "604800000"));
+  }
+
+  /**
+   * Gets the interval at which dead-letter entries past their retention are dropped.
+   *
+   * @return the interval in milliseconds; 0 or less disables expiry
+   */
+  public long getDlqRetentionCheckIntervalMs() {
+    return Long.parseLong(getProperty("dlq.retention.check.interval.ms", "60000"));
+  }
 }
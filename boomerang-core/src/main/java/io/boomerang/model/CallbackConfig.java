@@ -5,9 +5,13 @@ package io.boomerang.model;
  *
  * @param protocol the protocol to use for the callback
  * @param endpoint the target endpoint for the callback
+ * @param batchWindowMs how long to collect expired tasks for the endpoint before delivering them
+ *     together; 0 delivers every task on its own
+ * @param maxBatchSize the maximum number of tasks per batch; 0 means the server default
  * @since 1.0.0
  */
-public record CallbackConfig(Protocol protocol, String endpoint) {
+public record CallbackConfig(
+    Protocol protocol, String endpoint, long batchWindowMs, int maxBatchSize) {
   /** Supported protocols for callbacks. */
   public enum Protocol {
     TCP,
@@ -15,4 +19,23 @@ public record CallbackConfig(Protocol protocol, String endpoint) {
     HTTP,
     UDP
   }
+
+  /**
+   * Constructs a callback configuration that delivers every task on its own.
+   *
+   * @param protocol the protocol to use for the callback
+   * @param endpoint the target endpoint for the callback
+   */
+  public CallbackConfig(Protocol protocol, String endpoint) {
+    this(protocol, endpoint, 0, 0);
+  }
+
+  /**
+   * Returns whether the client opted in to batch delivery.
+   *
+   * @return {@code true} if expired tasks are collected into batches
+   */
+  public boolean isBatched() {
+    return batchWindowMs > 0;
+  }
 }
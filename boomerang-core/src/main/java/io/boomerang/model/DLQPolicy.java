@@ -4,6 +4,18 @@ package io.boomerang.model;
  * Custom data class for dead-letter queue (DLQ) policies.
  *
  * @param destination the target identifier for tasks that exceed max retries
+ * @param retentionMs how long the client's dead-letter entries are kept after they failed; 0 means
+ *     the server default
  * @since 1.0.0
  */
-public record DLQPolicy(String destination) {}
+public record DLQPolicy(String destination, long retentionMs) {
+
+  /**
+   * Constructs a DLQ policy that keeps entries for the server default retention.
+   *
+   * @param destination the target identifier for tasks that exceed max retries
+   */
+  public DLQPolicy(String destination) {
+    this(destination, 0);
+  }
+}
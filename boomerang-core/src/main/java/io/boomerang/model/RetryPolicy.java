@@ -5,8 +5,9 @@ package io.boomerang.model;
  *
  * @param maxAttempts the maximum number of retry attempts
  * @param strategy the backoff strategy to use
- * @param intervalMs the retry interval in milliseconds
- * @param maxIntervalMs the maximum interval cap for exponential backoff
+ * @param intervalMs the retry interval in milliseconds; the base interval for exponential and
+ *     jittered backoff
+ * @param maxIntervalMs the maximum interval cap for exponential and jittered backoff
  * @since 1.0.0
  */
 public record RetryPolicy(
@@ -14,7 +15,13 @@ public record RetryPolicy(
 
   /** Supported backoff strategies for retries. */
   public enum BackoffStrategy {
+    /** Waits the same interval before every retry. */
     FIXED,
-    EXPONENTIAL
+    /** Doubles the interval with every retry, up to the cap. */
+    EXPONENTIAL,
+    /** Waits a random time between zero and the exponential interval. */
+    FULL_JITTER,
+    /** Waits a random time between the base interval and three times the previous wait. */
+    DECORRELATED_JITTER
   }
 }
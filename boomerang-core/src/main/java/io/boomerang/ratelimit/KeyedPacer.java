@@ -0,0 +1,54 @@
+package io.boomerang.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Spreads operations for each key (e.g., per client) over time at a sustained rate with bounded
+ * bursts, without making callers wait.
+ *
+ * <p>Unlike {@link KeyedRateLimiter}, which rejects operations over the rate, the pacer reserves a
+ * future slot for every operation and tells the caller how long to postpone it. Each key has a
+ * theoretical arrival time that moves forward by one interval per reservation; a reservation is due
+ * immediately while the key is within its burst, and at its slot otherwise. Operations on one key
+ * are therefore never held up by a backlog on another key.
+ *
+ * <p>This class is not thread-safe and keeps state for every key it has seen; it is meant for a
+ * single thread pacing a bounded piece of work.
+ *
+ * @since 1.0.0
+ */
+public class KeyedPacer {
+  private final long intervalNanos;
+  private final long burstToleranceNanos;
+  private final Map<String, Long> theoreticalArrivalNanos = new HashMap<>();
+
+  /**
+   * Constructs a keyed pacer.
+   *
+   * @param permitsPerSecond the sustained rate allowed per key; non-positive values disable pacing
+   * @param burst the number of operations per key that may run back to back; values below 1 are
+   *     treated as 1
+   */
+  public KeyedPacer(double permitsPerSecond, int burst) {
+    this.intervalNanos = permitsPerSecond > 0 ? (long) (1_000_000_000L / permitsPerSecond) : 0;
+    this.burstToleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+  }
+
+  /**
+   * Reserves the next slot for the given key.
+   *
+   * @param key the key to pace; must be non-null
+   * @return the delay in milliseconds until the reserved slot; 0 if the operation may run now
+   */
+  public long reserve(String key) {
+    if (intervalNanos == 0) {
+      return 0;
+    }
+    long now = System.nanoTime();
+    long arrival = Math.max(theoreticalArrivalNanos.getOrDefault(key, now), now);
+    theoreticalArrivalNanos.put(key, arrival + intervalNanos);
+    long delayNanos = arrival - burstToleranceNanos - now;
+    return delayNanos > 0 ? Math.ceilDiv(delayNanos, 1_000_000L) : 0;
+  }
+}
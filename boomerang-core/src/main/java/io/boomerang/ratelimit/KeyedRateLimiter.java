@@ -0,0 +1,78 @@
+package io.boomerang.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+
+/**
+ * A rate limiter that maintains an independent {@link TokenBucket} per key (e.g., per client).
+ *
+ * <p>Buckets are created lazily and evicted after a period of inactivity, so memory stays
+ * proportional to the number of recently active keys.
+ *
+ * @since 1.0.0
+ */
+public class KeyedRateLimiter {
+  private static final Duration IDLE_EVICTION = Duration.ofMinutes(10);
+  private static final long MAX_TRACKED_KEYS = 100_000;
+
+  private final double permitsPerSecond;
+  private final double burst;
+  private final Cache<String, TokenBucket> buckets;
+
+  /**
+   * Constructs a keyed rate limiter.
+   *
+   * @param permitsPerSecond the sustained rate allowed per key; non-positive values disable
+   *     limiting
+   * @param burst the maximum burst allowed per key
+   */
+  public KeyedRateLimiter(double permitsPerSecond, double burst) {
+    this.permitsPerSecond = permitsPerSecond;
+    this.burst = burst;
+    this.buckets =
+        Caffeine.newBuilder()
+            .expireAfterAccess(IDLE_EVICTION)
+            .maximumSize(MAX_TRACKED_KEYS)
+            .build();
+  }
+
+  /**
+   * Attempts to take a single permit for the given key.
+   *
+   * @param key the key to rate limit; must be non-null
+   * @return {@code true} if the permit was acquired, {@code false} if the key is over its rate
+   */
+  public boolean tryAcquire(String key) {
+    if (permitsPerSecond <= 0) {
+      return true;
+    }
+    return bucketFor(key).tryAcquire();
+  }
+
+  /**
+   * Returns how long the given key must wait before a permit becomes available.
+   *
+   * @param key the key to inspect; must be non-null
+   * @return the wait time in milliseconds; 0 if a permit is available now
+   */
+  public long millisUntilAvailable(String key) {
+    if (permitsPerSecond <= 0) {
+      return 0;
+    }
+    return bucketFor(key).millisUntilAvailable();
+  }
+
+  /**
+   * Removes any state held for the given key.
+   *
+   * @param key the key to forget; must be non-null
+   */
+  public void reset(String key) {
+    buckets.invalidate(key);
+  }
+
+  private TokenBucket bucketFor(String key) {
+    return buckets.get(key, k -> new TokenBucket(permitsPerSecond, burst));
+  }
+}
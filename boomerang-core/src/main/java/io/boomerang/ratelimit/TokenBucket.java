@@ -0,0 +1,93 @@
+package io.boomerang.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thread-safe token bucket used to pace operations to a sustained rate with bounded bursts.
+ *
+ * <p>The bucket starts full and refills continuously at {@code permitsPerSecond}. A non-positive
+ * rate disables limiting so that every acquisition succeeds.
+ *
+ * @since 1.0.0
+ */
+public class TokenBucket {
+  private final double capacity;
+  private final double permitsPerNano;
+  private double availablePermits;
+  private long lastRefillNanos;
+
+  /**
+   * Constructs a token bucket.
+   *
+   * @param permitsPerSecond the sustained refill rate; non-positive values disable limiting
+   * @param burst the maximum number of permits that can accumulate; values below 1 are treated as 1
+   */
+  public TokenBucket(double permitsPerSecond, double burst) {
+    this.capacity = Math.max(1, burst);
+    this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.availablePermits = capacity;
+    this.lastRefillNanos = System.nanoTime();
+  }
+
+  /**
+   * Attempts to take a single permit without blocking.
+   *
+   * @return {@code true} if a permit was acquired, {@code false} if the bucket is empty
+   */
+  public boolean tryAcquire() {
+    return tryAcquire(1);
+  }
+
+  /**
+   * Attempts to take the given number of permits without blocking.
+   *
+   * @param permits the number of permits to take; must be positive
+   * @return {@code true} if the permits were acquired, {@code false} otherwise
+   */
+  public synchronized boolean tryAcquire(int permits) {
+    if (isUnlimited()) {
+      return true;
+    }
+    refill();
+    if (availablePermits >= permits) {
+      availablePermits -= permits;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns how long a caller must wait before a single permit becomes available.
+   *
+   * @return the wait time in milliseconds; 0 if a permit is available now
+   */
+  public synchronized long millisUntilAvailable() {
+    if (isUnlimited()) {
+      return 0;
+    }
+    refill();
+    if (availablePermits >= 1) {
+      return 0;
+    }
+    double missingNanos = (1 - availablePermits) / permitsPerNano;
+    return Math.max(1, TimeUnit.NANOSECONDS.toMillis((long) Math.ceil(missingNanos)));
+  }
+
+  /**
+   * Checks if this bucket imposes no limit.
+   *
+   * @return {@code true} if the configured rate is non-positive
+   */
+  public boolean isUnlimited() {
+    return permitsPerNano <= 0;
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    long elapsed = now - lastRefillNanos;
+    if (elapsed > 0) {
+      availablePermits = Math.min(capacity, availablePermits + elapsed * permitsPerNano);
+      lastRefillNanos = now;
+    }
+  }
+}
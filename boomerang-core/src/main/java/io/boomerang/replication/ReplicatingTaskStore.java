@@ -0,0 +1,175 @@
+package io.boomerang.replication;
+
+import io.boomerang.timer.ListResult;
+import io.boomerang.timer.LongTermTaskStore;
+import io.boomerang.timer.TimerTask;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A {@link LongTermTaskStore} decorator that records every committed write in a {@link
+ * ReplicationLog}.
+ *
+ * <p>A change is appended to the log only after the underlying store has committed it, so a
+ * follower never sees a change the primary could still lose. Writes to the same task are serialized
+ * through a striped lock, so their order in the log matches their order in the store.
+ *
+ * @since 1.0.0
+ */
+public class ReplicatingTaskStore implements LongTermTaskStore, AutoCloseable {
+  private static final int LOCK_STRIPES = 64;
+
+  private final LongTermTaskStore delegate;
+  private final ReplicationLog replicationLog;
+  private final Object[] locks = new Object[LOCK_STRIPES];
+
+  /**
+   * Constructs a replicating store.
+   *
+   * @param delegate the store that holds the tasks; must be non-null
+   * @param replicationLog the log that receives committed changes; must be non-null
+   */
+  public ReplicatingTaskStore(LongTermTaskStore delegate, ReplicationLog replicationLog) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    this.replicationLog = Objects.requireNonNull(replicationLog, "replicationLog must not be null");
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new Object();
+    }
+  }
+
+  @Override
+  public void save(TimerTask task) {
+    synchronized (lockFor(task.getTaskId())) {
+      delegate.save(task);
+      replicationLog.append(ReplicationLog.Operation.SAVE, task);
+    }
+  }
+
+  @Override
+  public void delete(TimerTask task) {
+    synchronized (lockFor(task.getTaskId())) {
+      delegate.delete(task);
+      replicationLog.append(ReplicationLog.Operation.DELETE, task);
+    }
+  }
+
+  @Override
+  public void cancel(String taskId) {
+    synchronized (lockFor(taskId)) {
+      delegate.cancel(taskId);
+      // The task is not read to cancel it, so the change carries only its ID.
+      replicationLog.append(
+          ReplicationLog.Operation.CANCEL,
+          TimerTask.withExpiration(taskId, "", 0, null, 0, 0, () -> {}));
+    }
+  }
+
+  @Override
+  public Optional<String> findClientId(String taskId) {
+    return delegate.findClientId(taskId);
+  }
+
+  @Override
+  public boolean isCancelled(String taskId) {
+    return delegate.isCancelled(taskId);
+  }
+
+  @Override
+  public boolean advanceCycle(TimerTask previous, TimerTask next) {
+    synchronized (lockFor(next.getTaskId())) {
+      boolean advanced = delegate.advanceCycle(previous, next);
+      // A cancelled task is removed rather than moved.
+      replicationLog.append(
+          advanced ? ReplicationLog.Operation.SAVE : ReplicationLog.Operation.DELETE,
+          advanced ? next : previous);
+      return advanced;
+    }
+  }
+
+  @Override
+  public boolean reschedule(String taskId, long expirationMs) {
+    synchronized (lockFor(taskId)) {
+      boolean moved = delegate.reschedule(taskId, expirationMs);
+      if (moved) {
+        // The task is not read to move it, so the change carries only its ID and expiration.
+        replicationLog.append(
+            ReplicationLog.Operation.RESCHEDULE,
+            TimerTask.withExpiration(taskId, "", expirationMs, null, 0, 0, () -> {}));
+      }
+      return moved;
+    }
+  }
+
+  @Override
+  public boolean recordAttempt(TimerTask retry) {
+    synchronized (lockFor(retry.getTaskId())) {
+      boolean recorded = delegate.recordAttempt(retry);
+      replicationLog.append(
+          recorded ? ReplicationLog.Operation.SAVE : ReplicationLog.Operation.DELETE, retry);
+      return recorded;
+    }
+  }
+
+  @Override
+  public Collection<TimerTask> fetchTasksDueBefore(long timestamp) {
+    return delegate.fetchTasksDueBefore(timestamp);
+  }
+
+  @Override
+  public Collection<TimerTask> fetchTasksDueBetween(long fromTimestamp, long toTimestamp) {
+    return delegate.fetchTasksDueBetween(fromTimestamp, toTimestamp);
+  }
+
+  @Override
+  public Collection<TimerTask> fetchTaskMetadataDueBetween(long fromTimestamp, long toTimestamp) {
+    return delegate.fetchTaskMetadataDueBetween(fromTimestamp, toTimestamp);
+  }
+
+  @Override
+  public Optional<TimerTask> findById(String taskId) {
+    return delegate.findById(taskId);
+  }
+
+  @Override
+  public ListResult<TimerTask> list(
+      String clientId,
+      long scheduledAfter,
+      long scheduledBefore,
+      Boolean isRecurring,
+      int limit,
+      String nextToken) {
+    return delegate.list(clientId, scheduledAfter, scheduledBefore, isRecurring, limit, nextToken);
+  }
+
+  @Override
+  public long getRecoveryWatermark() {
+    return delegate.getRecoveryWatermark();
+  }
+
+  @Override
+  public void saveRecoveryWatermark(long watermark) {
+    // Not replicated; every node tracks the watermark of its own timer.
+    delegate.saveRecoveryWatermark(watermark);
+  }
+
+  /**
+   * Gets the log that receives the committed changes.
+   *
+   * @return the replication log
+   */
+  public ReplicationLog getReplicationLog() {
+    return replicationLog;
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (delegate instanceof AutoCloseable ac) {
+      ac.close();
+    }
+  }
+
+  private Object lockFor(String taskId) {
+    return locks[Math.floorMod(taskId.hashCode(), LOCK_STRIPES)];
+  }
+}
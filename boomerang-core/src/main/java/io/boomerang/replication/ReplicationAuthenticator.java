@@ -0,0 +1,88 @@
+package io.boomerang.replication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Proves to a replication primary that a follower holds the server master key.
+ *
+ * <p>The primary sends each new connection a random challenge, and the follower answers with an
+ * HMAC-SHA256 of it, keyed with a secret derived from the master key. The master key itself never
+ * travels, and a recorded answer is of no use for later connections.
+ *
+ * @since 1.0.0
+ */
+final class ReplicationAuthenticator {
+  private static final String MAC_ALGORITHM = "HmacSHA256";
+  private static final byte[] KEY_CONTEXT =
+      "boomerang-replication".getBytes(StandardCharsets.UTF_8);
+  private static final int CHALLENGE_BYTES = 32;
+
+  private final SecretKeySpec key;
+  private final SecureRandom random = new SecureRandom();
+
+  /**
+   * Constructs an authenticator keyed from the server master key.
+   *
+   * @param masterKey the base64-encoded master key; must be non-null
+   * @throws IllegalArgumentException if the key is missing or not valid base64
+   */
+  ReplicationAuthenticator(String masterKey) {
+    if (masterKey == null || masterKey.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Replication requires the master key (BOOMERANG_MASTER_KEY) to be set");
+    }
+    // Derive a dedicated key so the AES master key is never used directly as a MAC key.
+    byte[] masterKeyBytes = Base64.getDecoder().decode(masterKey);
+    this.key =
+        new SecretKeySpec(
+            mac(new SecretKeySpec(masterKeyBytes, MAC_ALGORITHM), KEY_CONTEXT), MAC_ALGORITHM);
+  }
+
+  /**
+   * Creates a challenge for a new follower connection.
+   *
+   * @return the random challenge
+   */
+  byte[] newChallenge() {
+    byte[] challenge = new byte[CHALLENGE_BYTES];
+    random.nextBytes(challenge);
+    return challenge;
+  }
+
+  /**
+   * Answers a challenge of the primary.
+   *
+   * @param challenge the challenge received from the primary; must be non-null
+   * @return the answer to send back
+   */
+  byte[] answer(byte[] challenge) {
+    return mac(key, challenge);
+  }
+
+  /**
+   * Checks the answer of a follower to a challenge.
+   *
+   * @param challenge the challenge sent to the follower; must be non-null
+   * @param answer the answer received from the follower; may be {@code null}
+   * @return {@code true} if the follower holds the same master key
+   */
+  boolean verify(byte[] challenge, byte[] answer) {
+    return answer != null && MessageDigest.isEqual(answer(challenge), answer);
+  }
+
+  private static byte[] mac(SecretKeySpec key, byte[] data) {
+    try {
+      Mac mac = Mac.getInstance(MAC_ALGORITHM);
+      mac.init(key);
+      return mac.doFinal(data);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Could not initialize replication authenticator", e);
+    }
+  }
+}
@@ -0,0 +1,262 @@
+package io.boomerang.replication;
+
+import io.boomerang.replication.ReplicationProtocol.Message;
+import io.boomerang.server.NettyTransport;
+import io.boomerang.timer.ListResult;
+import io.boomerang.timer.LongTermTaskStore;
+import io.boomerang.timer.TieredTimer;
+import io.boomerang.timer.TimerTask;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Follows a replication primary and applies its changes to a standby {@link TieredTimer}.
+ *
+ * <p>Changes are written to the follower's own store and loaded into its timing wheel as they
+ * arrive, so a promoted follower can start dispatching without rebuilding its state. The client
+ * reconnects automatically and resumes from the last applied sequence number, or receives a
+ * snapshot if the primary no longer retains it. On each connection, the client proves to the
+ * primary that it holds the server master key; see {@link ReplicationAuthenticator}.
+ *
+ * <p>Changes are applied on the connection's event loop, which also throttles the primary through
+ * TCP flow control when the follower's store is slower.
+ *
+ * @since 1.0.0
+ */
+public class ReplicationClient {
+  private static final Logger log = LoggerFactory.getLogger(ReplicationClient.class);
+  private static final int PAGE_SIZE = 1000;
+
+  private final String host;
+  private final int port;
+  private final TieredTimer timer;
+  private final LongTermTaskStore store;
+  private final long reconnectDelayMs;
+  private final ReplicationAuthenticator authenticator;
+  private final EventLoopGroup group;
+  private final Bootstrap bootstrap;
+  private volatile boolean running;
+  private volatile Channel channel;
+  private volatile boolean synced;
+  private volatile long lastContactMs;
+  private volatile long lastAppliedSequence;
+  private String logId;
+
+  /**
+   * Constructs a replication client.
+   *
+   * @param primaryAddress the primary's replication address as {@code host:port}; must be non-null
+   * @param timer the standby timer to keep in sync; must be non-null
+   * @param store the store backing {@code timer}; must be non-null
+   * @param reconnectDelayMs the delay before reconnecting after the connection is lost
+   * @param masterKey the base64-encoded master key the primary holds; must be non-null
+   * @param transport the Netty transport to use; must be non-null
+   * @throws IllegalArgumentException if the address is not in {@code host:port} form, or the master
+   *     key is missing or not valid base64
+   */
+  public ReplicationClient(
+      String primaryAddress,
+      TieredTimer timer,
+      LongTermTaskStore store,
+      long reconnectDelayMs,
+      String masterKey,
+      NettyTransport transport) {
+    int separator = primaryAddress == null ? -1 : primaryAddress.lastIndexOf(':');
+    if (separator <= 0) {
+      throw new IllegalArgumentException("Invalid replication primary address: " + primaryAddress);
+    }
+    this.host = primaryAddress.substring(0, separator);
+    this.port = Integer.parseInt(primaryAddress.substring(separator + 1));
+    this.timer = Objects.requireNonNull(timer, "timer must not be null");
+    this.store = Objects.requireNonNull(store, "store must not be null");
+    this.reconnectDelayMs = Math.max(1, reconnectDelayMs);
+    this.authenticator = new ReplicationAuthenticator(masterKey);
+    this.group = transport.newEventLoopGroup(1);
+    this.bootstrap =
+        new Bootstrap()
+            .group(group)
+            .channel(transport.channelClass())
+            .option(ChannelOption.TCP_NODELAY, true)
+            .handler(
+                new ChannelInitializer<SocketChannel>() {
+                  @Override
+                  protected void initChannel(SocketChannel ch) {
+                    ReplicationProtocol.configure(ch.pipeline());
+                    ch.pipeline().addLast(new PrimaryHandler());
+                  }
+                });
+  }
+
+  /** Connects to the primary and starts applying its changes. */
+  public void start() {
+    running = true;
+    lastContactMs = System.currentTimeMillis();
+    connect();
+  }
+
+  /** Disconnects from the primary and stops applying changes. */
+  public void stop() {
+    running = false;
+    Channel current = channel;
+    if (current != null) {
+      current.close();
+    }
+    group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+  }
+
+  /**
+   * Checks if this follower has caught up with the primary at least once, i.e., it received a
+   * complete snapshot or resumed from the primary's log.
+   *
+   * @return {@code true} if the follower holds a consistent copy of the primary's tasks
+   */
+  public boolean isSynced() {
+    return synced;
+  }
+
+  /**
+   * Gets the time of the last message received from the primary, including heartbeats.
+   *
+   * @return the last contact time in Unix epoch milliseconds
+   */
+  public long getLastContactMs() {
+    return lastContactMs;
+  }
+
+  /**
+   * Gets the sequence number of the last change applied from the primary.
+   *
+   * @return the last applied sequence number
+   */
+  public long getLastAppliedSequence() {
+    return lastAppliedSequence;
+  }
+
+  private void connect() {
+    if (!running) {
+      return;
+    }
+    bootstrap
+        .connect(host, port)
+        .addListener(
+            (ChannelFutureListener)
+                future -> {
+                  if (future.isSuccess()) {
+                    channel = future.channel();
+                  } else {
+                    log.debug("Failed to connect to primary {}:{}", host, port, future.cause());
+                    scheduleReconnect();
+                  }
+                });
+  }
+
+  private void scheduleReconnect() {
+    if (running && !group.isShuttingDown()) {
+      group.schedule(this::connect, reconnectDelayMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private class PrimaryHandler extends SimpleChannelInboundHandler<Message> {
+    private Set<String> snapshotTaskIds;
+    private long snapshotSequence;
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+      log.info("Connected to primary {}:{}", host, port);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+      if (running) {
+        log.warn("Lost connection to primary {}:{}, reconnecting", host, port);
+      }
+      scheduleReconnect();
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, Message msg) {
+      lastContactMs = System.currentTimeMillis();
+      switch (msg.type()) {
+        case ReplicationProtocol.CHALLENGE ->
+            ctx.writeAndFlush(
+                Message.hello(logId, lastAppliedSequence, authenticator.answer(msg.proof())));
+        case ReplicationProtocol.RESUME -> {
+          synced = true;
+          log.info("Resumed replication after sequence {}", lastAppliedSequence);
+        }
+        case ReplicationProtocol.SNAPSHOT_BEGIN -> {
+          logId = msg.logId();
+          snapshotSequence = msg.sequence();
+          snapshotTaskIds = new HashSet<>();
+          log.info("Receiving snapshot up to sequence {}", snapshotSequence);
+        }
+        case ReplicationProtocol.SNAPSHOT_TASK -> {
+          timer.applyReplicatedSave(msg.task());
+          snapshotTaskIds.add(msg.task().getTaskId());
+        }
+        case ReplicationProtocol.SNAPSHOT_END -> {
+          int removed = removeTasksNotIn(snapshotTaskIds);
+          log.info(
+              "Applied snapshot of {} tasks, removed {} stale tasks",
+              snapshotTaskIds.size(),
+              removed);
+          snapshotTaskIds = null;
+          lastAppliedSequence = snapshotSequence;
+          synced = true;
+        }
+        case ReplicationProtocol.CHANGE -> {
+          if (msg.sequence() > lastAppliedSequence) {
+            switch (msg.operation()) {
+              case SAVE -> timer.applyReplicatedSave(msg.task());
+              case DELETE -> timer.applyReplicatedDelete(msg.task());
+              case CANCEL -> timer.cancel(msg.task().getTaskId());
+              case RESCHEDULE ->
+                  timer.reschedule(msg.task().getTaskId(), msg.task().getExpirationMs());
+            }
+            lastAppliedSequence = msg.sequence();
+          }
+        }
+        case ReplicationProtocol.HEARTBEAT -> {}
+        default -> log.warn("Unexpected replication message {} from primary", msg.type());
+      }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      log.error("Replication from primary {}:{} failed", host, port, cause);
+      ctx.close();
+    }
+
+    private int removeTasksNotIn(Set<String> keep) {
+      List<TimerTask> stale = new ArrayList<>();
+      String nextToken = null;
+      do {
+        ListResult<TimerTask> page =
+            store.list(null, 0, Long.MAX_VALUE, null, PAGE_SIZE, nextToken);
+        for (TimerTask task : page.items()) {
+          if (!keep.contains(task.getTaskId())) {
+            stale.add(task);
+          }
+        }
+        nextToken = page.nextToken();
+      } while (nextToken != null);
+      stale.forEach(timer::applyReplicatedDelete);
+      return stale.size();
+    }
+  }
+}
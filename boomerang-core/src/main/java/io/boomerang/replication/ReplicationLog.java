@@ -0,0 +1,130 @@
+package io.boomerang.replication;
+
+import io.boomerang.timer.TimerTask;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A bounded, in-memory log of the changes committed to a primary's task store.
+ *
+ * <p>Every change gets a sequence number, starting at 1. Followers stream the log from the sequence
+ * number they last applied. The log only retains the most recent {@code capacity} changes; a
+ * follower that falls further behind is resynchronized from a snapshot of the store instead.
+ *
+ * <p>Each log instance has a random ID. Sequence numbers are only meaningful within the same log,
+ * so a follower that reconnects to a restarted or newly promoted primary is resynchronized as well.
+ *
+ * @since 1.0.0
+ */
+public class ReplicationLog {
+  /** The kind of change applied to the task store. */
+  public enum Operation {
+    /** The task was saved or re-keyed. */
+    SAVE,
+    /** The task was deleted. */
+    DELETE,
+    /** The task was cancelled; only its ID is meaningful. */
+    CANCEL,
+    /** The task was moved to a new expiration; only its ID and expiration are meaningful. */
+    RESCHEDULE
+  }
+
+  /**
+   * A single committed change.
+   *
+   * @param sequence the sequence number of the change
+   * @param operation the kind of change
+   * @param task the task that was saved or deleted
+   */
+  public record Entry(long sequence, Operation operation, TimerTask task) {}
+
+  private final String logId = UUID.randomUUID().toString();
+  private final Entry[] entries;
+  private long lastSequence;
+
+  /**
+   * Constructs an empty replication log.
+   *
+   * @param capacity the number of changes to retain; must be positive
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public ReplicationLog(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Replication log capacity must be positive: " + capacity);
+    }
+    this.entries = new Entry[capacity];
+  }
+
+  /**
+   * Appends a committed change and wakes up waiting followers.
+   *
+   * @param operation the kind of change; must be non-null
+   * @param task the task that was saved or deleted; must be non-null
+   * @return the sequence number assigned to the change
+   */
+  public synchronized long append(Operation operation, TimerTask task) {
+    long sequence = ++lastSequence;
+    entries[(int) (sequence % entries.length)] = new Entry(sequence, operation, task);
+    notifyAll();
+    return sequence;
+  }
+
+  /**
+   * Reads the changes following a sequence number.
+   *
+   * @param sequence the last sequence number the reader has seen
+   * @param maxEntries the maximum number of changes to return
+   * @return the changes in order, possibly empty, or {@code null} if changes following {@code
+   *     sequence} are no longer retained or {@code sequence} is ahead of this log
+   */
+  public synchronized List<Entry> readAfter(long sequence, int maxEntries) {
+    long firstRetained = Math.max(1, lastSequence - entries.length + 1);
+    if (sequence > lastSequence || sequence + 1 < firstRetained) {
+      return null;
+    }
+    int count = (int) Math.min(maxEntries, lastSequence - sequence);
+    List<Entry> result = new ArrayList<>(count);
+    for (long next = sequence + 1; next <= sequence + count; next++) {
+      result.add(entries[(int) (next % entries.length)]);
+    }
+    return result;
+  }
+
+  /**
+   * Waits until a change following a sequence number is appended.
+   *
+   * @param sequence the last sequence number the reader has seen
+   * @param timeoutMs the maximum time to wait in milliseconds
+   * @return {@code true} if a newer change is available
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public synchronized boolean awaitAfter(long sequence, long timeoutMs)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeoutMs;
+    long remaining = timeoutMs;
+    while (lastSequence <= sequence && remaining > 0) {
+      wait(remaining);
+      remaining = deadline - System.currentTimeMillis();
+    }
+    return lastSequence > sequence;
+  }
+
+  /**
+   * Gets the sequence number of the latest change.
+   *
+   * @return the latest sequence number, or 0 if the log is empty
+   */
+  public synchronized long getLastSequence() {
+    return lastSequence;
+  }
+
+  /**
+   * Gets the unique ID of this log.
+   *
+   * @return the log ID
+   */
+  public String getLogId() {
+    return logId;
+  }
+}
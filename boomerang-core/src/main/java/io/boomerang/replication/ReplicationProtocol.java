@@ -0,0 +1,196 @@
+package io.boomerang.replication;
+
+import io.boomerang.timer.TimerTask;
+import io.boomerang.timer.TimerTaskSerializer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageDecoder;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The wire protocol between a replication primary and its followers.
+ *
+ * <p>Messages are length-prefixed frames starting with a type byte. Tasks are encoded with {@link
+ * TimerTaskSerializer}, the same format the RocksDB store uses. A session runs as follows:
+ *
+ * <ol>
+ *   <li>The primary sends {@link #CHALLENGE} with a random challenge.
+ *   <li>The follower sends {@link #HELLO} with the log ID and sequence number it last applied, and
+ *       its answer to the challenge; see {@link ReplicationAuthenticator}. The primary closes the
+ *       connection if the answer is wrong.
+ *   <li>The primary answers {@link #RESUME} if it still retains the following changes, otherwise
+ *       it sends a snapshot: {@link #SNAPSHOT_BEGIN}, one {@link #SNAPSHOT_TASK} per stored task,
+ *       then {@link #SNAPSHOT_END}.
+ *   <li>The primary streams {@link #CHANGE} messages, and {@link #HEARTBEAT} messages while idle.
+ * </ol>
+ */
+final class ReplicationProtocol {
+  static final byte HELLO = 1;
+  static final byte RESUME = 2;
+  static final byte SNAPSHOT_BEGIN = 3;
+  static final byte SNAPSHOT_TASK = 4;
+  static final byte SNAPSHOT_END = 5;
+  static final byte CHANGE = 6;
+  static final byte HEARTBEAT = 7;
+  static final byte CHALLENGE = 8;
+
+  private static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+  private ReplicationProtocol() {}
+
+  /**
+   * A protocol message. Fields that a message type does not use are {@code null} or 0.
+   *
+   * @param type the message type
+   * @param logId the primary's log ID ({@code HELLO}, {@code RESUME}, {@code SNAPSHOT_BEGIN})
+   * @param sequence a sequence number ({@code HELLO}, {@code SNAPSHOT_BEGIN}, {@code CHANGE},
+   *     {@code HEARTBEAT})
+   * @param operation the change kind ({@code CHANGE})
+   * @param task the task ({@code SNAPSHOT_TASK}, {@code CHANGE})
+   * @param proof the challenge ({@code CHALLENGE}) or the answer to it ({@code HELLO})
+   */
+  record Message(
+      byte type,
+      String logId,
+      long sequence,
+      ReplicationLog.Operation operation,
+      TimerTask task,
+      byte[] proof) {
+    static Message challenge(byte[] challenge) {
+      return new Message(CHALLENGE, null, 0, null, null, challenge);
+    }
+
+    static Message hello(String logId, long lastAppliedSequence, byte[] answer) {
+      return new Message(HELLO, logId, lastAppliedSequence, null, null, answer);
+    }
+
+    static Message resume(String logId) {
+      return new Message(RESUME, logId, 0, null, null, null);
+    }
+
+    static Message snapshotBegin(String logId, long sequence) {
+      return new Message(SNAPSHOT_BEGIN, logId, sequence, null, null, null);
+    }
+
+    static Message snapshotTask(TimerTask task) {
+      return new Message(SNAPSHOT_TASK, null, 0, null, task, null);
+    }
+
+    static Message snapshotEnd() {
+      return new Message(SNAPSHOT_END, null, 0, null, null, null);
+    }
+
+    static Message change(ReplicationLog.Entry entry) {
+      return new Message(CHANGE, null, entry.sequence(), entry.operation(), entry.task(), null);
+    }
+
+    static Message heartbeat(long lastSequence) {
+      return new Message(HEARTBEAT, null, lastSequence, null, null, null);
+    }
+  }
+
+  /** Adds the framing and message codec to a replication channel. */
+  static void configure(ChannelPipeline pipeline) {
+    pipeline.addLast(new LengthFieldBasedFrameDecoder(MAX_FRAME_LENGTH, 0, 4, 0, 4));
+    pipeline.addLast(new LengthFieldPrepender(4));
+    pipeline.addLast(new Decoder());
+    pipeline.addLast(new Encoder());
+  }
+
+  static class Encoder extends MessageToByteEncoder<Message> {
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Message msg, ByteBuf out) throws IOException {
+      try (DataOutputStream dos = new DataOutputStream(new ByteBufOutputStream(out))) {
+        dos.writeByte(msg.type());
+        switch (msg.type()) {
+          case CHALLENGE -> writeProof(dos, msg.proof());
+          case HELLO -> {
+            dos.writeUTF(msg.logId() == null ? "" : msg.logId());
+            dos.writeLong(msg.sequence());
+            writeProof(dos, msg.proof());
+          }
+          case SNAPSHOT_BEGIN -> {
+            dos.writeUTF(msg.logId() == null ? "" : msg.logId());
+            dos.writeLong(msg.sequence());
+          }
+          case RESUME -> dos.writeUTF(msg.logId());
+          case SNAPSHOT_TASK -> writeTask(dos, msg.task());
+          case CHANGE -> {
+            dos.writeLong(msg.sequence());
+            dos.writeByte(msg.operation().ordinal());
+            writeTask(dos, msg.task());
+          }
+          case HEARTBEAT -> dos.writeLong(msg.sequence());
+          default -> {}
+        }
+      }
+    }
+
+    private static void writeProof(DataOutputStream dos, byte[] proof) throws IOException {
+      dos.writeShort(proof.length);
+      dos.write(proof);
+    }
+
+    private static void writeTask(DataOutputStream dos, TimerTask task) throws IOException {
+      byte[] data = TimerTaskSerializer.serialize(task);
+      dos.writeInt(data.length);
+      dos.write(data);
+    }
+  }
+
+  static class Decoder extends MessageToMessageDecoder<ByteBuf> {
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out)
+        throws IOException {
+      try (DataInputStream dis = new DataInputStream(new ByteBufInputStream(in))) {
+        byte type = dis.readByte();
+        out.add(
+            switch (type) {
+              case CHALLENGE -> Message.challenge(readProof(dis));
+              case HELLO ->
+                  Message.hello(emptyToNull(dis.readUTF()), dis.readLong(), readProof(dis));
+              case SNAPSHOT_BEGIN ->
+                  Message.snapshotBegin(emptyToNull(dis.readUTF()), dis.readLong());
+              case RESUME -> Message.resume(dis.readUTF());
+              case SNAPSHOT_TASK -> Message.snapshotTask(readTask(dis));
+              case SNAPSHOT_END -> Message.snapshotEnd();
+              case CHANGE ->
+                  new Message(
+                      CHANGE,
+                      null,
+                      dis.readLong(),
+                      ReplicationLog.Operation.values()[dis.readByte()],
+                      readTask(dis),
+                      null);
+              case HEARTBEAT -> Message.heartbeat(dis.readLong());
+              default -> throw new IOException("Unknown replication message type: " + type);
+            });
+      }
+    }
+
+    private static byte[] readProof(DataInputStream dis) throws IOException {
+      byte[] proof = new byte[dis.readUnsignedShort()];
+      dis.readFully(proof);
+      return proof;
+    }
+
+    private static TimerTask readTask(DataInputStream dis) throws IOException {
+      byte[] data = new byte[dis.readInt()];
+      dis.readFully(data);
+      return TimerTaskSerializer.deserialize(data);
+    }
+
+    private static String emptyToNull(String value) {
+      return value.isEmpty() ? null : value;
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package io.boomerang.replication;
+
+import java.util.Locale;
+
+/**
+ * The part a node plays in task store replication.
+ *
+ * @since 1.0.0
+ */
+public enum ReplicationRole {
+  /** The node neither streams nor receives changes. */
+  STANDALONE,
+  /** The node serves clients, dispatches tasks and streams its changes to followers. */
+  PRIMARY,
+  /** The node keeps a warm standby copy of a primary and takes over when promoted. */
+  FOLLOWER;
+
+  /**
+   * Resolves a role from its configured name.
+   *
+   * @param name the role name, case-insensitive; {@code null} or blank means standalone
+   * @return the role; never {@code null}
+   * @throws IllegalArgumentException if the name is not a known role
+   */
+  public static ReplicationRole of(String name) {
+    if (name == null || name.isBlank()) {
+      return STANDALONE;
+    }
+    try {
+      return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown replication role: " + name, e);
+    }
+  }
+}
@@ -0,0 +1,261 @@
+package io.boomerang.replication;
+
+import io.boomerang.replication.ReplicationProtocol.Message;
+import io.boomerang.server.NettyTransport;
+import io.boomerang.timer.ListResult;
+import io.boomerang.timer.LongTermTaskStore;
+import io.boomerang.timer.TimerTask;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams a primary's {@link ReplicationLog} to its followers over TCP.
+ *
+ * <p>Each follower connection is served by its own sender thread, which writes a snapshot when the
+ * follower cannot resume from the log and then tails the log. A sender waits for its previous batch
+ * to reach the socket whenever the channel is not writable, so a slow follower does not buffer the
+ * log in memory; if it falls behind the retained log, it gets a fresh snapshot.
+ *
+ * <p>A follower is streamed to only after it proved that it holds the server master key; see {@link
+ * ReplicationAuthenticator}. The stream itself is not encrypted, so the server listens on the
+ * loopback interface unless it is given another bind address.
+ *
+ * @since 1.0.0
+ */
+public class ReplicationServer {
+  private static final Logger log = LoggerFactory.getLogger(ReplicationServer.class);
+  private static final int BATCH_SIZE = 512;
+  private static final int SNAPSHOT_PAGE_SIZE = 1000;
+
+  private final ReplicationLog replicationLog;
+  private final LongTermTaskStore store;
+  private final String bindAddress;
+  private final int port;
+  private final long heartbeatIntervalMs;
+  private final ReplicationAuthenticator authenticator;
+  private final NettyTransport transport;
+  private final AtomicInteger followerCount = new AtomicInteger();
+  private EventLoopGroup group;
+  private ExecutorService senderExecutor;
+  private Channel serverChannel;
+
+  /**
+   * Constructs a replication server.
+   *
+   * @param replicationLog the log to stream; must be non-null
+   * @param store the store to take snapshots from; must be non-null
+   * @param bindAddress the address of the interface to listen on; must be non-null
+   * @param port the port to listen on; 0 picks a free port
+   * @param heartbeatIntervalMs how often an idle follower receives a heartbeat
+   * @param masterKey the base64-encoded master key that followers must hold; must be non-null
+   * @param transport the Netty transport to use; must be non-null
+   * @throws IllegalArgumentException if the master key is missing or not valid base64
+   */
+  public ReplicationServer(
+      ReplicationLog replicationLog,
+      LongTermTaskStore store,
+      String bindAddress,
+      int port,
+      long heartbeatIntervalMs,
+      String masterKey,
+      NettyTransport transport) {
+    this.replicationLog = Objects.requireNonNull(replicationLog, "replicationLog must not be null");
+    this.store = Objects.requireNonNull(store, "store must not be null");
+    this.bindAddress = Objects.requireNonNull(bindAddress, "bindAddress must not be null");
+    this.port = port;
+    this.heartbeatIntervalMs = Math.max(1, heartbeatIntervalMs);
+    this.authenticator = new ReplicationAuthenticator(masterKey);
+    this.transport = Objects.requireNonNull(transport, "transport must not be null");
+  }
+
+  /**
+   * Starts accepting followers.
+   *
+   * @throws InterruptedException if the thread is interrupted while binding
+   */
+  public void start() throws InterruptedException {
+    group = transport.newEventLoopGroup(1);
+    senderExecutor =
+        Executors.newCachedThreadPool(
+            r -> {
+              Thread t = new Thread(r, "replication-sender");
+              t.setDaemon(true);
+              return t;
+            });
+
+    ServerBootstrap b = new ServerBootstrap();
+    b.group(group)
+        .channel(transport.serverChannelClass())
+        .childOption(ChannelOption.TCP_NODELAY, true)
+        .childHandler(
+            new ChannelInitializer<SocketChannel>() {
+              @Override
+              public void initChannel(SocketChannel ch) {
+                ReplicationProtocol.configure(ch.pipeline());
+                ch.pipeline().addLast(new FollowerHandler());
+              }
+            });
+    serverChannel = b.bind(bindAddress, port).sync().channel();
+    log.info("Replication server listening on {}:{}", bindAddress, getPort());
+  }
+
+  /** Disconnects all followers and stops listening. */
+  public void stop() {
+    if (serverChannel != null) {
+      serverChannel.close();
+    }
+    if (senderExecutor != null) {
+      senderExecutor.shutdownNow();
+    }
+    if (group != null) {
+      group.shutdownGracefully();
+    }
+  }
+
+  /**
+   * Gets the port the server listens on.
+   *
+   * @return the bound port, or the configured port if the server is not started
+   */
+  public int getPort() {
+    return serverChannel != null
+        ? ((InetSocketAddress) serverChannel.localAddress()).getPort()
+        : port;
+  }
+
+  /**
+   * Gets the number of connected followers.
+   *
+   * @return the follower count
+   */
+  public int getFollowerCount() {
+    return followerCount.get();
+  }
+
+  private class FollowerHandler extends SimpleChannelInboundHandler<Message> {
+    private final byte[] challenge = authenticator.newChallenge();
+    private boolean streaming;
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+      followerCount.incrementAndGet();
+      log.info("Follower {} connected", ctx.channel().remoteAddress());
+      ctx.writeAndFlush(Message.challenge(challenge));
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+      followerCount.decrementAndGet();
+      log.info("Follower {} disconnected", ctx.channel().remoteAddress());
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, Message msg) {
+      if (msg.type() != ReplicationProtocol.HELLO || streaming) {
+        log.warn("Unexpected replication message {} from follower", msg.type());
+        ctx.close();
+        return;
+      }
+      if (!authenticator.verify(challenge, msg.proof())) {
+        log.warn("Follower {} failed to authenticate", ctx.channel().remoteAddress());
+        ctx.close();
+        return;
+      }
+      streaming = true;
+      Channel channel = ctx.channel();
+      senderExecutor.execute(() -> stream(channel, msg.logId(), msg.sequence()));
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      log.warn("Replication connection to {} failed", ctx.channel().remoteAddress(), cause);
+      ctx.close();
+    }
+  }
+
+  private void stream(Channel channel, String followerLogId, long followerSequence) {
+    try {
+      long cursor;
+      if (replicationLog.getLogId().equals(followerLogId)
+          && replicationLog.readAfter(followerSequence, 0) != null) {
+        channel.writeAndFlush(Message.resume(replicationLog.getLogId()));
+        cursor = followerSequence;
+        log.info("Follower {} resumes after sequence {}", channel.remoteAddress(), cursor);
+      } else {
+        cursor = sendSnapshot(channel);
+      }
+
+      while (channel.isActive()) {
+        List<ReplicationLog.Entry> batch = replicationLog.readAfter(cursor, BATCH_SIZE);
+        if (batch == null) {
+          log.warn("Follower {} fell behind the replication log", channel.remoteAddress());
+          cursor = sendSnapshot(channel);
+        } else if (batch.isEmpty()) {
+          if (!replicationLog.awaitAfter(cursor, heartbeatIntervalMs)) {
+            channel.writeAndFlush(Message.heartbeat(cursor));
+          }
+        } else {
+          ChannelFuture last = null;
+          for (ReplicationLog.Entry entry : batch) {
+            last = channel.write(Message.change(entry));
+          }
+          channel.flush();
+          cursor = batch.get(batch.size() - 1).sequence();
+          awaitWritable(channel, last);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      channel.close();
+    } catch (RuntimeException e) {
+      log.error("Failed to stream replication log to {}", channel.remoteAddress(), e);
+      channel.close();
+    }
+  }
+
+  private long sendSnapshot(Channel channel) {
+    // Changes up to this sequence are already in the store; later ones are replayed afterwards.
+    long sequence = replicationLog.getLastSequence();
+    channel.writeAndFlush(Message.snapshotBegin(replicationLog.getLogId(), sequence));
+
+    long count = 0;
+    String nextToken = null;
+    do {
+      ListResult<TimerTask> page =
+          store.list(null, 0, Long.MAX_VALUE, null, SNAPSHOT_PAGE_SIZE, nextToken);
+      ChannelFuture last = null;
+      for (TimerTask task : page.items()) {
+        last = channel.write(Message.snapshotTask(task));
+        count++;
+      }
+      channel.flush();
+      awaitWritable(channel, last);
+      nextToken = page.nextToken();
+    } while (nextToken != null && channel.isActive());
+
+    channel.writeAndFlush(Message.snapshotEnd());
+    log.info("Sent snapshot of {} tasks up to sequence {}", count, sequence);
+    return sequence;
+  }
+
+  private static void awaitWritable(Channel channel, ChannelFuture lastWrite) {
+    if (lastWrite != null && !channel.isWritable()) {
+      lastWrite.awaitUninterruptibly();
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package io.boomerang.server;
+
+import io.boomerang.config.ServerConfig;
+import io.boomerang.ratelimit.KeyedRateLimiter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load-aware admission control for the inbound TCP server.
+ *
+ * <p>The controller tracks how many blocking requests are queued or running across all connections.
+ * Once that number crosses {@link ServerConfig#getAdmissionMaxPending()}, new task registrations
+ * are rejected with a retry-after hint instead of growing the business executor queues without
+ * bound. Registrations are additionally subject to a per-client rate quota, so a single noisy
+ * tenant cannot starve the others.
+ *
+ * <p>A single instance is shared by all connections of a server.
+ *
+ * @since 1.0.0
+ */
+public class AdmissionController {
+  private final KeyedRateLimiter registrationLimiter;
+  private final int maxPending;
+  private final int maxPendingPerConnection;
+  private final long overloadRetryAfterMs;
+  private final AtomicInteger pending = new AtomicInteger();
+
+  /**
+   * Constructs an admission controller from the server configuration.
+   *
+   * @param config the server configuration; must be non-null
+   */
+  public AdmissionController(ServerConfig config) {
+    this(
+        config.getAdmissionRegistrationRatePerSecond(),
+        config.getAdmissionRegistrationBurst(),
+        config.getAdmissionMaxPending(),
+        config.getAdmissionMaxPendingPerConnection(),
+        config.getAdmissionRetryAfterMs());
+  }
+
+  /**
+   * Constructs an admission controller with explicit limits.
+   *
+   * @param registrationRatePerSecond the sustained registration rate per client; 0 means unlimited
+   * @param registrationBurst the registration burst allowed per client
+   * @param maxPending the global limit of pending blocking requests; 0 means unlimited
+   * @param maxPendingPerConnection the per-connection limit of pending blocking requests; 0 means
+   *     unlimited
+   * @param overloadRetryAfterMs the retry-after hint returned while overloaded
+   */
+  public AdmissionController(
+      double registrationRatePerSecond,
+      int registrationBurst,
+      int maxPending,
+      int maxPendingPerConnection,
+      long overloadRetryAfterMs) {
+    this.registrationLimiter = new KeyedRateLimiter(registrationRatePerSecond, registrationBurst);
+    this.maxPending = maxPending;
+    this.maxPendingPerConnection = maxPendingPerConnection;
+    this.overloadRetryAfterMs = overloadRetryAfterMs;
+  }
+
+  /**
+   * Creates an admission controller that admits everything.
+   *
+   * @return an unlimited admission controller
+   */
+  public static AdmissionController unlimited() {
+    return new AdmissionController(0, 0, 0, 0, 0);
+  }
+
+  /**
+   * Decides whether a client may register a task now.
+   *
+   * <p>An admitted registration consumes one permit from the client's quota.
+   *
+   * @param clientId the client registering the task; must be non-null
+   * @return 0 if the registration is admitted, otherwise the number of milliseconds the client
+   *     should wait before retrying
+   */
+  public long tryAdmitRegistration(String clientId) {
+    if (isOverloaded()) {
+      return Math.max(1, overloadRetryAfterMs);
+    }
+    if (registrationLimiter.tryAcquire(clientId)) {
+      return 0;
+    }
+    return Math.max(1, registrationLimiter.millisUntilAvailable(clientId));
+  }
+
+  /** Records that a blocking request has been queued. */
+  public void onRequestQueued() {
+    pending.incrementAndGet();
+  }
+
+  /** Records that a previously queued blocking request has completed. */
+  public void onRequestCompleted() {
+    pending.decrementAndGet();
+  }
+
+  /**
+   * Checks if the server has more pending blocking requests than it is willing to queue.
+   *
+   * @return {@code true} if new registrations should be rejected
+   */
+  public boolean isOverloaded() {
+    return maxPending > 0 && pending.get() >= maxPending;
+  }
+
+  /**
+   * Checks if a connection has enough pending blocking requests that reading from it should pause.
+   *
+   * @param connectionPending the number of pending blocking requests of the connection
+   * @return {@code true} if the connection should stop reading
+   */
+  public boolean isConnectionSaturated(int connectionPending) {
+    return maxPendingPerConnection > 0 && connectionPending >= maxPendingPerConnection;
+  }
+
+  /**
+   * Gets the number of blocking requests currently queued or running across all connections.
+   *
+   * @return the pending request count
+   */
+  public int getPendingCount() {
+    return pending.get();
+  }
+}
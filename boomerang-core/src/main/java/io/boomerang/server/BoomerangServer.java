@@ -1,16 +1,19 @@
 package io.boomerang.server;
 
 import io.boomerang.auth.AuthService;
+import io.boomerang.cluster.ClusterTopology;
 import io.boomerang.config.ServerConfig;
 import io.boomerang.proto.BoomerangEnvelope;
 import io.boomerang.session.SessionManager;
+import io.boomerang.timer.DLQService;
 import io.boomerang.timer.Timer;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.codec.protobuf.ProtobufDecoder;
@@ -24,7 +27,8 @@ import org.slf4j.LoggerFactory;
  * Netty-based TCP server for Boomerang.
  *
  * <p>This server handles inbound task registration, cancellation, and authentication using Protobuf
- * over TCP.
+ * over TCP. The I/O transport is chosen through {@link ServerConfig#getNettyTransport()}, using the
+ * native epoll transport where available, and buffers are allocated from the pooled allocator.
  *
  * @since 1.0.0
  */
@@ -34,6 +38,9 @@ public class BoomerangServer {
   private final AuthService authService;
   private final SessionManager sessionManager;
   private final Timer timer;
+  private final AdmissionController admissionController;
+  private final ClusterTopology topology;
+  private final DLQService dlqService;
   private EventLoopGroup bossGroup;
   private EventLoopGroup workerGroup;
   private EventExecutorGroup businessGroup;
@@ -48,10 +55,32 @@ public class BoomerangServer {
    */
   public BoomerangServer(
       ServerConfig config, AuthService authService, SessionManager sessionManager, Timer timer) {
+    this(config, authService, sessionManager, timer, null);
+  }
+
+  /**
+   * Constructs the server with required services and configuration, serving the administrative
+   * operations on the dead-letter queue as well.
+   *
+   * @param config the server configuration
+   * @param authService the authentication service
+   * @param sessionManager the session manager
+   * @param timer the scheduling timer
+   * @param dlqService the dead-letter queue operations; {@code null} if DLQ requests are not served
+   */
+  public BoomerangServer(
+      ServerConfig config,
+      AuthService authService,
+      SessionManager sessionManager,
+      Timer timer,
+      DLQService dlqService) {
     this.config = config;
     this.authService = authService;
     this.sessionManager = sessionManager;
     this.timer = timer;
+    this.admissionController = new AdmissionController(config);
+    this.topology = new ClusterTopology(config);
+    this.dlqService = dlqService;
   }
 
   /**
@@ -60,13 +89,23 @@ public class BoomerangServer {
    * @throws InterruptedException if the server is interrupted while starting
    */
   public void start() throws InterruptedException {
-    bossGroup = new NioEventLoopGroup(config.getNettyBossThreads());
-    workerGroup = new NioEventLoopGroup(config.getNettyWorkerThreads());
+    NettyTransport transport = NettyTransport.select(config.getNettyTransport());
+    bossGroup = transport.newEventLoopGroup(config.getNettyBossThreads());
+    workerGroup = transport.newEventLoopGroup(config.getNettyWorkerThreads());
     businessGroup = new DefaultEventExecutorGroup(config.getNettyBusinessThreads());
 
     ServerBootstrap b = new ServerBootstrap();
     b.group(bossGroup, workerGroup)
-        .channel(NioServerSocketChannel.class)
+        .channel(transport.serverChannelClass())
+        .option(ChannelOption.SO_BACKLOG, config.getNettySoBacklog())
+        .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+        .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+        .childOption(ChannelOption.TCP_NODELAY, config.isNettyTcpNoDelay())
+        .childOption(
+            ChannelOption.WRITE_BUFFER_WATER_MARK,
+            new WriteBufferWaterMark(
+                config.getNettyWriteBufferLowWaterMark(),
+                config.getNettyWriteBufferHighWaterMark()))
         .childHandler(
             new ChannelInitializer<SocketChannel>() {
               @Override
@@ -75,17 +114,27 @@ public class BoomerangServer {
                 ch.pipeline().addLast(new LengthFieldPrepender(4));
                 ch.pipeline().addLast(new ProtobufDecoder(BoomerangEnvelope.getDefaultInstance()));
                 ch.pipeline().addLast(new ProtobufEncoder());
-                // Use business logic executor for the handler
+                // The handler runs on the event loop and hands blocking requests to a business
+                // executor pinned to this channel, which keeps them in order.
                 ch.pipeline()
                     .addLast(
-                        businessGroup,
-                        new BoomerangServerHandler(authService, sessionManager, timer));
+                        new BoomerangServerHandler(
+                            authService,
+                            sessionManager,
+                            timer,
+                            businessGroup.next(),
+                            admissionController,
+                            topology,
+                            dlqService));
               }
             });
 
     int port = config.getServerPort();
-    log.info("Starting Boomerang TCP server on port {}...", port);
+    log.info("Starting Boomerang TCP server on port {} using {} transport...", port, transport);
     b.bind(port).sync();
+    if (topology.isPartitioned()) {
+      log.info("Serving as node {} of a partitioned deployment", config.getClusterSelfAddress());
+    }
     log.info("Boomerang TCP server started.");
   }
 
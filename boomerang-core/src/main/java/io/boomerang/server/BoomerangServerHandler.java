@@ -1,14 +1,27 @@
 package io.boomerang.server;
 
 import io.boomerang.auth.AuthService;
+import io.boomerang.auth.AuthThrottledException;
+import io.boomerang.cluster.ClusterTopology;
 import io.boomerang.proto.BoomerangEnvelope;
 import io.boomerang.proto.Status;
 import io.boomerang.session.SessionManager;
+import io.boomerang.timer.CronSchedule;
+import io.boomerang.timer.DLQService;
 import io.boomerang.timer.Timer;
 import io.boomerang.timer.TimerTask;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
-import java.util.UUID;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,16 +31,43 @@ import org.slf4j.LoggerFactory;
  * <p>This handler routes the incoming requests to the appropriate services (Auth, Session, Timer)
  * and sends back the corresponding responses.
  *
+ * <p>The handler runs on the channel's I/O event loop. Requests that may block on RocksDB or
+ * password hashing are handed to a blocking executor, single-threaded per channel. Requests that
+ * only touch memory, such as session refreshes and lookups of tasks held in the timing wheel, are
+ * answered inline to avoid a thread handoff, but only while no earlier request of the connection is
+ * pending; otherwise they queue behind the earlier ones. Responses carry no correlation ID, so they
+ * are written in the order of the requests. Requests read while an authentication is in flight are
+ * held back until it has been answered.
+ *
+ * <p>Backpressure is applied through the {@link AdmissionController}: the handler stops reading
+ * from the channel while its outbound buffer is above the high water mark or while it has too many
+ * blocking requests pending, and task registrations over quota or during overload are answered with
+ * {@link Status#OVERLOADED} and a retry-after hint.
+ *
  * @since 1.0.0
  */
 public class BoomerangServerHandler extends SimpleChannelInboundHandler<BoomerangEnvelope> {
   private static final Logger log = LoggerFactory.getLogger(BoomerangServerHandler.class);
+  private static final int MAX_TASK_ID_LENGTH = 128;
+  private static final int TASK_LOCK_STRIPES = 64;
+  // Shared by all connections, whose requests run on different threads, so that the ownership
+  // check of a task ID and the write that follows it are not interleaved with those of another.
+  private static final Object[] TASK_LOCKS =
+      Stream.generate(Object::new).limit(TASK_LOCK_STRIPES).toArray();
   private final AuthService authService;
   private final SessionManager sessionManager;
   private final Timer timer;
+  private final Executor blockingExecutor;
+  private final AdmissionController admission;
+  private final ClusterTopology topology;
+  private final DLQService dlqService;
+  private final AtomicInteger connectionPending = new AtomicInteger();
+  // Confined to the event loop, like the flag below.
+  private final Deque<BoomerangEnvelope> heldBack = new ArrayDeque<>();
+  private boolean authenticating;
 
   /**
-   * Constructs the server handler with the required services.
+   * Constructs the server handler with the required services, running every request inline.
    *
    * @param authService the authentication service
    * @param sessionManager the session manager
@@ -35,30 +75,280 @@ public class BoomerangServerHandler extends SimpleChannelInboundHandler<Boomeran
    */
   public BoomerangServerHandler(
       AuthService authService, SessionManager sessionManager, Timer timer) {
+    this(authService, sessionManager, timer, ImmediateEventExecutor.INSTANCE);
+  }
+
+  /**
+   * Constructs the server handler with the required services and an executor for blocking work.
+   *
+   * @param authService the authentication service
+   * @param sessionManager the session manager
+   * @param timer the scheduling timer
+   * @param blockingExecutor the executor for requests that may block; must be non-null
+   */
+  public BoomerangServerHandler(
+      AuthService authService,
+      SessionManager sessionManager,
+      Timer timer,
+      Executor blockingExecutor) {
+    this(authService, sessionManager, timer, blockingExecutor, AdmissionController.unlimited());
+  }
+
+  /**
+   * Constructs the server handler with the required services, an executor for blocking work, and
+   * admission control.
+   *
+   * @param authService the authentication service
+   * @param sessionManager the session manager
+   * @param timer the scheduling timer
+   * @param blockingExecutor the executor for requests that may block; must be non-null
+   * @param admission the admission controller shared by all connections; must be non-null
+   */
+  public BoomerangServerHandler(
+      AuthService authService,
+      SessionManager sessionManager,
+      Timer timer,
+      Executor blockingExecutor,
+      AdmissionController admission) {
+    this(
+        authService,
+        sessionManager,
+        timer,
+        blockingExecutor,
+        admission,
+        ClusterTopology.standalone());
+  }
+
+  /**
+   * Constructs the server handler for a node of a partitioned deployment.
+   *
+   * @param authService the authentication service
+   * @param sessionManager the session manager
+   * @param timer the scheduling timer
+   * @param blockingExecutor the executor for requests that may block; must be non-null
+   * @param admission the admission controller shared by all connections; must be non-null
+   * @param topology the partition ownership of this node; must be non-null
+   */
+  public BoomerangServerHandler(
+      AuthService authService,
+      SessionManager sessionManager,
+      Timer timer,
+      Executor blockingExecutor,
+      AdmissionController admission,
+      ClusterTopology topology) {
+    this(authService, sessionManager, timer, blockingExecutor, admission, topology, null);
+  }
+
+  /**
+   * Constructs the server handler for a node of a partitioned deployment that also serves the
+   * administrative operations on its dead-letter queue.
+   *
+   * @param authService the authentication service
+   * @param sessionManager the session manager
+   * @param timer the scheduling timer
+   * @param blockingExecutor the executor for requests that may block; must be non-null
+   * @param admission the admission controller shared by all connections; must be non-null
+   * @param topology the partition ownership of this node; must be non-null
+   * @param dlqService the dead-letter queue operations; {@code null} if DLQ requests are not served
+   */
+  public BoomerangServerHandler(
+      AuthService authService,
+      SessionManager sessionManager,
+      Timer timer,
+      Executor blockingExecutor,
+      AdmissionController admission,
+      ClusterTopology topology,
+      DLQService dlqService) {
     this.authService = authService;
     this.sessionManager = sessionManager;
     this.timer = timer;
+    this.blockingExecutor = blockingExecutor;
+    this.admission = admission;
+    this.topology = topology;
+    this.dlqService = dlqService;
   }
 
   @Override
   protected void channelRead0(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
     log.debug("Received envelope: {}", envelope.getPayloadCase());
+    if (authenticating) {
+      heldBack.add(envelope);
+      return;
+    }
 
+    // Answered inline only once every earlier request of this connection has been answered.
+    boolean idle = connectionPending.get() == 0;
     switch (envelope.getPayloadCase()) {
+      // Non-blocking: authentication already runs on its own executor.
       case AUTH_HANDSHAKE -> handleAuthHandshake(ctx, envelope);
-      case REGISTRATION_REQUEST -> handleRegistration(ctx, envelope);
-      case CANCELLATION_REQUEST -> handleCancellation(ctx, envelope);
-      case SESSION_REFRESH -> handleSessionRefresh(ctx, envelope);
-      case CLIENT_REGISTRATION -> handleClientRegistration(ctx, envelope);
-      case CLIENT_DEREGISTRATION -> handleClientDeregistration(ctx, envelope);
-      case LIST_TASKS_REQUEST -> handleListTasks(ctx, envelope);
-      case GET_TASK_REQUEST -> handleGetTask(ctx, envelope);
+      case SESSION_REFRESH -> {
+        if (idle) {
+          handleSessionRefresh(ctx, envelope);
+        } else {
+          offload(ctx, envelope, this::handleSessionRefresh);
+        }
+      }
+      case GET_TASK_REQUEST -> {
+        if (!idle || !tryHandleGetTaskInMemory(ctx, envelope)) {
+          offload(ctx, envelope, this::handleGetTask);
+        }
+      }
+      // Blocking: these touch RocksDB or hash passwords.
+      case REGISTRATION_REQUEST -> {
+        if (admitRegistration(ctx, envelope)) {
+          offload(ctx, envelope, this::handleRegistration);
+        }
+      }
+      case CANCELLATION_REQUEST -> offload(ctx, envelope, this::handleCancellation);
+      case RESCHEDULE_REQUEST -> offload(ctx, envelope, this::handleReschedule);
+      case CLIENT_REGISTRATION -> offload(ctx, envelope, this::handleClientRegistration);
+      case CLIENT_DEREGISTRATION -> offload(ctx, envelope, this::handleClientDeregistration);
+      case LIST_TASKS_REQUEST -> offload(ctx, envelope, this::handleListTasks);
+      case LIST_DLQ_REQUEST -> offload(ctx, envelope, this::handleListDLQ);
+      case PURGE_DLQ_REQUEST -> offload(ctx, envelope, this::handlePurgeDLQ);
+      case REPLAY_DLQ_REQUEST -> offload(ctx, envelope, this::handleReplayDLQ);
       default -> {
         log.warn("Unsupported payload type: {}", envelope.getPayloadCase());
       }
     }
   }
 
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+    updateAutoRead(ctx);
+    ctx.fireChannelWritabilityChanged();
+  }
+
+  private void offload(
+      ChannelHandlerContext ctx,
+      BoomerangEnvelope envelope,
+      BiConsumer<ChannelHandlerContext, BoomerangEnvelope> handler) {
+    admission.onRequestQueued();
+    connectionPending.incrementAndGet();
+    updateAutoRead(ctx);
+    try {
+      blockingExecutor.execute(
+          () -> {
+            try {
+              handler.accept(ctx, envelope);
+            } catch (Exception e) {
+              exceptionCaught(ctx, e);
+            } finally {
+              onOffloadedRequestDone(ctx);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      log.warn("Rejected {} request: {}", envelope.getPayloadCase(), e.getMessage());
+      onOffloadedRequestDone(ctx);
+      ctx.close();
+    }
+  }
+
+  private void onOffloadedRequestDone(ChannelHandlerContext ctx) {
+    admission.onRequestCompleted();
+    // Counted down on the event loop, behind the response the request wrote from the executor, so
+    // that a connection without pending requests has had all of them answered.
+    runOnEventLoop(
+        ctx,
+        () -> {
+          connectionPending.decrementAndGet();
+          updateAutoRead(ctx);
+        });
+  }
+
+  private static void runOnEventLoop(ChannelHandlerContext ctx, Runnable action) {
+    if (ctx.executor().inEventLoop()) {
+      action.run();
+    } else {
+      ctx.executor().execute(action);
+    }
+  }
+
+  /**
+   * Writes a response to a request that was handled on the event loop, behind the responses to the
+   * earlier requests of the connection.
+   */
+  private void respondInOrder(
+      ChannelHandlerContext ctx, BoomerangEnvelope request, BoomerangEnvelope response) {
+    if (connectionPending.get() == 0) {
+      ctx.writeAndFlush(response);
+    } else {
+      offload(ctx, request, (c, e) -> c.writeAndFlush(response));
+    }
+  }
+
+  /**
+   * Pauses reading while the peer is not draining responses, this connection has too many blocking
+   * requests in flight, or requests are held back behind an authentication, and resumes once all
+   * have cleared.
+   */
+  private void updateAutoRead(ChannelHandlerContext ctx) {
+    boolean autoRead =
+        ctx.channel().isWritable()
+            && !authenticating
+            && !admission.isConnectionSaturated(connectionPending.get());
+    if (ctx.channel().config().isAutoRead() != autoRead) {
+      log.debug("Setting autoRead={} on {}", autoRead, ctx.channel());
+      ctx.channel().config().setAutoRead(autoRead);
+    }
+  }
+
+  private boolean admitRegistration(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
+    String clientId = sessionManager.getClientId(envelope.getSessionId());
+    if (clientId == null) {
+      // Let the regular path reject the invalid session.
+      return true;
+    }
+
+    long retryAfterMs = admission.tryAdmitRegistration(clientId);
+    if (retryAfterMs == 0) {
+      return true;
+    }
+
+    log.debug("Rejecting registration from client {}, retry after {} ms", clientId, retryAfterMs);
+    respondInOrder(
+        ctx,
+        envelope,
+        BoomerangEnvelope.newBuilder()
+            .setRegistrationResponse(
+                io.boomerang.proto.RegistrationResponse.newBuilder()
+                    .setStatus(Status.OVERLOADED)
+                    .setErrorMessage("Server is overloaded or registration quota exceeded")
+                    .setRetryAfterMs(retryAfterMs)
+                    .build())
+            .build());
+    return false;
+  }
+
+  /**
+   * Answers a task lookup from memory when the caller owns a task held in the timing wheel.
+   *
+   * @return {@code true} if a response was written, {@code false} if the request needs the blocking
+   *     path
+   */
+  private boolean tryHandleGetTaskInMemory(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
+    String callerClientId = sessionManager.getClientId(envelope.getSessionId());
+    if (callerClientId == null) {
+      return false;
+    }
+
+    var taskOpt = timer.getIfInMemory(envelope.getGetTaskRequest().getTaskId());
+    // Tasks of other clients need an admin check, which reads the client store.
+    if (taskOpt.isEmpty() || !taskOpt.get().getClientId().equals(callerClientId)) {
+      return false;
+    }
+
+    ctx.writeAndFlush(
+        BoomerangEnvelope.newBuilder()
+            .setGetTaskResponse(
+                io.boomerang.proto.GetTaskResponse.newBuilder()
+                    .setStatus(Status.OK)
+                    .setTask(ModelMapper.map(taskOpt.get()))
+                    .build())
+            .build());
+    return true;
+  }
+
   private void handleListTasks(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
     String sessionId = envelope.getSessionId();
     if (!sessionManager.isValid(sessionId)) {
@@ -132,6 +422,122 @@ public class BoomerangServerHandler extends SimpleChannelInboundHandler<Boomeran
     }
   }
 
+  /**
+   * Checks that the caller may access the dead-letter queue of the requested client: regular
+   * clients only their own, admins that of any client.
+   *
+   * @return the reason access is denied, or {@code null} if it is granted
+   */
+  private String checkDLQAccess(String sessionId, String requestedClientId) {
+    if (!sessionManager.isValid(sessionId)) {
+      return "Invalid or expired session";
+    }
+    if (dlqService == null) {
+      return "Dead-letter queue is not available on this node";
+    }
+    String callerClientId = sessionManager.getClientId(sessionId);
+    if (!requestedClientId.isEmpty()
+        && !requestedClientId.equals(callerClientId)
+        && !authService.isAdmin(callerClientId)) {
+      return "Cannot access the dead-letter queue of other clients";
+    }
+    return null;
+  }
+
+  /**
+   * Resolves the client whose dead-letter queue a request targets.
+   *
+   * @return the requested client; if none, the caller, or {@code null} for all clients if the
+   *     caller is an admin
+   */
+  private String resolveDLQClient(String sessionId, String requestedClientId) {
+    if (!requestedClientId.isEmpty()) {
+      return requestedClientId;
+    }
+    String callerClientId = sessionManager.getClientId(sessionId);
+    return authService.isAdmin(callerClientId) ? null : callerClientId;
+  }
+
+  private void handleListDLQ(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
+    var request = envelope.getListDlqRequest();
+    String denied = checkDLQAccess(envelope.getSessionId(), request.getClientId());
+    if (denied != null) {
+      ctx.writeAndFlush(
+          BoomerangEnvelope.newBuilder()
+              .setListDlqResponse(
+                  io.boomerang.proto.ListDLQResponse.newBuilder()
+                      .setStatus(Status.UNAUTHORIZED)
+                      .setErrorMessage(denied)
+                      .build())
+              .build());
+      return;
+    }
+
+    String clientId = resolveDLQClient(envelope.getSessionId(), request.getClientId());
+    int limit = request.getLimit() > 0 ? Math.min(request.getLimit(), 1000) : 100;
+    try {
+      var result = dlqService.list(clientId, limit, request.getNextToken());
+      var responseBuilder = io.boomerang.proto.ListDLQResponse.newBuilder().setStatus(Status.OK);
+      result.items().forEach(entry -> responseBuilder.addEntries(ModelMapper.map(entry)));
+      if (result.nextToken() != null) {
+        responseBuilder.setNextToken(result.nextToken());
+      }
+      ctx.writeAndFlush(
+          BoomerangEnvelope.newBuilder().setListDlqResponse(responseBuilder.build()).build());
+    } catch (Exception e) {
+      log.error("Failed to list DLQ: {}", e.getMessage(), e);
+      ctx.writeAndFlush(
+          BoomerangEnvelope.newBuilder()
+              .setListDlqResponse(
+                  io.boomerang.proto.ListDLQResponse.newBuilder()
+                      .setStatus(Status.ERROR)
+                      .setErrorMessage(e.getMessage())
+                      .build())
+              .build());
+    }
+  }
+
+  private void handlePurgeDLQ(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
+    var request = envelope.getPurgeDlqRequest();
+    var responseBuilder = io.boomerang.proto.PurgeDLQResponse.newBuilder();
+    String denied = checkDLQAccess(envelope.getSessionId(), request.getClientId());
+    if (denied != null) {
+      responseBuilder.setStatus(Status.UNAUTHORIZED).setErrorMessage(denied);
+    } else {
+      try {
+        dlqService.purge(resolveDLQClient(envelope.getSessionId(), request.getClientId()));
+        responseBuilder.setStatus(Status.OK);
+      } catch (Exception e) {
+        log.error("Failed to purge DLQ: {}", e.getMessage(), e);
+        responseBuilder.setStatus(Status.ERROR).setErrorMessage(e.getMessage());
+      }
+    }
+    ctx.writeAndFlush(
+        BoomerangEnvelope.newBuilder().setPurgeDlqResponse(responseBuilder.build()).build());
+  }
+
+  private void handleReplayDLQ(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
+    var request = envelope.getReplayDlqRequest();
+    var responseBuilder = io.boomerang.proto.ReplayDLQResponse.newBuilder();
+    String denied = checkDLQAccess(envelope.getSessionId(), request.getClientId());
+    if (denied != null) {
+      responseBuilder.setStatus(Status.UNAUTHORIZED).setErrorMessage(denied);
+    } else {
+      try {
+        long replayed =
+            dlqService.replay(
+                resolveDLQClient(envelope.getSessionId(), request.getClientId()),
+                request.getLimit());
+        responseBuilder.setStatus(Status.OK).setReplayedCount(replayed);
+      } catch (Exception e) {
+        log.error("Failed to replay DLQ: {}", e.getMessage(), e);
+        responseBuilder.setStatus(Status.ERROR).setErrorMessage(e.getMessage());
+      }
+    }
+    ctx.writeAndFlush(
+        BoomerangEnvelope.newBuilder().setReplayDlqResponse(responseBuilder.build()).build());
+  }
+
   private void handleGetTask(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
     String sessionId = envelope.getSessionId();
     if (!sessionManager.isValid(sessionId)) {
@@ -150,6 +556,18 @@ public class BoomerangServerHandler extends SimpleChannelInboundHandler<Boomeran
     boolean isAdmin = authService.isAdmin(callerClientId);
 
     var request = envelope.getGetTaskRequest();
+    if (!topology.owns(request.getTaskId())) {
+      ctx.writeAndFlush(
+          BoomerangEnvelope.newBuilder()
+              .setGetTaskResponse(
+                  io.boomerang.proto.GetTaskResponse.newBuilder()
+                      .setStatus(Status.NOT_OWNER)
+                      .setErrorMessage(notOwnerMessage(request.getTaskId()))
+                      .build())
+              .build());
+      return;
+    }
+
     var taskOpt = timer.get(request.getTaskId());
 
     if (taskOpt.isPresent()) {
@@ -188,22 +606,64 @@ public class BoomerangServerHandler extends SimpleChannelInboundHandler<Boomeran
   }
 
   private void handleAuthHandshake(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
+    // The response is written asynchronously, so later requests wait until it has been written.
+    authenticating = true;
+    boolean idle = connectionPending.getAndIncrement() == 0;
+    updateAutoRead(ctx);
+    if (idle) {
+      authenticate(ctx, envelope);
+      return;
+    }
+    // Started behind the earlier requests, so that it is answered after them.
+    try {
+      blockingExecutor.execute(() -> authenticate(ctx, envelope));
+    } catch (RejectedExecutionException e) {
+      log.warn("Rejected {} request: {}", envelope.getPayloadCase(), e.getMessage());
+      ctx.close();
+    }
+  }
+
+  private void authenticate(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
     var handshake = envelope.getAuthHandshake();
-    var sessionOpt = authService.authenticate(handshake.getClientId(), handshake.getPassword());
+    // PBKDF2 verification runs on the auth executor so this thread is free for other requests.
+    authService
+        .authenticateAsync(handshake.getClientId(), handshake.getPassword())
+        .whenComplete(
+            (sessionOpt, error) -> {
+              var responseBuilder = io.boomerang.proto.AuthResponse.newBuilder();
+              if (error != null) {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                if (!(cause instanceof AuthThrottledException)) {
+                  log.error("Authentication failed: {}", cause.getMessage(), cause);
+                }
+                responseBuilder.setStatus(Status.ERROR).setErrorMessage(cause.getMessage());
+              } else if (sessionOpt.isPresent()) {
+                var session = sessionOpt.get();
+                responseBuilder
+                    .setSessionId(session.sessionId())
+                    .setStatus(Status.OK)
+                    .setExpiresAtMs(session.expiresAt().toEpochMilli());
+              } else {
+                responseBuilder
+                    .setStatus(Status.UNAUTHORIZED)
+                    .setErrorMessage("Invalid credentials");
+              }
+
+              BoomerangEnvelope response =
+                  BoomerangEnvelope.newBuilder().setAuthResponse(responseBuilder.build()).build();
+              runOnEventLoop(ctx, () -> onAuthenticated(ctx, response));
+            });
+  }
 
-    var responseBuilder = io.boomerang.proto.AuthResponse.newBuilder();
-    if (sessionOpt.isPresent()) {
-      var session = sessionOpt.get();
-      responseBuilder
-          .setSessionId(session.sessionId())
-          .setStatus(Status.OK)
-          .setExpiresAtMs(session.expiresAt().toEpochMilli());
-    } else {
-      responseBuilder.setStatus(Status.UNAUTHORIZED).setErrorMessage("Invalid credentials");
+  /** Writes the response to an authentication, then handles the requests held back meanwhile. */
+  private void onAuthenticated(ChannelHandlerContext ctx, BoomerangEnvelope response) {
+    ctx.writeAndFlush(response);
+    connectionPending.decrementAndGet();
+    authenticating = false;
+    updateAutoRead(ctx);
+    while (!authenticating && !heldBack.isEmpty()) {
+      channelRead0(ctx, heldBack.poll());
     }
-
-    ctx.writeAndFlush(
-        BoomerangEnvelope.newBuilder().setAuthResponse(responseBuilder.build()).build());
   }
 
   private void handleRegistration(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
@@ -221,18 +681,72 @@ public class BoomerangServerHandler extends SimpleChannelInboundHandler<Boomeran
     }
 
     var request = envelope.getRegistrationRequest();
+    CronSchedule schedule;
+    try {
+      schedule = ModelMapper.map(request.getSchedule());
+    } catch (IllegalArgumentException e) {
+      ctx.writeAndFlush(
+          BoomerangEnvelope.newBuilder()
+              .setRegistrationResponse(
+                  io.boomerang.proto.RegistrationResponse.newBuilder()
+                      .setStatus(Status.INVALID_REQUEST)
+                      .setErrorMessage(e.getMessage())
+                      .build())
+              .build());
+      return;
+    }
+
+    String clientId = sessionManager.getClientId(sessionId);
+    String taskId = request.getTaskId();
+    boolean replaced = false;
+    if (taskId.isEmpty()) {
+      taskId = topology.newTaskId();
+    } else if (taskId.length() > MAX_TASK_ID_LENGTH) {
+      rejectRegistration(
+          ctx,
+          Status.INVALID_REQUEST,
+          "Task ID must not be longer than " + MAX_TASK_ID_LENGTH + " characters");
+      return;
+    } else if (!topology.owns(taskId)) {
+      rejectRegistration(ctx, Status.NOT_OWNER, notOwnerMessage(taskId));
+      return;
+    }
+
     // In TieredTimer, the 'dispatcher' handles the execution logic.
     // The Runnable here is a placeholder for internal tasks if needed.
     var task =
-        new TimerTask(
-            UUID.randomUUID().toString(),
-            sessionManager.getClientId(sessionId),
-            request.getDelayMs(),
-            request.getPayload().toByteArray(),
-            request.getRepeatIntervalMs(),
-            () -> {});
-
-    timer.add(task);
+        schedule != null
+            ? TimerTask.withSchedule(
+                taskId,
+                clientId,
+                schedule.nextFireAfter(System.currentTimeMillis() + request.getDelayMs(), taskId),
+                request.getPayload().toByteArray(),
+                schedule,
+                0,
+                () -> {})
+            : new TimerTask(
+                taskId,
+                clientId,
+                request.getDelayMs(),
+                request.getPayload().toByteArray(),
+                request.getRepeatIntervalMs(),
+                () -> {});
+
+    if (request.getTaskId().isEmpty()) {
+      timer.add(task);
+    } else {
+      // Task IDs are shared by all clients, so a client may only replace its own tasks.
+      synchronized (taskLockFor(taskId)) {
+        Optional<String> owner = timer.findClientId(taskId);
+        if (owner.isPresent() && !owner.get().equals(clientId)) {
+          rejectRegistration(
+              ctx, Status.INVALID_REQUEST, "Task ID " + taskId + " is in use by another client");
+          return;
+        }
+        replaced = owner.isPresent();
+        timer.replace(task);
+      }
+    }
 
     ctx.writeAndFlush(
         BoomerangEnvelope.newBuilder()
@@ -241,6 +755,22 @@ public class BoomerangServerHandler extends SimpleChannelInboundHandler<Boomeran
                     .setTaskId(task.getTaskId())
                     .setStatus(Status.OK)
                     .setScheduledTimeMs(task.getExpirationMs())
+                    .setReplaced(replaced)
+                    .build())
+            .build());
+  }
+
+  private static Object taskLockFor(String taskId) {
+    return TASK_LOCKS[Math.floorMod(taskId.hashCode(), TASK_LOCK_STRIPES)];
+  }
+
+  private void rejectRegistration(ChannelHandlerContext ctx, Status status, String message) {
+    ctx.writeAndFlush(
+        BoomerangEnvelope.newBuilder()
+            .setRegistrationResponse(
+                io.boomerang.proto.RegistrationResponse.newBuilder()
+                    .setStatus(status)
+                    .setErrorMessage(message)
                     .build())
             .build());
   }
@@ -260,7 +790,37 @@ public class BoomerangServerHandler extends SimpleChannelInboundHandler<Boomeran
     }
 
     var request = envelope.getCancellationRequest();
-    timer.cancel(request.getTaskId());
+    if (!topology.owns(request.getTaskId())) {
+      ctx.writeAndFlush(
+          BoomerangEnvelope.newBuilder()
+              .setCancellationResponse(
+                  io.boomerang.proto.CancellationResponse.newBuilder()
+                      .setStatus(Status.NOT_OWNER)
+                      .setErrorMessage(notOwnerMessage(request.getTaskId()))
+                      .build())
+              .build());
+      return;
+    }
+
+    // Task IDs are chosen by clients and may be guessed, so a client may only cancel its own tasks.
+    String callerClientId = sessionManager.getClientId(sessionId);
+    synchronized (taskLockFor(request.getTaskId())) {
+      Optional<String> ownerClientId = timer.findClientId(request.getTaskId());
+      if (ownerClientId.isPresent()
+          && !authService.isAdmin(callerClientId)
+          && !ownerClientId.get().equals(callerClientId)) {
+        ctx.writeAndFlush(
+            BoomerangEnvelope.newBuilder()
+                .setCancellationResponse(
+                    io.boomerang.proto.CancellationResponse.newBuilder()
+                        .setStatus(Status.UNAUTHORIZED)
+                        .setErrorMessage("Access denied to task")
+                        .build())
+                .build());
+        return;
+      }
+      timer.cancel(request.getTaskId());
+    }
 
     ctx.writeAndFlush(
         BoomerangEnvelope.newBuilder()
@@ -269,6 +829,61 @@ public class BoomerangServerHandler extends SimpleChannelInboundHandler<Boomeran
             .build());
   }
 
+  private void handleReschedule(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
+    String sessionId = envelope.getSessionId();
+    if (!sessionManager.isValid(sessionId)) {
+      rejectReschedule(ctx, Status.UNAUTHORIZED, "Invalid or expired session");
+      return;
+    }
+
+    var request = envelope.getRescheduleRequest();
+    String taskId = request.getTaskId();
+    if (!topology.owns(taskId)) {
+      rejectReschedule(ctx, Status.NOT_OWNER, notOwnerMessage(taskId));
+      return;
+    }
+
+    String callerClientId = sessionManager.getClientId(sessionId);
+    long expirationMs = System.currentTimeMillis() + request.getDelayMs();
+    synchronized (taskLockFor(taskId)) {
+      // The task is neither read nor rewritten, so its payload is left in place.
+      Optional<String> ownerOpt = timer.findClientId(taskId);
+      if (ownerOpt.isEmpty()) {
+        rejectReschedule(ctx, Status.ERROR, "Task not found");
+        return;
+      }
+      if (!authService.isAdmin(callerClientId) && !ownerOpt.get().equals(callerClientId)) {
+        rejectReschedule(ctx, Status.UNAUTHORIZED, "Access denied to task");
+        return;
+      }
+      if (!timer.reschedule(taskId, expirationMs)) {
+        // Delivered or cancelled since the lookup.
+        rejectReschedule(ctx, Status.ERROR, "Task not found");
+        return;
+      }
+    }
+
+    ctx.writeAndFlush(
+        BoomerangEnvelope.newBuilder()
+            .setRescheduleResponse(
+                io.boomerang.proto.RescheduleResponse.newBuilder()
+                    .setStatus(Status.OK)
+                    .setScheduledTimeMs(expirationMs)
+                    .build())
+            .build());
+  }
+
+  private void rejectReschedule(ChannelHandlerContext ctx, Status status, String message) {
+    ctx.writeAndFlush(
+        BoomerangEnvelope.newBuilder()
+            .setRescheduleResponse(
+                io.boomerang.proto.RescheduleResponse.newBuilder()
+                    .setStatus(status)
+                    .setErrorMessage(message)
+                    .build())
+            .build());
+  }
+
   private void handleSessionRefresh(ChannelHandlerContext ctx, BoomerangEnvelope envelope) {
     String sessionId = envelope.getSessionId();
     var sessionOpt = sessionManager.refreshSession(sessionId);
@@ -277,7 +892,8 @@ public class BoomerangServerHandler extends SimpleChannelInboundHandler<Boomeran
     if (sessionOpt.isPresent()) {
       responseBuilder
           .setStatus(Status.OK)
-          .setNewExpiresAtMs(sessionOpt.get().expiresAt().toEpochMilli());
+          .setNewExpiresAtMs(sessionOpt.get().expiresAt().toEpochMilli())
+          .setSessionId(sessionOpt.get().sessionId());
     } else {
       responseBuilder.setStatus(Status.UNAUTHORIZED);
     }
@@ -367,6 +983,10 @@ public class BoomerangServerHandler extends SimpleChannelInboundHandler<Boomeran
     }
   }
 
+  private String notOwnerMessage(String taskId) {
+    return "Task " + taskId + " is owned by node " + topology.ownerOf(taskId);
+  }
+
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
     log.error("Error in server handler: {}", cause.getMessage(), cause);
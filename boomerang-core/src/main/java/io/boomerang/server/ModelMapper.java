@@ -4,7 +4,11 @@ import com.google.protobuf.ByteString;
 import io.boomerang.model.CallbackConfig;
 import io.boomerang.model.DLQPolicy;
 import io.boomerang.model.RetryPolicy;
+import io.boomerang.proto.DLQEntryDetails;
+import io.boomerang.proto.Schedule;
 import io.boomerang.proto.TaskDetails;
+import io.boomerang.timer.CronSchedule;
+import io.boomerang.timer.DLQStore;
 import io.boomerang.timer.TimerTask;
 
 /**
@@ -16,13 +20,56 @@ public final class ModelMapper {
   private ModelMapper() {}
 
   public static TaskDetails map(TimerTask task) {
-    return TaskDetails.newBuilder()
-        .setTaskId(task.getTaskId())
-        .setClientId(task.getClientId())
-        .setExpirationMs(task.getExpirationMs())
-        .setRepeatIntervalMs(task.getRepeatIntervalMs())
-        .setPayload(ByteString.copyFrom(task.getPayload()))
-        .build();
+    TaskDetails.Builder builder =
+        TaskDetails.newBuilder()
+            .setTaskId(task.getTaskId())
+            .setClientId(task.getClientId())
+            .setExpirationMs(task.getExpirationMs())
+            .setRepeatIntervalMs(task.getRepeatIntervalMs());
+    if (task.getPayload() != null) {
+      builder.setPayload(ByteString.copyFrom(task.getPayload()));
+    }
+    CronSchedule schedule = task.getSchedule();
+    if (schedule != null) {
+      builder.setSchedule(
+          Schedule.newBuilder()
+              .setCron(schedule.getExpression())
+              .setTimeZone(schedule.getTimeZone().getId())
+              .setJitterMs(schedule.getJitterMs()));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Maps a dead-letter queue entry to its protobuf representation.
+   *
+   * @param entry the DLQ entry
+   * @return the protobuf entry details
+   */
+  public static DLQEntryDetails map(DLQStore.DLQEntry entry) {
+    DLQEntryDetails.Builder builder =
+        DLQEntryDetails.newBuilder()
+            .setTask(map(entry.task()))
+            .setAttemptCount(entry.task().getAttemptCount())
+            .setFailedAtMs(entry.failedAtMs());
+    if (entry.errorMessage() != null) {
+      builder.setErrorMessage(entry.errorMessage());
+    }
+    return builder.build();
+  }
+
+  /**
+   * Maps a protobuf schedule to a {@link CronSchedule}.
+   *
+   * @param schedule the protobuf schedule
+   * @return the schedule, or {@code null} if no cron expression is set
+   * @throws IllegalArgumentException if the schedule is invalid
+   */
+  public static CronSchedule map(Schedule schedule) {
+    if (schedule == null || schedule.getCron().isEmpty()) {
+      return null;
+    }
+    return CronSchedule.of(schedule.getCron(), schedule.getTimeZone(), schedule.getJitterMs());
   }
 
   public static CallbackConfig map(io.boomerang.proto.CallbackConfig config) {
@@ -30,7 +77,10 @@ public final class ModelMapper {
       return null;
     }
     return new CallbackConfig(
-        CallbackConfig.Protocol.valueOf(config.getProtocol().name()), config.getEndpoint());
+        CallbackConfig.Protocol.valueOf(config.getProtocol().name()),
+        config.getEndpoint(),
+        config.getBatchWindowMs(),
+        config.getMaxBatchSize());
   }
 
   public static RetryPolicy map(io.boomerang.proto.RetryPolicy policy) {
@@ -45,9 +95,9 @@ public final class ModelMapper {
   }
 
   public static DLQPolicy map(io.boomerang.proto.DLQPolicy policy) {
-    if (policy == null || policy.getDestination().isEmpty()) {
+    if (policy == null || (policy.getDestination().isEmpty() && policy.getRetentionMs() == 0)) {
       return null;
     }
-    return new DLQPolicy(policy.getDestination());
+    return new DLQPolicy(policy.getDestination(), policy.getRetentionMs());
   }
 }
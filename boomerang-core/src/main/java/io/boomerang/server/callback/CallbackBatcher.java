@@ -0,0 +1,207 @@
+package io.boomerang.server.callback;
+
+import io.boomerang.model.CallbackConfig;
+import io.boomerang.timer.TimerTask;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the expired tasks of clients that opted in to batch delivery and delivers them together.
+ *
+ * <p>The first task of a client opens a batch, which is delivered once the client's batch window
+ * has elapsed or the batch is full. Delivery happens on the batcher's own threads, so callback
+ * threads are not held up while a batch fills. Every task in a batch is acknowledged on its own;
+ * the outcome of each task is reported to the {@link Listener}, and the outcome of the batch as a
+ * whole to the circuit breaker of its endpoint, if any.
+ *
+ * @since 1.0.0
+ */
+public class CallbackBatcher {
+  private static final Logger log = LoggerFactory.getLogger(CallbackBatcher.class);
+
+  private final int defaultMaxBatchSize;
+  private final Listener listener;
+  private final CircuitBreakers breakers;
+  private final ScheduledThreadPoolExecutor executor;
+  private final Map<String, Batch> openBatches = new HashMap<>();
+
+  /** Receives the outcome of batched tasks. */
+  public interface Listener {
+    /**
+     * Called for each task that the endpoint acknowledged.
+     *
+     * @param task the delivered task
+     */
+    void onDelivered(TimerTask task);
+
+    /**
+     * Called once per batch with the tasks that were not acknowledged.
+     *
+     * @param failures the failed tasks, with the reason for each; never empty
+     */
+    void onFailed(Map<TimerTask, CallbackException> failures);
+  }
+
+  private record Batch(CallbackConfig config, CallbackHandler handler, List<TimerTask> tasks) {}
+
+  /**
+   * Constructs a new batcher.
+   *
+   * @param defaultMaxBatchSize the maximum batch size for clients that do not set their own
+   * @param threads the number of threads delivering batches
+   * @param listener the listener for the outcome of batched tasks; must be non-null
+   */
+  public CallbackBatcher(int defaultMaxBatchSize, int threads, Listener listener) {
+    this(defaultMaxBatchSize, threads, null, listener);
+  }
+
+  /**
+   * Constructs a new batcher that reports delivery outcomes to the circuit breakers of the
+   * endpoints.
+   *
+   * @param defaultMaxBatchSize the maximum batch size for clients that do not set their own
+   * @param threads the number of threads delivering batches
+   * @param breakers the circuit breakers of the endpoints; {@code null} if there are none
+   * @param listener the listener for the outcome of batched tasks; must be non-null
+   */
+  public CallbackBatcher(
+      int defaultMaxBatchSize, int threads, CircuitBreakers breakers, Listener listener) {
+    this.breakers = breakers;
+    this.defaultMaxBatchSize = Math.max(1, defaultMaxBatchSize);
+    this.listener = listener;
+    this.executor =
+        new ScheduledThreadPoolExecutor(
+            Math.max(1, threads),
+            r -> {
+              Thread t = new Thread(r, "callback-batcher");
+              t.setDaemon(true);
+              return t;
+            });
+    // Open batches are delivered by shutdown() itself rather than when their windows elapse.
+    executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+  }
+
+  /**
+   * Adds an expired task to the open batch of its client, opening one if needed.
+   *
+   * @param task the expired task; must be non-null
+   * @param config the callback configuration of the task's client; must have batching enabled
+   * @param handler the handler for the configuration's protocol; must be non-null
+   */
+  public void add(TimerTask task, CallbackConfig config, CallbackHandler handler) {
+    int maxBatchSize = config.maxBatchSize() > 0 ? config.maxBatchSize() : defaultMaxBatchSize;
+    String clientId = task.getClientId();
+    Batch full = null;
+    synchronized (openBatches) {
+      Batch batch = openBatches.get(clientId);
+      if (batch == null) {
+        Batch opened = new Batch(config, handler, new ArrayList<>());
+        batch = opened;
+        openBatches.put(clientId, opened);
+        schedule(() -> close(clientId, opened), config.batchWindowMs());
+      }
+      batch.tasks().add(task);
+      if (batch.tasks().size() >= maxBatchSize) {
+        openBatches.remove(clientId);
+        full = batch;
+      }
+    }
+    if (full != null) {
+      Batch batch = full;
+      schedule(() -> deliver(batch), 0);
+    }
+  }
+
+  private void schedule(Runnable action, long delayMs) {
+    try {
+      executor.schedule(action, delayMs, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // Shutting down: the tasks stay in the task store and are recovered on restart.
+      log.warn("Callback batcher is shut down, leaving batched tasks in the task store");
+    }
+  }
+
+  private void close(String clientId, Batch batch) {
+    synchronized (openBatches) {
+      // The batch may already have been delivered because it filled up.
+      if (!openBatches.remove(clientId, batch)) {
+        return;
+      }
+    }
+    deliver(batch);
+  }
+
+  private void deliver(Batch batch) {
+    List<TimerTask> tasks = batch.tasks();
+    Map<TimerTask, CallbackException> failures;
+    try {
+      log.debug(
+          "Delivering batch of {} tasks via {} to {}",
+          tasks.size(),
+          batch.config().protocol(),
+          batch.config().endpoint());
+      failures = batch.handler().handleBatch(tasks, batch.config());
+      if (breakers != null) {
+        // The endpoint answered, even if it did not acknowledge every task.
+        breakers.onSuccess(batch.config().endpoint());
+      }
+    } catch (Exception e) {
+      if (breakers != null) {
+        breakers.onFailure(batch.config().endpoint());
+      }
+      CallbackException failure =
+          e instanceof CallbackException callbackException
+              ? callbackException
+              : new CallbackException("Batch callback failed: " + e.getMessage(), e);
+      failures = new LinkedHashMap<>();
+      for (TimerTask task : tasks) {
+        failures.put(task, failure);
+      }
+    }
+
+    for (TimerTask task : tasks) {
+      if (!failures.containsKey(task)) {
+        try {
+          listener.onDelivered(task);
+        } catch (RuntimeException e) {
+          log.error("Failed to complete delivered task {}", task.getTaskId(), e);
+        }
+      }
+    }
+    if (!failures.isEmpty()) {
+      log.warn(
+          "{} of {} tasks in batch for {} were not acknowledged",
+          failures.size(),
+          tasks.size(),
+          batch.config().endpoint());
+      listener.onFailed(failures);
+    }
+  }
+
+  /** Delivers the open batches without waiting for their windows and stops the batcher. */
+  public void shutdown() {
+    List<Batch> pending;
+    synchronized (openBatches) {
+      pending = new ArrayList<>(openBatches.values());
+      openBatches.clear();
+    }
+    executor.shutdown();
+    pending.forEach(this::deliver);
+    try {
+      if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package io.boomerang.server.callback;
+
+import com.google.protobuf.ByteString;
+import io.boomerang.proto.CallbackAck;
+import io.boomerang.proto.CallbackBatchRequest;
+import io.boomerang.proto.CallbackBatchResponse;
+import io.boomerang.proto.CallbackRequest;
+import io.boomerang.proto.Status;
+import io.boomerang.timer.TimerTask;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts between batches of tasks and the batch messages shared by the TCP, gRPC and HTTP
+ * handlers.
+ *
+ * @since 1.0.0
+ */
+final class CallbackBatches {
+  private CallbackBatches() {}
+
+  /**
+   * Builds the batch request for a list of tasks.
+   *
+   * @param tasks the tasks to deliver; must be non-null
+   * @return the batch request, with one callback request per task in the same order
+   */
+  static CallbackBatchRequest toRequest(List<TimerTask> tasks) {
+    CallbackBatchRequest.Builder batch = CallbackBatchRequest.newBuilder();
+    for (TimerTask task : tasks) {
+      batch.addRequests(
+          CallbackRequest.newBuilder()
+              .setTaskId(task.getTaskId())
+              .setPayload(
+                  task.getPayload() != null
+                      ? ByteString.copyFrom(task.getPayload())
+                      : ByteString.EMPTY));
+    }
+    return batch.build();
+  }
+
+  /**
+   * Finds the tasks of a batch that the endpoint did not acknowledge.
+   *
+   * <p>A task counts as delivered only if the response holds an {@link Status#OK} acknowledgement
+   * for it; tasks the endpoint left out are reported as failed.
+   *
+   * @param tasks the tasks that were delivered; must be non-null
+   * @param response the endpoint's acknowledgements; must be non-null
+   * @param protocol the protocol name to use in failure messages
+   * @return the tasks that were not acknowledged, with the reason for each
+   */
+  static Map<TimerTask, CallbackException> failures(
+      List<TimerTask> tasks, CallbackBatchResponse response, String protocol) {
+    Map<String, CallbackAck> acks = new HashMap<>();
+    for (CallbackAck ack : response.getAcksList()) {
+      acks.put(ack.getTaskId(), ack);
+    }
+    Map<TimerTask, CallbackException> failures = new LinkedHashMap<>();
+    for (TimerTask task : tasks) {
+      CallbackAck ack = acks.get(task.getTaskId());
+      if (ack == null) {
+        failures.put(
+            task, new CallbackException(protocol + " batch callback returned no acknowledgement"));
+      } else if (ack.getStatus() != Status.OK) {
+        failures.put(
+            task,
+            new CallbackException(
+                protocol
+                    + " callback failed with status "
+                    + ack.getStatus()
+                    + ": "
+                    + ack.getErrorMessage()));
+      }
+    }
+    return failures;
+  }
+}
@@ -19,6 +19,22 @@ public interface CallbackDispatcher {
    */
   void dispatch(TimerTask task) throws CallbackException;
 
+  /**
+   * Dispatches a task, or holds it back to be delivered in a batch if its client opted in to batch
+   * delivery.
+   *
+   * <p>The outcome of a held-back task is reported later, once its batch has been delivered. The
+   * default implementation always dispatches the task right away.
+   *
+   * @param task the expired task to deliver; must be non-null
+   * @return {@code true} if the task was delivered, {@code false} if it was held back for a batch
+   * @throws CallbackException if the delivery fails and should be retried
+   */
+  default boolean dispatchOrBatch(TimerTask task) throws CallbackException {
+    dispatch(task);
+    return true;
+  }
+
   /** Shuts down the dispatcher and releases any resources (e.g., connection pools). */
   void shutdown();
 }
@@ -2,6 +2,9 @@ package io.boomerang.server.callback;
 
 import io.boomerang.model.CallbackConfig;
 import io.boomerang.timer.TimerTask;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Interface for a protocol-specific handler that delivers a task to a callback endpoint.
@@ -18,6 +21,30 @@ public interface CallbackHandler {
    */
   void handle(TimerTask task, CallbackConfig config) throws CallbackException;
 
+  /**
+   * Delivers several expired tasks to the given endpoint together.
+   *
+   * <p>Each task is acknowledged on its own, so a batch can partly fail. The default implementation
+   * delivers the tasks one by one, for protocols without a batch message.
+   *
+   * @param tasks the expired tasks, all for the same endpoint; must be non-null
+   * @param config the callback configuration for the tasks' client; must be non-null
+   * @return the tasks that were not acknowledged, with the reason for each; empty if all were
+   * @throws CallbackException if the batch could not be delivered at all
+   */
+  default Map<TimerTask, CallbackException> handleBatch(
+      List<TimerTask> tasks, CallbackConfig config) throws CallbackException {
+    Map<TimerTask, CallbackException> failures = new LinkedHashMap<>();
+    for (TimerTask task : tasks) {
+      try {
+        handle(task, config);
+      } catch (CallbackException e) {
+        failures.put(task, e);
+      }
+    }
+    return failures;
+  }
+
   /**
    * Returns the protocol this handler is responsible for.
    *
@@ -0,0 +1,171 @@
+package io.boomerang.server.callback;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breakers for callback endpoints, one per endpoint.
+ *
+ * <p>A breaker opens after a number of consecutive failed deliveries to its endpoint. While it is
+ * open, deliveries are refused without contacting the endpoint. Once the open period has elapsed,
+ * the breaker lets a single probe through: if the probe succeeds the breaker closes, otherwise it
+ * opens for another period. State changes are reported to a {@link Listener}.
+ *
+ * @since 1.0.0
+ */
+public class CircuitBreakers {
+  private static final Logger log = LoggerFactory.getLogger(CircuitBreakers.class);
+
+  private final int failureThreshold;
+  private final long openMs;
+  private final Listener listener;
+  private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+  /** The states of a circuit breaker. */
+  public enum State {
+    /** Deliveries go through. */
+    CLOSED,
+    /** Deliveries are refused until the open period has elapsed. */
+    OPEN,
+    /** A single probe is in flight to test whether the endpoint has recovered. */
+    HALF_OPEN
+  }
+
+  /** Receives the state changes of the breakers. */
+  public interface Listener {
+    /**
+     * Called when the breaker of an endpoint opens, including after a failed probe.
+     *
+     * @param endpoint the endpoint
+     */
+    void onOpened(String endpoint);
+
+    /**
+     * Called when the breaker of an endpoint closes after a successful probe.
+     *
+     * @param endpoint the endpoint
+     */
+    void onClosed(String endpoint);
+  }
+
+  /**
+   * Constructs a new set of circuit breakers.
+   *
+   * @param failureThreshold the number of consecutive failures that opens a breaker; 0 or less
+   *     disables the breakers
+   * @param openMs how long a breaker stays open before letting a probe through
+   * @param listener the listener for state changes; must be non-null
+   */
+  public CircuitBreakers(int failureThreshold, long openMs, Listener listener) {
+    this.failureThreshold = failureThreshold;
+    this.openMs = Math.max(0, openMs);
+    this.listener = listener;
+  }
+
+  /**
+   * Asks whether a delivery to the endpoint may go ahead.
+   *
+   * <p>Every permitted delivery must be followed by a call to {@link #onSuccess} or {@link
+   * #onFailure}, so that a probe does not hold the breaker half-open forever.
+   *
+   * @param endpoint the endpoint; must be non-null
+   * @return {@code true} if the delivery may go ahead
+   */
+  public boolean tryAcquire(String endpoint) {
+    if (failureThreshold <= 0) {
+      return true;
+    }
+    return breakers.computeIfAbsent(endpoint, e -> new Breaker()).tryAcquire();
+  }
+
+  /**
+   * Records a successful delivery to the endpoint.
+   *
+   * @param endpoint the endpoint; must be non-null
+   */
+  public void onSuccess(String endpoint) {
+    Breaker breaker = breakers.get(endpoint);
+    if (breaker != null && breaker.onSuccess()) {
+      log.info("Circuit breaker for {} closed", endpoint);
+      listener.onClosed(endpoint);
+    }
+  }
+
+  /**
+   * Records a failed delivery to the endpoint.
+   *
+   * @param endpoint the endpoint; must be non-null
+   */
+  public void onFailure(String endpoint) {
+    if (failureThreshold <= 0) {
+      return;
+    }
+    Breaker breaker = breakers.computeIfAbsent(endpoint, e -> new Breaker());
+    if (breaker.onFailure()) {
+      log.warn("Circuit breaker for {} opened for {} ms", endpoint, openMs);
+      listener.onOpened(endpoint);
+    }
+  }
+
+  /**
+   * Gets the state of the breaker of an endpoint.
+   *
+   * @param endpoint the endpoint; must be non-null
+   * @return the state; {@link State#CLOSED} for endpoints without failures
+   */
+  public State getState(String endpoint) {
+    Breaker breaker = breakers.get(endpoint);
+    return breaker == null ? State.CLOSED : breaker.getState();
+  }
+
+  private class Breaker {
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMs;
+
+    synchronized boolean tryAcquire() {
+      return switch (state) {
+        case CLOSED -> true;
+        case OPEN -> {
+          if (System.currentTimeMillis() - openedAtMs < openMs) {
+            yield false;
+          }
+          state = State.HALF_OPEN;
+          yield true;
+        }
+        // The probe is still in flight.
+        case HALF_OPEN -> false;
+      };
+    }
+
+    /** Returns whether the breaker closed. */
+    synchronized boolean onSuccess() {
+      consecutiveFailures = 0;
+      if (state == State.CLOSED) {
+        return false;
+      }
+      state = State.CLOSED;
+      return true;
+    }
+
+    /** Returns whether the breaker opened. */
+    synchronized boolean onFailure() {
+      if (state == State.OPEN) {
+        // A delivery that started before the breaker opened.
+        return false;
+      }
+      if (state == State.CLOSED && ++consecutiveFailures < failureThreshold) {
+        return false;
+      }
+      state = State.OPEN;
+      openedAtMs = System.currentTimeMillis();
+      return true;
+    }
+
+    synchronized State getState() {
+      return state;
+    }
+  }
+}
@@ -15,6 +15,9 @@ import org.slf4j.LoggerFactory;
  * Default implementation of {@link CallbackDispatcher} that routes tasks to protocol-specific
  * handlers.
  *
+ * <p>With circuit breakers, deliveries to an endpoint whose breaker is open fail fast with an
+ * {@link EndpointUnavailableException} instead of contacting the endpoint.
+ *
  * @since 1.0.0
  */
 public class DefaultCallbackDispatcher implements CallbackDispatcher {
@@ -22,6 +25,8 @@ public class DefaultCallbackDispatcher implements CallbackDispatcher {
 
   private final ClientStore clientStore;
   private final Map<CallbackConfig.Protocol, CallbackHandler> handlers;
+  private final CallbackBatcher batcher;
+  private final CircuitBreakers breakers;
 
   /**
    * Constructs a new dispatcher with a collection of protocol handlers.
@@ -30,13 +35,94 @@ public class DefaultCallbackDispatcher implements CallbackDispatcher {
    * @param handlers the protocol-specific handlers; must be non-null
    */
   public DefaultCallbackDispatcher(ClientStore clientStore, Collection<CallbackHandler> handlers) {
+    this(clientStore, handlers, null);
+  }
+
+  /**
+   * Constructs a new dispatcher that delivers the tasks of clients that opted in to batch delivery
+   * through a batcher.
+   *
+   * @param clientStore the store for client callback configurations; must be non-null
+   * @param handlers the protocol-specific handlers; must be non-null
+   * @param batcher the batcher for clients with batch delivery; {@code null} delivers every task on
+   *     its own
+   */
+  public DefaultCallbackDispatcher(
+      ClientStore clientStore, Collection<CallbackHandler> handlers, CallbackBatcher batcher) {
+    this(clientStore, handlers, batcher, null);
+  }
+
+  /**
+   * Constructs a new dispatcher that guards every endpoint with a circuit breaker.
+   *
+   * @param clientStore the store for client callback configurations; must be non-null
+   * @param handlers the protocol-specific handlers; must be non-null
+   * @param batcher the batcher for clients with batch delivery; {@code null} delivers every task on
+   *     its own
+   * @param breakers the circuit breakers of the endpoints; {@code null} disables them
+   */
+  public DefaultCallbackDispatcher(
+      ClientStore clientStore,
+      Collection<CallbackHandler> handlers,
+      CallbackBatcher batcher,
+      CircuitBreakers breakers) {
     this.clientStore = Objects.requireNonNull(clientStore, "clientStore must not be null");
     this.handlers = new ConcurrentHashMap<>();
     handlers.forEach(h -> this.handlers.put(h.getProtocol(), h));
+    this.batcher = batcher;
+    this.breakers = breakers;
   }
 
   @Override
   public void dispatch(TimerTask task) throws CallbackException {
+    CallbackConfig config = findConfig(task);
+    deliver(task, config, findHandler(config));
+  }
+
+  @Override
+  public boolean dispatchOrBatch(TimerTask task) throws CallbackException {
+    CallbackConfig config = findConfig(task);
+    CallbackHandler handler = findHandler(config);
+    if (batcher == null || !config.isBatched()) {
+      deliver(task, config, handler);
+      return true;
+    }
+    // The batcher reports the outcome of the batch to the breaker.
+    acquire(config);
+    batcher.add(task, config, handler);
+    return false;
+  }
+
+  private void deliver(TimerTask task, CallbackConfig config, CallbackHandler handler)
+      throws CallbackException {
+    log.debug(
+        "Dispatching task {} to client {} via {} to {}",
+        task.getTaskId(),
+        task.getClientId(),
+        config.protocol(),
+        config.endpoint());
+
+    acquire(config);
+    try {
+      handler.handle(task, config);
+    } catch (CallbackException | RuntimeException e) {
+      if (breakers != null) {
+        breakers.onFailure(config.endpoint());
+      }
+      throw e;
+    }
+    if (breakers != null) {
+      breakers.onSuccess(config.endpoint());
+    }
+  }
+
+  private void acquire(CallbackConfig config) throws EndpointUnavailableException {
+    if (breakers != null && !breakers.tryAcquire(config.endpoint())) {
+      throw new EndpointUnavailableException(config.endpoint());
+    }
+  }
+
+  private CallbackConfig findConfig(TimerTask task) throws CallbackException {
     Client client =
         clientStore
             .findById(task.getClientId())
@@ -46,25 +132,23 @@ public class DefaultCallbackDispatcher implements CallbackDispatcher {
     if (config == null) {
       throw new CallbackException("No callback configuration for client: " + task.getClientId());
     }
+    return config;
+  }
 
+  private CallbackHandler findHandler(CallbackConfig config) throws CallbackException {
     CallbackHandler handler = handlers.get(config.protocol());
     if (handler == null) {
       throw new CallbackException("Unsupported protocol: " + config.protocol());
     }
-
-    log.debug(
-        "Dispatching task {} to client {} via {} to {}",
-        task.getTaskId(),
-        task.getClientId(),
-        config.protocol(),
-        config.endpoint());
-
-    handler.handle(task, config);
+    return handler;
   }
 
   @Override
   public void shutdown() {
     log.info("Shutting down CallbackDispatcher...");
+    if (batcher != null) {
+      batcher.shutdown();
+    }
     handlers.values().forEach(CallbackHandler::shutdown);
     handlers.clear();
   }
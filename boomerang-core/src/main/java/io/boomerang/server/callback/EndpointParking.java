@@ -0,0 +1,208 @@
+package io.boomerang.server.callback;
+
+import io.boomerang.ratelimit.KeyedPacer;
+import io.boomerang.timer.LongTermTaskStore;
+import io.boomerang.timer.ParkedTaskStore;
+import io.boomerang.timer.TimerTask;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds back the tasks of endpoints whose circuit breaker is open, and releases them once the
+ * endpoints have recovered.
+ *
+ * <p>A parked task is recorded in the {@link ParkedTaskStore} as it is, so it does not use up a
+ * retry attempt. It also stays in the task store where it was when it fired, a range that loads
+ * have already passed, so that it can still be looked up, listed and cancelled, and is replicated
+ * like any other task. A parked task is released only if the task store still holds it unchanged; a
+ * task cancelled or scheduled anew in the meantime is dropped from the parking area instead.
+ *
+ * <p>Each time a breaker opens, the earliest parked task of its endpoint is released after the open
+ * period to serve as the probe, so that an endpoint recovers even if no new tasks expire for it.
+ * When the breaker closes, the remaining tasks are released at a bounded rate, by rescheduling them
+ * at paced expirations rather than all at once.
+ *
+ * <p>The task store is the record of parked tasks across restarts: the timer recovers them as
+ * overdue tasks, and they are parked again if their endpoints are still down. Tasks left in the
+ * parking area by a previous run are therefore discarded on startup.
+ *
+ * @since 1.0.0
+ */
+public class EndpointParking implements CircuitBreakers.Listener {
+  private static final Logger log = LoggerFactory.getLogger(EndpointParking.class);
+  private static final int DRAIN_BATCH_SIZE = 100;
+
+  private final ParkedTaskStore parkedStore;
+  private final LongTermTaskStore taskStore;
+  private final Consumer<TimerTask> resubmitter;
+  private final long probeDelayMs;
+  private final KeyedPacer pacer;
+  private final Set<String> openEndpoints = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService executor;
+
+  /**
+   * Constructs a new parking area.
+   *
+   * @param parkedStore the store for parked tasks; must be non-null
+   * @param taskStore the task store that holds parked tasks; must be non-null
+   * @param resubmitter schedules a released task again; must be non-null
+   * @param probeDelayMs how long after a breaker opens to release a parked task as its probe;
+   *     should match the open period of the breakers
+   * @param drainRatePerSecond the rate at which the tasks of a recovered endpoint are released; 0
+   *     or less releases them all at once
+   */
+  public EndpointParking(
+      ParkedTaskStore parkedStore,
+      LongTermTaskStore taskStore,
+      Consumer<TimerTask> resubmitter,
+      long probeDelayMs,
+      double drainRatePerSecond) {
+    this.parkedStore = Objects.requireNonNull(parkedStore, "parkedStore must not be null");
+    this.taskStore = Objects.requireNonNull(taskStore, "taskStore must not be null");
+    this.resubmitter = Objects.requireNonNull(resubmitter, "resubmitter must not be null");
+    this.probeDelayMs = Math.max(0, probeDelayMs);
+    this.pacer = new KeyedPacer(drainRatePerSecond, 1);
+    this.executor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "endpoint-parking");
+              t.setDaemon(true);
+              return t;
+            });
+    discardLeftovers();
+  }
+
+  /**
+   * Parks a task that was not delivered because the breaker of its endpoint is open.
+   *
+   * @param endpoint the endpoint; must be non-null
+   * @param task the task; must be non-null
+   */
+  public void park(String endpoint, TimerTask task) {
+    // The task store keeps the task where it fired, so it is not written there again.
+    parkedStore.park(endpoint, task);
+    log.debug("Parked task {} for unavailable endpoint {}", task.getTaskId(), endpoint);
+  }
+
+  private void discardLeftovers() {
+    long discarded = 0;
+    for (String endpoint : parkedStore.endpoints()) {
+      List<TimerTask> tasks;
+      while (!(tasks = parkedStore.peek(endpoint, DRAIN_BATCH_SIZE)).isEmpty()) {
+        for (TimerTask task : tasks) {
+          parkedStore.remove(endpoint, task);
+          discarded++;
+        }
+      }
+    }
+    if (discarded > 0) {
+      log.info(
+          "Discarded {} tasks parked by a previous run, to be recovered as overdue", discarded);
+    }
+  }
+
+  @Override
+  public void onOpened(String endpoint) {
+    openEndpoints.add(endpoint);
+    try {
+      executor.schedule(() -> probe(endpoint), probeDelayMs, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      log.debug("Endpoint parking is shut down, not probing {}", endpoint);
+    }
+  }
+
+  @Override
+  public void onClosed(String endpoint) {
+    openEndpoints.remove(endpoint);
+    submit(() -> drain(endpoint));
+  }
+
+  private void submit(Runnable action) {
+    try {
+      executor.execute(action);
+    } catch (RejectedExecutionException e) {
+      // Shutting down: parked tasks are released on restart.
+      log.debug("Endpoint parking is shut down, leaving tasks parked");
+    }
+  }
+
+  private void probe(String endpoint) {
+    try {
+      // Parked tasks that were cancelled or scheduled anew are dropped until one can be the probe.
+      List<TimerTask> tasks;
+      while (!(tasks = parkedStore.peek(endpoint, 1)).isEmpty()) {
+        if (release(endpoint, tasks.get(0), 0)) {
+          log.info("Probing endpoint {} with parked task {}", endpoint, tasks.get(0).getTaskId());
+          return;
+        }
+      }
+      // The next task to expire for the endpoint serves as the probe.
+    } catch (RuntimeException e) {
+      log.error("Failed to probe endpoint {}", endpoint, e);
+    }
+  }
+
+  private void drain(String endpoint) {
+    long released = 0;
+    try {
+      // Stop if the breaker opens again; tasks parked by then are released after the next probe.
+      while (!openEndpoints.contains(endpoint)) {
+        List<TimerTask> tasks = parkedStore.peek(endpoint, DRAIN_BATCH_SIZE);
+        if (tasks.isEmpty()) {
+          break;
+        }
+        for (TimerTask task : tasks) {
+          if (release(endpoint, task, pacer.reserve(endpoint))) {
+            released++;
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      log.error("Failed to release parked tasks of endpoint {}", endpoint, e);
+    }
+    if (released > 0) {
+      log.info("Released {} parked tasks of endpoint {}", released, endpoint);
+    }
+  }
+
+  /**
+   * Schedules a parked task again, unless it was cancelled or scheduled anew while it was parked.
+   *
+   * @return {@code true} if the task was scheduled again
+   */
+  private boolean release(String endpoint, TimerTask task, long delayMs) {
+    String taskId = task.getTaskId();
+    boolean unchanged =
+        taskStore
+            .findById(taskId)
+            // A task scheduled anew expires after the parked one fired, whereas a retried task is
+            // stored at the attempt that failed, before it.
+            .filter(stored -> stored.getExpirationMs() <= task.getExpirationMs())
+            .isPresent();
+    if (unchanged) {
+      resubmitter.accept(task.withExpiration(System.currentTimeMillis() + delayMs));
+    } else {
+      if (taskStore.isCancelled(taskId)) {
+        // Its entries are at hand, so the cancelled task is removed rather than left to a fetch.
+        taskStore.delete(task);
+      }
+      log.debug("Dropping parked task {} that was cancelled or scheduled anew", taskId);
+    }
+    parkedStore.remove(endpoint, task);
+    return unchanged;
+  }
+
+  /** Stops releasing parked tasks; the tasks still parked are released on restart. */
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
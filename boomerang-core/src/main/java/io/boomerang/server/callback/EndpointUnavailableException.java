@@ -0,0 +1,32 @@
+package io.boomerang.server.callback;
+
+/**
+ * Exception thrown when a task is not delivered because the circuit breaker of its endpoint is
+ * open.
+ *
+ * <p>The endpoint was not contacted, so the task should be held back rather than retried.
+ *
+ * @since 1.0.0
+ */
+public class EndpointUnavailableException extends CallbackException {
+  private final String endpoint;
+
+  /**
+   * Constructs a new exception for the given endpoint.
+   *
+   * @param endpoint the endpoint whose circuit breaker is open
+   */
+  public EndpointUnavailableException(String endpoint) {
+    super("Circuit breaker open for endpoint: " + endpoint);
+    this.endpoint = endpoint;
+  }
+
+  /**
+   * Gets the endpoint whose circuit breaker is open.
+   *
+   * @return the endpoint
+   */
+  public String getEndpoint() {
+    return endpoint;
+  }
+}
@@ -6,12 +6,15 @@ import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.google.protobuf.ByteString;
 import io.boomerang.model.CallbackConfig;
 import io.boomerang.proto.BoomerangCallbackGrpc;
+import io.boomerang.proto.CallbackBatchResponse;
 import io.boomerang.proto.CallbackRequest;
 import io.boomerang.proto.CallbackResponse;
 import io.boomerang.proto.Status;
 import io.boomerang.timer.TimerTask;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -79,17 +82,7 @@ public class GrpcCallbackHandler implements CallbackHandler {
 
   @Override
   public void handle(TimerTask task, CallbackConfig config) throws CallbackException {
-    ManagedChannel channel =
-        channelPool.get(
-            config.endpoint(),
-            endpoint -> {
-              log.info("Creating new gRPC channel for endpoint: {}", endpoint);
-              return ManagedChannelBuilder.forTarget(endpoint).usePlaintext().build();
-            });
-
-    BoomerangCallbackGrpc.BoomerangCallbackBlockingStub stub =
-        BoomerangCallbackGrpc.newBlockingStub(channel)
-            .withDeadlineAfter(timeoutMs, TimeUnit.MILLISECONDS);
+    BoomerangCallbackGrpc.BoomerangCallbackBlockingStub stub = newStub(config);
 
     CallbackRequest request =
         CallbackRequest.newBuilder()
@@ -119,6 +112,33 @@ public class GrpcCallbackHandler implements CallbackHandler {
     }
   }
 
+  @Override
+  public Map<TimerTask, CallbackException> handleBatch(
+      List<TimerTask> tasks, CallbackConfig config) throws CallbackException {
+    BoomerangCallbackGrpc.BoomerangCallbackBlockingStub stub = newStub(config);
+
+    log.debug("Sending gRPC batch of {} callbacks to {}", tasks.size(), config.endpoint());
+    try {
+      CallbackBatchResponse response = stub.onTasksExpired(CallbackBatches.toRequest(tasks));
+      return CallbackBatches.failures(tasks, response, "gRPC");
+    } catch (Exception e) {
+      throw new CallbackException("gRPC batch callback execution failed: " + e.getMessage(), e);
+    }
+  }
+
+  private BoomerangCallbackGrpc.BoomerangCallbackBlockingStub newStub(CallbackConfig config) {
+    ManagedChannel channel =
+        channelPool.get(
+            config.endpoint(),
+            endpoint -> {
+              log.info("Creating new gRPC channel for endpoint: {}", endpoint);
+              return ManagedChannelBuilder.forTarget(endpoint).usePlaintext().build();
+            });
+
+    return BoomerangCallbackGrpc.newBlockingStub(channel)
+        .withDeadlineAfter(timeoutMs, TimeUnit.MILLISECONDS);
+  }
+
   @Override
   public CallbackConfig.Protocol getProtocol() {
     return CallbackConfig.Protocol.GRPC;
@@ -1,6 +1,7 @@
 package io.boomerang.server.callback;
 
 import io.boomerang.model.CallbackConfig;
+import io.boomerang.proto.BoomerangEnvelope;
 import io.boomerang.timer.TimerTask;
 import java.io.IOException;
 import java.net.URI;
@@ -8,6 +9,8 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +71,52 @@ public class HttpCallbackHandler implements CallbackHandler {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The batch is posted as a {@link BoomerangEnvelope} holding a callback batch request, and the
+   * endpoint answers with an envelope holding the acknowledgement of each task.
+   */
+  @Override
+  public Map<TimerTask, CallbackException> handleBatch(
+      List<TimerTask> tasks, CallbackConfig config) throws CallbackException {
+    BoomerangEnvelope envelope =
+        BoomerangEnvelope.newBuilder()
+            .setCallbackBatchRequest(CallbackBatches.toRequest(tasks))
+            .build();
+
+    HttpRequest request =
+        HttpRequest.newBuilder()
+            .uri(URI.create(config.endpoint()))
+            .header("Content-Type", "application/x-protobuf")
+            .header("X-Boomerang-Client-Id", tasks.get(0).getClientId())
+            .header("X-Boomerang-Batch-Size", String.valueOf(tasks.size()))
+            .POST(HttpRequest.BodyPublishers.ofByteArray(envelope.toByteArray()))
+            .build();
+
+    log.debug("Sending HTTP POST with a batch of {} tasks to {}", tasks.size(), config.endpoint());
+
+    try {
+      HttpResponse<byte[]> response =
+          httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+      if (response.statusCode() < 200 || response.statusCode() >= 300) {
+        throw new CallbackException(
+            "HTTP batch callback failed with status " + response.statusCode());
+      }
+      BoomerangEnvelope reply = BoomerangEnvelope.parseFrom(response.body());
+      if (!reply.hasCallbackBatchResponse()) {
+        throw new CallbackException("HTTP batch callback returned " + reply.getPayloadCase());
+      }
+      return CallbackBatches.failures(tasks, reply.getCallbackBatchResponse(), "HTTP");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CallbackException("HTTP callback connection interrupted", e);
+    } catch (IOException e) {
+      throw new CallbackException("HTTP batch callback failed: " + e.getMessage(), e);
+    }
+  }
+
   @Override
   public CallbackConfig.Protocol getProtocol() {
     return CallbackConfig.Protocol.HTTP;
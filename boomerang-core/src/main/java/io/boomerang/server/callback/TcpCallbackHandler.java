@@ -6,17 +6,19 @@ import io.boomerang.proto.BoomerangEnvelope;
 import io.boomerang.proto.CallbackRequest;
 import io.boomerang.proto.CallbackResponse;
 import io.boomerang.proto.Status;
+import io.boomerang.server.NettyTransport;
 import io.boomerang.timer.TimerTask;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.pool.AbstractChannelPoolHandler;
 import io.netty.channel.pool.AbstractChannelPoolMap;
 import io.netty.channel.pool.FixedChannelPool;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.codec.protobuf.ProtobufDecoder;
@@ -24,6 +26,8 @@ import io.netty.handler.codec.protobuf.ProtobufEncoder;
 import io.netty.util.AttributeKey;
 import io.netty.util.concurrent.Future;
 import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
@@ -38,7 +42,7 @@ import org.slf4j.LoggerFactory;
  */
 public class TcpCallbackHandler implements CallbackHandler {
   private static final Logger log = LoggerFactory.getLogger(TcpCallbackHandler.class);
-  private static final AttributeKey<CompletableFuture<CallbackResponse>> RESPONSE_FUTURE_KEY =
+  private static final AttributeKey<CompletableFuture<BoomerangEnvelope>> RESPONSE_FUTURE_KEY =
       AttributeKey.valueOf("responseFuture");
 
   private final EventLoopGroup group;
@@ -46,20 +50,46 @@ public class TcpCallbackHandler implements CallbackHandler {
   private final AbstractChannelPoolMap<InetSocketAddress, FixedChannelPool> poolMap;
 
   /**
-   * Constructs a new handler with a shared event loop group and connection pooling.
+   * Constructs a new handler with a shared NIO event loop group and connection pooling.
    *
    * @param timeoutMs the maximum time to wait for a connection and response
    * @param maxConnections per endpoint connection limit
    */
   public TcpCallbackHandler(long timeoutMs, int maxConnections) {
-    this.group = new NioEventLoopGroup();
+    this(timeoutMs, maxConnections, NettyTransport.NIO, true, WriteBufferWaterMark.DEFAULT);
+  }
+
+  /**
+   * Constructs a new handler with a shared event loop group on the given transport and connection
+   * pooling.
+   *
+   * @param timeoutMs the maximum time to wait for a connection and response
+   * @param maxConnections per endpoint connection limit
+   * @param transport the I/O transport for outbound connections; must be non-null
+   * @param tcpNoDelay whether to disable Nagle's algorithm on outbound connections
+   * @param writeBufferWaterMark the write-buffer water marks of outbound connections; must be
+   *     non-null
+   */
+  public TcpCallbackHandler(
+      long timeoutMs,
+      int maxConnections,
+      NettyTransport transport,
+      boolean tcpNoDelay,
+      WriteBufferWaterMark writeBufferWaterMark) {
+    this.group = transport.newEventLoopGroup(0);
     this.timeoutMs = timeoutMs;
     this.poolMap =
         new AbstractChannelPoolMap<>() {
           @Override
           protected FixedChannelPool newPool(InetSocketAddress key) {
             Bootstrap b =
-                new Bootstrap().group(group).channel(NioSocketChannel.class).remoteAddress(key);
+                new Bootstrap()
+                    .group(group)
+                    .channel(transport.channelClass())
+                    .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                    .option(ChannelOption.TCP_NODELAY, tcpNoDelay)
+                    .option(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBufferWaterMark)
+                    .remoteAddress(key);
             return new FixedChannelPool(
                 b,
                 new AbstractChannelPoolHandler() {
@@ -80,6 +110,42 @@ public class TcpCallbackHandler implements CallbackHandler {
 
   @Override
   public void handle(TimerTask task, CallbackConfig config) throws CallbackException {
+    CallbackRequest request =
+        CallbackRequest.newBuilder()
+            .setTaskId(task.getTaskId())
+            .setPayload(
+                task.getPayload() != null
+                    ? ByteString.copyFrom(task.getPayload())
+                    : ByteString.EMPTY)
+            .build();
+
+    BoomerangEnvelope envelope = BoomerangEnvelope.newBuilder().setCallbackRequest(request).build();
+    CallbackResponse response = exchange(config, envelope).getCallbackResponse();
+    if (response.getStatus() != Status.OK) {
+      throw new CallbackException(
+          "TCP callback failed with status "
+              + response.getStatus()
+              + ": "
+              + response.getErrorMessage());
+    }
+  }
+
+  @Override
+  public Map<TimerTask, CallbackException> handleBatch(
+      List<TimerTask> tasks, CallbackConfig config) throws CallbackException {
+    BoomerangEnvelope envelope =
+        BoomerangEnvelope.newBuilder()
+            .setCallbackBatchRequest(CallbackBatches.toRequest(tasks))
+            .build();
+    BoomerangEnvelope response = exchange(config, envelope);
+    if (!response.hasCallbackBatchResponse()) {
+      throw new CallbackException("TCP batch callback returned " + response.getPayloadCase());
+    }
+    return CallbackBatches.failures(tasks, response.getCallbackBatchResponse(), "TCP");
+  }
+
+  private BoomerangEnvelope exchange(CallbackConfig config, BoomerangEnvelope envelope)
+      throws CallbackException {
     String[] hostPort = config.endpoint().split(":");
     if (hostPort.length != 2) {
       throw new IllegalArgumentException("Invalid TCP endpoint: " + config.endpoint());
@@ -89,7 +155,7 @@ public class TcpCallbackHandler implements CallbackHandler {
     InetSocketAddress remoteAddress = new InetSocketAddress(host, port);
 
     FixedChannelPool pool = poolMap.get(remoteAddress);
-    CompletableFuture<CallbackResponse> responseFuture = new CompletableFuture<>();
+    CompletableFuture<BoomerangEnvelope> responseFuture = new CompletableFuture<>();
 
     Future<Channel> acquireFuture = pool.acquire();
     acquireFuture.addListener(
@@ -98,18 +164,6 @@ public class TcpCallbackHandler implements CallbackHandler {
             Channel channel = f.getNow();
             channel.attr(RESPONSE_FUTURE_KEY).set(responseFuture);
 
-            CallbackRequest request =
-                CallbackRequest.newBuilder()
-                    .setTaskId(task.getTaskId())
-                    .setPayload(
-                        task.getPayload() != null
-                            ? ByteString.copyFrom(task.getPayload())
-                            : ByteString.EMPTY)
-                    .build();
-
-            BoomerangEnvelope envelope =
-                BoomerangEnvelope.newBuilder().setCallbackRequest(request).build();
-
             channel
                 .writeAndFlush(envelope)
                 .addListener(
@@ -127,21 +181,11 @@ public class TcpCallbackHandler implements CallbackHandler {
         });
 
     try {
-      CallbackResponse response = responseFuture.get(timeoutMs, TimeUnit.MILLISECONDS);
-      if (response.getStatus() != Status.OK) {
-        throw new CallbackException(
-            "TCP callback failed with status "
-                + response.getStatus()
-                + ": "
-                + response.getErrorMessage());
-      }
+      return responseFuture.get(timeoutMs, TimeUnit.MILLISECONDS);
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
       throw new CallbackException("TCP callback connection interrupted", e);
     } catch (Exception e) {
-      if (e instanceof CallbackException exception) {
-        throw exception;
-      }
       throw new CallbackException("TCP callback failed: " + e.getMessage(), e);
     }
   }
@@ -161,10 +205,10 @@ public class TcpCallbackHandler implements CallbackHandler {
       extends SimpleChannelInboundHandler<BoomerangEnvelope> {
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, BoomerangEnvelope msg) {
-      CompletableFuture<CallbackResponse> future = ctx.channel().attr(RESPONSE_FUTURE_KEY).get();
+      CompletableFuture<BoomerangEnvelope> future = ctx.channel().attr(RESPONSE_FUTURE_KEY).get();
       if (future != null) {
-        if (msg.hasCallbackResponse()) {
-          future.complete(msg.getCallbackResponse());
+        if (msg.hasCallbackResponse() || msg.hasCallbackBatchResponse()) {
+          future.complete(msg);
         } else {
           log.warn("Received unexpected message type over TCP callback: {}", msg.getPayloadCase());
         }
@@ -173,7 +217,7 @@ public class TcpCallbackHandler implements CallbackHandler {
 
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-      CompletableFuture<CallbackResponse> future = ctx.channel().attr(RESPONSE_FUTURE_KEY).get();
+      CompletableFuture<BoomerangEnvelope> future = ctx.channel().attr(RESPONSE_FUTURE_KEY).get();
       if (future != null) {
         future.completeExceptionally(cause);
       }
@@ -1,13 +1,24 @@
 package io.boomerang.session;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.boomerang.config.ServerConfig;
 import io.boomerang.model.CallbackConfig;
 import io.boomerang.model.DLQPolicy;
 import io.boomerang.model.RetryPolicy;
 import io.boomerang.model.Session;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
@@ -17,27 +28,65 @@ import org.slf4j.LoggerFactory;
  * Manager responsible for the lifecycle of client sessions.
  *
  * <p>This manager creates, retrieves, refreshes, and invalidates sessions for authenticated
- * clients. It also handles session expiration and cleanup.
+ * clients. Sessions are held in a {@link Caffeine} cache whose variable expiry is driven by each
+ * session's {@link Session#expiresAt()}; Caffeine orders entries on an internal timing wheel and a
+ * background scheduler reaps expired sessions in amortized $O(1)$ time. The number of sessions is
+ * bounded both globally and per client.
+ *
+ * <p>When {@code session.token.enabled} is set, sessions are instead issued as stateless signed
+ * tokens (see {@link SessionTokenCodec}). Validation then only verifies the token's HMAC and
+ * expiry, so sessions survive restarts and are accepted by every node sharing the master key. A
+ * small, self-expiring revocation list covers explicit logouts and deregistered clients; it is
+ * local to each node. Per-client session caps do not apply in token mode.
  *
  * @since 1.0.0
  */
 public class SessionManager {
   private static final Logger log = LoggerFactory.getLogger(SessionManager.class);
-  private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+  private final Cache<String, Session> sessions;
+  private final Map<String, Set<String>> sessionsByClient = new ConcurrentHashMap<>();
   private final Duration sessionDuration;
+  private final int maxSessionsPerClient;
+  private final SessionTokenCodec tokenCodec;
+  private final Cache<UUID, Boolean> revokedTokens;
+  private final Cache<String, Long> revokedClients;
 
   /**
-   * Constructs a session manager with configuration-based session duration.
+   * Constructs a session manager with configuration-based session duration and limits.
    *
    * @param serverConfig the server configuration providing session timeout; must be non-null
    */
-  public SessionManager(io.boomerang.config.ServerConfig serverConfig) {
+  public SessionManager(ServerConfig serverConfig) {
     this.sessionDuration = Duration.ofMinutes(serverConfig.getSessionTimeoutMinutes());
+    this.maxSessionsPerClient = serverConfig.getSessionMaxPerClient();
+    this.sessions =
+        Caffeine.newBuilder()
+            .maximumSize(serverConfig.getSessionMaxTotal())
+            .expireAfter(new SessionExpiry())
+            .scheduler(Scheduler.systemScheduler())
+            .executor(Runnable::run)
+            .removalListener(
+                (String sessionId, Session session, RemovalCause cause) -> {
+                  if (session != null && cause != RemovalCause.REPLACED) {
+                    untrack(session.clientId(), sessionId);
+                  }
+                })
+            .build();
+    this.tokenCodec =
+        serverConfig.isSessionTokenEnabled()
+            ? new SessionTokenCodec(serverConfig.getEncryptionMasterKey())
+            : null;
+    // A revocation only needs to outlive the tokens it covers, which expire within one duration.
+    this.revokedTokens = Caffeine.newBuilder().expireAfterWrite(sessionDuration).build();
+    this.revokedClients = Caffeine.newBuilder().expireAfterWrite(sessionDuration).build();
   }
 
   /**
    * Creates a new session for a client with specified policies and configurations.
    *
+   * <p>If the client already holds the maximum number of sessions, its oldest session is
+   * invalidated.
+   *
    * @param clientId the ID of the client for whom to create a session; must be non-null
    * @param callbackConfig the configuration for callbacks; can be {@code null}
    * @param retryPolicy the policy for retries; can be {@code null}
@@ -49,11 +98,39 @@ public class SessionManager {
       CallbackConfig callbackConfig,
       RetryPolicy retryPolicy,
       DLQPolicy dlqPolicy) {
+    if (tokenCodec != null) {
+      return issueToken(clientId, UUID.randomUUID(), callbackConfig, retryPolicy, dlqPolicy);
+    }
+
     String sessionId = UUID.randomUUID().toString();
     Instant expiresAt = Instant.now().plus(sessionDuration);
     Session session =
         new Session(sessionId, clientId, callbackConfig, retryPolicy, dlqPolicy, expiresAt);
+
+    List<String> displaced = new ArrayList<>();
+    sessionsByClient.compute(
+        clientId,
+        (id, ids) -> {
+          Set<String> tracked = ids != null ? ids : new LinkedHashSet<>();
+          tracked.add(sessionId);
+          Iterator<String> oldest = tracked.iterator();
+          while (maxSessionsPerClient > 0 && tracked.size() > maxSessionsPerClient) {
+            displaced.add(oldest.next());
+            oldest.remove();
+          }
+          return tracked;
+        });
     sessions.put(sessionId, session);
+
+    if (!displaced.isEmpty()) {
+      log.info(
+          "Client {} exceeded {} sessions, invalidating {} oldest",
+          clientId,
+          maxSessionsPerClient,
+          displaced.size());
+      sessions.invalidateAll(displaced);
+    }
+
     log.info("Created session {} for client {}", sessionId, clientId);
     return session;
   }
@@ -61,41 +138,58 @@ public class SessionManager {
   /**
    * Retrieves an active, non-expired session by its identifier.
    *
+   * <p>Sessions decoded from stateless tokens carry no client policies; those are always read from
+   * the client store.
+   *
    * @param sessionId the identifier of the session to retrieve; must be non-null
    * @return an {@link Optional} containing the {@link Session} if found and active, or empty
    *     otherwise
    */
   public Optional<Session> getSession(String sessionId) {
-    Session session = sessions.get(sessionId);
-    if (session == null || session.isExpired()) {
-      return Optional.empty();
+    if (tokenCodec != null) {
+      SessionTokenCodec.Claims claims = activeClaims(sessionId);
+      if (claims == null) {
+        return Optional.empty();
+      }
+      Instant expiresAt = Instant.ofEpochMilli(claims.expiresAtMs());
+      return Optional.of(new Session(sessionId, claims.clientId(), null, null, null, expiresAt));
     }
-    return Optional.of(session);
+    return Optional.ofNullable(activeSession(sessionId));
   }
 
   /**
    * Refreshes the expiration time of an existing session.
    *
+   * <p>In token mode, the refreshed session carries a newly signed token as its identifier.
+   *
    * @param sessionId the identifier of the session to refresh; must be non-null
    * @return an {@link Optional} containing the refreshed {@link Session}, or empty if not found or
    *     already expired
    */
   public Optional<Session> refreshSession(String sessionId) {
-    Session session = sessions.get(sessionId);
-    if (session == null || session.isExpired()) {
-      return Optional.empty();
+    if (tokenCodec != null) {
+      SessionTokenCodec.Claims claims = activeClaims(sessionId);
+      return claims == null
+          ? Optional.empty()
+          : Optional.of(issueToken(claims.clientId(), claims.nonce(), null, null, null));
     }
 
-    Session refreshedSession =
-        new Session(
-            session.sessionId(),
-            session.clientId(),
-            session.callbackConfig(),
-            session.retryPolicy(),
-            session.dlqPolicy(),
-            Instant.now().plus(sessionDuration));
-    sessions.put(sessionId, refreshedSession);
-    return Optional.of(refreshedSession);
+    Session refreshed =
+        sessions
+            .asMap()
+            .computeIfPresent(
+                sessionId,
+                (id, session) ->
+                    session.isExpired()
+                        ? null
+                        : new Session(
+                            session.sessionId(),
+                            session.clientId(),
+                            session.callbackConfig(),
+                            session.retryPolicy(),
+                            session.dlqPolicy(),
+                            Instant.now().plus(sessionDuration)));
+    return Optional.ofNullable(refreshed);
   }
 
   /**
@@ -106,8 +200,10 @@ public class SessionManager {
    */
   public boolean isValid(String sessionId) {
     if (sessionId == null) return false;
-    Session session = sessions.get(sessionId);
-    return session != null && !session.isExpired();
+    if (tokenCodec != null) {
+      return activeClaims(sessionId) != null;
+    }
+    return activeSession(sessionId) != null;
   }
 
   /**
@@ -117,8 +213,12 @@ public class SessionManager {
    * @return the client ID, or {@code null} if the session is invalid
    */
   public String getClientId(String sessionId) {
-    Session session = sessions.get(sessionId);
-    return (session != null && !session.isExpired()) ? session.clientId() : null;
+    if (tokenCodec != null) {
+      SessionTokenCodec.Claims claims = activeClaims(sessionId);
+      return claims != null ? claims.clientId() : null;
+    }
+    Session session = activeSession(sessionId);
+    return session != null ? session.clientId() : null;
   }
 
   /**
@@ -127,11 +227,137 @@ public class SessionManager {
    * @param sessionId the identifier of the session to invalidate; must be non-null
    */
   public void invalidateSession(String sessionId) {
-    sessions.remove(sessionId);
+    if (tokenCodec != null) {
+      SessionTokenCodec.Claims claims = tokenCodec.decode(sessionId);
+      if (claims != null) {
+        revokedTokens.put(claims.nonce(), Boolean.TRUE);
+      }
+      return;
+    }
+    sessions.invalidate(sessionId);
+  }
+
+  /**
+   * Invalidates every session currently held by a client, e.g., after it has been deregistered.
+   *
+   * <p>In token mode, every token issued to the client up to now is rejected; tokens issued after a
+   * later login remain valid.
+   *
+   * @param clientId the client whose sessions should be invalidated; must be non-null
+   */
+  public void revokeClient(String clientId) {
+    if (tokenCodec != null) {
+      revokedClients.put(clientId, System.currentTimeMillis());
+      return;
+    }
+
+    List<String> sessionIds = new ArrayList<>();
+    sessionsByClient.computeIfPresent(
+        clientId,
+        (id, ids) -> {
+          sessionIds.addAll(ids);
+          return ids;
+        });
+    sessions.invalidateAll(sessionIds);
   }
 
-  /** Periodically cleans up expired sessions from the manager's memory. */
+  /**
+   * Runs any pending expiry and eviction work immediately.
+   *
+   * <p>Expired sessions are reaped automatically in the background; this method only forces the
+   * work to happen now.
+   */
   public void cleanupExpiredSessions() {
-    sessions.entrySet().removeIf(entry -> entry.getValue().isExpired());
+    sessions.cleanUp();
+  }
+
+  /**
+   * Returns the approximate number of sessions currently held in memory.
+   *
+   * <p>Sessions issued as stateless tokens are not held in memory and are not counted.
+   *
+   * @return the active session count
+   */
+  public long getActiveSessionCount() {
+    return sessions.estimatedSize();
+  }
+
+  /**
+   * Returns the approximate number of sessions currently held by the given client.
+   *
+   * @param clientId the client identifier; must be non-null
+   * @return the client's active session count
+   */
+  public int getActiveSessionCount(String clientId) {
+    Set<String> ids = sessionsByClient.get(clientId);
+    return ids != null ? ids.size() : 0;
+  }
+
+  private Session activeSession(String sessionId) {
+    Session session = sessions.getIfPresent(sessionId);
+    return (session != null && !session.isExpired()) ? session : null;
+  }
+
+  private Session issueToken(
+      String clientId,
+      UUID nonce,
+      CallbackConfig callbackConfig,
+      RetryPolicy retryPolicy,
+      DLQPolicy dlqPolicy) {
+    long now = System.currentTimeMillis();
+    Instant expiresAt = Instant.ofEpochMilli(now).plus(sessionDuration);
+    String token =
+        tokenCodec.encode(
+            new SessionTokenCodec.Claims(clientId, nonce, now, expiresAt.toEpochMilli()));
+    log.debug("Issued session token for client {}", clientId);
+    return new Session(token, clientId, callbackConfig, retryPolicy, dlqPolicy, expiresAt);
+  }
+
+  private SessionTokenCodec.Claims activeClaims(String token) {
+    SessionTokenCodec.Claims claims = tokenCodec.decode(token);
+    if (claims == null || claims.expiresAtMs() < System.currentTimeMillis()) {
+      return null;
+    }
+    if (revokedTokens.getIfPresent(claims.nonce()) != null) {
+      return null;
+    }
+    Long revokedAt = revokedClients.getIfPresent(claims.clientId());
+    if (revokedAt != null && claims.issuedAtMs() <= revokedAt) {
+      return null;
+    }
+    return claims;
+  }
+
+  private void untrack(String clientId, String sessionId) {
+    sessionsByClient.computeIfPresent(
+        clientId,
+        (id, ids) -> {
+          ids.remove(sessionId);
+          return ids.isEmpty() ? null : ids;
+        });
+  }
+
+  /** Expires each session at its own {@link Session#expiresAt()} timestamp. */
+  private static class SessionExpiry implements Expiry<String, Session> {
+    @Override
+    public long expireAfterCreate(String sessionId, Session session, long currentTime) {
+      return remainingNanos(session);
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String sessionId, Session session, long currentTime, long currentDuration) {
+      return remainingNanos(session);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String sessionId, Session session, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+
+    private static long remainingNanos(Session session) {
+      return Math.max(0, Duration.between(Instant.now(), session.expiresAt()).toNanos());
+    }
   }
 }
@@ -0,0 +1,135 @@
+package io.boomerang.session;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.UUID;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Signs and verifies stateless session tokens.
+ *
+ * <p>A token has the form {@code v1.<payload>.<signature>}, where both parts are URL-safe base64.
+ * The payload carries the client ID, a random session nonce, and the issue and expiry timestamps.
+ * The signature is an HMAC-SHA256 over the version and payload, keyed with a secret derived from
+ * the server master key, so any node sharing that key can verify a token without shared state.
+ *
+ * @since 1.0.0
+ */
+class SessionTokenCodec {
+  private static final String VERSION_PREFIX = "v1.";
+  private static final String MAC_ALGORITHM = "HmacSHA256";
+  private static final byte[] KEY_CONTEXT =
+      "boomerang-session-token".getBytes(StandardCharsets.UTF_8);
+  private static final int FIXED_PAYLOAD_BYTES = 4 * Long.BYTES;
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final ThreadLocal<Mac> mac;
+
+  /**
+   * The verified contents of a session token.
+   *
+   * @param clientId the client that owns the session
+   * @param nonce the random identifier shared by a session and all of its refreshed tokens
+   * @param issuedAtMs when this token was issued (Unix epoch ms)
+   * @param expiresAtMs when this token expires (Unix epoch ms)
+   */
+  record Claims(String clientId, UUID nonce, long issuedAtMs, long expiresAtMs) {}
+
+  /**
+   * Constructs a codec keyed from the server master key.
+   *
+   * @param masterKey the base64-encoded master key; must be non-null
+   * @throws IllegalArgumentException if the key is missing or not valid base64
+   */
+  SessionTokenCodec(String masterKey) {
+    if (masterKey == null || masterKey.isEmpty()) {
+      throw new IllegalArgumentException("Master key must not be null or empty");
+    }
+    // Derive a dedicated signing key so the AES master key is never used directly as a MAC key.
+    byte[] masterKeyBytes = Base64.getDecoder().decode(masterKey);
+    byte[] signingKeyBytes =
+        newMac(new SecretKeySpec(masterKeyBytes, MAC_ALGORITHM)).doFinal(KEY_CONTEXT);
+    SecretKeySpec signingKey = new SecretKeySpec(signingKeyBytes, MAC_ALGORITHM);
+    this.mac = ThreadLocal.withInitial(() -> newMac(signingKey));
+  }
+
+  /**
+   * Encodes and signs the given claims.
+   *
+   * @param claims the claims to encode; must be non-null
+   * @return the signed token
+   */
+  String encode(Claims claims) {
+    byte[] clientIdBytes = claims.clientId().getBytes(StandardCharsets.UTF_8);
+    byte[] payload =
+        ByteBuffer.allocate(FIXED_PAYLOAD_BYTES + clientIdBytes.length)
+            .putLong(claims.issuedAtMs())
+            .putLong(claims.expiresAtMs())
+            .putLong(claims.nonce().getMostSignificantBits())
+            .putLong(claims.nonce().getLeastSignificantBits())
+            .put(clientIdBytes)
+            .array();
+    String signed = VERSION_PREFIX + ENCODER.encodeToString(payload);
+    return signed + "." + ENCODER.encodeToString(sign(signed));
+  }
+
+  /**
+   * Verifies a token's signature and decodes its claims.
+   *
+   * <p>The signature comparison is constant-time. Expiry and revocation are not checked here.
+   *
+   * @param token the token to verify; can be {@code null}
+   * @return the claims, or {@code null} if the token is malformed or its signature is invalid
+   */
+  Claims decode(String token) {
+    if (token == null || !token.startsWith(VERSION_PREFIX)) {
+      return null;
+    }
+    int separator = token.lastIndexOf('.');
+    if (separator < VERSION_PREFIX.length()) {
+      return null;
+    }
+
+    try {
+      String signed = token.substring(0, separator);
+      byte[] signature = DECODER.decode(token.substring(separator + 1));
+      if (!MessageDigest.isEqual(sign(signed), signature)) {
+        return null;
+      }
+
+      String encodedPayload = signed.substring(VERSION_PREFIX.length());
+      ByteBuffer payload = ByteBuffer.wrap(DECODER.decode(encodedPayload));
+      if (payload.remaining() < FIXED_PAYLOAD_BYTES) {
+        return null;
+      }
+      long issuedAtMs = payload.getLong();
+      long expiresAtMs = payload.getLong();
+      UUID nonce = new UUID(payload.getLong(), payload.getLong());
+      byte[] clientIdBytes = new byte[payload.remaining()];
+      payload.get(clientIdBytes);
+      return new Claims(
+          new String(clientIdBytes, StandardCharsets.UTF_8), nonce, issuedAtMs, expiresAtMs);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private byte[] sign(String signed) {
+    return mac.get().doFinal(signed.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static Mac newMac(SecretKeySpec key) {
+    try {
+      Mac mac = Mac.getInstance(MAC_ALGORITHM);
+      mac.init(key);
+      return mac;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Could not initialize session token signer", e);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package io.boomerang.timer;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * A parsed five-field cron expression: minute, hour, day of month, month and day of week.
+ *
+ * <p>Each field accepts {@code *}, single values, ranges ({@code 1-5}), steps ({@code *}{@code
+ * /15}, {@code 10-50/10}) and comma-separated lists of these. Months and days of week also accept
+ * three-letter English names, and Sunday can be written as 0 or 7. As in classic cron, when both
+ * the day of month and the day of week are restricted, a day matches if either field matches.
+ *
+ * <p>Fire times are matched against local wall-clock time; converting them to instants, including
+ * around daylight saving transitions, is left to {@link CronSchedule}.
+ */
+final class CronExpression {
+  private static final String[] MONTH_NAMES = {
+    "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"
+  };
+  private static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+  // Cron expressions that can fire at all do so within a few years (e.g. "0 0 29 2 *").
+  private static final int MAX_SEARCH_YEARS = 8;
+
+  private final BitSet minutes;
+  private final BitSet hours;
+  private final BitSet daysOfMonth;
+  private final BitSet months;
+  private final BitSet daysOfWeek;
+  private final boolean daysOfMonthRestricted;
+  private final boolean daysOfWeekRestricted;
+
+  private CronExpression(String[] fields) {
+    this.minutes = parseField(fields[0], 0, 59, null, 0);
+    this.hours = parseField(fields[1], 0, 23, null, 0);
+    this.daysOfMonth = parseField(fields[2], 1, 31, null, 0);
+    this.months = parseField(fields[3], 1, 12, MONTH_NAMES, 1);
+    this.daysOfWeek = parseField(fields[4], 0, 7, DAY_NAMES, 0);
+    if (daysOfWeek.get(7)) {
+      daysOfWeek.set(0);
+    }
+    this.daysOfMonthRestricted = !fields[2].equals("*");
+    this.daysOfWeekRestricted = !fields[4].equals("*");
+  }
+
+  /**
+   * Parses a cron expression.
+   *
+   * @param expression the five-field expression; must be non-null
+   * @return the parsed expression
+   * @throws IllegalArgumentException if the expression is malformed
+   */
+  static CronExpression parse(String expression) {
+    String[] fields = expression.trim().toUpperCase(Locale.ROOT).split("\\s+");
+    if (fields.length != 5) {
+      throw new IllegalArgumentException(
+          "Cron expression must have 5 fields (minute hour day-of-month month day-of-week): "
+              + expression);
+    }
+    try {
+      return new CronExpression(fields);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Invalid cron expression '" + expression + "': " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Finds the first local time after the given one that matches this expression.
+   *
+   * @param after the local time to search from, exclusive
+   * @return the next matching local time, truncated to the minute
+   * @throws IllegalArgumentException if the expression never matches
+   */
+  LocalDateTime next(LocalDateTime after) {
+    LocalDateTime time = after.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    int lastYear = time.getYear() + MAX_SEARCH_YEARS;
+    while (time.getYear() <= lastYear) {
+      if (!months.get(time.getMonthValue())) {
+        time = time.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS).plusMonths(1);
+      } else if (!matchesDay(time)) {
+        time = time.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+      } else if (!hours.get(time.getHour())) {
+        time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+      } else if (!minutes.get(time.getMinute())) {
+        time = time.plusMinutes(1);
+      } else {
+        return time;
+      }
+    }
+    throw new IllegalArgumentException("Cron expression never fires");
+  }
+
+  private boolean matchesDay(LocalDateTime time) {
+    boolean dayOfMonth = daysOfMonth.get(time.getDayOfMonth());
+    // DayOfWeek numbers Monday as 1 and Sunday as 7; cron numbers Sunday as 0.
+    boolean dayOfWeek = daysOfWeek.get(time.getDayOfWeek().getValue() % 7);
+    if (daysOfMonthRestricted && daysOfWeekRestricted) {
+      return dayOfMonth || dayOfWeek;
+    }
+    return dayOfMonth && dayOfWeek;
+  }
+
+  private static BitSet parseField(String field, int min, int max, String[] names, int nameBase) {
+    BitSet values = new BitSet(max + 1);
+    for (String part : field.split(",")) {
+      int step = 1;
+      String range = part;
+      int slash = part.indexOf('/');
+      if (slash >= 0) {
+        step = parseNumber(part.substring(slash + 1), 1, Integer.MAX_VALUE, null, 0);
+        range = part.substring(0, slash);
+      }
+      int from;
+      int to;
+      if (range.equals("*")) {
+        from = min;
+        to = max;
+      } else {
+        int dash = range.indexOf('-');
+        if (dash >= 0) {
+          from = parseNumber(range.substring(0, dash), min, max, names, nameBase);
+          to = parseNumber(range.substring(dash + 1), min, max, names, nameBase);
+        } else {
+          from = parseNumber(range, min, max, names, nameBase);
+          // "5/15" means every 15 starting at 5.
+          to = slash >= 0 ? max : from;
+        }
+      }
+      if (from > to) {
+        throw new IllegalArgumentException("Invalid range: " + part);
+      }
+      // Counted in longs, as a step may be as large as any int.
+      for (long value = from; value <= to; value += step) {
+        values.set((int) value);
+      }
+    }
+    return values;
+  }
+
+  private static int parseNumber(String value, int min, int max, String[] names, int nameBase) {
+    if (names != null) {
+      for (int i = 0; i < names.length; i++) {
+        if (names[i].equals(value)) {
+          return i + nameBase;
+        }
+      }
+    }
+    int number;
+    try {
+      number = Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid value: " + value, e);
+    }
+    if (number < min || number > max) {
+      throw new IllegalArgumentException(
+          "Value " + number + " out of range [" + min + ", " + max + "]");
+    }
+    return number;
+  }
+}
@@ -0,0 +1,186 @@
+package io.boomerang.timer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A calendar-aware schedule for recurring tasks: a cron expression evaluated in a time zone, with
+ * an optional jitter.
+ *
+ * <p>Fire times are computed from the nominal previous fire time rather than from when the task was
+ * actually dispatched, so recurring tasks do not drift by the dispatch latency. Local times skipped
+ * by a daylight saving transition fire right after the transition, and local times repeated by one
+ * fire only once.
+ *
+ * <p>Jitter spreads tasks that share a schedule: each task fires at a fixed offset of up to {@code
+ * jitterMs} after every nominal fire time, derived from its task ID. Because the offset is stable,
+ * the nominal fire time of a task can always be recovered from its expiration.
+ *
+ * <p>Schedules are interned, so all tasks with the same expression and time zone share a table of
+ * precomputed upcoming fire times. Finding the next fire time is then a binary search in that table
+ * rather than a calendar computation, except when the table has to be extended.
+ *
+ * @since 1.0.0
+ */
+public final class CronSchedule {
+  private static final int PRECOMPUTED_FIRE_TIMES = 64;
+  private static final Cache<String, CronSchedule> SCHEDULES =
+      Caffeine.newBuilder().maximumSize(10_000).build();
+
+  private final String expression;
+  private final ZoneId timeZone;
+  private final long jitterMs;
+  private final CronExpression cron;
+  private volatile FireTimes fireTimes = new FireTimes(Long.MAX_VALUE, new long[0]);
+
+  /**
+   * Upcoming fire times: every fire time after {@code fromMs}, up to the last one in the table.
+   */
+  private record FireTimes(long fromMs, long[] timesMs) {
+    boolean covers(long afterMs) {
+      return afterMs >= fromMs && timesMs.length > 0 && afterMs < timesMs[timesMs.length - 1];
+    }
+  }
+
+  private CronSchedule(String expression, ZoneId timeZone, long jitterMs) {
+    this.expression = expression;
+    this.timeZone = timeZone;
+    this.jitterMs = jitterMs;
+    this.cron = CronExpression.parse(expression);
+  }
+
+  /**
+   * Gets the schedule for a cron expression, time zone and jitter.
+   *
+   * @param expression the five-field cron expression; must be non-null
+   * @param timeZone the IANA time zone the expression is evaluated in; UTC if {@code null} or empty
+   * @param jitterMs the maximum delay added to each fire time; must not be negative
+   * @return the schedule
+   * @throws IllegalArgumentException if the expression, time zone or jitter is invalid, or the
+   *     expression never fires
+   */
+  public static CronSchedule of(String expression, String timeZone, long jitterMs) {
+    Objects.requireNonNull(expression, "expression must not be null");
+    if (jitterMs < 0) {
+      throw new IllegalArgumentException("Jitter must not be negative: " + jitterMs);
+    }
+    ZoneId zone;
+    try {
+      zone = timeZone == null || timeZone.isEmpty() ? ZoneOffset.UTC : ZoneId.of(timeZone);
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException("Invalid time zone: " + timeZone, e);
+    }
+    String key = expression.trim() + '\n' + zone.getId() + '\n' + jitterMs;
+    CronSchedule schedule =
+        SCHEDULES.get(key, k -> new CronSchedule(expression.trim(), zone, jitterMs));
+    // Rejects expressions such as "0 0 30 2 *" up front.
+    schedule.nextFireAfter(System.currentTimeMillis(), "");
+    return schedule;
+  }
+
+  /**
+   * Computes the first fire time of a task after a given time.
+   *
+   * @param afterMs the time to search from, exclusive, in Unix epoch milliseconds
+   * @param taskId the ID of the task, which determines its jitter offset; must be non-null
+   * @return the fire time including the task's jitter offset
+   */
+  public long nextFireAfter(long afterMs, String taskId) {
+    long offsetMs = jitterOffsetMs(taskId);
+    return nextNominalFireAfter(afterMs - offsetMs) + offsetMs;
+  }
+
+  /**
+   * Computes the fire time of a task that follows the one it was scheduled for.
+   *
+   * <p>The next fire time is computed from the nominal time of the previous one, so it is not
+   * affected by how late the task was dispatched. If the task is so late that it missed further
+   * fire times, those are skipped rather than fired in a burst.
+   *
+   * @param expirationMs the fire time the task was scheduled for, including its jitter offset
+   * @param nowMs the current time in Unix epoch milliseconds
+   * @param taskId the ID of the task; must be non-null
+   * @return the next fire time including the task's jitter offset
+   */
+  long nextFireAfterCycle(long expirationMs, long nowMs, String taskId) {
+    return nextFireAfter(Math.max(expirationMs, nowMs), taskId);
+  }
+
+  private long nextNominalFireAfter(long afterMs) {
+    FireTimes table = fireTimes;
+    if (!table.covers(afterMs)) {
+      // Tasks due at the same nominal time query up to the jitter earlier than one another.
+      table = precompute(afterMs - jitterMs);
+      fireTimes = table;
+    }
+    long[] times = table.timesMs();
+    int index = Arrays.binarySearch(times, afterMs);
+    // The first fire time strictly after afterMs.
+    return times[index >= 0 ? index + 1 : -index - 1];
+  }
+
+  private FireTimes precompute(long fromMs) {
+    long[] times = new long[PRECOMPUTED_FIRE_TIMES];
+    long previousMs = fromMs;
+    LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(fromMs), timeZone);
+    for (int i = 0; i < times.length; i++) {
+      long timeMs;
+      do {
+        local = cron.next(local);
+        // A local time in a gap maps past it; one in an overlap maps to its earlier instant.
+        timeMs = local.atZone(timeZone).toInstant().toEpochMilli();
+      } while (timeMs <= previousMs);
+      times[i] = timeMs;
+      previousMs = timeMs;
+    }
+    return new FireTimes(fromMs, times);
+  }
+
+  private long jitterOffsetMs(String taskId) {
+    if (jitterMs == 0) {
+      return 0;
+    }
+    // Spread the bits of the hash code so that similar task IDs get unrelated offsets.
+    long hash = taskId.hashCode() * 0x9E3779B97F4A7C15L;
+    return Math.floorMod(hash ^ (hash >>> 32), jitterMs + 1);
+  }
+
+  /**
+   * Gets the cron expression.
+   *
+   * @return the five-field cron expression
+   */
+  public String getExpression() {
+    return expression;
+  }
+
+  /**
+   * Gets the time zone the expression is evaluated in.
+   *
+   * @return the time zone
+   */
+  public ZoneId getTimeZone() {
+    return timeZone;
+  }
+
+  /**
+   * Gets the maximum delay added to each fire time.
+   *
+   * @return the jitter in milliseconds
+   */
+  public long getJitterMs() {
+    return jitterMs;
+  }
+
+  @Override
+  public String toString() {
+    return expression + " (" + timeZone.getId() + ", jitter " + jitterMs + " ms)";
+  }
+}
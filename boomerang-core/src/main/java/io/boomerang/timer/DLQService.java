@@ -0,0 +1,175 @@
+package io.boomerang.timer;
+
+import io.boomerang.auth.ClientStore;
+import io.boomerang.model.Client;
+import io.boomerang.model.DLQPolicy;
+import io.boomerang.ratelimit.KeyedPacer;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Administrative operations on the dead-letter queue: paginated listing, purging, and replaying
+ * entries into the scheduler.
+ *
+ * <p>Replayed entries are streamed from the DLQ page by page, so the DLQ is never loaded into
+ * memory at once. Each replayed task gets fresh retry attempts and is scheduled at its client's
+ * next free slot at the replay rate, so that replaying a large DLQ does not flood the callback
+ * endpoints that failed in the first place.
+ *
+ * <p>Entries are dropped once they outlive the retention of their client's {@link DLQPolicy}, or
+ * the default retention if the policy does not set one. Expiry removes the expired entries of a
+ * client as one range of the store rather than scanning them.
+ *
+ * @since 1.0.0
+ */
+public class DLQService {
+  private static final Logger log = LoggerFactory.getLogger(DLQService.class);
+  private static final int REPLAY_PAGE_SIZE = 500;
+
+  private final DLQStore store;
+  private final Timer timer;
+  private final ClientStore clientStore;
+  private final KeyedPacer replayPacer;
+  private final long defaultRetentionMs;
+  private ScheduledExecutorService expiryExecutor;
+
+  /**
+   * Constructs a new DLQ service.
+   *
+   * @param store the dead-letter store; must be non-null
+   * @param timer the timer that replayed tasks are scheduled on; must be non-null
+   * @param clientStore the store for the DLQ policies of clients; must be non-null
+   * @param replayRatePerSecond the rate at which the replayed tasks of each client become due; 0 or
+   *     less makes them all due at once
+   * @param defaultRetentionMs how long entries are kept for clients whose policy does not set a
+   *     retention; 0 or less keeps them until they are deleted
+   */
+  public DLQService(
+      DLQStore store,
+      Timer timer,
+      ClientStore clientStore,
+      double replayRatePerSecond,
+      long defaultRetentionMs) {
+    this.store = Objects.requireNonNull(store, "store must not be null");
+    this.timer = Objects.requireNonNull(timer, "timer must not be null");
+    this.clientStore = Objects.requireNonNull(clientStore, "clientStore must not be null");
+    this.replayPacer = new KeyedPacer(replayRatePerSecond, 1);
+    this.defaultRetentionMs = defaultRetentionMs;
+  }
+
+  /**
+   * Starts dropping expired entries periodically.
+   *
+   * @param checkIntervalMs the interval between expiry runs; 0 or less disables expiry
+   */
+  public synchronized void start(long checkIntervalMs) {
+    if (checkIntervalMs <= 0 || expiryExecutor != null) {
+      return;
+    }
+    expiryExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "dlq-expiry");
+              t.setDaemon(true);
+              return t;
+            });
+    expiryExecutor.scheduleWithFixedDelay(
+        () -> {
+          try {
+            expire();
+          } catch (RuntimeException e) {
+            log.error("Failed to expire DLQ entries", e);
+          }
+        },
+        checkIntervalMs,
+        checkIntervalMs,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /** Stops dropping expired entries. */
+  public synchronized void shutdown() {
+    if (expiryExecutor != null) {
+      expiryExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Drops the entries that have outlived the retention of their client.
+   *
+   * <p>The entries of deregistered clients are kept for the default retention.
+   */
+  public void expire() {
+    long now = System.currentTimeMillis();
+    for (String clientId : store.clients()) {
+      long retentionMs =
+          clientStore
+              .findById(clientId)
+              .map(Client::dlqPolicy)
+              .map(DLQPolicy::retentionMs)
+              .filter(ms -> ms > 0)
+              .orElse(defaultRetentionMs);
+      if (retentionMs > 0) {
+        store.expire(clientId, now - retentionMs);
+      }
+    }
+  }
+
+  /**
+   * Retrieves one page of entries in the dead-letter queue.
+   *
+   * @param clientId the identifier of the client whose entries to list; {@code null} for all
+   *     clients
+   * @param limit the maximum number of entries to return
+   * @param nextToken the cursor returned with the previous page; {@code null} or empty for the
+   *     first page
+   * @return the page of entries
+   */
+  public ListResult<DLQStore.DLQEntry> list(String clientId, int limit, String nextToken) {
+    return store.list(clientId, limit, nextToken);
+  }
+
+  /**
+   * Removes all entries of a client from the dead-letter queue.
+   *
+   * @param clientId the identifier of the client; {@code null} for all clients
+   */
+  public void purge(String clientId) {
+    store.purge(clientId);
+    log.info("Purged DLQ entries of {}", clientId == null ? "all clients" : clientId);
+  }
+
+  /**
+   * Schedules entries of the dead-letter queue again and removes them from it.
+   *
+   * @param clientId the identifier of the client whose entries to replay; {@code null} for all
+   *     clients
+   * @param limit the maximum number of entries to replay; 0 or less replays all of them
+   * @return the number of entries replayed
+   */
+  public synchronized long replay(String clientId, int limit) {
+    long replayed = 0;
+    String nextToken = null;
+    do {
+      int pageSize =
+          limit > 0 ? (int) Math.min(REPLAY_PAGE_SIZE, limit - replayed) : REPLAY_PAGE_SIZE;
+      ListResult<DLQStore.DLQEntry> page = store.list(clientId, pageSize, nextToken);
+      for (DLQStore.DLQEntry entry : page.items()) {
+        TimerTask task = entry.task();
+        long delayMs = replayPacer.reserve(task.getClientId());
+        timer.add(task.withExpiration(System.currentTimeMillis() + delayMs, 0));
+        // Removed only once scheduled, so a failure leaves the entry in the DLQ.
+        store.delete(entry);
+        replayed++;
+      }
+      nextToken = page.nextToken();
+    } while (nextToken != null && (limit <= 0 || replayed < limit));
+
+    log.info(
+        "Replayed {} DLQ entries of {}", replayed, clientId == null ? "all clients" : clientId);
+    return replayed;
+  }
+}
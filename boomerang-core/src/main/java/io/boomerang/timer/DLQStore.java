@@ -7,7 +7,8 @@ import java.util.Optional;
  * Interface for a persistent store for dead-letter tasks.
  *
  * <p>Tasks that have exhausted their retry attempts are moved to the DLQ for manual inspection or
- * replay.
+ * replay. Entries are kept in order of failure within each client, so that entries past their
+ * retention can be dropped as one range.
  *
  * @since 1.0.0
  */
@@ -18,8 +19,20 @@ public interface DLQStore {
    *
    * @param task the failed task
    * @param errorMessage the description of the failure
+   * @param failedAtMs the epoch time at which the task was dead-lettered
    */
-  record DLQEntry(TimerTask task, String errorMessage) {}
+  record DLQEntry(TimerTask task, String errorMessage, long failedAtMs) {
+
+    /**
+     * Constructs an entry for a task that is being dead-lettered now.
+     *
+     * @param task the failed task
+     * @param errorMessage the description of the failure
+     */
+    public DLQEntry(TimerTask task, String errorMessage) {
+      this(task, errorMessage, System.currentTimeMillis());
+    }
+  }
 
   /**
    * Saves an entry to the dead-letter queue.
@@ -43,9 +56,27 @@ public interface DLQStore {
    */
   Collection<DLQEntry> findAll(String clientId);
 
+  /**
+   * Retrieves one page of entries in the dead-letter queue.
+   *
+   * <p>Unlike {@link #findAll()}, this reads only as many entries as fit on the page, so the DLQ
+   * can be listed however large it grows.
+   *
+   * @param clientId the identifier of the client whose entries to list; {@code null} lists the
+   *     entries of all clients
+   * @param limit the maximum number of entries to return
+   * @param nextToken the cursor returned with the previous page; {@code null} or empty for the
+   *     first page
+   * @return the page of entries, with a cursor for the next page if there may be more entries
+   */
+  ListResult<DLQEntry> list(String clientId, int limit, String nextToken);
+
   /**
    * Retrieves a specific entry from the DLQ by client and task identifiers.
    *
+   * <p>A recurring task can be dead-lettered once per failed cycle; the most recent entry is
+   * returned.
+   *
    * @param clientId the identifier of the client
    * @param taskId the unique ID of the task
    * @return an {@link Optional} containing the entry if found, or empty otherwise
@@ -53,13 +84,44 @@ public interface DLQStore {
   Optional<DLQEntry> findEntryById(String clientId, String taskId);
 
   /**
-   * Removes an entry from the dead-letter queue.
+   * Removes all entries of a task from the dead-letter queue.
    *
    * @param clientId the identifier of the client
    * @param taskId the unique ID of the task to remove
    */
   void delete(String clientId, String taskId);
 
+  /**
+   * Removes an entry from the dead-letter queue.
+   *
+   * <p>Unlike {@link #delete(String, String)}, this locates the entry directly by its failure time.
+   *
+   * @param entry the entry as returned by the store; must be non-null
+   */
+  void delete(DLQEntry entry);
+
+  /**
+   * Removes the entries of a client that failed before a point in time.
+   *
+   * @param clientId the identifier of the client; must be non-null
+   * @param failedBeforeMs the epoch time before which entries are removed
+   */
+  void expire(String clientId, long failedBeforeMs);
+
+  /**
+   * Retrieves the clients that have entries in the dead-letter queue.
+   *
+   * @return the client identifiers
+   */
+  Collection<String> clients();
+
+  /**
+   * Removes all entries of a client from the dead-letter queue at once.
+   *
+   * @param clientId the identifier of the client; {@code null} removes the entries of all clients
+   */
+  void purge(String clientId);
+
   /** Clears all entries from the dead-letter queue. */
   void clear();
 }
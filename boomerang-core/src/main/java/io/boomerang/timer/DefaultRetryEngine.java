@@ -3,7 +3,12 @@ package io.boomerang.timer;
 import io.boomerang.auth.ClientStore;
 import io.boomerang.model.Client;
 import io.boomerang.model.RetryPolicy;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,13 +48,29 @@ public class DefaultRetryEngine implements RetryEngine {
 
   @Override
   public void handleFailure(TimerTask task, Throwable exception) {
+    handleFailure(task, exception, new HashMap<>());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Each client is looked up once for the whole batch.
+   */
+  @Override
+  public void handleFailures(Map<TimerTask, ? extends Throwable> failures) {
+    Map<String, Optional<Client>> clients = new HashMap<>();
+    failures.forEach((task, exception) -> handleFailure(task, exception, clients));
+  }
+
+  private void handleFailure(
+      TimerTask task, Throwable exception, Map<String, Optional<Client>> clients) {
     String clientId = task.getClientId();
     if (clientId == null) {
       log.error("Task {} failed but has no clientId. This should not happen.", task.getTaskId());
       return;
     }
 
-    Client client = clientStore.findById(clientId).orElse(null);
+    Client client = clients.computeIfAbsent(clientId, clientStore::findById).orElse(null);
     if (client == null) {
       log.warn(
           "Client {} not found for task {}, moving to DLQ: {}",
@@ -67,7 +88,7 @@ public class DefaultRetryEngine implements RetryEngine {
       return;
     }
 
-    long delayMs = calculateBackoff(policy, task.getAttemptCount());
+    long delayMs = calculateBackoff(policy, task);
     log.info(
         "Task {} failed (attempt {}). Retrying in {} ms. Reason: {}",
         task.getTaskId(),
@@ -83,15 +104,45 @@ public class DefaultRetryEngine implements RetryEngine {
     longTermStore.delete(task);
   }
 
-  private long calculateBackoff(RetryPolicy policy, int currentAttemptCount) {
+  private long calculateBackoff(RetryPolicy policy, TimerTask task) {
+    // The attempt count is 0 for the first retry (1st failure)
+    int attemptCount = task.getAttemptCount();
     return switch (policy.strategy()) {
       case FIXED -> policy.intervalMs();
-      case EXPONENTIAL -> {
-        // nextDelay = min(intervalMs * 2^(attemptCount), maxIntervalMs)
-        // Here currentAttemptCount is 0 for first retry (1st failure)
-        long exponentialDelay = policy.intervalMs() * (long) Math.pow(2, currentAttemptCount);
-        yield Math.min(exponentialDelay, policy.maxIntervalMs());
-      }
+      case EXPONENTIAL -> exponentialBackoff(policy, attemptCount);
+      // Spreads the retries of tasks that failed together over the whole exponential interval.
+      case FULL_JITTER ->
+          ThreadLocalRandom.current().nextLong(exponentialBackoff(policy, attemptCount) + 1);
+      case DECORRELATED_JITTER -> decorrelatedBackoff(policy, task);
     };
   }
+
+  /** Computes min(intervalMs * 2^attemptCount, maxIntervalMs) without overflowing. */
+  private static long exponentialBackoff(RetryPolicy policy, int attemptCount) {
+    long cap = policy.maxIntervalMs();
+    if (attemptCount >= Long.SIZE - 1 || policy.intervalMs() > cap >> attemptCount) {
+      return cap;
+    }
+    return Math.min(policy.intervalMs() << attemptCount, cap);
+  }
+
+  /**
+   * Computes the decorrelated-jitter backoff: each wait is a random time between the base interval
+   * and three times the previous wait, capped at the maximum interval.
+   *
+   * <p>Tasks do not store their previous waits, so the sequence is replayed from a random generator
+   * seeded by the task ID. The retries of one task follow a single sequence, while tasks that fail
+   * together get unrelated ones.
+   */
+  private static long decorrelatedBackoff(RetryPolicy policy, TimerTask task) {
+    long base = policy.intervalMs();
+    long cap = policy.maxIntervalMs();
+    SplittableRandom random = new SplittableRandom(task.getTaskId().hashCode());
+    long delay = base;
+    for (int i = 0; i <= task.getAttemptCount(); i++) {
+      long upper = delay > Long.MAX_VALUE / 3 ? Long.MAX_VALUE : delay * 3;
+      delay = Math.min(cap, upper > base ? random.nextLong(base, upper) : base);
+    }
+    return delay;
+  }
 }
@@ -114,6 +114,20 @@ public class HierarchicalTimingWheel implements Timer {
     return Optional.ofNullable(idMap.get(taskId));
   }
 
+  @Override
+  public Optional<TimerTask> getIfInMemory(String taskId) {
+    return get(taskId);
+  }
+
+  /**
+   * Gets the number of tasks currently scheduled in this timing wheel.
+   *
+   * @return the task count
+   */
+  public int size() {
+    return idMap.size();
+  }
+
   @Override
   public ListResult<TimerTask> list(
       String clientId,
@@ -137,7 +151,7 @@ public class HierarchicalTimingWheel implements Timer {
       stream = stream.filter(task -> clientId.equals(task.getClientId()));
     }
     if (isRecurring != null) {
-      stream = stream.filter(task -> (task.getRepeatIntervalMs() > 0) == isRecurring);
+      stream = stream.filter(task -> task.isRecurring() == isRecurring);
     }
 
     if (nextToken != null && !nextToken.isEmpty()) {
@@ -1,6 +1,7 @@
 package io.boomerang.timer;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Optional;
@@ -20,6 +21,7 @@ import java.util.stream.Collectors;
 public class InMemoryLongTermTaskStore implements LongTermTaskStore {
   private final NavigableMap<Long, Collection<TimerTask>> timeIndex = new TreeMap<>();
   private final Map<String, TimerTask> idIndex = new ConcurrentHashMap<>();
+  private volatile long recoveryWatermark;
 
   @Override
   public synchronized void save(TimerTask task) {
@@ -41,6 +43,17 @@ public class InMemoryLongTermTaskStore implements LongTermTaskStore {
     return subMap.values().stream().flatMap(Collection::stream).toList();
   }
 
+  @Override
+  public synchronized Collection<TimerTask> fetchTasksDueBetween(
+      long fromTimestamp, long toTimestamp) {
+    if (fromTimestamp > toTimestamp) {
+      return List.of();
+    }
+    NavigableMap<Long, Collection<TimerTask>> subMap =
+        timeIndex.subMap(fromTimestamp, true, toTimestamp, true);
+    return subMap.values().stream().flatMap(Collection::stream).toList();
+  }
+
   @Override
   public synchronized Optional<TimerTask> findById(String taskId) {
     return Optional.ofNullable(idIndex.get(taskId));
@@ -74,7 +87,7 @@ public class InMemoryLongTermTaskStore implements LongTermTaskStore {
       stream = stream.filter(task -> clientId.equals(task.getClientId()));
     }
     if (isRecurring != null) {
-      stream = stream.filter(task -> (task.getRepeatIntervalMs() > 0) == isRecurring);
+      stream = stream.filter(task -> task.isRecurring() == isRecurring);
     }
 
     if (nextToken != null && !nextToken.isEmpty()) {
@@ -96,6 +109,16 @@ public class InMemoryLongTermTaskStore implements LongTermTaskStore {
     return new ListResult<>(tasks, nextCursor);
   }
 
+  @Override
+  public long getRecoveryWatermark() {
+    return recoveryWatermark;
+  }
+
+  @Override
+  public void saveRecoveryWatermark(long watermark) {
+    this.recoveryWatermark = watermark;
+  }
+
   private void removeFromTimeIndex(TimerTask task) {
     Collection<TimerTask> tasks = timeIndex.get(task.getExpirationMs());
     if (tasks != null) {
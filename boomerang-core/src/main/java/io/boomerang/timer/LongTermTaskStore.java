@@ -29,6 +29,40 @@ public interface LongTermTaskStore {
    */
   Collection<TimerTask> fetchTasksDueBefore(long timestamp);
 
+  /**
+   * Fetches all tasks due within a time range.
+   *
+   * <p>The default implementation filters {@link #fetchTasksDueBefore(long)}; stores with an
+   * expiration-ordered index should seek to {@code fromTimestamp} instead.
+   *
+   * @param fromTimestamp the earliest expiration time to fetch, inclusive
+   * @param toTimestamp the latest expiration time to fetch, inclusive
+   * @return a collection of tasks due within the range; never {@code null}
+   */
+  default Collection<TimerTask> fetchTasksDueBetween(long fromTimestamp, long toTimestamp) {
+    return fetchTasksDueBefore(toTimestamp).stream()
+        .filter(task -> task.getExpirationMs() >= fromTimestamp)
+        .toList();
+  }
+
+  /**
+   * Fetches all tasks due within a time range without their payloads.
+   *
+   * <p>The returned tasks are {@link TimerTask#isPayloadDeferred() deferred}; their payloads are
+   * read with {@link #findById(String)} when needed. Stores can drop each payload as soon as it is
+   * read, so that fetching a large range does not hold every payload at once. The default
+   * implementation strips the tasks returned by {@link #fetchTasksDueBetween(long, long)}.
+   *
+   * @param fromTimestamp the earliest expiration time to fetch, inclusive
+   * @param toTimestamp the latest expiration time to fetch, inclusive
+   * @return a collection of tasks due within the range; never {@code null}
+   */
+  default Collection<TimerTask> fetchTaskMetadataDueBetween(long fromTimestamp, long toTimestamp) {
+    return fetchTasksDueBetween(fromTimestamp, toTimestamp).stream()
+        .map(TimerTask::withoutPayload)
+        .toList();
+  }
+
   /**
    * Finds a task by its unique identifier.
    *
@@ -37,6 +71,19 @@ public interface LongTermTaskStore {
    */
   Optional<TimerTask> findById(String taskId);
 
+  /**
+   * Finds the client that owns a task.
+   *
+   * <p>Used to authorize requests that name a task by its ID, so stores can skip reading the
+   * payload of the task. The default implementation reads the whole task.
+   *
+   * @param taskId the unique ID of the task; must be non-null
+   * @return an {@link Optional} containing the client ID if the task is found, or empty otherwise
+   */
+  default Optional<String> findClientId(String taskId) {
+    return findById(taskId).map(TimerTask::getClientId);
+  }
+
   /**
    * Deletes a task from the store.
    *
@@ -46,6 +93,91 @@ public interface LongTermTaskStore {
    */
   void delete(TimerTask task);
 
+  /**
+   * Cancels a task by its identifier.
+   *
+   * <p>Stores may only mark the task as cancelled and remove it later, provided that it is no
+   * longer returned by lookups, fetches or listings, and {@link #isCancelled(String)} reports it
+   * until it is removed. Saving a task with the same identifier clears the mark. The default
+   * implementation deletes the task right away.
+   *
+   * @param taskId the unique ID of the task to cancel; must be non-null
+   */
+  default void cancel(String taskId) {
+    findById(taskId).ifPresent(this::delete);
+  }
+
+  /**
+   * Checks whether a task has been cancelled but not yet removed from the store.
+   *
+   * <p>A task fetched before it was cancelled may still be scheduled in memory, so it is checked
+   * again before dispatching. The default implementation removes tasks when they are cancelled.
+   *
+   * @param taskId the unique ID of the task; must be non-null
+   * @return {@code true} if the task is cancelled
+   */
+  default boolean isCancelled(String taskId) {
+    return false;
+  }
+
+  /**
+   * Moves a recurring task from the cycle that just fired to its next cycle.
+   *
+   * <p>Only the schedule of the task changes, so stores that keep the payload of a recurring task
+   * apart from its schedule can skip rewriting the payload. A task cancelled while the cycle was
+   * being delivered is removed instead of moved. The default implementation saves the next cycle,
+   * which replaces the previous one, unless the task is no longer stored.
+   *
+   * @param previous the cycle that fired, as currently stored; must be non-null
+   * @param next the next cycle of the same task; must be non-null
+   * @return {@code true} if the task was moved, or {@code false} if it was cancelled
+   */
+  default boolean advanceCycle(TimerTask previous, TimerTask next) {
+    if (findById(previous.getTaskId()).isEmpty()) {
+      return false;
+    }
+    save(next);
+    return true;
+  }
+
+  /**
+   * Moves a task to a new expiration at the request of its client.
+   *
+   * <p>Only the expiration of the task changes, so stores can look the task up by its ID and move
+   * its index entries without reading or rewriting its payload. The default implementation saves a
+   * copy of the stored task at the new expiration, which replaces it.
+   *
+   * @param taskId the unique ID of the task; must be non-null
+   * @param expirationMs the new absolute expiration time
+   * @return {@code true} if the task was moved, or {@code false} if it is not stored or cancelled
+   */
+  default boolean reschedule(String taskId, long expirationMs) {
+    Optional<TimerTask> task = findById(taskId);
+    task.ifPresent(t -> save(t.withExpiration(expirationMs)));
+    return task.isPresent();
+  }
+
+  /**
+   * Records a failed delivery attempt of a task whose retry is scheduled in memory.
+   *
+   * <p>Only the attempt count of the task changes in the store. Its stored expiration may stay at
+   * the attempt that failed, which has passed, so after a restart the task is recovered as overdue
+   * and retried right away with its attempt count intact. Later saves, cycle moves and deletions of
+   * the task apply to its stored entry regardless of the expiration of the retry. A task cancelled
+   * while the failed attempt was being delivered is removed instead. The default implementation
+   * saves the retry, unless the task is no longer stored.
+   *
+   * @param retry the next attempt of the task; must be non-null
+   * @return {@code true} if the attempt was recorded, or {@code false} if the task was cancelled
+   */
+  default boolean recordAttempt(TimerTask retry) {
+    if (findById(retry.getTaskId()).isEmpty()) {
+      return false;
+    }
+    save(retry);
+    return true;
+  }
+
   /**
    * Lists tasks based on the provided filters and pagination.
    *
@@ -64,4 +196,25 @@ public interface LongTermTaskStore {
       Boolean isRecurring,
       int limit,
       String nextToken);
+
+  /**
+   * Gets the recovery watermark, a time before which no stored task expires.
+   *
+   * <p>Scans for due tasks can start at the watermark instead of the beginning of the store, which
+   * skips the ranges emptied by dispatched tasks.
+   *
+   * @return the saved watermark, or 0 if none was saved
+   */
+  default long getRecoveryWatermark() {
+    return 0;
+  }
+
+  /**
+   * Saves the recovery watermark so that it survives a restart.
+   *
+   * <p>The default implementation does not persist the watermark.
+   *
+   * @param watermark a time before which no stored task expires
+   */
+  default void saveRecoveryWatermark(long watermark) {}
 }
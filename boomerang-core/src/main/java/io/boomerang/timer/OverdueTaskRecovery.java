@@ -0,0 +1,245 @@
+package io.boomerang.timer;
+
+import io.boomerang.ratelimit.KeyedPacer;
+import io.boomerang.ratelimit.TokenBucket;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads the tasks that became overdue while a timer was down and releases them at a controlled
+ * catch-up rate.
+ *
+ * <p>The overdue range is split into equal time slices that are paged in from the store in
+ * parallel. Loaded tasks go through a bounded queue, so loaders never get far ahead of the
+ * releaser, and the releaser hands them to the timer no faster than the catch-up rate. Tasks are
+ * therefore released roughly, but not strictly, in expiration order.
+ *
+ * <p>Each client's tasks are also paced to a per-client catch-up rate. A task over its client's
+ * rate is not held back in the queue, which would stall every other client, but postponed to the
+ * client's next free slot and handed back to the timer as a regular scheduled task.
+ */
+class OverdueTaskRecovery {
+  private static final Logger log = LoggerFactory.getLogger(OverdueTaskRecovery.class);
+  private static final int PAGE_SIZE = 500;
+
+  private final LongTermTaskStore store;
+  private final Consumer<TimerTask> release;
+  private final Consumer<TimerTask> postpone;
+  private final int parallelism;
+  private final TokenBucket catchUpLimiter;
+  private final KeyedPacer clientPacer;
+  private final BlockingQueue<TimerTask> releaseQueue;
+  private final ExecutorService executor;
+  private final Set<String> cancelledTaskIds = ConcurrentHashMap.newKeySet();
+  private final AtomicLong recoveredTaskCount = new AtomicLong();
+  private final AtomicLong postponedTaskCount = new AtomicLong();
+  private final CountDownLatch done = new CountDownLatch(1);
+  private volatile long startedAtMs;
+  private volatile long finishedAtMs;
+
+  /**
+   * Constructs a recovery.
+   *
+   * @param store the store to load overdue tasks from
+   * @param release receives each overdue task when it is due for release
+   * @param postpone receives each overdue task over its client's rate, re-keyed to a later slot
+   * @param parallelism the number of slices loaded in parallel; values below 1 are treated as 1
+   * @param catchUpRatePerSecond the maximum release rate; non-positive values disable the limit
+   * @param clientCatchUpRatePerSecond the maximum release rate per client; non-positive values
+   *     disable the limit
+   * @param clientCatchUpBurst the number of tasks per client released back to back before pacing
+   */
+  OverdueTaskRecovery(
+      LongTermTaskStore store,
+      Consumer<TimerTask> release,
+      Consumer<TimerTask> postpone,
+      int parallelism,
+      double catchUpRatePerSecond,
+      double clientCatchUpRatePerSecond,
+      int clientCatchUpBurst) {
+    this.store = store;
+    this.release = release;
+    this.postpone = postpone;
+    this.parallelism = Math.max(1, parallelism);
+    this.catchUpLimiter = new TokenBucket(catchUpRatePerSecond, catchUpRatePerSecond);
+    this.clientPacer = new KeyedPacer(clientCatchUpRatePerSecond, clientCatchUpBurst);
+    this.releaseQueue = new ArrayBlockingQueue<>(PAGE_SIZE * this.parallelism);
+    this.executor =
+        Executors.newFixedThreadPool(
+            this.parallelism + 1,
+            r -> {
+              Thread t = new Thread(r, "timer-recovery");
+              t.setDaemon(true);
+              return t;
+            });
+  }
+
+  /**
+   * Starts loading and releasing the tasks due within a range in the background.
+   *
+   * @param fromMs the earliest expiration time to recover, inclusive
+   * @param cutoffMs the latest expiration time to recover, inclusive
+   * @param onComplete run once every overdue task has been released
+   */
+  void start(long fromMs, long cutoffMs, Runnable onComplete) {
+    startedAtMs = System.currentTimeMillis();
+    long sliceMs = Math.max(1, Math.ceilDiv(cutoffMs - fromMs + 1, parallelism));
+    CountDownLatch loaders = new CountDownLatch(parallelism);
+    for (int i = 0; i < parallelism; i++) {
+      long sliceFrom = fromMs + i * sliceMs;
+      long sliceTo = i == parallelism - 1 ? cutoffMs : Math.min(cutoffMs, sliceFrom + sliceMs - 1);
+      executor.execute(
+          () -> {
+            try {
+              loadSlice(sliceFrom, sliceTo);
+            } finally {
+              loaders.countDown();
+            }
+          });
+    }
+    executor.execute(() -> releaseUntilLoaded(loaders, onComplete));
+    log.info(
+        "Recovering overdue tasks due between {} and {} with {} loaders",
+        fromMs,
+        cutoffMs,
+        parallelism);
+  }
+
+  private void loadSlice(long fromMs, long toMs) {
+    if (fromMs > toMs) {
+      return;
+    }
+    String nextToken = null;
+    try {
+      do {
+        ListResult<TimerTask> page = store.list(null, fromMs, toMs, null, PAGE_SIZE, nextToken);
+        for (TimerTask task : page.items()) {
+          releaseQueue.put(task);
+        }
+        nextToken = page.nextToken();
+      } while (nextToken != null);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      log.error("Failed to load overdue tasks due between {} and {}", fromMs, toMs, e);
+    }
+  }
+
+  private void releaseUntilLoaded(CountDownLatch loaders, Runnable onComplete) {
+    try {
+      while (loaders.getCount() > 0 || !releaseQueue.isEmpty()) {
+        TimerTask task = releaseQueue.poll(50, TimeUnit.MILLISECONDS);
+        if (task == null) {
+          continue;
+        }
+        if (cancelledTaskIds.remove(task.getTaskId())) {
+          deleteIfCancelled(task);
+          continue;
+        }
+        long delayMs = clientPacer.reserve(task.getClientId());
+        if (delayMs > 0) {
+          postponeTask(task, delayMs);
+          continue;
+        }
+        while (!catchUpLimiter.tryAcquire()) {
+          Thread.sleep(catchUpLimiter.millisUntilAvailable());
+        }
+        try {
+          release.accept(task);
+          recoveredTaskCount.incrementAndGet();
+        } catch (RuntimeException e) {
+          log.error("Failed to release overdue task {}", task.getTaskId(), e);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    finishedAtMs = System.currentTimeMillis();
+    cancelledTaskIds.clear();
+    done.countDown();
+    executor.shutdown();
+    log.info(
+        "Recovered {} overdue tasks in {} ms, postponing {} over their client's catch-up rate",
+        recoveredTaskCount.get(),
+        getDurationMs(),
+        postponedTaskCount.get());
+    onComplete.run();
+  }
+
+  private void postponeTask(TimerTask task, long delayMs) {
+    try {
+      postpone.accept(task.withExpiration(System.currentTimeMillis() + delayMs));
+      postponedTaskCount.incrementAndGet();
+    } catch (RuntimeException e) {
+      log.error("Failed to postpone overdue task {}", task.getTaskId(), e);
+    }
+  }
+
+  /**
+   * Deletes a task cancelled while it was queued, so that it does not stay stored behind the
+   * recovery watermark. A task scheduled anew in the meantime is no longer marked as cancelled and
+   * is kept.
+   */
+  private void deleteIfCancelled(TimerTask task) {
+    try {
+      if (store.isCancelled(task.getTaskId())) {
+        store.delete(task);
+      }
+    } catch (RuntimeException e) {
+      log.error("Failed to delete cancelled overdue task {}", task.getTaskId(), e);
+    }
+  }
+
+  /**
+   * Prevents a task that may still be queued for release from being released.
+   *
+   * @param taskId the ID of the cancelled task
+   */
+  void onCancelled(String taskId) {
+    if (isRunning()) {
+      cancelledTaskIds.add(taskId);
+    }
+  }
+
+  boolean isRunning() {
+    return startedAtMs > 0 && done.getCount() > 0;
+  }
+
+  long getRecoveredTaskCount() {
+    return recoveredTaskCount.get();
+  }
+
+  long getPostponedTaskCount() {
+    return postponedTaskCount.get();
+  }
+
+  /** Returns the time spent so far, or the total time once the recovery has finished. */
+  long getDurationMs() {
+    if (startedAtMs == 0) {
+      return 0;
+    }
+    long end = finishedAtMs > 0 ? finishedAtMs : System.currentTimeMillis();
+    return end - startedAtMs;
+  }
+
+  /** Returns the average number of tasks released per second. */
+  double getCatchUpRatePerSecond() {
+    long durationMs = getDurationMs();
+    return durationMs > 0 ? recoveredTaskCount.get() * 1000.0 / durationMs : 0;
+  }
+
+  void shutdown() {
+    executor.shutdownNow();
+  }
+}
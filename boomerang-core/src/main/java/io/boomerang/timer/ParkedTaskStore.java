@@ -0,0 +1,47 @@
+package io.boomerang.timer;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interface for a persistent store for tasks held back from an unavailable callback endpoint.
+ *
+ * <p>Tasks are parked per endpoint while the endpoint's circuit breaker is open, and released in
+ * order of expiration once it has recovered. Parking a task does not count as a delivery attempt.
+ *
+ * @since 1.0.0
+ */
+public interface ParkedTaskStore {
+
+  /**
+   * Parks a task for an endpoint.
+   *
+   * @param endpoint the endpoint the task could not be delivered to; must be non-null
+   * @param task the task to park; must be non-null
+   */
+  void park(String endpoint, TimerTask task);
+
+  /**
+   * Retrieves the parked tasks of an endpoint with the earliest expirations, without removing them.
+   *
+   * @param endpoint the endpoint; must be non-null
+   * @param limit the maximum number of tasks to return
+   * @return the parked tasks in order of expiration
+   */
+  List<TimerTask> peek(String endpoint, int limit);
+
+  /**
+   * Removes a parked task.
+   *
+   * @param endpoint the endpoint the task is parked for; must be non-null
+   * @param task the task as returned by {@link #peek}; must be non-null
+   */
+  void remove(String endpoint, TimerTask task);
+
+  /**
+   * Retrieves the endpoints that have parked tasks.
+   *
+   * @return the endpoints
+   */
+  Collection<String> endpoints();
+}
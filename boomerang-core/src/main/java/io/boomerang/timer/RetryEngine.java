@@ -1,5 +1,7 @@
 package io.boomerang.timer;
 
+import java.util.Map;
+
 /**
  * Interface for handling task failures and orchestrating retries.
  *
@@ -13,4 +15,16 @@ public interface RetryEngine {
    * @param exception the exception that caused the failure
    */
   void handleFailure(TimerTask task, Throwable exception);
+
+  /**
+   * Handles the tasks of a batch that failed, while the rest of the batch was delivered.
+   *
+   * <p>Only the failed tasks are retried or moved to the DLQ. The default implementation handles
+   * each failure on its own.
+   *
+   * @param failures the failed tasks, with the exception that caused each failure
+   */
+  default void handleFailures(Map<TimerTask, ? extends Throwable> failures) {
+    failures.forEach(this::handleFailure);
+  }
 }
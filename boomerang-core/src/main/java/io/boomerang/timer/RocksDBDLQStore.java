@@ -6,9 +6,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +23,7 @@ import org.rocksdb.DBOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,16 +34,39 @@ import org.slf4j.LoggerFactory;
  * <p>This store maintains a single Column Family:
  *
  * <ul>
- *   <li>{@code dlq}: Key: [clientId]:[taskId]. Value: Serialized {@link DLQEntry} (task + error).
+ *   <li>{@code dlq_by_failure}: Key: [clientId]\0[failedAtMs (8 bytes)][taskId]. Value: Serialized
+ *       {@link DLQEntry} (task + error).
  * </ul>
  *
+ * <p>The client ID in a key is its UTF-8 encoding with any NUL character written in its two-byte
+ * overlong form, so that the key never contains the separator before the separator itself. The
+ * prefix of one client is therefore never the prefix of another client's keys.
+ *
+ * <p>The entries of a client are contiguous and ordered by failure time, so they are listed page by
+ * page with an iterator rather than loaded at once, and both purged and expired with a single range
+ * deletion. The range tombstones are dropped together with the data they cover when RocksDB
+ * compacts, so expiry costs the same however many entries it removes.
+ *
+ * <p>Entries of the legacy {@code dlq} Column Family, keyed by [clientId]:[taskId] only, are moved
+ * over on startup as if they had just failed. Entries written with a {@code ':'} separator by
+ * earlier versions are re-keyed on startup, once.
+ *
  * @since 1.0.0
  */
 public class RocksDBDLQStore implements DLQStore, AutoCloseable {
   private static final Logger log = LoggerFactory.getLogger(RocksDBDLQStore.class);
 
-  private static final String CF_DLQ = "dlq";
-  private static final String KEY_SEPARATOR = ":";
+  private static final String CF_DLQ = "dlq_by_failure";
+  private static final String CF_LEGACY_DLQ = "dlq";
+  private static final byte KEY_SEPARATOR = 0;
+  // The overlong encoding of NUL, which valid UTF-8 never contains.
+  private static final byte[] ESCAPED_NUL = {(byte) 0xC0, (byte) 0x80};
+  // Keys start with UTF-8 or the separator, which never contain this byte, so it sorts after every
+  // key.
+  private static final byte[] KEY_SPACE_END = {(byte) 0xFF};
+  private static final byte[] LAYOUT_VERSION_KEY = "layout_version".getBytes();
+  // Version 2 ends the client ID in keys with a separator that client IDs cannot contain.
+  private static final int LAYOUT_VERSION = 2;
 
   private final RocksDB db;
   private final DBOptions dbOptions;
@@ -62,11 +90,16 @@ public class RocksDBDLQStore implements DLQStore, AutoCloseable {
       List<ColumnFamilyDescriptor> cfDescriptors = new ArrayList<>();
       cfDescriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, cfOptions));
       cfDescriptors.add(new ColumnFamilyDescriptor(CF_DLQ.getBytes(), cfOptions));
+      cfDescriptors.add(new ColumnFamilyDescriptor(CF_LEGACY_DLQ.getBytes(), cfOptions));
 
       List<ColumnFamilyHandle> cfHandles = new ArrayList<>();
       this.db = RocksDB.open(dbOptions, dbPath, cfDescriptors, cfHandles);
       this.defaultHandle = cfHandles.get(0);
       this.dlqHandle = cfHandles.get(1);
+      migrateLayout();
+      try (ColumnFamilyHandle legacyHandle = cfHandles.get(2)) {
+        migrateLegacyEntries(legacyHandle);
+      }
 
       log.info("Initialized RocksDB DLQ store at {}", dbPath);
     } catch (IOException | RocksDBException e) {
@@ -75,10 +108,70 @@ public class RocksDBDLQStore implements DLQStore, AutoCloseable {
     }
   }
 
+  /** Re-keys entries written with the {@code ':'} separator of earlier versions, once. */
+  private void migrateLayout() throws RocksDBException {
+    byte[] version = db.get(defaultHandle, LAYOUT_VERSION_KEY);
+    if (version != null && ByteBuffer.wrap(version).getInt() >= LAYOUT_VERSION) {
+      return;
+    }
+    long migrated = 0;
+    try (RocksIterator iter = db.newIterator(dlqHandle);
+        WriteBatch batch = new WriteBatch();
+        WriteOptions writeOptions = new WriteOptions()) {
+      for (iter.seekToFirst(); iter.isValid(); iter.next()) {
+        byte[] key = iter.key();
+        try {
+          // The client ID may itself contain ':', so its length is taken from the entry.
+          TimerTask task = DLQEntrySerializer.deserialize(iter.value()).task();
+          int offset = (task.getClientId() + ':').getBytes(StandardCharsets.UTF_8).length;
+          long failedAtMs = ByteBuffer.wrap(key, offset, Long.BYTES).getLong();
+          batch.put(dlqHandle, createKey(task, failedAtMs), iter.value());
+          migrated++;
+        } catch (IOException | RuntimeException e) {
+          log.warn("Failed to read DLQ entry of the earlier layout, dropping it", e);
+        }
+        batch.delete(dlqHandle, key);
+      }
+      batch.put(
+          defaultHandle,
+          LAYOUT_VERSION_KEY,
+          ByteBuffer.allocate(Integer.BYTES).putInt(LAYOUT_VERSION).array());
+      db.write(writeOptions, batch);
+    }
+    if (migrated > 0) {
+      log.info("Re-keyed {} DLQ entries to the separator layout", migrated);
+    }
+  }
+
+  private void migrateLegacyEntries(ColumnFamilyHandle legacyHandle) throws RocksDBException {
+    long seen = 0;
+    long migrated = 0;
+    long now = System.currentTimeMillis();
+    try (RocksIterator iter = db.newIterator(legacyHandle);
+        WriteBatch batch = new WriteBatch();
+        WriteOptions writeOptions = new WriteOptions()) {
+      for (iter.seekToFirst(); iter.isValid(); iter.next()) {
+        seen++;
+        try {
+          DLQEntry entry = DLQEntrySerializer.deserialize(iter.value());
+          batch.put(dlqHandle, createKey(entry.task(), now), iter.value());
+          migrated++;
+        } catch (IOException e) {
+          log.warn("Failed to deserialize legacy DLQ entry, dropping it", e);
+        }
+      }
+      if (seen > 0) {
+        batch.deleteRange(legacyHandle, new byte[0], KEY_SPACE_END);
+        db.write(writeOptions, batch);
+        log.info("Moved {} DLQ entries to the failure-ordered layout", migrated);
+      }
+    }
+  }
+
   @Override
   public void save(DLQEntry entry) {
-    byte[] key = createKey(entry.task().getClientId(), entry.task().getTaskId());
-    try (WriteOptions writeOptions = new WriteOptions()) {
+    byte[] key = createKey(entry.task(), entry.failedAtMs());
+    try {
       byte[] serializedEntry = DLQEntrySerializer.serialize(entry);
       db.put(dlqHandle, key, serializedEntry);
     } catch (RocksDBException | IOException e) {
@@ -94,7 +187,7 @@ public class RocksDBDLQStore implements DLQStore, AutoCloseable {
     try (RocksIterator iter = db.newIterator(dlqHandle)) {
       for (iter.seekToFirst(); iter.isValid(); iter.next()) {
         try {
-          entries.add(DLQEntrySerializer.deserialize(iter.value()));
+          entries.add(deserialize(iter.key(), iter.value()));
         } catch (IOException e) {
           log.warn("Failed to deserialize DLQ entry, skipping", e);
         }
@@ -106,7 +199,7 @@ public class RocksDBDLQStore implements DLQStore, AutoCloseable {
   @Override
   public Collection<DLQEntry> findAll(String clientId) {
     List<DLQEntry> entries = new ArrayList<>();
-    byte[] prefix = (clientId + KEY_SEPARATOR).getBytes();
+    byte[] prefix = createPrefix(clientId);
     try (RocksIterator iter = db.newIterator(dlqHandle)) {
       for (iter.seek(prefix); iter.isValid(); iter.next()) {
         byte[] key = iter.key();
@@ -114,7 +207,7 @@ public class RocksDBDLQStore implements DLQStore, AutoCloseable {
           break;
         }
         try {
-          entries.add(DLQEntrySerializer.deserialize(iter.value()));
+          entries.add(deserialize(key, iter.value()));
         } catch (IOException e) {
           log.warn("Failed to deserialize DLQ entry for client {}, skipping", clientId, e);
         }
@@ -123,15 +216,52 @@ public class RocksDBDLQStore implements DLQStore, AutoCloseable {
     return entries;
   }
 
+  @Override
+  public ListResult<DLQEntry> list(String clientId, int limit, String nextToken) {
+    List<DLQEntry> entries = new ArrayList<>();
+    byte[] prefix = clientId == null ? new byte[0] : createPrefix(clientId);
+    boolean resuming = nextToken != null && !nextToken.isEmpty();
+    byte[] lowerBound = resuming ? Base64.getUrlDecoder().decode(nextToken) : prefix;
+
+    try (RocksIterator iter = db.newIterator(dlqHandle)) {
+      iter.seek(lowerBound);
+      // The cursor is the last key of the previous page.
+      if (resuming && iter.isValid() && Arrays.equals(iter.key(), lowerBound)) {
+        iter.next();
+      }
+      for (; iter.isValid(); iter.next()) {
+        byte[] key = iter.key();
+        if (!startsWith(key, prefix)) {
+          break;
+        }
+        try {
+          entries.add(deserialize(key, iter.value()));
+        } catch (IOException e) {
+          log.warn("Failed to deserialize DLQ entry, skipping", e);
+          continue;
+        }
+        if (entries.size() >= limit) {
+          return new ListResult<>(entries, Base64.getUrlEncoder().encodeToString(key));
+        }
+      }
+    }
+    return new ListResult<>(entries, null);
+  }
+
   @Override
   public Optional<DLQEntry> findEntryById(String clientId, String taskId) {
-    byte[] key = createKey(clientId, taskId);
+    List<byte[]> keys = findKeys(clientId, taskId);
+    if (keys.isEmpty()) {
+      return Optional.empty();
+    }
+    // Keys of a client are ordered by failure time, so the last one is the most recent.
+    byte[] key = keys.get(keys.size() - 1);
     try {
       byte[] data = db.get(dlqHandle, key);
       if (data == null) {
         return Optional.empty();
       }
-      return Optional.of(DLQEntrySerializer.deserialize(data));
+      return Optional.of(deserialize(key, data));
     } catch (RocksDBException | IOException e) {
       log.error("Failed to find entry for task {} in DLQ", taskId, e);
       throw new StorageException("Persistence error during DLQ lookup for " + taskId, e);
@@ -140,9 +270,10 @@ public class RocksDBDLQStore implements DLQStore, AutoCloseable {
 
   @Override
   public void delete(String clientId, String taskId) {
-    byte[] key = createKey(clientId, taskId);
-    try (WriteOptions writeOptions = new WriteOptions()) {
-      db.delete(dlqHandle, key);
+    try {
+      for (byte[] key : findKeys(clientId, taskId)) {
+        db.delete(dlqHandle, key);
+      }
     } catch (RocksDBException e) {
       log.error("Failed to delete task {} from DLQ", taskId, e);
       throw new StorageException("Persistence error during DLQ deletion for " + taskId, e);
@@ -150,16 +281,108 @@ public class RocksDBDLQStore implements DLQStore, AutoCloseable {
   }
 
   @Override
-  public void clear() {
+  public void delete(DLQEntry entry) {
+    try {
+      db.delete(dlqHandle, createKey(entry.task(), entry.failedAtMs()));
+    } catch (RocksDBException e) {
+      log.error("Failed to delete task {} from DLQ", entry.task().getTaskId(), e);
+      throw new StorageException(
+          "Persistence error during DLQ deletion for " + entry.task().getTaskId(), e);
+    }
+  }
+
+  /**
+   * Finds the keys of the entries of a task by scanning the entries of its client, since the
+   * failure time that precedes the task ID in the key is not known.
+   */
+  private List<byte[]> findKeys(String clientId, String taskId) {
+    List<byte[]> keys = new ArrayList<>();
+    byte[] prefix = createPrefix(clientId);
+    byte[] taskIdBytes = taskId.getBytes(StandardCharsets.UTF_8);
     try (RocksIterator iter = db.newIterator(dlqHandle)) {
-      for (iter.seekToFirst(); iter.isValid(); iter.next()) {
-        try (WriteOptions writeOptions = new WriteOptions()) {
-          db.delete(dlqHandle, iter.key());
-        } catch (RocksDBException e) {
-          log.error("Failed to delete entry during clear", e);
+      for (iter.seek(prefix); iter.isValid(); iter.next()) {
+        byte[] key = iter.key();
+        if (!startsWith(key, prefix)) {
+          break;
+        }
+        int taskIdOffset = prefix.length + Long.BYTES;
+        if (key.length == taskIdOffset + taskIdBytes.length
+            && Arrays.equals(key, taskIdOffset, key.length, taskIdBytes, 0, taskIdBytes.length)) {
+          keys.add(key);
         }
       }
     }
+    return keys;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The range is deleted only if the oldest entry of the client has reached the cutoff, so that
+   * periodic expiry does not pile up range tombstones over entries that are still retained.
+   */
+  @Override
+  public void expire(String clientId, long failedBeforeMs) {
+    byte[] begin = createPrefix(clientId);
+    byte[] end =
+        ByteBuffer.allocate(begin.length + Long.BYTES).put(begin).putLong(failedBeforeMs).array();
+    try (RocksIterator iter = db.newIterator(dlqHandle)) {
+      iter.seek(begin);
+      if (!iter.isValid() || Arrays.compareUnsigned(iter.key(), end) >= 0) {
+        return;
+      }
+      db.deleteRange(dlqHandle, begin, end);
+    } catch (RocksDBException e) {
+      log.error("Failed to expire DLQ entries of client {}", clientId, e);
+      throw new StorageException("Persistence error during DLQ expiry for " + clientId, e);
+    }
+  }
+
+  @Override
+  public Collection<String> clients() {
+    List<String> clients = new ArrayList<>();
+    try (RocksIterator iter = db.newIterator(dlqHandle)) {
+      iter.seekToFirst();
+      while (iter.isValid()) {
+        byte[] key = iter.key();
+        int end = 0;
+        while (end < key.length && key[end] != KEY_SEPARATOR) {
+          end++;
+        }
+        clients.add(decodeClientId(key, end));
+        // Skip the remaining entries of the client: its prefix with the separator incremented.
+        byte[] next = Arrays.copyOf(key, end + 1);
+        next[end] = KEY_SEPARATOR + 1;
+        iter.seek(next);
+      }
+    }
+    return clients;
+  }
+
+  @Override
+  public void purge(String clientId) {
+    byte[] begin;
+    byte[] end;
+    if (clientId == null) {
+      begin = new byte[0];
+      end = KEY_SPACE_END;
+    } else {
+      begin = createPrefix(clientId);
+      // The first key after every key with the prefix: the separator incremented.
+      end = Arrays.copyOf(begin, begin.length);
+      end[end.length - 1]++;
+    }
+    try {
+      db.deleteRange(dlqHandle, begin, end);
+    } catch (RocksDBException e) {
+      log.error("Failed to purge DLQ entries of client {}", clientId, e);
+      throw new StorageException("Persistence error during DLQ purge for " + clientId, e);
+    }
+  }
+
+  @Override
+  public void clear() {
+    purge(null);
   }
 
   @Override
@@ -171,8 +394,49 @@ public class RocksDBDLQStore implements DLQStore, AutoCloseable {
     cfOptions.close();
   }
 
-  private byte[] createKey(String clientId, String taskId) {
-    return (clientId + KEY_SEPARATOR + taskId).getBytes();
+  private byte[] createPrefix(String clientId) {
+    byte[] clientIdBytes = clientId.getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream prefix = new ByteArrayOutputStream(clientIdBytes.length + 1);
+    for (byte b : clientIdBytes) {
+      if (b == KEY_SEPARATOR) {
+        prefix.writeBytes(ESCAPED_NUL);
+      } else {
+        prefix.write(b);
+      }
+    }
+    prefix.write(KEY_SEPARATOR);
+    return prefix.toByteArray();
+  }
+
+  private String decodeClientId(byte[] key, int length) {
+    ByteArrayOutputStream clientId = new ByteArrayOutputStream(length);
+    for (int i = 0; i < length; i++) {
+      if (i + 1 < length && key[i] == ESCAPED_NUL[0] && key[i + 1] == ESCAPED_NUL[1]) {
+        clientId.write(KEY_SEPARATOR);
+        i++;
+      } else {
+        clientId.write(key[i]);
+      }
+    }
+    return clientId.toString(StandardCharsets.UTF_8);
+  }
+
+  private byte[] createKey(TimerTask task, long failedAtMs) {
+    byte[] prefix = createPrefix(task.getClientId());
+    byte[] taskIdBytes = task.getTaskId().getBytes(StandardCharsets.UTF_8);
+    return ByteBuffer.allocate(prefix.length + Long.BYTES + taskIdBytes.length)
+        .put(prefix)
+        .putLong(failedAtMs)
+        .put(taskIdBytes)
+        .array();
+  }
+
+  /** Deserializes an entry, taking its failure time from the key. */
+  private DLQEntry deserialize(byte[] key, byte[] value) throws IOException {
+    DLQEntry entry = DLQEntrySerializer.deserialize(value);
+    int offset = createPrefix(entry.task().getClientId()).length;
+    long failedAtMs = ByteBuffer.wrap(key, offset, Long.BYTES).getLong();
+    return new DLQEntry(entry.task(), entry.errorMessage(), failedAtMs);
   }
 
   private boolean startsWith(byte[] array, byte[] prefix) {
@@ -217,7 +481,8 @@ public class RocksDBDLQStore implements DLQStore, AutoCloseable {
         if (dis.readBoolean()) {
           errorMessage = dis.readUTF();
         }
-        return new DLQEntry(task, errorMessage);
+        // The failure time is kept in the key.
+        return new DLQEntry(task, errorMessage, 0);
       }
     }
   }
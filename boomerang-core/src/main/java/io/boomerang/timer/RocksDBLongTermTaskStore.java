@@ -6,10 +6,19 @@ import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
@@ -32,8 +41,46 @@ import org.slf4j.LoggerFactory;
  *       BE)][taskId]. Value: Serialized task.
  *   <li>{@code id_index}: Secondary index for ID-based lookups. Key: [taskId]. Value: [expiration
  *       (8b BE)].
+ *   <li>{@code recurring_tasks}: The payload record of each recurring task. Key: [taskId]. Value:
+ *       Serialized task.
+ *   <li>{@code retry_attempts}: The attempt count of tasks retried in memory. Key: [taskId].
+ *       Value: [attemptCount (4b BE)].
+ *   <li>{@code cancelled}: Markers of cancelled tasks. Key: [taskId]. Value: empty.
  * </ul>
  *
+ * <p>The {@code time_index} entry of a recurring task holds only a small cursor, the attempt count
+ * of its current cycle, while its payload is written once to {@code recurring_tasks}. Moving the
+ * task to its next cycle with {@link #advanceCycle(TimerTask, TimerTask)} then rewrites the cursor
+ * alone. Cursor updates can optionally be buffered and written in batches; see {@link
+ * ServerConfig#getRocksDbCursorBatchIntervalMs()}.
+ *
+ * <p>A retry recorded with {@link #recordAttempt(TimerTask)} writes only the attempt count of the
+ * task to {@code retry_attempts}; its entries in the other column families stay at the attempt
+ * that failed. Reads apply the recorded attempt count, and the next save, cycle move or deletion of
+ * the task clears it.
+ *
+ * <p>Rescheduling a task with {@link #reschedule(String, long)} moves its {@code time_index} entry
+ * to the key of the new expiration without rewriting the serialized task, whose own expiration is
+ * then out of date; reads take the expiration of a task from its key.
+ *
+ * <p>Cancelling a task with {@link #cancel(String)} writes only its marker to {@code cancelled},
+ * without reading the task or deleting its entries. Lookups and listings skip marked tasks, and a
+ * fetch of due tasks removes the marked tasks it comes across together with their markers, so that
+ * cancelled tasks are dropped in the same pass that would have loaded them. Markers left by tasks
+ * that were not stored, or had already been removed, are swept periodically, a bounded batch at a
+ * time, resuming where the previous sweep stopped; see {@link
+ * ServerConfig#getRocksDbCancelledSweepIntervalMs()}.
+ *
+ * <p>The {@code time_index} is split into time partitions, contiguous key ranges of a fixed span
+ * of expirations; see {@link ServerConfig#getRocksDbTimeIndexPartitionMs()}. Every dispatched task
+ * leaves a tombstone in its partition. Once the recovery watermark passes a partition, none of its
+ * tasks are stored any more, so saving the watermark drops the partition with a single range
+ * deletion and compacts it in the background, instead of leaving its tombstones to every scan that
+ * starts below them.
+ *
+ * <p>The default column family holds store metadata, such as the recovery watermark and the end of
+ * the dropped partitions.
+ *
  * @since 1.0.0
  */
 public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseable {
@@ -41,6 +88,19 @@ public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseabl
 
   private static final String CF_TIME_INDEX = "time_index";
   private static final String CF_ID_INDEX = "id_index";
+  private static final String CF_RECURRING_TASKS = "recurring_tasks";
+  private static final String CF_RETRY_ATTEMPTS = "retry_attempts";
+  private static final String CF_CANCELLED = "cancelled";
+  private static final byte[] CANCELLED_MARKER = new byte[0];
+  private static final byte[] RECOVERY_WATERMARK_KEY = "recovery_watermark".getBytes();
+  private static final byte[] TIME_INDEX_DROPPED_UNTIL_KEY =
+      "time_index_dropped_until".getBytes();
+  private static final byte[] LAYOUT_VERSION_KEY = "layout_version".getBytes();
+  // Version 2 keeps the payload of recurring tasks apart from their time_index cursor.
+  private static final int LAYOUT_VERSION = 2;
+  // A serialized task is always longer than a cursor, which holds only the attempt count.
+  private static final int CURSOR_LENGTH = Integer.BYTES;
+  private static final int CANCELLED_SWEEP_BATCH_SIZE = 1000;
 
   private final RocksDB db;
   private final DBOptions dbOptions;
@@ -48,6 +108,31 @@ public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseabl
   private final ColumnFamilyHandle defaultHandle;
   private final ColumnFamilyHandle timeIndexHandle;
   private final ColumnFamilyHandle idIndexHandle;
+  private final ColumnFamilyHandle recurringTasksHandle;
+  private final ColumnFamilyHandle retryAttemptsHandle;
+  private final ColumnFamilyHandle cancelledHandle;
+  private final int cursorBatchMaxSize;
+  // Cursor updates not yet written, by task ID; also guards writes while batching is enabled.
+  private final Map<String, PendingCursor> pendingCursors = new HashMap<>();
+  // The stored expiration of tasks whose retries are scheduled in memory.
+  private final Map<String, Long> retriedExpirations = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService cursorFlusher;
+  private final ScheduledExecutorService cancelledSweeper;
+  // The last marker checked by the previous sweep, or null to start from the first marker; only
+  // used by sweeps, which run one at a time.
+  private byte[] cancelledSweepCursor;
+  private final long timeIndexPartitionMs;
+  // The time_index is dropped below this time; guarded by the store's monitor.
+  private long timeIndexDroppedUntilMs;
+  private final ExecutorService partitionCompactor;
+
+  /**
+   * A cursor update of a recurring task.
+   *
+   * @param storedExpirationMs the expiration of the cycle currently written to the store
+   * @param next the cycle that replaces it
+   */
+  private record PendingCursor(long storedExpirationMs, TimerTask next) {}
 
   static {
     RocksDB.loadLibrary();
@@ -72,22 +157,129 @@ public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseabl
       cfDescriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, cfOptions));
       cfDescriptors.add(new ColumnFamilyDescriptor(CF_TIME_INDEX.getBytes(), cfOptions));
       cfDescriptors.add(new ColumnFamilyDescriptor(CF_ID_INDEX.getBytes(), cfOptions));
+      cfDescriptors.add(new ColumnFamilyDescriptor(CF_RECURRING_TASKS.getBytes(), cfOptions));
+      cfDescriptors.add(new ColumnFamilyDescriptor(CF_RETRY_ATTEMPTS.getBytes(), cfOptions));
+      cfDescriptors.add(new ColumnFamilyDescriptor(CF_CANCELLED.getBytes(), cfOptions));
 
       List<ColumnFamilyHandle> cfHandles = new ArrayList<>();
       this.db = RocksDB.open(dbOptions, dbPath, cfDescriptors, cfHandles);
       this.defaultHandle = cfHandles.get(0);
       this.timeIndexHandle = cfHandles.get(1);
       this.idIndexHandle = cfHandles.get(2);
+      this.recurringTasksHandle = cfHandles.get(3);
+      this.retryAttemptsHandle = cfHandles.get(4);
+      this.cancelledHandle = cfHandles.get(5);
 
+      migrateLayout();
+      byte[] droppedUntil = db.get(defaultHandle, TIME_INDEX_DROPPED_UNTIL_KEY);
+      this.timeIndexDroppedUntilMs =
+          droppedUntil == null ? 0 : ByteBuffer.wrap(droppedUntil).getLong();
       log.info("Initialized RocksDB long-term store at {}", dbPath);
     } catch (IOException | RocksDBException e) {
       log.error("Failed to initialize RocksDB at {}", dbPath, e);
       throw new StorageException("Could not initialize RocksDB long-term store at " + dbPath, e);
     }
+
+    this.cursorBatchMaxSize = Math.max(1, serverConfig.getRocksDbCursorBatchMaxSize());
+    long cursorBatchIntervalMs = serverConfig.getRocksDbCursorBatchIntervalMs();
+    if (cursorBatchIntervalMs > 0) {
+      this.cursorFlusher =
+          Executors.newSingleThreadScheduledExecutor(
+              r -> {
+                Thread t = new Thread(r, "rocksdb-cursor-flush");
+                t.setDaemon(true);
+                return t;
+              });
+      cursorFlusher.scheduleWithFixedDelay(
+          this::flushCursorsQuietly,
+          cursorBatchIntervalMs,
+          cursorBatchIntervalMs,
+          TimeUnit.MILLISECONDS);
+    } else {
+      this.cursorFlusher = null;
+    }
+
+    long cancelledSweepIntervalMs = serverConfig.getRocksDbCancelledSweepIntervalMs();
+    if (cancelledSweepIntervalMs > 0) {
+      this.cancelledSweeper =
+          Executors.newSingleThreadScheduledExecutor(
+              r -> {
+                Thread t = new Thread(r, "rocksdb-cancelled-sweep");
+                t.setDaemon(true);
+                return t;
+              });
+      cancelledSweeper.scheduleWithFixedDelay(
+          this::sweepCancelledQuietly,
+          cancelledSweepIntervalMs,
+          cancelledSweepIntervalMs,
+          TimeUnit.MILLISECONDS);
+    } else {
+      this.cancelledSweeper = null;
+    }
+
+    this.timeIndexPartitionMs = serverConfig.getRocksDbTimeIndexPartitionMs();
+    if (timeIndexPartitionMs > 0) {
+      this.partitionCompactor =
+          Executors.newSingleThreadExecutor(
+              r -> {
+                Thread t = new Thread(r, "rocksdb-partition-compact");
+                t.setDaemon(true);
+                return t;
+              });
+    } else {
+      this.partitionCompactor = null;
+    }
+  }
+
+  /** Moves recurring tasks written by earlier versions to the cursor layout, once. */
+  private void migrateLayout() throws RocksDBException, IOException {
+    byte[] version = db.get(defaultHandle, LAYOUT_VERSION_KEY);
+    if (version != null && ByteBuffer.wrap(version).getInt() >= LAYOUT_VERSION) {
+      return;
+    }
+    int migrated = 0;
+    try (WriteBatch batch = new WriteBatch();
+        WriteOptions writeOptions = new WriteOptions();
+        RocksIterator iter = db.newIterator(timeIndexHandle)) {
+      for (iter.seekToFirst(); iter.isValid(); iter.next()) {
+        byte[] value = iter.value();
+        if (value.length == CURSOR_LENGTH) {
+          continue;
+        }
+        TimerTask task = TimerTaskSerializer.deserialize(value);
+        if (task.isRecurring()) {
+          batch.put(recurringTasksHandle, task.getTaskId().getBytes(), value);
+          batch.put(timeIndexHandle, iter.key(), cursorValue(task));
+          migrated++;
+        }
+      }
+      batch.put(
+          defaultHandle,
+          LAYOUT_VERSION_KEY,
+          ByteBuffer.allocate(Integer.BYTES).putInt(LAYOUT_VERSION).array());
+      db.write(writeOptions, batch);
+    }
+    if (migrated > 0) {
+      log.info("Moved {} recurring tasks to the cursor layout", migrated);
+    }
   }
 
   @Override
   public void save(TimerTask task) {
+    // The id_index points at the stored entry, which this save replaces.
+    retriedExpirations.remove(task.getTaskId());
+    if (cursorFlusher == null) {
+      writeTask(task);
+      return;
+    }
+    synchronized (pendingCursors) {
+      // The id_index still points at the stored cycle, which this save replaces.
+      pendingCursors.remove(task.getTaskId());
+      writeTask(task);
+    }
+  }
+
+  private void writeTask(TimerTask task) {
     byte[] taskIdBytes = task.getTaskId().getBytes();
     byte[] expirationBytes = longToBytes(task.getExpirationMs());
 
@@ -101,14 +293,27 @@ public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseabl
         batch.delete(timeIndexHandle, oldTimeKey);
       }
 
-      // 2. Add to time_index
+      // 2. Add to time_index; a recurring task keeps its payload apart from its cursor
       byte[] timeKey = createTimeKey(expirationBytes, taskIdBytes);
       byte[] serializedTask = TimerTaskSerializer.serialize(task);
-      batch.put(timeIndexHandle, timeKey, serializedTask);
+      if (task.isRecurring()) {
+        batch.put(recurringTasksHandle, taskIdBytes, serializedTask);
+        batch.put(timeIndexHandle, timeKey, cursorValue(task));
+      } else {
+        batch.put(timeIndexHandle, timeKey, serializedTask);
+        // The task may replace a recurring task with the same ID.
+        batch.delete(recurringTasksHandle, taskIdBytes);
+      }
 
       // 3. Add to id_index
       batch.put(idIndexHandle, taskIdBytes, expirationBytes);
 
+      // 4. The saved task carries its own attempt count
+      batch.delete(retryAttemptsHandle, taskIdBytes);
+
+      // 5. Saving the task again undoes an earlier cancellation
+      batch.delete(cancelledHandle, taskIdBytes);
+
       db.write(writeOptions, batch);
     } catch (RocksDBException | IOException e) {
       log.error("Failed to save task {} to RocksDB", task.getTaskId(), e);
@@ -116,25 +321,287 @@ public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseabl
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This store rewrites only the cursor of the task, without reading or rewriting its payload.
+   * When cursor batching is enabled, the update is buffered until the next batch is written.
+   */
+  @Override
+  public boolean advanceCycle(TimerTask previous, TimerTask next) {
+    if (dropIfCancelled(previous)) {
+      return false;
+    }
+    long previousExpirationMs = storedExpirationMs(previous);
+    if (cursorFlusher == null) {
+      writeCursors(List.of(new PendingCursor(previousExpirationMs, next)));
+      return true;
+    }
+    boolean batchFull;
+    synchronized (pendingCursors) {
+      PendingCursor pending = pendingCursors.get(next.getTaskId());
+      long storedExpirationMs =
+          pending != null ? pending.storedExpirationMs() : previousExpirationMs;
+      pendingCursors.put(next.getTaskId(), new PendingCursor(storedExpirationMs, next));
+      batchFull = pendingCursors.size() >= cursorBatchMaxSize;
+    }
+    if (batchFull) {
+      flushCursors();
+    }
+    return true;
+  }
+
+  /**
+   * Removes a task that was marked as cancelled while it was being delivered, so that it is not
+   * moved on to its next cycle or attempt.
+   *
+   * @return {@code true} if the task was marked as cancelled and is removed
+   */
+  private boolean dropIfCancelled(TimerTask task) {
+    byte[] taskIdBytes = task.getTaskId().getBytes();
+    try {
+      if (!isMarkedCancelled(taskIdBytes)) {
+        return false;
+      }
+      retriedExpirations.remove(task.getTaskId());
+      if (cursorFlusher == null) {
+        deleteStoredTask(task, taskIdBytes);
+        return true;
+      }
+      synchronized (pendingCursors) {
+        // The id_index entry still points at the cycle a buffered cursor update would replace.
+        pendingCursors.remove(task.getTaskId());
+        deleteStoredTask(task, taskIdBytes);
+      }
+      return true;
+    } catch (RocksDBException e) {
+      log.error("Failed to drop cancelled task {} from RocksDB", task.getTaskId(), e);
+      throw new StorageException(
+          "Persistence error during task deletion for " + task.getTaskId(), e);
+    }
+  }
+
+  /** Deletes a task at the expiration its {@code id_index} entry holds. */
+  private void deleteStoredTask(TimerTask task, byte[] taskIdBytes) throws RocksDBException {
+    byte[] expirationBytes = db.get(idIndexHandle, taskIdBytes);
+    deleteTask(
+        task,
+        expirationBytes != null
+            ? ByteBuffer.wrap(expirationBytes).getLong()
+            : task.getExpirationMs());
+  }
+
+  /** Writes every buffered cursor update in a single batch. */
+  private void flushCursors() {
+    if (cursorFlusher == null) {
+      return;
+    }
+    synchronized (pendingCursors) {
+      if (pendingCursors.isEmpty()) {
+        return;
+      }
+      writeCursors(pendingCursors.values());
+      pendingCursors.clear();
+    }
+  }
+
+  private void flushCursorsQuietly() {
+    try {
+      flushCursors();
+    } catch (StorageException e) {
+      log.error("Failed to write buffered cursor updates, retrying with the next batch", e);
+    }
+  }
+
+  private void writeCursors(Collection<PendingCursor> cursors) {
+    try (WriteBatch batch = new WriteBatch();
+        WriteOptions writeOptions = new WriteOptions()) {
+      for (PendingCursor cursor : cursors) {
+        TimerTask next = cursor.next();
+        byte[] taskIdBytes = next.getTaskId().getBytes();
+        byte[] expirationBytes = longToBytes(next.getExpirationMs());
+        batch.delete(
+            timeIndexHandle,
+            createTimeKey(longToBytes(cursor.storedExpirationMs()), taskIdBytes));
+        batch.put(timeIndexHandle, createTimeKey(expirationBytes, taskIdBytes), cursorValue(next));
+        batch.put(idIndexHandle, taskIdBytes, expirationBytes);
+        batch.delete(retryAttemptsHandle, taskIdBytes);
+      }
+      db.write(writeOptions, batch);
+    } catch (RocksDBException e) {
+      log.error("Failed to write {} cursor updates to RocksDB", cursors.size(), e);
+      throw new StorageException("Persistence error during cursor update", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This store writes only the attempt count of the task, without rewriting its payload or
+   * moving its index entries. While a cursor update of the task is buffered, the retry is saved in
+   * full instead.
+   */
+  @Override
+  public boolean recordAttempt(TimerTask retry) {
+    if (dropIfCancelled(retry)) {
+      return false;
+    }
+    if (cursorFlusher != null) {
+      synchronized (pendingCursors) {
+        if (pendingCursors.containsKey(retry.getTaskId())) {
+          save(retry);
+          return true;
+        }
+      }
+    }
+    byte[] taskIdBytes = retry.getTaskId().getBytes();
+    try {
+      if (!retriedExpirations.containsKey(retry.getTaskId())) {
+        byte[] expirationBytes = db.get(idIndexHandle, taskIdBytes);
+        if (expirationBytes == null) {
+          // Not stored (e.g., deleted meanwhile), so there is no entry to keep.
+          save(retry);
+          return true;
+        }
+        retriedExpirations.put(retry.getTaskId(), ByteBuffer.wrap(expirationBytes).getLong());
+      }
+      db.put(retryAttemptsHandle, taskIdBytes, attemptValue(retry));
+      return true;
+    } catch (RocksDBException e) {
+      log.error("Failed to record attempt of task {} in RocksDB", retry.getTaskId(), e);
+      throw new StorageException(
+          "Persistence error during attempt update for " + retry.getTaskId(), e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This store looks up the expiration the task is stored under in {@code id_index} and moves
+   * its {@code time_index} entry to the new key as it is, without decoding or rewriting the
+   * serialized task or the cursor of a recurring task; reads take the expiration from the key. A
+   * buffered cursor update of the task is moved instead.
+   */
+  @Override
+  public boolean reschedule(String taskId, long expirationMs) {
+    if (cursorFlusher == null) {
+      return moveEntries(taskId, expirationMs);
+    }
+    // Held so that no cursor update of the task is buffered or written while its entry moves.
+    synchronized (pendingCursors) {
+      return moveEntries(taskId, expirationMs);
+    }
+  }
+
+  private boolean moveEntries(String taskId, long expirationMs) {
+    byte[] taskIdBytes = taskId.getBytes();
+    try (WriteBatch batch = new WriteBatch();
+        WriteOptions writeOptions = new WriteOptions()) {
+      if (isMarkedCancelled(taskIdBytes)) {
+        return false;
+      }
+      PendingCursor pending = pendingCursors.get(taskId);
+      if (pending != null) {
+        pendingCursors.put(
+            taskId,
+            new PendingCursor(
+                pending.storedExpirationMs(), pending.next().withExpiration(expirationMs)));
+        return true;
+      }
+      byte[] storedExpirationBytes = db.get(idIndexHandle, taskIdBytes);
+      if (storedExpirationBytes == null) {
+        return false;
+      }
+      byte[] oldTimeKey = createTimeKey(storedExpirationBytes, taskIdBytes);
+      byte[] value = db.get(timeIndexHandle, oldTimeKey);
+      if (value == null) {
+        return false;
+      }
+      byte[] expirationBytes = longToBytes(expirationMs);
+      batch.delete(timeIndexHandle, oldTimeKey);
+      batch.put(timeIndexHandle, createTimeKey(expirationBytes, taskIdBytes), value);
+      batch.put(idIndexHandle, taskIdBytes, expirationBytes);
+      db.write(writeOptions, batch);
+      // The entry no longer stays at an attempt that failed; its attempt count is kept.
+      retriedExpirations.remove(taskId);
+      return true;
+    } catch (RocksDBException e) {
+      log.error("Failed to reschedule task {} in RocksDB", taskId, e);
+      throw new StorageException("Persistence error during task reschedule for " + taskId, e);
+    }
+  }
+
+  /** Resolves the expiration a task is stored under, which differs for tasks retried in memory. */
+  private long storedExpirationMs(TimerTask task) {
+    Long retriedExpirationMs = retriedExpirations.remove(task.getTaskId());
+    return retriedExpirationMs != null ? retriedExpirationMs : task.getExpirationMs();
+  }
+
   @Override
   public Collection<TimerTask> fetchTasksDueBefore(long timestamp) {
+    return fetchTasksDueBetween(0, timestamp);
+  }
+
+  @Override
+  public Collection<TimerTask> fetchTasksDueBetween(long fromTimestamp, long toTimestamp) {
+    return fetchDue(fromTimestamp, toTimestamp, true);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This store drops the payload of each task as soon as it is decoded.
+   */
+  @Override
+  public Collection<TimerTask> fetchTaskMetadataDueBetween(long fromTimestamp, long toTimestamp) {
+    return fetchDue(fromTimestamp, toTimestamp, false);
+  }
+
+  private Collection<TimerTask> fetchDue(
+      long fromTimestamp, long toTimestamp, boolean withPayloads) {
+    // Scans read the time_index directly, so buffered cursor updates must be written first.
+    flushCursors();
     List<TimerTask> dueTasks = new ArrayList<>();
-    byte[] upperBound = longToBytes(timestamp);
+    byte[] upperBound = longToBytes(toTimestamp);
+    int removed = 0;
 
-    try (RocksIterator iter = db.newIterator(timeIndexHandle)) {
-      for (iter.seekToFirst(); iter.isValid(); iter.next()) {
+    try (RocksIterator iter = db.newIterator(timeIndexHandle);
+        WriteBatch removals = new WriteBatch();
+        WriteOptions writeOptions = new WriteOptions()) {
+      // Seeking past the start skips the tombstones left by dispatched tasks.
+      for (iter.seek(longToBytes(fromTimestamp)); iter.isValid(); iter.next()) {
         byte[] key = iter.key();
         if (isAfter(key, upperBound)) {
           break;
         }
 
         try {
-          TimerTask task = TimerTaskSerializer.deserialize(iter.value());
-          dueTasks.add(task);
-        } catch (IOException e) {
+          byte[] taskIdBytes = Arrays.copyOfRange(key, Long.BYTES, key.length);
+          if (isMarkedCancelled(taskIdBytes)) {
+            // The entries are at hand, so the task is removed without reading it.
+            removals.delete(timeIndexHandle, key);
+            removals.delete(idIndexHandle, taskIdBytes);
+            removals.delete(retryAttemptsHandle, taskIdBytes);
+            removals.delete(recurringTasksHandle, taskIdBytes);
+            removals.delete(cancelledHandle, taskIdBytes);
+            removed++;
+            continue;
+          }
+          TimerTask task = decode(key, iter.value());
+          if (task != null) {
+            dueTasks.add(withPayloads ? task : task.withoutPayload());
+          }
+        } catch (IOException | RocksDBException e) {
           log.warn("Failed to deserialize task during fetch, skipping", e);
         }
       }
+      if (removed > 0) {
+        db.write(writeOptions, removals);
+        log.debug("Removed {} cancelled tasks while fetching due tasks", removed);
+      }
+    } catch (RocksDBException e) {
+      // The markers stay, so the next fetch retries the removal.
+      log.warn("Failed to remove {} cancelled tasks", removed, e);
     }
 
     return dueTasks;
@@ -142,10 +609,18 @@ public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseabl
 
   @Override
   public Optional<TimerTask> findById(String taskId) {
+    if (cursorFlusher != null) {
+      synchronized (pendingCursors) {
+        PendingCursor pending = pendingCursors.get(taskId);
+        if (pending != null) {
+          return Optional.of(pending.next());
+        }
+      }
+    }
     byte[] taskIdBytes = taskId.getBytes();
     try {
       byte[] expirationBytes = db.get(idIndexHandle, taskIdBytes);
-      if (expirationBytes == null) {
+      if (expirationBytes == null || isMarkedCancelled(taskIdBytes)) {
         return Optional.empty();
       }
 
@@ -157,23 +632,68 @@ public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseabl
         return Optional.empty();
       }
 
-      return Optional.of(TimerTaskSerializer.deserialize(taskData));
+      return Optional.ofNullable(decode(timeKey, taskData));
     } catch (RocksDBException | IOException e) {
       log.error("Failed to find task {} in RocksDB", taskId, e);
       throw new StorageException("Persistence error during task lookup for " + taskId, e);
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This store reads the client ID from the head of the stored task, without deserializing the
+   * rest of it.
+   */
+  @Override
+  public Optional<String> findClientId(String taskId) {
+    byte[] taskIdBytes = taskId.getBytes();
+    try {
+      byte[] expirationBytes = db.get(idIndexHandle, taskIdBytes);
+      if (expirationBytes == null || isMarkedCancelled(taskIdBytes)) {
+        return Optional.empty();
+      }
+      byte[] value = db.get(timeIndexHandle, createTimeKey(expirationBytes, taskIdBytes));
+      if (value != null && value.length == CURSOR_LENGTH) {
+        // A buffered cursor update does not change the client of a recurring task.
+        value = db.get(recurringTasksHandle, taskIdBytes);
+      }
+      return value == null
+          ? Optional.empty()
+          : Optional.of(TimerTaskSerializer.readClientId(value));
+    } catch (RocksDBException | IOException e) {
+      log.error("Failed to find the client of task {} in RocksDB", taskId, e);
+      throw new StorageException("Persistence error during client lookup for " + taskId, e);
+    }
+  }
+
   @Override
   public void delete(TimerTask task) {
+    long storedExpirationMs = storedExpirationMs(task);
+    if (cursorFlusher == null) {
+      deleteTask(task, storedExpirationMs);
+      return;
+    }
+    synchronized (pendingCursors) {
+      // A buffered cursor update means the store still holds the earlier cycle.
+      PendingCursor pending = pendingCursors.remove(task.getTaskId());
+      deleteTask(task, pending != null ? pending.storedExpirationMs() : storedExpirationMs);
+    }
+  }
+
+  private void deleteTask(TimerTask task, long storedExpirationMs) {
     byte[] taskIdBytes = task.getTaskId().getBytes();
-    byte[] expirationBytes = longToBytes(task.getExpirationMs());
-    byte[] timeKey = createTimeKey(expirationBytes, taskIdBytes);
+    byte[] timeKey = createTimeKey(longToBytes(storedExpirationMs), taskIdBytes);
 
     try (WriteBatch batch = new WriteBatch();
         WriteOptions writeOptions = new WriteOptions()) {
       batch.delete(timeIndexHandle, timeKey);
       batch.delete(idIndexHandle, taskIdBytes);
+      batch.delete(retryAttemptsHandle, taskIdBytes);
+      batch.delete(cancelledHandle, taskIdBytes);
+      if (task.isRecurring()) {
+        batch.delete(recurringTasksHandle, taskIdBytes);
+      }
       db.write(writeOptions, batch);
     } catch (RocksDBException e) {
       log.error("Failed to delete task {} from RocksDB", task.getTaskId(), e);
@@ -182,6 +702,83 @@ public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseabl
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This store writes only a marker for the task, without reading the task or deleting its
+   * entries. The task is removed when a fetch of due tasks reaches it.
+   */
+  @Override
+  public void cancel(String taskId) {
+    try {
+      db.put(cancelledHandle, taskId.getBytes(), CANCELLED_MARKER);
+    } catch (RocksDBException e) {
+      log.error("Failed to cancel task {} in RocksDB", taskId, e);
+      throw new StorageException("Persistence error during task cancellation for " + taskId, e);
+    }
+  }
+
+  @Override
+  public boolean isCancelled(String taskId) {
+    try {
+      return isMarkedCancelled(taskId.getBytes());
+    } catch (RocksDBException e) {
+      log.error("Failed to look up cancellation of task {} in RocksDB", taskId, e);
+      throw new StorageException("Persistence error during cancellation lookup for " + taskId, e);
+    }
+  }
+
+  private boolean isMarkedCancelled(byte[] taskIdBytes) throws RocksDBException {
+    return db.get(cancelledHandle, taskIdBytes) != null;
+  }
+
+  /**
+   * Removes the markers of cancelled tasks that are no longer stored, checking at most a batch of
+   * markers after the ones checked by the previous sweep.
+   */
+  void sweepCancelled() {
+    int removed = 0;
+    try (RocksIterator iter = db.newIterator(cancelledHandle);
+        WriteBatch batch = new WriteBatch();
+        WriteOptions writeOptions = new WriteOptions()) {
+      if (cancelledSweepCursor == null) {
+        iter.seekToFirst();
+      } else {
+        iter.seek(cancelledSweepCursor);
+        if (iter.isValid() && Arrays.equals(iter.key(), cancelledSweepCursor)) {
+          iter.next();
+        }
+      }
+      byte[] lastKey = null;
+      for (int checked = 0; iter.isValid() && checked < CANCELLED_SWEEP_BATCH_SIZE; iter.next()) {
+        lastKey = iter.key();
+        checked++;
+        // A stored task keeps its marker until a fetch of due tasks removes both.
+        if (db.get(idIndexHandle, lastKey) == null) {
+          batch.delete(cancelledHandle, lastKey);
+          removed++;
+        }
+      }
+      // The next sweep starts over from the first marker once this one has reached the last.
+      cancelledSweepCursor = iter.isValid() ? lastKey : null;
+      db.write(writeOptions, batch);
+    } catch (RocksDBException e) {
+      log.error("Failed to sweep cancellation markers in RocksDB", e);
+      throw new StorageException("Persistence error during cancellation sweep", e);
+    }
+    if (removed > 0) {
+      log.debug("Swept {} cancellation markers of tasks no longer stored", removed);
+    }
+  }
+
+  private void sweepCancelledQuietly() {
+    try {
+      sweepCancelled();
+    } catch (StorageException e) {
+      log.error("Failed to sweep cancellation markers, retrying with the next sweep", e);
+    }
+  }
+
   @Override
   public ListResult<TimerTask> list(
       String clientId,
@@ -190,6 +787,7 @@ public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseabl
       Boolean isRecurring,
       int limit,
       String nextToken) {
+    flushCursors();
     List<TimerTask> tasks = new ArrayList<>();
     byte[] lowerBound;
     if (nextToken != null && !nextToken.isEmpty()) {
@@ -213,15 +811,18 @@ public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseabl
         }
 
         try {
-          TimerTask task = TimerTaskSerializer.deserialize(iter.value());
-          if (applyFilters(task, clientId, isRecurring)) {
+          TimerTask task =
+              isMarkedCancelled(Arrays.copyOfRange(key, Long.BYTES, key.length))
+                  ? null
+                  : decode(key, iter.value());
+          if (task != null && applyFilters(task, clientId, isRecurring)) {
             tasks.add(task);
             if (tasks.size() >= limit) {
               String newNextToken = Base64.getUrlEncoder().encodeToString(key);
               return new ListResult<>(tasks, newNextToken);
             }
           }
-        } catch (IOException e) {
+        } catch (IOException | RocksDBException e) {
           log.warn("Failed to deserialize task during list, skipping", e);
         }
         iter.next();
@@ -236,14 +837,149 @@ public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseabl
       return false;
     }
     if (isRecurring != null) {
-      boolean taskIsRecurring = task.getRepeatIntervalMs() > 0;
-      return isRecurring == taskIsRecurring;
+      return isRecurring == task.isRecurring();
     }
     return true;
   }
 
+  @Override
+  public long getRecoveryWatermark() {
+    try {
+      byte[] value = db.get(defaultHandle, RECOVERY_WATERMARK_KEY);
+      return value == null ? 0 : ByteBuffer.wrap(value).getLong();
+    } catch (RocksDBException e) {
+      log.error("Failed to read the recovery watermark from RocksDB", e);
+      throw new StorageException("Persistence error during recovery watermark lookup", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This store also drops the {@code time_index} partitions that end at or before the watermark,
+   * in the same write, together with the tasks marked as cancelled that they still hold. A
+   * partition that still holds any other task is kept, as the watermark is then out of date.
+   */
+  @Override
+  public synchronized void saveRecoveryWatermark(long watermark) {
+    long droppedUntilMs = timeIndexDroppedUntilMs;
+    long partitionStartMs =
+        timeIndexPartitionMs > 0 ? watermark - watermark % timeIndexPartitionMs : 0;
+    try (WriteBatch batch = new WriteBatch();
+        WriteOptions writeOptions = new WriteOptions()) {
+      batch.put(defaultHandle, RECOVERY_WATERMARK_KEY, longToBytes(watermark));
+      // A task saved late moves the watermark back, so its partition is dropped again later.
+      long nextDroppedUntilMs = Math.min(droppedUntilMs, partitionStartMs);
+      if (partitionStartMs > droppedUntilMs) {
+        long earliestMs = earliestLiveExpirationMs(droppedUntilMs, partitionStartMs, batch);
+        if (earliestMs >= partitionStartMs) {
+          batch.deleteRange(
+              timeIndexHandle, longToBytes(droppedUntilMs), longToBytes(partitionStartMs));
+          nextDroppedUntilMs = partitionStartMs;
+        } else {
+          log.warn(
+              "Task stored at {} below the recovery watermark {}, keeping its partition",
+              earliestMs,
+              watermark);
+        }
+      }
+      if (nextDroppedUntilMs != droppedUntilMs) {
+        batch.put(defaultHandle, TIME_INDEX_DROPPED_UNTIL_KEY, longToBytes(nextDroppedUntilMs));
+      }
+      db.write(writeOptions, batch);
+      timeIndexDroppedUntilMs = nextDroppedUntilMs;
+      if (nextDroppedUntilMs > droppedUntilMs) {
+        log.info(
+            "Dropped time index partitions from {} to {}", droppedUntilMs, nextDroppedUntilMs);
+        compactTimeIndex(droppedUntilMs, nextDroppedUntilMs);
+      }
+    } catch (RocksDBException e) {
+      log.error("Failed to save the recovery watermark to RocksDB", e);
+      throw new StorageException("Persistence error during recovery watermark save", e);
+    }
+  }
+
+  /**
+   * Finds the earliest expiration of a task in the {@code time_index} from a time on that is not
+   * marked as cancelled.
+   *
+   * <p>Tasks marked as cancelled that expire before the end time are removed in the given batch, as
+   * {@link #fetchDue} does, so that they do not keep their partition from being dropped. Recovery
+   * and listing skip them, so the watermark can pass them while they are still stored.
+   *
+   * @return the expiration, or {@link Long#MAX_VALUE} if no task expires from then on
+   */
+  private long earliestLiveExpirationMs(long fromMs, long toMs, WriteBatch removals)
+      throws RocksDBException {
+    // Cursor updates not yet written may still hold an earlier cycle in place.
+    flushCursors();
+    try (RocksIterator iter = db.newIterator(timeIndexHandle)) {
+      for (iter.seek(longToBytes(fromMs)); iter.isValid(); iter.next()) {
+        byte[] key = iter.key();
+        long expirationMs = ByteBuffer.wrap(key).getLong();
+        byte[] taskIdBytes = Arrays.copyOfRange(key, Long.BYTES, key.length);
+        if (expirationMs >= toMs || !isMarkedCancelled(taskIdBytes)) {
+          return expirationMs;
+        }
+        removals.delete(timeIndexHandle, key);
+        removals.delete(idIndexHandle, taskIdBytes);
+        removals.delete(retryAttemptsHandle, taskIdBytes);
+        removals.delete(recurringTasksHandle, taskIdBytes);
+        removals.delete(cancelledHandle, taskIdBytes);
+      }
+      return Long.MAX_VALUE;
+    }
+  }
+
+  /** Compacts a dropped range in the background, reclaiming its space and its tombstones. */
+  private void compactTimeIndex(long fromMs, long toMs) {
+    try {
+      partitionCompactor.execute(
+          () -> {
+            try {
+              db.compactRange(timeIndexHandle, longToBytes(fromMs), longToBytes(toMs));
+            } catch (RocksDBException e) {
+              // The range deletion already hides the range; compaction reclaims it eventually.
+              log.warn("Failed to compact time index from {} to {}", fromMs, toMs, e);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      log.debug("Store is closing, leaving time index from {} to {} to compaction", fromMs, toMs);
+    }
+  }
+
+  /**
+   * Gets the time below which the {@code time_index} has been dropped.
+   *
+   * @return the end of the dropped partitions, or 0 if none were dropped
+   */
+  synchronized long getTimeIndexDroppedUntilMs() {
+    return timeIndexDroppedUntilMs;
+  }
+
   @Override
   public void close() {
+    if (cursorFlusher != null) {
+      cursorFlusher.shutdownNow();
+      flushCursorsQuietly();
+    }
+    if (cancelledSweeper != null) {
+      cancelledSweeper.shutdownNow();
+    }
+    if (partitionCompactor != null) {
+      // A running compaction cannot be interrupted and must finish before the database closes.
+      partitionCompactor.shutdown();
+      try {
+        if (!partitionCompactor.awaitTermination(5, TimeUnit.SECONDS)) {
+          log.warn("Time index compaction still running while closing RocksDB");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    cancelledHandle.close();
+    recurringTasksHandle.close();
+    retryAttemptsHandle.close();
     timeIndexHandle.close();
     idIndexHandle.close();
     defaultHandle.close();
@@ -252,6 +988,53 @@ public class RocksDBLongTermTaskStore implements LongTermTaskStore, AutoCloseabl
     cfOptions.close();
   }
 
+  /**
+   * Reads a {@code time_index} entry, resolving the cursor of a recurring task against its payload
+   * record and applying the attempt count recorded for a retry.
+   *
+   * @return the task, or {@code null} if the payload record of a recurring task is missing
+   */
+  private TimerTask decode(byte[] timeKey, byte[] value) throws IOException, RocksDBException {
+    byte[] taskIdBytes = Arrays.copyOfRange(timeKey, Long.BYTES, timeKey.length);
+    byte[] attempt = db.get(retryAttemptsHandle, taskIdBytes);
+    if (value.length != CURSOR_LENGTH) {
+      TimerTask task = TimerTaskSerializer.deserialize(value);
+      // A rescheduled task keeps its serialized expiration, so the key holds the current one.
+      long expirationMs = ByteBuffer.wrap(timeKey).getLong();
+      if (attempt == null && task.getExpirationMs() == expirationMs) {
+        return task;
+      }
+      int attemptCount =
+          attempt != null ? ByteBuffer.wrap(attempt).getInt() : task.getAttemptCount();
+      return task.withExpiration(expirationMs, attemptCount);
+    }
+    byte[] record = db.get(recurringTasksHandle, taskIdBytes);
+    if (record == null) {
+      log.error(
+          "Integrity error: recurring task {} found in time_index but missing in {}",
+          new String(taskIdBytes),
+          CF_RECURRING_TASKS);
+      return null;
+    }
+    TimerTask stored = TimerTaskSerializer.deserialize(record);
+    long expirationMs = ByteBuffer.wrap(timeKey).getLong();
+    int cursorAttemptCount = ByteBuffer.wrap(value).getInt();
+    int attemptCount = attempt != null ? ByteBuffer.wrap(attempt).getInt() : cursorAttemptCount;
+    // A retry saved in full carries the time of its cycle in the record written with it, while a
+    // retry recorded in retry_attempts stays at the cycle that failed.
+    long cycleExpirationMs =
+        cursorAttemptCount > 0 ? stored.getCycleExpirationMs() : expirationMs;
+    return stored.withExpiration(expirationMs, attemptCount, cycleExpirationMs);
+  }
+
+  private byte[] cursorValue(TimerTask task) {
+    return ByteBuffer.allocate(CURSOR_LENGTH).putInt(task.getAttemptCount()).array();
+  }
+
+  private byte[] attemptValue(TimerTask task) {
+    return ByteBuffer.allocate(Integer.BYTES).putInt(task.getAttemptCount()).array();
+  }
+
   private byte[] longToBytes(long value) {
     return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
   }
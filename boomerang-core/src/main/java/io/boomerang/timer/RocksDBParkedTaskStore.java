@@ -0,0 +1,185 @@
+package io.boomerang.timer;
+
+import io.boomerang.config.ServerConfig;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A RocksDB-backed implementation of {@link ParkedTaskStore}.
+ *
+ * <p>This store maintains a single Column Family:
+ *
+ * <ul>
+ *   <li>{@code parked}: Key: [endpoint]\0[expirationMs (8 bytes)][taskId]. Value: Serialized
+ *       {@link TimerTask}.
+ * </ul>
+ *
+ * <p>The parked tasks of an endpoint are therefore contiguous and ordered by expiration, and the
+ * endpoints themselves can be listed by skipping from one prefix to the next.
+ *
+ * @since 1.0.0
+ */
+public class RocksDBParkedTaskStore implements ParkedTaskStore, AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(RocksDBParkedTaskStore.class);
+
+  private static final String CF_PARKED = "parked";
+  private static final byte KEY_SEPARATOR = 0;
+
+  private final RocksDB db;
+  private final DBOptions dbOptions;
+  private final ColumnFamilyOptions cfOptions;
+  private final ColumnFamilyHandle defaultHandle;
+  private final ColumnFamilyHandle parkedHandle;
+
+  static {
+    RocksDB.loadLibrary();
+  }
+
+  public RocksDBParkedTaskStore(ServerConfig serverConfig) {
+    String dbPath = serverConfig.getRocksDbParkedPath();
+    try {
+      Files.createDirectories(Paths.get(dbPath));
+
+      this.dbOptions =
+          new DBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true);
+      this.cfOptions = new ColumnFamilyOptions();
+
+      List<ColumnFamilyDescriptor> cfDescriptors = new ArrayList<>();
+      cfDescriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, cfOptions));
+      cfDescriptors.add(new ColumnFamilyDescriptor(CF_PARKED.getBytes(), cfOptions));
+
+      List<ColumnFamilyHandle> cfHandles = new ArrayList<>();
+      this.db = RocksDB.open(dbOptions, dbPath, cfDescriptors, cfHandles);
+      this.defaultHandle = cfHandles.get(0);
+      this.parkedHandle = cfHandles.get(1);
+
+      log.info("Initialized RocksDB parked task store at {}", dbPath);
+    } catch (IOException | RocksDBException e) {
+      log.error("Failed to initialize RocksDB parked task store at {}", dbPath, e);
+      throw new StorageException("Could not initialize RocksDB parked task store at " + dbPath, e);
+    }
+  }
+
+  @Override
+  public void park(String endpoint, TimerTask task) {
+    try {
+      db.put(parkedHandle, createKey(endpoint, task), TimerTaskSerializer.serialize(task));
+    } catch (RocksDBException | IOException e) {
+      log.error("Failed to park task {} for {}", task.getTaskId(), endpoint, e);
+      throw new StorageException("Persistence error while parking " + task.getTaskId(), e);
+    }
+  }
+
+  @Override
+  public List<TimerTask> peek(String endpoint, int limit) {
+    List<TimerTask> tasks = new ArrayList<>();
+    byte[] prefix = createPrefix(endpoint);
+    try (RocksIterator iter = db.newIterator(parkedHandle)) {
+      for (iter.seek(prefix); iter.isValid() && tasks.size() < limit; iter.next()) {
+        if (!startsWith(iter.key(), prefix)) {
+          break;
+        }
+        try {
+          tasks.add(TimerTaskSerializer.deserialize(iter.value()));
+        } catch (IOException e) {
+          log.warn("Failed to deserialize parked task for {}, dropping it", endpoint, e);
+          remove(iter.key());
+        }
+      }
+    }
+    return tasks;
+  }
+
+  @Override
+  public void remove(String endpoint, TimerTask task) {
+    remove(createKey(endpoint, task));
+  }
+
+  private void remove(byte[] key) {
+    try {
+      db.delete(parkedHandle, key);
+    } catch (RocksDBException e) {
+      log.error("Failed to remove parked task", e);
+      throw new StorageException("Persistence error while removing a parked task", e);
+    }
+  }
+
+  @Override
+  public Collection<String> endpoints() {
+    List<String> endpoints = new ArrayList<>();
+    try (RocksIterator iter = db.newIterator(parkedHandle)) {
+      iter.seekToFirst();
+      while (iter.isValid()) {
+        byte[] key = iter.key();
+        int end = indexOfSeparator(key);
+        endpoints.add(new String(key, 0, end, StandardCharsets.UTF_8));
+        // Skip the remaining tasks of the endpoint: its prefix with the separator incremented.
+        byte[] next = Arrays.copyOf(key, end + 1);
+        next[end] = KEY_SEPARATOR + 1;
+        iter.seek(next);
+      }
+    }
+    return endpoints;
+  }
+
+  @Override
+  public void close() {
+    parkedHandle.close();
+    defaultHandle.close();
+    db.close();
+    dbOptions.close();
+    cfOptions.close();
+  }
+
+  private byte[] createPrefix(String endpoint) {
+    byte[] endpointBytes = endpoint.getBytes(StandardCharsets.UTF_8);
+    return Arrays.copyOf(endpointBytes, endpointBytes.length + 1);
+  }
+
+  private byte[] createKey(String endpoint, TimerTask task) {
+    byte[] prefix = createPrefix(endpoint);
+    byte[] taskIdBytes = task.getTaskId().getBytes(StandardCharsets.UTF_8);
+    return ByteBuffer.allocate(prefix.length + Long.BYTES + taskIdBytes.length)
+        .put(prefix)
+        .putLong(task.getExpirationMs())
+        .put(taskIdBytes)
+        .array();
+  }
+
+  private int indexOfSeparator(byte[] key) {
+    for (int i = 0; i < key.length; i++) {
+      if (key[i] == KEY_SEPARATOR) {
+        return i;
+      }
+    }
+    return key.length;
+  }
+
+  private boolean startsWith(byte[] array, byte[] prefix) {
+    if (array.length < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (array[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
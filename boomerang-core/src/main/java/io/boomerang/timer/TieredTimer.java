@@ -2,8 +2,16 @@ package io.boomerang.timer;
 
 import io.boomerang.config.ServerConfig;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
@@ -16,6 +24,47 @@ import org.slf4j.LoggerFactory;
  * scheduled within the {@code imminentWindowMs}, it is also added to the {@link
  * HierarchicalTimingWheel} for efficient execution.
  *
+ * <p>The imminent window is fixed unless a task budget is configured, in which case it is resized
+ * after every load: it shrinks while the wheel holds more tasks than the budget allows, down to a
+ * minimum, and grows back while the wheel is sparse, up to the configured window. A load that
+ * reaches the budget stops adding tasks beyond the minimum window. Tasks are loaded every half
+ * window, so the load cadence follows the window.
+ *
+ * <p>Loads are incremental: each load fetches only the tasks expiring after the end of the window
+ * loaded before, the load watermark, rather than rescanning the whole window. Tasks scheduled at or
+ * below the load watermark are added to memory directly, whatever the current window.
+ *
+ * <p>If the dispatcher rejects an expired task because its queue is full, the task is deferred by a
+ * short delay and written back to the long-term store rather than held in memory. Deferred tasks
+ * are reloaded in a single batch once the delay has passed, so memory stays flat during expiry
+ * bursts while tasks are still dispatched roughly in expiration order. The writes and the reload
+ * run on a separate thread, so that they do not hold up the timing wheel during the burst, and the
+ * reload reads only the range of expirations the deferred tasks were moved to.
+ *
+ * <p>A timer created in standby mode is a warm replica: it loads tasks into its timing wheel as
+ * usual but does not dispatch them, since the primary it replicates does. Expired tasks stay in the
+ * store until the primary's deletion is replicated. Once {@link #promote() promoted}, the timer
+ * dispatches every task still in the store, including the ones that expired during standby.
+ *
+ * <p>On startup and on promotion, tasks that are already overdue are recovered in the background:
+ * they are loaded in parallel key ranges and released to the dispatcher at the configured catch-up
+ * rate, while new registrations are accepted right away. Scans for due tasks start at a persisted
+ * recovery watermark, a time before which no stored task expires, rather than at the beginning of
+ * the store.
+ *
+ * <p>Cancelling a task held in memory deletes it from the store as well. Any other task is only
+ * marked as cancelled, leaving its removal to the store; see {@link
+ * LongTermTaskStore#cancel(String)}. A load that was already running when the task was cancelled
+ * can still bring it back into memory, so expired tasks are checked once more against the
+ * cancellations made since the start of the latest load, which are held in memory so that the check
+ * costs no read of the store.
+ *
+ * <p>With lazy payloads enabled, tasks are held in the timing wheel without their payloads, so that
+ * memory grows with the number of tasks in the imminent window rather than with their payload
+ * bytes. A background prefetch reads the payloads of the tasks expiring within the prefetch lead
+ * time back from the store, and a task whose payload was not prefetched in time reads it when it
+ * expires. Tasks scheduled within the range already prefetched keep their payloads.
+ *
  * @since 1.0.0
  */
 public class TieredTimer implements Timer {
@@ -23,10 +72,53 @@ public class TieredTimer implements Timer {
 
   private final HierarchicalTimingWheel imminentTimer;
   private final LongTermTaskStore longTermStore;
-  private final long imminentWindowMs;
-  private final long loadThresholdMs;
+  private final long maxImminentWindowMs;
+  private final long minImminentWindowMs;
+  private final int imminentTaskBudget;
+  private volatile long imminentWindowMs;
   private final Consumer<TimerTask> dispatcher;
   private final AtomicLong lastLoadedTime;
+  private final long overflowDeferMs;
+  // The deferred expiration of each task deferred to the store, by task ID.
+  private final Map<String, Long> deferredTasks = new ConcurrentHashMap<>();
+  // Orders the write of a deferred task against the cancellation or replacement of the task.
+  private final Object deferLock = new Object();
+  private final ScheduledExecutorService overflowExecutor;
+  private final AtomicBoolean overflowLoadScheduled = new AtomicBoolean();
+  private final AtomicLong deferredTaskCount = new AtomicLong();
+  // The time of each cancellation that a running load may not have seen, by task ID.
+  private final Map<String, Long> recentCancellations = new ConcurrentHashMap<>();
+  private volatile boolean standby;
+  private final int recoveryParallelism;
+  private final double catchUpRatePerSecond;
+  private final double clientCatchUpRatePerSecond;
+  private final int clientCatchUpBurst;
+  private volatile OverdueTaskRecovery recovery;
+  // While a recovery is running, scans for due tasks leave the range it covers to the recovery.
+  private volatile long recoveryFloorMs;
+  private final Object watermarkLock = new Object();
+  // Every stored task expiring up to this time has been loaded or was added to memory directly.
+  private volatile long loadedUntilMs;
+  private volatile long recoveryWatermark;
+  private volatile long lastScanStartMs;
+  // The earliest expiration saved below the last scan start since that scan began.
+  private long lowestLateSaveMs = Long.MAX_VALUE;
+  private final boolean lazyPayloads;
+  private final long prefetchLeadMs;
+  private final Map<String, PrefetchedPayload> prefetchedPayloads = new ConcurrentHashMap<>();
+  private final AtomicLong payloadMissCount = new AtomicLong();
+  private final ScheduledExecutorService prefetchExecutor;
+  // Tasks expiring up to this time are prefetched, or kept with their payloads when scheduled.
+  private volatile long prefetchedUntilMs;
+
+  /**
+   * A payload read ahead of its task's expiration.
+   *
+   * @param task the in-memory task the payload belongs to, which a replacement of the task does not
+   *     match
+   * @param payload the payload
+   */
+  private record PrefetchedPayload(TimerTask task, byte[] payload) {}
 
   /**
    * Constructs a new tiered timer.
@@ -37,12 +129,52 @@ public class TieredTimer implements Timer {
    */
   public TieredTimer(
       Consumer<TimerTask> dispatcher, LongTermTaskStore longTermStore, ServerConfig serverConfig) {
+    this(dispatcher, longTermStore, serverConfig, false);
+  }
+
+  /**
+   * Constructs a new tiered timer, optionally in standby mode.
+   *
+   * @param dispatcher the consumer for expired tasks; must be non-null
+   * @param longTermStore the store for long-term tasks; must be non-null
+   * @param serverConfig the server configuration for timer tuning; must be non-null
+   * @param standby {@code true} to hold off dispatching until {@link #promote()} is called
+   */
+  public TieredTimer(
+      Consumer<TimerTask> dispatcher,
+      LongTermTaskStore longTermStore,
+      ServerConfig serverConfig,
+      boolean standby) {
     this.dispatcher = Objects.requireNonNull(dispatcher, "dispatcher must not be null");
     this.longTermStore = Objects.requireNonNull(longTermStore, "longTermStore must not be null");
-    this.imminentWindowMs = serverConfig.getTimerImminentWindowMs();
-    // Load tasks for the next imminent window when half of it has passed
-    this.loadThresholdMs = imminentWindowMs / 2;
+    this.standby = standby;
+    this.maxImminentWindowMs = serverConfig.getTimerImminentWindowMs();
+    // At least two ticks, so that loads never run back to back.
+    long minWindowMs =
+        Math.max(2 * serverConfig.getTimerTickMs(), serverConfig.getTimerImminentMinWindowMs());
+    this.minImminentWindowMs = Math.min(maxImminentWindowMs, minWindowMs);
+    this.imminentTaskBudget = serverConfig.getTimerImminentMaxTasks();
+    this.imminentWindowMs = maxImminentWindowMs;
     this.lastLoadedTime = new AtomicLong(System.currentTimeMillis());
+    this.overflowDeferMs =
+        Math.max(serverConfig.getTimerTickMs(), serverConfig.getCallbackOverflowDeferMs());
+    this.overflowExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "overflow-defer");
+              t.setDaemon(true);
+              return t;
+            });
+    this.recoveryParallelism = serverConfig.getRecoveryParallelism();
+    this.catchUpRatePerSecond = serverConfig.getRecoveryCatchUpRatePerSecond();
+    this.clientCatchUpRatePerSecond = serverConfig.getRecoveryClientCatchUpRatePerSecond();
+    this.clientCatchUpBurst = serverConfig.getRecoveryClientCatchUpBurst();
+    this.recoveryWatermark = longTermStore.getRecoveryWatermark();
+    this.lastScanStartMs = recoveryWatermark;
+    this.loadedUntilMs = recoveryWatermark - 1;
+    this.lazyPayloads = serverConfig.isTimerPayloadLazyEnabled();
+    this.prefetchLeadMs = serverConfig.getTimerPayloadPrefetchLeadMs();
+    this.prefetchedUntilMs = System.currentTimeMillis();
 
     this.imminentTimer =
         new HierarchicalTimingWheel(
@@ -51,8 +183,136 @@ public class TieredTimer implements Timer {
             this::handleExpiredTask,
             serverConfig);
 
-    // Initial load to recover tasks already due in the imminent window
+    // Overdue tasks are recovered in the background; a standby leaves them to the primary.
+    if (!standby) {
+      startRecovery(System.currentTimeMillis());
+    }
+    // Initial load of the tasks due in the imminent window
     reactiveLoad();
+
+    if (lazyPayloads) {
+      prefetchExecutor =
+          Executors.newSingleThreadScheduledExecutor(
+              r -> {
+                Thread t = new Thread(r, "payload-prefetch");
+                t.setDaemon(true);
+                return t;
+              });
+      long intervalMs = Math.max(serverConfig.getTimerTickMs(), prefetchLeadMs / 2);
+      prefetchExecutor.scheduleWithFixedDelay(
+          this::prefetchPayloadsQuietly, 0, intervalMs, TimeUnit.MILLISECONDS);
+    } else {
+      prefetchExecutor = null;
+    }
+  }
+
+  private void startRecovery(long cutoffMs) {
+    // Start at the first stored task rather than the watermark if that is later, so that the
+    // parallel loaders split the range that actually holds tasks.
+    long fromMs = recoveryWatermark;
+    ListResult<TimerTask> first = longTermStore.list(null, fromMs, cutoffMs, null, 1, null);
+    if (first == null || first.items().isEmpty()) {
+      return;
+    }
+    fromMs = Math.max(fromMs, first.items().iterator().next().getExpirationMs());
+
+    OverdueTaskRecovery overdueRecovery =
+        new OverdueTaskRecovery(
+            longTermStore,
+            this::releaseOverdueTask,
+            this::postponeOverdueTask,
+            recoveryParallelism,
+            catchUpRatePerSecond,
+            clientCatchUpRatePerSecond,
+            clientCatchUpBurst);
+    recoveryFloorMs = cutoffMs + 1;
+    recovery = overdueRecovery;
+    overdueRecovery.start(fromMs, cutoffMs, () -> recoveryFloorMs = 0);
+  }
+
+  private void releaseOverdueTask(TimerTask task) {
+    // The task may have been loaded into memory before a promotion.
+    if (imminentTimer.get(task.getTaskId()).isEmpty()) {
+      imminentTimer.add(task);
+    }
+  }
+
+  /**
+   * Adds a task to the timing wheel, leaving out its payload if lazy payloads are enabled and the
+   * task expires after the range already prefetched.
+   */
+  private void addToWheel(TimerTask task) {
+    if (lazyPayloads && !task.isPayloadDeferred() && task.getExpirationMs() > prefetchedUntilMs) {
+      imminentTimer.add(task.withoutPayload());
+    } else {
+      imminentTimer.add(task);
+    }
+  }
+
+  private void prefetchPayloadsQuietly() {
+    try {
+      prefetchPayloads();
+    } catch (RuntimeException e) {
+      log.error("Failed to prefetch task payloads", e);
+    }
+  }
+
+  private void prefetchPayloads() {
+    if (standby) {
+      // Nothing is dispatched, so the prefetch starts over from the time of the promotion.
+      prefetchedUntilMs = System.currentTimeMillis();
+      return;
+    }
+    long now = System.currentTimeMillis();
+    long fromMs = prefetchedUntilMs;
+    long toMs = now + prefetchLeadMs;
+    // Moved first, so that tasks scheduled into the range from now on keep their payloads.
+    prefetchedUntilMs = toMs;
+    // Payloads of tasks cancelled or replaced before they expired.
+    prefetchedPayloads.values().removeIf(p -> p.task().getExpirationMs() < now - prefetchLeadMs);
+
+    int prefetched = 0;
+    // The payloads are taken from the scan itself. A task replaced after the scan read it is added
+    // with its payload, as the range is already marked prefetched, so only a task held without its
+    // payload since before the scan receives one.
+    for (TimerTask stored : longTermStore.fetchTasksDueBetween(fromMs, toMs)) {
+      long expirationMs = stored.getExpirationMs();
+      Optional<TimerTask> held =
+          imminentTimer
+              .get(stored.getTaskId())
+              .filter(t -> t.isPayloadDeferred() && t.getExpirationMs() == expirationMs);
+      if (held.isPresent()) {
+        prefetchedPayloads.put(
+            stored.getTaskId(), new PrefetchedPayload(held.get(), stored.getPayload()));
+        prefetched++;
+      }
+    }
+    log.debug("Prefetched {} task payloads up to {}", prefetched, toMs);
+  }
+
+  /**
+   * Restores the payload of a task held without it, from the prefetched payloads or else from the
+   * store.
+   *
+   * @return the task with its payload, or {@code null} if it is no longer stored
+   */
+  private TimerTask restorePayload(TimerTask task) {
+    PrefetchedPayload prefetched = prefetchedPayloads.remove(task.getTaskId());
+    if (prefetched != null && prefetched.task() == task) {
+      return task.withPayload(prefetched.payload());
+    }
+    // Not prefetched in time, e.g., because the task was loaded after the prefetch passed it.
+    payloadMissCount.incrementAndGet();
+    return longTermStore
+        .findById(task.getTaskId())
+        .map(stored -> task.withPayload(stored.getPayload()))
+        .orElse(null);
+  }
+
+  private void postponeOverdueTask(TimerTask task) {
+    // Re-keyed to the client's next catch-up slot, the task is no longer overdue.
+    imminentTimer.cancel(task.getTaskId());
+    add(task);
   }
 
   private void handleExpiredTask(TimerTask task) {
@@ -60,9 +320,116 @@ public class TieredTimer implements Timer {
       task.getTask().run();
       return;
     }
+    if (standby) {
+      // The primary dispatches this task; it stays in the store until the deletion is replicated.
+      log.trace("Standby timer skipping expired task {}", task.getTaskId());
+      return;
+    }
+
+    // A task loaded from the store just before it was cancelled can still reach the wheel.
+    if (recentCancellations.remove(task.getTaskId()) != null) {
+      log.debug("Dropping cancelled task {}", task.getTaskId());
+      longTermStore.delete(task);
+      return;
+    }
+
+    if (task.isPayloadDeferred()) {
+      TimerTask restored = restorePayload(task);
+      if (restored == null) {
+        log.debug("Dropping task {} that is no longer stored", task.getTaskId());
+        return;
+      }
+      task = restored;
+    }
 
     // dispatcher.accept(task) will handle execution, errors/retries, deletion, and rescheduling.
-    dispatcher.accept(task);
+    try {
+      dispatcher.accept(task);
+    } catch (RejectedExecutionException e) {
+      deferOverflowedTask(task);
+    }
+  }
+
+  private void deferOverflowedTask(TimerTask task) {
+    TimerTask deferred = task.withExpiration(System.currentTimeMillis() + overflowDeferMs);
+    // Only the ID stays in memory until the overflow load.
+    deferredTasks.put(task.getTaskId(), deferred.getExpirationMs());
+    deferredTaskCount.incrementAndGet();
+    log.debug("Callback queue full, deferred task {} by {} ms", task.getTaskId(), overflowDeferMs);
+    try {
+      overflowExecutor.execute(() -> saveDeferredTask(deferred));
+    } catch (RejectedExecutionException e) {
+      // Shutting down: the task is still stored at its original expiration.
+      deferredTasks.remove(task.getTaskId());
+      return;
+    }
+
+    if (overflowLoadScheduled.compareAndSet(false, true)) {
+      scheduleOverflowLoad();
+    }
+  }
+
+  private void saveDeferredTask(TimerTask deferred) {
+    String taskId = deferred.getTaskId();
+    synchronized (deferLock) {
+      // A task cancelled or replaced since it was deferred must not be written back.
+      if (!Long.valueOf(deferred.getExpirationMs()).equals(deferredTasks.get(taskId))) {
+        return;
+      }
+      try {
+        // Re-keys the task in the store.
+        saveToStore(deferred);
+      } catch (StorageException e) {
+        log.error("Failed to defer overflowed task {}, keeping it in memory", taskId, e);
+        deferredTasks.remove(taskId);
+        imminentTimer.add(deferred);
+      }
+    }
+  }
+
+  private void scheduleOverflowLoad() {
+    try {
+      overflowExecutor.schedule(
+          this::loadOverflowedTasksQuietly, overflowDeferMs, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      log.debug("Timer is shut down, deferred tasks are loaded on restart");
+    }
+  }
+
+  private void loadOverflowedTasksQuietly() {
+    try {
+      loadOverflowedTasks();
+    } catch (RuntimeException e) {
+      log.error("Failed to reload deferred tasks, retrying with the next overflow load", e);
+      if (overflowLoadScheduled.compareAndSet(false, true)) {
+        scheduleOverflowLoad();
+      }
+    }
+  }
+
+  private void loadOverflowedTasks() {
+    overflowLoadScheduled.set(false);
+    long now = System.currentTimeMillis();
+    // The writes of deferred tasks run on this thread before the load, so every task deferred up
+    // to now is stored within this range.
+    long fromMs = deferredTasks.values().stream().mapToLong(Long::longValue).min().orElse(now + 1);
+    int loaded = 0;
+    if (fromMs <= now) {
+      // Only reload tasks this timer deferred; other due tasks may be in flight on the dispatcher.
+      for (TimerTask task : longTermStore.fetchTasksDueBetween(fromMs, now)) {
+        if (deferredTasks.remove(task.getTaskId(), task.getExpirationMs())) {
+          imminentTimer.add(task);
+          loaded++;
+        }
+      }
+      // Deferred tasks due by now that were not found were removed from the store meanwhile.
+      deferredTasks.values().removeIf(expirationMs -> expirationMs <= now);
+    }
+    log.debug("Reloaded {} deferred tasks, {} still pending", loaded, deferredTasks.size());
+
+    if (!deferredTasks.isEmpty() && overflowLoadScheduled.compareAndSet(false, true)) {
+      scheduleOverflowLoad();
+    }
   }
 
   private static class InternalTimerTask extends TimerTask {
@@ -72,23 +439,53 @@ public class TieredTimer implements Timer {
   }
 
   private void scheduleReactiveLoad() {
-    long nextLoadDelay = loadThresholdMs;
+    // Load tasks for the next imminent window when half of it has passed
+    long nextLoadDelay = getLoadIntervalMs();
     TimerTask loadTask = new InternalTimerTask(nextLoadDelay, this::reactiveLoad);
     imminentTimer.add(loadTask);
   }
 
   private void reactiveLoad() {
     long now = System.currentTimeMillis();
-    long windowEnd = now + imminentWindowMs;
+    log.debug("Reactive load triggered at {}", now);
+    loadImminentTasks(now);
+    lastLoadedTime.set(now);
+    scheduleReactiveLoad(); // Reschedule for the next window
+  }
 
-    log.debug("Reactive load triggered at {}, fetching tasks due before {}", now, windowEnd);
+  private synchronized void loadImminentTasks(long now) {
+    long floorMs = recoveryFloorMs;
+    long previousScanStartMs = lastScanStartMs;
+    synchronized (watermarkLock) {
+      lastScanStartMs = now;
+      lowestLateSaveMs = Long.MAX_VALUE;
+    }
 
-    Collection<TimerTask> tasks = longTermStore.fetchTasksDueBefore(windowEnd);
+    long fromMs = Math.max(Math.max(recoveryWatermark, floorMs), loadedUntilMs + 1);
+    long windowEnd = Math.max(loadedUntilMs, now + imminentWindowMs);
+    // Moved before the scan, so that tasks added while it runs go to memory directly.
+    loadedUntilMs = windowEnd;
+    Collection<TimerTask> tasks =
+        fromMs > windowEnd
+            ? List.of()
+            : lazyPayloads
+                ? longTermStore.fetchTaskMetadataDueBetween(fromMs, windowEnd)
+                : longTermStore.fetchTasksDueBetween(fromMs, windowEnd);
+    long minSkippedMs = Long.MAX_VALUE;
     if (!tasks.isEmpty()) {
       int addedCount = 0;
       for (TimerTask task : tasks) {
-        if (imminentTimer.get(task.getTaskId()).isEmpty()) {
-          imminentTimer.add(task);
+        // Deferred tasks are reloaded by the overflow load. A standby timer only keeps future
+        // tasks warm; overdue ones are left to the primary until promotion.
+        if (imminentTimer.get(task.getTaskId()).isEmpty()
+            && !deferredTasks.containsKey(task.getTaskId())
+            && !(standby && task.getExpirationMs() <= now)) {
+          // Over budget, tasks beyond the minimum window stay in the store until a later load.
+          if (isOverBudget() && task.getExpirationMs() >= now + minImminentWindowMs) {
+            minSkippedMs = Math.min(minSkippedMs, task.getExpirationMs());
+            continue;
+          }
+          addToWheel(task);
           addedCount++;
         }
       }
@@ -97,23 +494,259 @@ public class TieredTimer implements Timer {
           addedCount,
           tasks.size());
     }
+    // Loads from now on see the cancellations made before this one started.
+    recentCancellations.values().removeIf(cancelledAtMs -> cancelledAtMs < now);
+    boolean truncated = minSkippedMs != Long.MAX_VALUE;
+    if (truncated) {
+      // The next load starts at the earliest task left in the store.
+      loadedUntilMs = minSkippedMs - 1;
+    }
+    // While a recovery is running, the tasks below its floor are not accounted for.
+    if (floorMs == 0) {
+      advanceRecoveryWatermark(
+          Math.min(earliestStoredExpirationMs(previousScanStartMs), previousScanStartMs));
+    }
+    resizeImminentWindow(truncated);
+  }
 
-    lastLoadedTime.set(now);
-    scheduleReactiveLoad(); // Reschedule for the next window
+  /**
+   * Finds the earliest expiration of a stored task from the recovery watermark up to a time.
+   *
+   * <p>Loads no longer scan from the watermark, so this seeks to the first stored task instead.
+   *
+   * @return the expiration, or {@link Long#MAX_VALUE} if no task expires in the range
+   */
+  private long earliestStoredExpirationMs(long untilMs) {
+    ListResult<TimerTask> first =
+        longTermStore.list(null, recoveryWatermark, untilMs, null, 1, null);
+    if (first == null || first.items().isEmpty()) {
+      return Long.MAX_VALUE;
+    }
+    return first.items().iterator().next().getExpirationMs();
+  }
+
+  /**
+   * Checks if a task expires soon enough to be held in memory: within the imminent window, or at or
+   * below the load watermark, which loads no longer cover.
+   */
+  private boolean isImminent(long expirationMs) {
+    return expirationMs <= loadedUntilMs
+        || expirationMs < System.currentTimeMillis() + imminentWindowMs;
+  }
+
+  private boolean isOverBudget() {
+    return imminentTaskBudget > 0 && imminentTimer.size() >= imminentTaskBudget;
+  }
+
+  /**
+   * Resizes the imminent window towards holding half of the task budget in memory, which leaves
+   * room for the tasks registered between loads.
+   *
+   * @param truncated whether the last load left tasks in the window in the store
+   */
+  private void resizeImminentWindow(boolean truncated) {
+    if (imminentTaskBudget <= 0) {
+      return;
+    }
+    long windowMs = imminentWindowMs;
+    long resizedMs;
+    if (truncated) {
+      // The next load must come before the tasks left in the store expire.
+      resizedMs = minImminentWindowMs;
+    } else {
+      double targetTasks = imminentTaskBudget / 2.0;
+      int inMemory = imminentTimer.size();
+      // Grown at most twofold per load, since a sparse wheel says little about the next window.
+      double factor = inMemory == 0 ? 2.0 : Math.min(2.0, targetTasks / inMemory);
+      resizedMs = (long) (windowMs * factor);
+    }
+    resizedMs = Math.max(minImminentWindowMs, Math.min(maxImminentWindowMs, resizedMs));
+    if (resizedMs != windowMs) {
+      imminentWindowMs = resizedMs;
+      log.info(
+          "Resized imminent window from {} ms to {} ms ({} tasks in memory, budget {})",
+          windowMs,
+          resizedMs,
+          imminentTimer.size(),
+          imminentTaskBudget);
+    }
+  }
+
+  private void advanceRecoveryWatermark(long candidateMs) {
+    synchronized (watermarkLock) {
+      long watermark = Math.min(candidateMs, lowestLateSaveMs);
+      if (watermark > recoveryWatermark) {
+        recoveryWatermark = watermark;
+        longTermStore.saveRecoveryWatermark(watermark);
+      }
+    }
+  }
+
+  /**
+   * Saves a task while keeping the recovery watermark below every stored task.
+   *
+   * <p>A task expiring at or after the start of the latest scan cannot fall below the next
+   * watermark, which is capped at that scan's start. Earlier ("late") tasks are saved under the
+   * watermark lock and recorded, so that a scan that missed them does not move the watermark past
+   * them. This assumes a save completes within one load interval.
+   */
+  private void saveToStore(TimerTask task) {
+    writeToStore(task.getExpirationMs(), () -> longTermStore.save(task));
+  }
+
+  private void writeToStore(long expirationMs, Runnable write) {
+    if (expirationMs >= lastScanStartMs) {
+      write.run();
+      return;
+    }
+    synchronized (watermarkLock) {
+      if (expirationMs < recoveryWatermark) {
+        recoveryWatermark = expirationMs;
+        longTermStore.saveRecoveryWatermark(expirationMs);
+      }
+      write.run();
+      lowestLateSaveMs = Math.min(lowestLateSaveMs, expirationMs);
+    }
+  }
+
+  /**
+   * Moves a recurring task that has fired to its next cycle.
+   *
+   * <p>The next cycle is scheduled in memory if it falls within the imminent window, and the store
+   * only records the move of the task's schedule, without rewriting its payload. A task cancelled
+   * while the cycle was being delivered is removed instead.
+   *
+   * @param task the recurring task that fired; must be non-null
+   * @throws IllegalStateException if the task is not repeatable
+   */
+  public void advanceCycle(TimerTask task) {
+    TimerTask next = task.nextCycle();
+    // The next cycle expires after the start of every scan so far, so the recovery watermark
+    // stays below it.
+    if (!longTermStore.advanceCycle(task, next)) {
+      log.debug("Dropping recurring task {} cancelled during its delivery", task.getTaskId());
+      return;
+    }
+    if (isImminent(next.getExpirationMs())) {
+      addToWheel(next);
+      dropIfCancelledMeanwhile(next.getTaskId());
+    }
+  }
+
+  /**
+   * Schedules the next delivery attempt of a task that failed.
+   *
+   * <p>A retry due within the imminent window stays in memory, and the store only records its
+   * attempt count rather than the whole task; see {@link LongTermTaskStore#recordAttempt}. Retries
+   * with longer backoffs are saved like any other task. A task cancelled while the failed attempt
+   * was being delivered is not retried.
+   *
+   * @param retry the next attempt of the task; must be non-null
+   */
+  public void retry(TimerTask retry) {
+    if (!isImminent(retry.getExpirationMs())) {
+      // Saving the retry would undo a cancellation, so it is saved only while the task is stored.
+      if (longTermStore.findClientId(retry.getTaskId()).isEmpty()) {
+        log.debug("Dropping retry of task {} cancelled during its delivery", retry.getTaskId());
+        return;
+      }
+      add(retry);
+      return;
+    }
+    // The stored entry keeps its expiration, which the recovery watermark already stays below.
+    if (!longTermStore.recordAttempt(retry)) {
+      log.debug("Dropping retry of task {} cancelled during its delivery", retry.getTaskId());
+      return;
+    }
+    imminentTimer.add(retry);
+    dropIfCancelledMeanwhile(retry.getTaskId());
+  }
+
+  /**
+   * Takes a task that was just put back into memory out again if it was cancelled after the store
+   * recorded its move. A cancellation made after this check finds the task in memory.
+   */
+  private void dropIfCancelledMeanwhile(String taskId) {
+    if (recentCancellations.containsKey(taskId)) {
+      forget(taskId);
+    }
+  }
+
+  /**
+   * Takes over dispatching from the primary this standby timer replicates.
+   *
+   * <p>Tasks that expired during standby and are still in the store are dispatched right away. This
+   * can deliver a task again if the primary dispatched it but failed before its deletion was
+   * replicated, in line with the at-least-once delivery guarantee.
+   */
+  public void promote() {
+    if (!standby) {
+      return;
+    }
+    standby = false;
+    log.info("Promoting standby timer");
+    long now = System.currentTimeMillis();
+    startRecovery(now);
+    loadImminentTasks(now);
+  }
+
+  /**
+   * Checks if this timer is a standby replica that does not dispatch tasks.
+   *
+   * @return {@code true} if the timer is in standby mode
+   */
+  public boolean isStandby() {
+    return standby;
+  }
+
+  /**
+   * Applies a task save replicated from the primary.
+   *
+   * <p>The task is written to the store and replaces any in-memory copy, without being dispatched
+   * while the timer is in standby mode.
+   *
+   * @param task the saved task; must be non-null
+   */
+  public void applyReplicatedSave(TimerTask task) {
+    imminentTimer.cancel(task.getTaskId());
+    add(task);
+  }
+
+  /**
+   * Applies a task deletion replicated from the primary.
+   *
+   * <p>Like {@link LongTermTaskStore#delete(TimerTask)}, the deletion targets the task's specific
+   * expiration time, so a newer schedule of the same task is kept in memory.
+   *
+   * @param task the deleted task; must be non-null
+   */
+  public void applyReplicatedDelete(TimerTask task) {
+    imminentTimer
+        .get(task.getTaskId())
+        .filter(t -> t.getExpirationMs() == task.getExpirationMs())
+        .ifPresent(t -> imminentTimer.cancel(t.getTaskId()));
+    longTermStore.delete(task);
   }
 
   @Override
   public void add(TimerTask task) {
-    long now = System.currentTimeMillis();
     // Always save to the long-term store first to ensure durability across crashes.
     // If the app crashes while the task is in memory, we can reload it from the store on restart.
     if (!(task instanceof InternalTimerTask)) {
-      longTermStore.save(task);
+      // Registering the task again undoes its cancellation, as saving it does in the store.
+      recentCancellations.remove(task.getTaskId());
+      saveToStore(task);
     }
 
-    if (task.getExpirationMs() < now + imminentWindowMs) {
+    // Checked after the save, so that a load that has not seen the saved task has already moved
+    // the load watermark.
+    if (isImminent(task.getExpirationMs())) {
       log.debug("Adding task with expiration {} to imminent timer", task.getExpirationMs());
-      imminentTimer.add(task);
+      if (task instanceof InternalTimerTask) {
+        imminentTimer.add(task);
+      } else {
+        addToWheel(task);
+      }
     } else {
       log.debug(
           "Adding long-term task with expiration {} to store (already saved)",
@@ -124,16 +757,80 @@ public class TieredTimer implements Timer {
   @Override
   public void cancel(String taskId) {
     log.debug("Cancelling task {}", taskId);
+    recentCancellations.put(taskId, System.currentTimeMillis());
+    Optional<TimerTask> inMemory = imminentTimer.get(taskId);
     // Remove from HTW first (if it's there)
+    forget(taskId);
+    if (inMemory.isPresent()) {
+      // Loads do not pass a loaded task again, so its entries are removed while they are at hand.
+      longTermStore.delete(inMemory.get());
+    } else {
+      // Mark as cancelled in the long-term store, which may remove the task only later
+      longTermStore.cancel(taskId);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Only the in-memory copy of the earlier task is cancelled; saving the new task replaces the
+   * earlier one in the long-term store.
+   */
+  @Override
+  public void replace(TimerTask task) {
+    log.debug("Replacing task {}", task.getTaskId());
+    forget(task.getTaskId());
+    add(task);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The store moves the entries of the task without reading or rewriting its payload; see {@link
+   * LongTermTaskStore#reschedule}. In memory, the task is unlinked from its bucket and linked into
+   * the bucket of its new expiration if that falls within the imminent window, and the moved copy
+   * shares the payload, if any, of the task. Only a task moved into the imminent window from beyond
+   * it is read from the store, as a load would read it.
+   */
+  @Override
+  public boolean reschedule(String taskId, long expirationMs) {
+    log.debug("Rescheduling task {} to {}", taskId, expirationMs);
+    Optional<TimerTask> inMemory = imminentTimer.get(taskId);
+    forget(taskId);
+    AtomicBoolean moved = new AtomicBoolean();
+    writeToStore(expirationMs, () -> moved.set(longTermStore.reschedule(taskId, expirationMs)));
+    if (!moved.get()) {
+      return false;
+    }
+    if (isImminent(expirationMs)) {
+      Optional<TimerTask> task =
+          inMemory.isPresent()
+              ? inMemory.map(t -> t.withExpiration(expirationMs))
+              : longTermStore.findById(taskId);
+      task.ifPresent(this::addToWheel);
+      dropIfCancelledMeanwhile(taskId);
+    }
+    return true;
+  }
+
+  /** Drops the in-memory state of a task that is cancelled or scheduled anew. */
+  private void forget(String taskId) {
     imminentTimer.cancel(taskId);
-    // Remove from long-term store
-    longTermStore.findById(taskId).ifPresent(longTermStore::delete);
+    synchronized (deferLock) {
+      // Waits for a write of the task that is already running, so that it is not reordered.
+      deferredTasks.remove(taskId);
+    }
+    prefetchedPayloads.remove(taskId);
+    OverdueTaskRecovery overdueRecovery = recovery;
+    if (overdueRecovery != null) {
+      overdueRecovery.onCancelled(taskId);
+    }
   }
 
   @Override
   public Optional<TimerTask> get(String taskId) {
     // Check HTW first as it's the most likely place for "imminent" tasks
-    Optional<TimerTask> task = imminentTimer.get(taskId);
+    Optional<TimerTask> task = getIfInMemory(taskId);
     if (task.isPresent()) {
       return task;
     }
@@ -141,6 +838,22 @@ public class TieredTimer implements Timer {
     return longTermStore.findById(taskId);
   }
 
+  @Override
+  public Optional<String> findClientId(String taskId) {
+    // A task held without its payload still knows its client.
+    Optional<TimerTask> inMemory = imminentTimer.get(taskId);
+    if (inMemory.isPresent()) {
+      return inMemory.map(TimerTask::getClientId);
+    }
+    return longTermStore.findClientId(taskId);
+  }
+
+  @Override
+  public Optional<TimerTask> getIfInMemory(String taskId) {
+    // A task held without its payload is read from the store instead.
+    return imminentTimer.get(taskId).filter(task -> !task.isPayloadDeferred());
+  }
+
   @Override
   public ListResult<TimerTask> list(
       String clientId,
@@ -155,6 +868,14 @@ public class TieredTimer implements Timer {
 
   @Override
   public void shutdown() {
+    OverdueTaskRecovery overdueRecovery = recovery;
+    if (overdueRecovery != null) {
+      overdueRecovery.shutdown();
+    }
+    if (prefetchExecutor != null) {
+      prefetchExecutor.shutdownNow();
+    }
+    overflowExecutor.shutdownNow();
     imminentTimer.shutdown();
   }
 
@@ -162,6 +883,115 @@ public class TieredTimer implements Timer {
     return lastLoadedTime.get();
   }
 
+  /**
+   * Gets the current imminent window, within which tasks are held in memory.
+   *
+   * @return the window in milliseconds
+   */
+  public long getImminentWindowMs() {
+    return imminentWindowMs;
+  }
+
+  /**
+   * Gets the interval between loads of tasks from the long-term store, which is half of the current
+   * imminent window.
+   *
+   * @return the load interval in milliseconds
+   */
+  public long getLoadIntervalMs() {
+    return imminentWindowMs / 2;
+  }
+
+  /**
+   * Gets the number of tasks currently held in memory, including internal ones.
+   *
+   * @return the in-memory task count
+   */
+  public int getImminentTaskCount() {
+    return imminentTimer.size();
+  }
+
+  /**
+   * Gets the number of expired tasks deferred to the long-term store because the dispatcher was
+   * saturated, since this timer was created.
+   *
+   * @return the deferred task count
+   */
+  public long getDeferredTaskCount() {
+    return deferredTaskCount.get();
+  }
+
+  /**
+   * Gets the number of tasks held without their payloads whose payloads were not prefetched by the
+   * time they expired, and were read from the store on the spot.
+   *
+   * @return the payload miss count
+   */
+  public long getPayloadMissCount() {
+    return payloadMissCount.get();
+  }
+
+  /**
+   * Checks if overdue tasks from before the latest startup or promotion are still being released.
+   *
+   * @return {@code true} while a recovery is running
+   */
+  public boolean isRecovering() {
+    OverdueTaskRecovery overdueRecovery = recovery;
+    return overdueRecovery != null && overdueRecovery.isRunning();
+  }
+
+  /**
+   * Gets how long the latest recovery of overdue tasks has taken.
+   *
+   * @return the recovery time in milliseconds so far, or in total once finished; 0 if there was
+   *     nothing to recover
+   */
+  public long getRecoveryDurationMs() {
+    OverdueTaskRecovery overdueRecovery = recovery;
+    return overdueRecovery != null ? overdueRecovery.getDurationMs() : 0;
+  }
+
+  /**
+   * Gets the number of overdue tasks released by the latest recovery.
+   *
+   * @return the recovered task count
+   */
+  public long getRecoveredTaskCount() {
+    OverdueTaskRecovery overdueRecovery = recovery;
+    return overdueRecovery != null ? overdueRecovery.getRecoveredTaskCount() : 0;
+  }
+
+  /**
+   * Gets the number of overdue tasks the latest recovery postponed because their client was over
+   * its catch-up rate.
+   *
+   * @return the postponed task count
+   */
+  public long getPostponedTaskCount() {
+    OverdueTaskRecovery overdueRecovery = recovery;
+    return overdueRecovery != null ? overdueRecovery.getPostponedTaskCount() : 0;
+  }
+
+  /**
+   * Gets the average rate at which the latest recovery released overdue tasks.
+   *
+   * @return the catch-up rate in tasks per second
+   */
+  public double getCatchUpRatePerSecond() {
+    OverdueTaskRecovery overdueRecovery = recovery;
+    return overdueRecovery != null ? overdueRecovery.getCatchUpRatePerSecond() : 0;
+  }
+
+  /**
+   * Gets the recovery watermark, a time before which no stored task expires.
+   *
+   * @return the watermark in Unix epoch milliseconds
+   */
+  public long getRecoveryWatermark() {
+    return recoveryWatermark;
+  }
+
   @Override
   public boolean isShutdown() {
     return imminentTimer.isShutdown();
@@ -24,6 +24,37 @@ public interface Timer {
    */
   void cancel(String taskId);
 
+  /**
+   * Schedules a task in place of any scheduled task with the same ID.
+   *
+   * <p>The task replaces the earlier one in a single step, so that a task can be moved to a new
+   * expiration or given a new payload without cancelling it first. The default implementation
+   * cancels the earlier task and adds the new one.
+   *
+   * @param task the task to schedule; must be non-null
+   */
+  default void replace(TimerTask task) {
+    cancel(task.getTaskId());
+    add(task);
+  }
+
+  /**
+   * Moves a scheduled task to a new expiration, keeping the rest of the task as it is.
+   *
+   * <p>Unlike {@link #replace(TimerTask)}, the task is not sent again, so implementations can move
+   * its scheduling entries without reading or rewriting its payload. The default implementation
+   * replaces the task with a copy that expires at the new time.
+   *
+   * @param taskId the unique ID of the scheduled task; must be non-null
+   * @param expirationMs the new absolute expiration time
+   * @return {@code true} if the task was moved, or {@code false} if it was not found
+   */
+  default boolean reschedule(String taskId, long expirationMs) {
+    Optional<TimerTask> task = get(taskId);
+    task.ifPresent(t -> replace(t.withExpiration(expirationMs)));
+    return task.isPresent();
+  }
+
   /**
    * Retrieves a task by its unique identifier.
    *
@@ -32,6 +63,32 @@ public interface Timer {
    */
   Optional<TimerTask> get(String taskId);
 
+  /**
+   * Finds the client that owns a scheduled task, without necessarily reading the whole task.
+   *
+   * <p>The default implementation retrieves the task with {@link #get(String)}.
+   *
+   * @param taskId the unique ID of the task; must be non-null
+   * @return an {@link Optional} containing the client ID if the task is found, or empty otherwise
+   */
+  default Optional<String> findClientId(String taskId) {
+    return get(taskId).map(TimerTask::getClientId);
+  }
+
+  /**
+   * Retrieves a task only if it can be found without blocking I/O, e.g., because it is already held
+   * in memory.
+   *
+   * <p>Callers running on latency-sensitive threads use this as a fast path and fall back to {@link
+   * #get(String)} on a thread that may block when the result is empty.
+   *
+   * @param taskId the unique ID of the task to find; must be non-null
+   * @return an {@link Optional} containing the task if found in memory, or empty otherwise
+   */
+  default Optional<TimerTask> getIfInMemory(String taskId) {
+    return Optional.empty();
+  }
+
   /**
    * Lists tasks based on the provided filters and pagination.
    *
@@ -15,10 +15,14 @@ public class TimerTask {
   private final String taskId;
   private final String clientId;
   private final long expirationMs;
+  // The time the current cycle was scheduled for, which retries of the cycle keep.
+  private final long cycleExpirationMs;
   private final byte[] payload;
   private final long repeatIntervalMs;
   private final int attemptCount;
   private final Runnable task;
+  private final CronSchedule schedule;
+  private final boolean payloadDeferred;
   private volatile TimerEntry timerEntry;
 
   /**
@@ -39,7 +43,8 @@ public class TimerTask {
         0,
         0,
         task,
-        true);
+        null,
+        false);
   }
 
   /**
@@ -64,16 +69,20 @@ public class TimerTask {
         taskId,
         clientId,
         System.currentTimeMillis() + delayMs,
-        payload,
+        copyOf(payload),
         repeatIntervalMs,
         0,
         task,
-        true);
+        null,
+        false);
   }
 
   /**
    * Internal constructor that allows setting an absolute expiration time and attempt count.
    *
+   * <p>The payload is kept as given, so the copies of a task made for its retries, cycles and
+   * reschedules share the payload of the original rather than copying it.
+   *
    * @param taskId the unique identifier for this task
    * @param clientId the identifier of the client that owns this task
    * @param expirationMs the absolute expiration timestamp in milliseconds
@@ -81,7 +90,8 @@ public class TimerTask {
    * @param repeatIntervalMs the interval for repeated execution
    * @param attemptCount the number of retry attempts already made
    * @param task the action to perform
-   * @param ignored dummy parameter to distinguish from the public constructor
+   * @param schedule the calendar schedule for repeated execution; {@code null} if there is none
+   * @param payloadDeferred whether the payload was left out to be read from the store later
    */
   private TimerTask(
       String taskId,
@@ -91,14 +101,46 @@ public class TimerTask {
       long repeatIntervalMs,
       int attemptCount,
       Runnable task,
-      boolean ignored) {
+      CronSchedule schedule,
+      boolean payloadDeferred) {
+    this(
+        taskId,
+        clientId,
+        expirationMs,
+        expirationMs,
+        payload,
+        repeatIntervalMs,
+        attemptCount,
+        task,
+        schedule,
+        payloadDeferred);
+  }
+
+  /**
+   * Internal constructor for an attempt whose cycle was scheduled for another time than the attempt
+   * itself.
+   */
+  private TimerTask(
+      String taskId,
+      String clientId,
+      long expirationMs,
+      long cycleExpirationMs,
+      byte[] payload,
+      long repeatIntervalMs,
+      int attemptCount,
+      Runnable task,
+      CronSchedule schedule,
+      boolean payloadDeferred) {
     this.taskId = taskId != null ? taskId : UUID.randomUUID().toString();
     this.clientId = Objects.requireNonNull(clientId, "clientId must not be null");
     this.expirationMs = expirationMs;
-    this.payload = payload != null ? payload.clone() : null;
+    this.cycleExpirationMs = cycleExpirationMs;
+    this.payload = payload;
     this.repeatIntervalMs = repeatIntervalMs;
     this.attemptCount = attemptCount;
     this.task = Objects.requireNonNull(task, "Task must not be null");
+    this.schedule = schedule;
+    this.payloadDeferred = payloadDeferred;
   }
 
   /**
@@ -123,12 +165,59 @@ public class TimerTask {
       int attemptCount,
       Runnable task) {
     return new TimerTask(
-        taskId, clientId, expirationMs, payload, repeatIntervalMs, attemptCount, task, true);
+        taskId,
+        clientId,
+        expirationMs,
+        copyOf(payload),
+        repeatIntervalMs,
+        attemptCount,
+        task,
+        null,
+        false);
+  }
+
+  /**
+   * Creates a new timer task that repeats on a calendar schedule.
+   *
+   * @param taskId the unique identifier for this task; if {@code null}, a UUID will be generated
+   * @param clientId the identifier of the client that owns this task
+   * @param expirationMs the absolute expiration timestamp of the current cycle in milliseconds
+   * @param payload the opaque binary payload to be delivered; can be {@code null}
+   * @param schedule the schedule that determines the following cycles; must be non-null
+   * @param attemptCount the number of retry attempts already made
+   * @param task the action to perform when the task expires; must be non-null
+   * @return a new {@link TimerTask} instance
+   */
+  public static TimerTask withSchedule(
+      String taskId,
+      String clientId,
+      long expirationMs,
+      byte[] payload,
+      CronSchedule schedule,
+      int attemptCount,
+      Runnable task) {
+    return new TimerTask(
+        taskId,
+        clientId,
+        expirationMs,
+        copyOf(payload),
+        0,
+        attemptCount,
+        task,
+        Objects.requireNonNull(schedule, "schedule must not be null"),
+        false);
+  }
+
+  private static byte[] copyOf(byte[] payload) {
+    return payload != null ? payload.clone() : null;
   }
 
   /**
    * Creates a new task that represents the next retry attempt of this task.
    *
+   * <p>The attempt belongs to the same cycle, so the cycles of a recurring task that follow keep
+   * their schedule regardless of how long its retries took.
+   *
    * @param nextDelayMs the delay in milliseconds until the next attempt
    * @return a new {@link TimerTask} instance for the next attempt
    */
@@ -137,11 +226,13 @@ public class TimerTask {
         this.taskId,
         this.clientId,
         System.currentTimeMillis() + nextDelayMs,
+        this.cycleExpirationMs,
         this.payload,
         this.repeatIntervalMs,
         this.attemptCount + 1,
         this.task,
-        true);
+        this.schedule,
+        this.payloadDeferred);
   }
 
   /**
@@ -159,32 +250,142 @@ public class TimerTask {
         this.repeatIntervalMs,
         this.attemptCount,
         this.task,
-        true);
+        this.schedule,
+        this.payloadDeferred);
   }
 
   /**
-   * Creates a new task representing the next repetition cycle of this task.
+   * Creates a new task with a specific absolute expiration time and attempt count, inheriting other
+   * fields.
    *
-   * <p>The attempt count is reset to 0 for the new cycle.
+   * @param expirationMs the new absolute expiration time
+   * @param attemptCount the number of retry attempts already made
+   * @return a new {@link TimerTask} instance
+   */
+  TimerTask withExpiration(long expirationMs, int attemptCount) {
+    return withExpiration(expirationMs, attemptCount, expirationMs);
+  }
+
+  /**
+   * Creates a new task with a specific absolute expiration time and attempt count, as a retry of
+   * the cycle scheduled for the given time, inheriting other fields.
    *
-   * @return a new {@link TimerTask} instance for the next repetition
-   * @throws IllegalStateException if the task is not repeatable
+   * @param expirationMs the new absolute expiration time
+   * @param attemptCount the number of retry attempts already made
+   * @param cycleExpirationMs the time the cycle that the attempt belongs to was scheduled for
+   * @return a new {@link TimerTask} instance
    */
-  public TimerTask nextCycle() {
-    if (this.repeatIntervalMs <= 0) {
-      throw new IllegalStateException("Task is not repeatable: " + taskId);
-    }
+  TimerTask withExpiration(long expirationMs, int attemptCount, long cycleExpirationMs) {
     return new TimerTask(
         this.taskId,
         this.clientId,
-        System.currentTimeMillis() + this.repeatIntervalMs,
+        expirationMs,
+        cycleExpirationMs,
         this.payload,
         this.repeatIntervalMs,
-        0,
+        attemptCount,
         this.task,
+        this.schedule,
+        this.payloadDeferred);
+  }
+
+  /**
+   * Creates a copy of this task without its payload, to be held in memory while the payload stays
+   * in the store.
+   *
+   * @return a new {@link TimerTask} instance whose payload is deferred
+   */
+  TimerTask withoutPayload() {
+    return new TimerTask(
+        taskId,
+        clientId,
+        expirationMs,
+        cycleExpirationMs,
+        null,
+        repeatIntervalMs,
+        attemptCount,
+        task,
+        schedule,
         true);
   }
 
+  /**
+   * Creates a copy of this task with its payload restored.
+   *
+   * @param payload the payload read back from the store; can be {@code null}
+   * @return a new {@link TimerTask} instance with the payload
+   */
+  TimerTask withPayload(byte[] payload) {
+    return new TimerTask(
+        taskId,
+        clientId,
+        expirationMs,
+        cycleExpirationMs,
+        payload,
+        repeatIntervalMs,
+        attemptCount,
+        task,
+        schedule,
+        false);
+  }
+
+  /**
+   * Checks if the payload of this task was left out to be read from the store later, in which case
+   * {@link #getPayload()} returns {@code null} regardless of the actual payload.
+   *
+   * @return {@code true} if the payload is deferred
+   */
+  public boolean isPayloadDeferred() {
+    return payloadDeferred;
+  }
+
+  /**
+   * Creates a new task representing the next repetition cycle of this task.
+   *
+   * <p>The next cycle follows the one this task was scheduled for, rather than the time it was
+   * dispatched or retried, so repetitions do not drift by the dispatch latency or retry backoff.
+   * Cycles missed because the task was dispatched late are skipped, so they fire once rather than
+   * in a burst. The attempt count is reset to 0 for the new cycle.
+   *
+   * @return a new {@link TimerTask} instance for the next repetition
+   * @throws IllegalStateException if the task is not repeatable
+   */
+  public TimerTask nextCycle() {
+    if (!isRecurring()) {
+      throw new IllegalStateException("Task is not repeatable: " + taskId);
+    }
+    long now = System.currentTimeMillis();
+    long nextExpirationMs;
+    if (schedule != null) {
+      nextExpirationMs = schedule.nextFireAfterCycle(this.cycleExpirationMs, now, this.taskId);
+    } else {
+      nextExpirationMs = this.cycleExpirationMs + this.repeatIntervalMs;
+      if (nextExpirationMs <= now) {
+        long missedCycles = (now - nextExpirationMs) / this.repeatIntervalMs + 1;
+        nextExpirationMs += missedCycles * this.repeatIntervalMs;
+      }
+    }
+    return withExpiration(nextExpirationMs, 0);
+  }
+
+  /**
+   * Checks if this task repeats, either at a fixed interval or on a calendar schedule.
+   *
+   * @return {@code true} if the task is recurring
+   */
+  public boolean isRecurring() {
+    return repeatIntervalMs > 0 || schedule != null;
+  }
+
+  /**
+   * Gets the calendar schedule of this task.
+   *
+   * @return the schedule, or {@code null} if the task does not repeat on a calendar schedule
+   */
+  public CronSchedule getSchedule() {
+    return schedule;
+  }
+
   /**
    * Gets the unique identifier for this task.
    *
@@ -212,13 +413,23 @@ public class TimerTask {
     return expirationMs;
   }
 
+  /**
+   * Gets the time the current cycle of this task was scheduled for, which differs from the
+   * expiration time for retries.
+   *
+   * @return the scheduled time of the current cycle as a Unix timestamp
+   */
+  long getCycleExpirationMs() {
+    return cycleExpirationMs;
+  }
+
   /**
    * Gets the opaque binary payload associated with this task.
    *
    * @return a clone of the payload, or {@code null} if no payload was provided
    */
   public byte[] getPayload() {
-    return payload != null ? payload.clone() : null;
+    return copyOf(payload);
   }
 
   /**
@@ -288,12 +499,18 @@ public class TimerTask {
         + '\''
         + ", expirationMs="
         + expirationMs
+        + ", cycleExpirationMs="
+        + cycleExpirationMs
         + ", repeatIntervalMs="
         + repeatIntervalMs
+        + ", schedule="
+        + schedule
         + ", attemptCount="
         + attemptCount
         + ", payloadSize="
         + (payload != null ? payload.length : 0)
+        + ", payloadDeferred="
+        + payloadDeferred
         + ", canceled="
         + (timerEntry == null)
         + '}';
@@ -12,6 +12,10 @@ import java.io.IOException;
  * <p>This serializer only handles fields that are persistent. The {@link Runnable} component is not
  * serialized and is replaced by a placeholder upon deserialization.
  *
+ * <p>The calendar schedule of a task, if any, is appended after the payload, so records written
+ * before schedules existed still deserialize. The scheduled time of the cycle a retry belongs to
+ * follows, only if it differs from the expiration of the retry.
+ *
  * @since 1.0.0
  */
 public class TimerTaskSerializer {
@@ -40,10 +44,39 @@ public class TimerTaskSerializer {
         dos.writeInt(payload.length);
         dos.write(payload);
       }
+
+      CronSchedule schedule = task.getSchedule();
+      boolean retriedCycle = task.getCycleExpirationMs() != task.getExpirationMs();
+      if (schedule != null) {
+        dos.writeBoolean(true);
+        dos.writeUTF(schedule.getExpression());
+        dos.writeUTF(schedule.getTimeZone().getId());
+        dos.writeLong(schedule.getJitterMs());
+      } else if (retriedCycle) {
+        dos.writeBoolean(false);
+      }
+      if (retriedCycle) {
+        dos.writeLong(task.getCycleExpirationMs());
+      }
       return baos.toByteArray();
     }
   }
 
+  /**
+   * Reads only the client ID of a serialized task, without copying its payload.
+   *
+   * @param data the serialized task data; must be non-null
+   * @return the client ID of the task
+   * @throws IOException if an error occurs during deserialization
+   */
+  public static String readClientId(byte[] data) throws IOException {
+    try (ByteArrayInputStream bais = new ByteArrayInputStream(data);
+        DataInputStream dis = new DataInputStream(bais)) {
+      dis.readUTF();
+      return dis.readUTF();
+    }
+  }
+
   /**
    * Deserializes a byte array into a {@link TimerTask}.
    *
@@ -68,10 +101,33 @@ public class TimerTaskSerializer {
         dis.readFully(payload);
       }
 
+      CronSchedule schedule = null;
+      if (dis.available() > 0 && dis.readBoolean()) {
+        try {
+          schedule = CronSchedule.of(dis.readUTF(), dis.readUTF(), dis.readLong());
+        } catch (IllegalArgumentException e) {
+          throw new IOException("Invalid schedule for task " + taskId, e);
+        }
+      }
+      long cycleExpirationMs = dis.available() > 0 ? dis.readLong() : expirationMs;
+
       // IMPORTANT: Using a placeholder Runnable as the task itself is not serializable.
       // The dispatcher in TieredTimer handles actual execution.
-      return TimerTask.withExpiration(
-          taskId, clientId, expirationMs, payload, repeatIntervalMs, attemptCount, () -> {});
+      TimerTask task =
+          schedule != null
+              ? TimerTask.withSchedule(
+                  taskId, clientId, expirationMs, payload, schedule, attemptCount, () -> {})
+              : TimerTask.withExpiration(
+                  taskId,
+                  clientId,
+                  expirationMs,
+                  payload,
+                  repeatIntervalMs,
+                  attemptCount,
+                  () -> {});
+      return cycleExpirationMs == expirationMs
+          ? task
+          : task.withExpiration(expirationMs, attemptCount, cycleExpirationMs);
     }
   }
 }
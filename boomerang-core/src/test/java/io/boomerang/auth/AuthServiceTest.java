@@ -1,6 +1,7 @@
 package io.boomerang.auth;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.boomerang.config.ServerConfig;
 import io.boomerang.model.CallbackConfig;
@@ -8,6 +9,8 @@ import io.boomerang.model.Client;
 import io.boomerang.model.Session;
 import io.boomerang.session.SessionManager;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -24,6 +27,11 @@ class AuthServiceTest {
     authService = new AuthService(clientStore, serverConfig, sessionManager);
   }
 
+  @AfterEach
+  void tearDown() {
+    authService.shutdown();
+  }
+
   @Test
   void shouldRegisterAndAuthenticateClient() {
     authService.registerClient("test-client", "password123", false, null, null, null);
@@ -125,4 +133,55 @@ class AuthServiceTest {
     authService.deregisterClient("target");
     assertThat(authService.getClient("target")).isEmpty();
   }
+
+  @Test
+  void shouldInvalidateSessionsOfDeregisteredClient() {
+    authService.registerClient("target", "pass", false, null, null, null);
+    Session session = authService.authenticate("target", "pass").orElseThrow();
+
+    authService.deregisterClient("target");
+    assertThat(sessionManager.isValid(session.sessionId())).isFalse();
+  }
+
+  @Test
+  void shouldAuthenticateAsynchronously() {
+    authService.registerClient("test-client", "password123", false, null, null, null);
+
+    Optional<Session> session = authService.authenticateAsync("test-client", "password123").join();
+
+    assertThat(session).isPresent();
+    assertThat(session.get().clientId()).isEqualTo("test-client");
+  }
+
+  @Test
+  void shouldRejectCachedCredentialAfterPasswordChange() {
+    authService.registerClient("test-client", "old-password", false, null, null, null);
+    assertThat(authService.authenticate("test-client", "old-password")).isPresent();
+
+    authService.registerClient("test-client", "new-password", false, null, null, null);
+
+    assertThat(authService.authenticate("test-client", "old-password")).isEmpty();
+    assertThat(authService.authenticate("test-client", "new-password")).isPresent();
+  }
+
+  @Test
+  void shouldThrottleClientExceedingAuthenticationRate() {
+    System.setProperty("auth.rate.client.per.second", "1");
+    System.setProperty("auth.rate.client.burst", "1");
+    try {
+      ServerConfig serverConfig = new ServerConfig(null);
+      AuthService throttled =
+          new AuthService(clientStore, serverConfig, new SessionManager(serverConfig));
+      throttled.registerClient("test-client", "password123", false, null, null, null);
+
+      assertThat(throttled.authenticateAsync("test-client", "password123").join()).isPresent();
+      assertThatThrownBy(() -> throttled.authenticateAsync("test-client", "password123").join())
+          .isInstanceOf(CompletionException.class)
+          .hasCauseInstanceOf(AuthThrottledException.class);
+      throttled.shutdown();
+    } finally {
+      System.clearProperty("auth.rate.client.per.second");
+      System.clearProperty("auth.rate.client.burst");
+    }
+  }
 }
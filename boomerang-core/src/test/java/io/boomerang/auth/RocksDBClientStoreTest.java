@@ -51,7 +51,7 @@ class RocksDBClientStoreTest {
   void shouldPersistPolicies() {
     CallbackConfig callback = new CallbackConfig(CallbackConfig.Protocol.HTTP, "http://test");
     RetryPolicy retry = new RetryPolicy(3, RetryPolicy.BackoffStrategy.FIXED, 1000, 0);
-    DLQPolicy dlq = new DLQPolicy("dlq-1");
+    DLQPolicy dlq = new DLQPolicy("dlq-1", 86_400_000);
 
     Client client = new Client("client-1", "hashed-pass", false, callback, retry, dlq);
     store.save(client);
@@ -61,6 +61,18 @@ class RocksDBClientStoreTest {
     assertThat(found.get().callbackConfig().endpoint()).isEqualTo("http://test");
     assertThat(found.get().retryPolicy().maxAttempts()).isEqualTo(3);
     assertThat(found.get().dlqPolicy().destination()).isEqualTo("dlq-1");
+    assertThat(found.get().dlqPolicy().retentionMs()).isEqualTo(86_400_000);
+  }
+
+  @Test
+  void shouldPersistCallbackBatching() {
+    CallbackConfig callback =
+        new CallbackConfig(CallbackConfig.Protocol.GRPC, "localhost:9090", 50, 200);
+    store.save(new Client("client-1", "hashed-pass", false, callback, null, null));
+
+    CallbackConfig found = store.findById("client-1").orElseThrow().callbackConfig();
+    assertThat(found).isEqualTo(callback);
+    assertThat(found.isBatched()).isTrue();
   }
 
   @Test
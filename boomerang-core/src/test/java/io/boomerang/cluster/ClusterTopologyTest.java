@@ -0,0 +1,46 @@
+package io.boomerang.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ClusterTopologyTest {
+  private static final List<String> NODES =
+      List.of("localhost:9973", "localhost:9974", "localhost:9975");
+
+  @Test
+  void shouldOwnEverythingWhenStandalone() {
+    ClusterTopology topology = ClusterTopology.standalone();
+
+    assertThat(topology.isPartitioned()).isFalse();
+    assertThat(topology.owns("task-1")).isTrue();
+    assertThat(topology.owns("task-2")).isTrue();
+  }
+
+  @Test
+  void shouldOnlyOwnTasksInLocalPartitions() {
+    ClusterTopology topology = new ClusterTopology(NODES, "localhost:9973", 256);
+
+    assertThat(topology.isPartitioned()).isTrue();
+    assertThat(topology.owns("task-2")).isTrue();
+    assertThat(topology.owns("task-1")).isFalse();
+    assertThat(topology.ownerOf("task-1")).isEqualTo("localhost:9975");
+  }
+
+  @Test
+  void shouldMintOwnedTaskIds() {
+    ClusterTopology topology = new ClusterTopology(NODES, "localhost:9974", 256);
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(topology.owns(topology.newTaskId())).isTrue();
+    }
+  }
+
+  @Test
+  void shouldRejectNodeOutsideCluster() {
+    assertThatThrownBy(() -> new ClusterTopology(NODES, "localhost:9999", 256))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
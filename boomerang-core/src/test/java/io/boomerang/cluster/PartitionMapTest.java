@@ -0,0 +1,59 @@
+package io.boomerang.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PartitionMapTest {
+  private static final List<String> NODES =
+      List.of("localhost:9973", "localhost:9974", "localhost:9975");
+
+  @Test
+  void shouldMatchReferenceMapping() {
+    // These values are shared with the SDK's PartitionMapTest; both sides must agree.
+    PartitionMap map = new PartitionMap(NODES, 256);
+
+    assertThat(map.partitionOf("task-1")).isEqualTo(125);
+    assertThat(map.ownerOf("task-1")).isEqualTo("localhost:9975");
+    assertThat(map.partitionOf("task-2")).isEqualTo(215);
+    assertThat(map.ownerOf("task-2")).isEqualTo("localhost:9973");
+    assertThat(map.partitionOf("3f2504e0-4f89-11d3-9a0c-0305e82c3301")).isEqualTo(8);
+  }
+
+  @Test
+  void shouldNotDependOnNodeOrder() {
+    PartitionMap map = new PartitionMap(NODES, 256);
+    PartitionMap reordered = new PartitionMap(NODES.reversed(), 256);
+
+    for (int partition = 0; partition < 256; partition++) {
+      assertThat(reordered.ownerOfPartition(partition)).isEqualTo(map.ownerOfPartition(partition));
+    }
+  }
+
+  @Test
+  void shouldOnlyMovePartitionsToAddedNode() {
+    PartitionMap before = new PartitionMap(NODES, 256);
+    PartitionMap after =
+        new PartitionMap(
+            List.of("localhost:9973", "localhost:9974", "localhost:9975", "localhost:9976"), 256);
+
+    int moved = 0;
+    for (int partition = 0; partition < 256; partition++) {
+      if (!before.ownerOfPartition(partition).equals(after.ownerOfPartition(partition))) {
+        assertThat(after.ownerOfPartition(partition)).isEqualTo("localhost:9976");
+        moved++;
+      }
+    }
+    assertThat(moved).isBetween(32, 96);
+  }
+
+  @Test
+  void shouldRejectInvalidConfiguration() {
+    assertThatThrownBy(() -> new PartitionMap(List.of(), 256))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new PartitionMap(NODES, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
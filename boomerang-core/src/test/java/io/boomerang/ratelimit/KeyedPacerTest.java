@@ -0,0 +1,39 @@
+package io.boomerang.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class KeyedPacerTest {
+
+  @Test
+  void shouldAllowBurstThenSpaceReservations() {
+    KeyedPacer pacer = new KeyedPacer(10, 2);
+
+    assertThat(pacer.reserve("client-1")).isZero();
+    assertThat(pacer.reserve("client-1")).isZero();
+    long third = pacer.reserve("client-1");
+    long fourth = pacer.reserve("client-1");
+
+    assertThat(third).isBetween(50L, 100L);
+    assertThat(fourth - third).isBetween(90L, 110L);
+  }
+
+  @Test
+  void shouldPaceKeysIndependently() {
+    KeyedPacer pacer = new KeyedPacer(1, 1);
+
+    assertThat(pacer.reserve("client-1")).isZero();
+    assertThat(pacer.reserve("client-1")).isPositive();
+    assertThat(pacer.reserve("client-2")).isZero();
+  }
+
+  @Test
+  void shouldNotPaceWhenRateIsNotPositive() {
+    KeyedPacer pacer = new KeyedPacer(0, 1);
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(pacer.reserve("client-1")).isZero();
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package io.boomerang.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+  @Test
+  void shouldAllowBurstThenReject() {
+    TokenBucket bucket = new TokenBucket(1, 3);
+
+    assertThat(bucket.tryAcquire()).isTrue();
+    assertThat(bucket.tryAcquire()).isTrue();
+    assertThat(bucket.tryAcquire()).isTrue();
+    assertThat(bucket.tryAcquire()).isFalse();
+    assertThat(bucket.millisUntilAvailable()).isPositive();
+  }
+
+  @Test
+  void shouldRefillOverTime() {
+    TokenBucket bucket = new TokenBucket(20, 1);
+
+    assertThat(bucket.tryAcquire()).isTrue();
+    assertThat(bucket.tryAcquire()).isFalse();
+
+    await().atMost(1, TimeUnit.SECONDS).until(bucket::tryAcquire);
+  }
+
+  @Test
+  void shouldNotLimitWhenRateIsNotPositive() {
+    TokenBucket bucket = new TokenBucket(0, 1);
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(bucket.tryAcquire()).isTrue();
+    }
+    assertThat(bucket.isUnlimited()).isTrue();
+    assertThat(bucket.millisUntilAvailable()).isZero();
+  }
+
+  @Test
+  void shouldLimitEachKeyIndependently() {
+    KeyedRateLimiter limiter = new KeyedRateLimiter(1, 1);
+
+    assertThat(limiter.tryAcquire("a")).isTrue();
+    assertThat(limiter.tryAcquire("a")).isFalse();
+    assertThat(limiter.tryAcquire("b")).isTrue();
+
+    limiter.reset("a");
+    assertThat(limiter.tryAcquire("a")).isTrue();
+  }
+}
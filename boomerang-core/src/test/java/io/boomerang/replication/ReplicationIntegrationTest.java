@@ -0,0 +1,146 @@
+package io.boomerang.replication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.boomerang.config.ServerConfig;
+import io.boomerang.server.NettyTransport;
+import io.boomerang.timer.InMemoryLongTermTaskStore;
+import io.boomerang.timer.LongTermTaskStore;
+import io.boomerang.timer.TieredTimer;
+import io.boomerang.timer.TimerTask;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReplicationIntegrationTest {
+  private static final String MASTER_KEY =
+      Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+  private ReplicationLog replicationLog;
+  private ReplicatingTaskStore primaryStore;
+  private ReplicationServer replicationServer;
+  private LongTermTaskStore followerStore;
+  private TieredTimer followerTimer;
+  private ReplicationClient replicationClient;
+  private List<TimerTask> dispatched;
+
+  @BeforeEach
+  void setUp() throws InterruptedException {
+    replicationLog = new ReplicationLog(100);
+    InMemoryLongTermTaskStore primaryLocalStore = new InMemoryLongTermTaskStore();
+    primaryStore = new ReplicatingTaskStore(primaryLocalStore, replicationLog);
+    replicationServer =
+        new ReplicationServer(
+            replicationLog, primaryLocalStore, "127.0.0.1", 0, 100, MASTER_KEY, NettyTransport.NIO);
+    replicationServer.start();
+
+    ServerConfig serverConfig = mock(ServerConfig.class);
+    when(serverConfig.getTimerImminentWindowMs()).thenReturn(60_000L);
+    when(serverConfig.getTimerTickMs()).thenReturn(10L);
+    when(serverConfig.getTimerWheelSize()).thenReturn(64);
+    when(serverConfig.getTimerAdvanceClockIntervalMs()).thenReturn(50L);
+
+    dispatched = new CopyOnWriteArrayList<>();
+    followerStore = new InMemoryLongTermTaskStore();
+    followerTimer = new TieredTimer(dispatched::add, followerStore, serverConfig, true);
+    replicationClient =
+        new ReplicationClient(
+            "localhost:" + replicationServer.getPort(),
+            followerTimer,
+            followerStore,
+            100,
+            MASTER_KEY,
+            NettyTransport.NIO);
+  }
+
+  @AfterEach
+  void tearDown() {
+    replicationClient.stop();
+    replicationServer.stop();
+    followerTimer.shutdown();
+  }
+
+  private static TimerTask task(String taskId, long delayMs) {
+    return TimerTask.withExpiration(
+        taskId, "client-1", System.currentTimeMillis() + delayMs, new byte[] {1}, 0, 0, () -> {});
+  }
+
+  @Test
+  void shouldSyncFollowerFromSnapshotAndStreamChanges() {
+    primaryStore.save(task("existing-task", 30_000));
+    followerStore.save(task("stale-task", 30_000));
+
+    replicationClient.start();
+
+    await().atMost(5, TimeUnit.SECONDS).until(replicationClient::isSynced);
+    assertThat(followerStore.findById("existing-task")).isPresent();
+    assertThat(followerStore.findById("stale-task")).isEmpty();
+    // The standby timer keeps replicated tasks warm in memory.
+    assertThat(followerTimer.getIfInMemory("existing-task")).isPresent();
+
+    TimerTask existing = primaryStore.findById("existing-task").orElseThrow();
+    primaryStore.save(task("new-task", 30_000));
+    primaryStore.delete(existing);
+
+    await()
+        .atMost(5, TimeUnit.SECONDS)
+        .until(
+            () -> replicationClient.getLastAppliedSequence() == replicationLog.getLastSequence());
+    assertThat(followerStore.findById("new-task")).isPresent();
+    assertThat(followerStore.findById("existing-task")).isEmpty();
+    assertThat(followerTimer.getIfInMemory("existing-task")).isEmpty();
+    assertThat(replicationServer.getFollowerCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotStreamToFollowerWithOtherMasterKey() {
+    primaryStore.save(task("existing-task", 30_000));
+    ReplicationClient intruder =
+        new ReplicationClient(
+            "localhost:" + replicationServer.getPort(),
+            followerTimer,
+            followerStore,
+            100,
+            Base64.getEncoder().encodeToString("fedcba9876543210fedcba9876543210".getBytes()),
+            NettyTransport.NIO);
+    intruder.start();
+    try {
+      await()
+          .during(500, TimeUnit.MILLISECONDS)
+          .atMost(1, TimeUnit.SECONDS)
+          .until(() -> !intruder.isSynced());
+      assertThat(followerStore.findById("existing-task")).isEmpty();
+    } finally {
+      intruder.stop();
+    }
+  }
+
+  @Test
+  void shouldDispatchReplicatedTasksOnlyAfterPromotion() throws InterruptedException {
+    replicationClient.start();
+    await().atMost(5, TimeUnit.SECONDS).until(replicationClient::isSynced);
+
+    primaryStore.save(task("due-task", 50));
+    await()
+        .atMost(5, TimeUnit.SECONDS)
+        .until(() -> followerStore.findById("due-task").isPresent());
+
+    // The primary fails before dispatching the task.
+    replicationServer.stop();
+    Thread.sleep(200);
+    assertThat(dispatched).isEmpty();
+
+    replicationClient.stop();
+    followerTimer.promote();
+
+    await().atMost(2, TimeUnit.SECONDS).until(() -> dispatched.size() == 1);
+    assertThat(dispatched.get(0).getTaskId()).isEqualTo("due-task");
+  }
+}
@@ -0,0 +1,82 @@
+package io.boomerang.replication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.boomerang.timer.TimerTask;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ReplicationLogTest {
+
+  private static TimerTask task(String taskId) {
+    return new TimerTask(taskId, "client-1", 1000, null, 0, () -> {});
+  }
+
+  @Test
+  void shouldAssignIncreasingSequenceNumbers() {
+    ReplicationLog log = new ReplicationLog(10);
+
+    assertThat(log.getLastSequence()).isZero();
+    assertThat(log.append(ReplicationLog.Operation.SAVE, task("task-1"))).isEqualTo(1);
+    assertThat(log.append(ReplicationLog.Operation.DELETE, task("task-1"))).isEqualTo(2);
+    assertThat(log.getLastSequence()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldReadChangesAfterSequence() {
+    ReplicationLog log = new ReplicationLog(10);
+    for (int i = 1; i <= 5; i++) {
+      log.append(ReplicationLog.Operation.SAVE, task("task-" + i));
+    }
+
+    List<ReplicationLog.Entry> entries = log.readAfter(2, 2);
+
+    assertThat(entries).extracting(ReplicationLog.Entry::sequence).containsExactly(3L, 4L);
+    assertThat(entries.get(0).task().getTaskId()).isEqualTo("task-3");
+    assertThat(log.readAfter(5, 10)).isEmpty();
+  }
+
+  @Test
+  void shouldReportChangesNoLongerRetained() {
+    ReplicationLog log = new ReplicationLog(3);
+    for (int i = 1; i <= 5; i++) {
+      log.append(ReplicationLog.Operation.SAVE, task("task-" + i));
+    }
+
+    // Sequences 3 to 5 are retained, so a reader must have seen at least sequence 2.
+    assertThat(log.readAfter(1, 10)).isNull();
+    assertThat(log.readAfter(2, 10))
+        .extracting(ReplicationLog.Entry::sequence)
+        .containsExactly(3L, 4L, 5L);
+    // A reader ahead of the log follows a different log.
+    assertThat(log.readAfter(6, 10)).isNull();
+  }
+
+  @Test
+  void shouldWaitForNewChanges() throws InterruptedException {
+    ReplicationLog log = new ReplicationLog(10);
+
+    assertThat(log.awaitAfter(0, 50)).isFalse();
+
+    Thread appender =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(50);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              log.append(ReplicationLog.Operation.SAVE, task("task-1"));
+            });
+    appender.start();
+
+    assertThat(log.awaitAfter(0, 5000)).isTrue();
+    appender.join();
+  }
+
+  @Test
+  void shouldRejectNonPositiveCapacity() {
+    assertThatThrownBy(() -> new ReplicationLog(0)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
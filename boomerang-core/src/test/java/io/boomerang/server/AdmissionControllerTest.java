@@ -0,0 +1,53 @@
+package io.boomerang.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AdmissionControllerTest {
+
+  @Test
+  void shouldAdmitEverythingWhenUnlimited() {
+    AdmissionController admission = AdmissionController.unlimited();
+    for (int i = 0; i < 1000; i++) {
+      admission.onRequestQueued();
+      assertThat(admission.tryAdmitRegistration("client-1")).isZero();
+    }
+    assertThat(admission.isOverloaded()).isFalse();
+    assertThat(admission.isConnectionSaturated(1000)).isFalse();
+  }
+
+  @Test
+  void shouldEnforcePerClientRegistrationQuota() {
+    AdmissionController admission = new AdmissionController(1, 2, 0, 0, 1000);
+
+    assertThat(admission.tryAdmitRegistration("noisy")).isZero();
+    assertThat(admission.tryAdmitRegistration("noisy")).isZero();
+    assertThat(admission.tryAdmitRegistration("noisy")).isPositive();
+    // Other clients keep their own quota.
+    assertThat(admission.tryAdmitRegistration("quiet")).isZero();
+  }
+
+  @Test
+  void shouldRejectRegistrationsWhileOverloaded() {
+    AdmissionController admission = new AdmissionController(0, 0, 2, 0, 500);
+
+    admission.onRequestQueued();
+    assertThat(admission.tryAdmitRegistration("client-1")).isZero();
+    admission.onRequestQueued();
+    assertThat(admission.isOverloaded()).isTrue();
+    assertThat(admission.tryAdmitRegistration("client-1")).isEqualTo(500);
+
+    admission.onRequestCompleted();
+    assertThat(admission.tryAdmitRegistration("client-1")).isZero();
+    assertThat(admission.getPendingCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldReportSaturatedConnection() {
+    AdmissionController admission = new AdmissionController(0, 0, 0, 4, 0);
+
+    assertThat(admission.isConnectionSaturated(3)).isFalse();
+    assertThat(admission.isConnectionSaturated(4)).isTrue();
+  }
+}
@@ -2,22 +2,39 @@ package io.boomerang.server;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.boomerang.auth.AuthService;
+import io.boomerang.auth.AuthThrottledException;
+import io.boomerang.cluster.ClusterTopology;
 import io.boomerang.model.Session;
 import io.boomerang.proto.AuthHandshake;
 import io.boomerang.proto.BoomerangEnvelope;
 import io.boomerang.proto.Status;
 import io.boomerang.session.SessionManager;
+import io.boomerang.timer.DLQService;
 import io.boomerang.timer.Timer;
 import io.boomerang.timer.TimerTask;
 import io.netty.channel.embedded.EmbeddedChannel;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -44,7 +61,8 @@ class BoomerangServerHandlerTest {
 
     Session session =
         new Session("session-id", "test-client", null, null, null, Instant.now().plusSeconds(3600));
-    when(authService.authenticate("test-client", "password")).thenReturn(Optional.of(session));
+    when(authService.authenticateAsync("test-client", "password"))
+        .thenReturn(CompletableFuture.completedFuture(Optional.of(session)));
 
     channel.writeInbound(envelope);
 
@@ -60,7 +78,8 @@ class BoomerangServerHandlerTest {
         AuthHandshake.newBuilder().setClientId("test-client").setPassword("wrong").build();
     BoomerangEnvelope envelope = BoomerangEnvelope.newBuilder().setAuthHandshake(handshake).build();
 
-    when(authService.authenticate("test-client", "wrong")).thenReturn(Optional.empty());
+    when(authService.authenticateAsync("test-client", "wrong"))
+        .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 
     channel.writeInbound(envelope);
 
@@ -68,6 +87,23 @@ class BoomerangServerHandlerTest {
     assertThat(response.getAuthResponse().getStatus()).isEqualTo(Status.UNAUTHORIZED);
   }
 
+  @Test
+  void testHandleAuthHandshakeThrottled() {
+    AuthHandshake handshake =
+        AuthHandshake.newBuilder().setClientId("test-client").setPassword("password").build();
+    BoomerangEnvelope envelope = BoomerangEnvelope.newBuilder().setAuthHandshake(handshake).build();
+
+    when(authService.authenticateAsync("test-client", "password"))
+        .thenReturn(
+            CompletableFuture.failedFuture(new AuthThrottledException("Too many attempts")));
+
+    channel.writeInbound(envelope);
+
+    BoomerangEnvelope response = channel.readOutbound();
+    assertThat(response.getAuthResponse().getStatus()).isEqualTo(Status.ERROR);
+    assertThat(response.getAuthResponse().getErrorMessage()).isEqualTo("Too many attempts");
+  }
+
   @Test
   void testHandleRegistrationSuccess() {
     String sessionId = "valid-session";
@@ -93,6 +129,95 @@ class BoomerangServerHandlerTest {
     assertThat(response.getRegistrationResponse().getTaskId()).isNotEmpty();
   }
 
+  @Test
+  void testReplacesTaskRegisteredUnderChosenId() {
+    String sessionId = "valid-session";
+    when(sessionManager.isValid(sessionId)).thenReturn(true);
+    when(sessionManager.getClientId(sessionId)).thenReturn("test-client");
+    when(timer.findClientId("debounce-1")).thenReturn(Optional.of("test-client"));
+
+    channel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setRegistrationRequest(
+                io.boomerang.proto.Task.newBuilder().setTaskId("debounce-1").setDelayMs(1000))
+            .build());
+
+    verify(timer).replace(argThat(task -> task.getTaskId().equals("debounce-1")));
+    verify(timer, never()).add(any());
+    BoomerangEnvelope response = channel.readOutbound();
+    assertThat(response.getRegistrationResponse().getStatus()).isEqualTo(Status.OK);
+    assertThat(response.getRegistrationResponse().getTaskId()).isEqualTo("debounce-1");
+    assertThat(response.getRegistrationResponse().getReplaced()).isTrue();
+  }
+
+  @Test
+  void testRejectsChosenIdOfTaskOfOtherClient() {
+    String sessionId = "valid-session";
+    when(sessionManager.isValid(sessionId)).thenReturn(true);
+    when(sessionManager.getClientId(sessionId)).thenReturn("test-client");
+    when(timer.findClientId("taken")).thenReturn(Optional.of("other-client"));
+
+    channel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setRegistrationRequest(
+                io.boomerang.proto.Task.newBuilder().setTaskId("taken").setDelayMs(1000))
+            .build());
+
+    verify(timer, never()).replace(any());
+    BoomerangEnvelope response = channel.readOutbound();
+    assertThat(response.getRegistrationResponse().getStatus()).isEqualTo(Status.INVALID_REQUEST);
+  }
+
+  @Test
+  void testGrantsChosenIdToOneOfConcurrentClients() throws InterruptedException {
+    Map<String, String> owners = new ConcurrentHashMap<>();
+    when(timer.findClientId("shared"))
+        .thenAnswer(invocation -> Optional.ofNullable(owners.get("shared")));
+    doAnswer(
+            invocation -> {
+              // Leaves time for the other registration to check the ID before this one is written.
+              Thread.sleep(100);
+              TimerTask task = invocation.getArgument(0);
+              owners.put(task.getTaskId(), task.getClientId());
+              return null;
+            })
+        .when(timer)
+        .replace(any());
+    // Each connection gets its own executor thread, as in the server.
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    List<EmbeddedChannel> channels = new ArrayList<>();
+    try {
+      for (String clientId : List.of("client-a", "client-b")) {
+        when(sessionManager.isValid(clientId)).thenReturn(true);
+        when(sessionManager.getClientId(clientId)).thenReturn(clientId);
+        EmbeddedChannel clientChannel =
+            new EmbeddedChannel(
+                new BoomerangServerHandler(authService, sessionManager, timer, executor));
+        channels.add(clientChannel);
+        clientChannel.writeInbound(
+            BoomerangEnvelope.newBuilder()
+                .setSessionId(clientId)
+                .setRegistrationRequest(
+                    io.boomerang.proto.Task.newBuilder().setTaskId("shared").setDelayMs(1000))
+                .build());
+      }
+      await()
+          .atMost(5, TimeUnit.SECONDS)
+          .until(() -> channels.stream().allMatch(c -> c.outboundMessages().size() == 1));
+    } finally {
+      executor.shutdown();
+    }
+
+    List<Status> statuses =
+        channels.stream()
+            .map(c -> ((BoomerangEnvelope) c.readOutbound()).getRegistrationResponse().getStatus())
+            .toList();
+    assertThat(statuses).containsExactlyInAnyOrder(Status.OK, Status.INVALID_REQUEST);
+    verify(timer).replace(any());
+  }
+
   @Test
   void testHandleRegistrationUnauthorized() {
     String sessionId = "invalid-session";
@@ -111,6 +236,53 @@ class BoomerangServerHandlerTest {
     assertThat(response.getRegistrationResponse().getStatus()).isEqualTo(Status.UNAUTHORIZED);
   }
 
+  @Test
+  void testReschedulesTaskOfCaller() {
+    String sessionId = "valid-session";
+    when(sessionManager.isValid(sessionId)).thenReturn(true);
+    when(sessionManager.getClientId(sessionId)).thenReturn("test-client");
+    when(timer.findClientId("heartbeat")).thenReturn(Optional.of("test-client"));
+    when(timer.reschedule(eq("heartbeat"), anyLong())).thenReturn(true);
+
+    long before = System.currentTimeMillis();
+    channel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setRescheduleRequest(
+                io.boomerang.proto.RescheduleRequest.newBuilder()
+                    .setTaskId("heartbeat")
+                    .setDelayMs(30000))
+            .build());
+
+    BoomerangEnvelope response = channel.readOutbound();
+    assertThat(response.getRescheduleResponse().getStatus()).isEqualTo(Status.OK);
+    assertThat(response.getRescheduleResponse().getScheduledTimeMs())
+        .isGreaterThanOrEqualTo(before + 30000);
+    verify(timer, never()).replace(any());
+    verify(timer, never()).get(any());
+  }
+
+  @Test
+  void testRejectsRescheduleOfTaskOfOtherClient() {
+    String sessionId = "valid-session";
+    when(sessionManager.isValid(sessionId)).thenReturn(true);
+    when(sessionManager.getClientId(sessionId)).thenReturn("test-client");
+    when(timer.findClientId("taken")).thenReturn(Optional.of("other-client"));
+
+    channel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setRescheduleRequest(
+                io.boomerang.proto.RescheduleRequest.newBuilder()
+                    .setTaskId("taken")
+                    .setDelayMs(1000))
+            .build());
+
+    verify(timer, never()).reschedule(any(), anyLong());
+    BoomerangEnvelope response = channel.readOutbound();
+    assertThat(response.getRescheduleResponse().getStatus()).isEqualTo(Status.UNAUTHORIZED);
+  }
+
   @Test
   void testHandleCancellationSuccess() {
     String sessionId = "valid-session";
@@ -131,6 +303,25 @@ class BoomerangServerHandlerTest {
     assertThat(response.getCancellationResponse().getStatus()).isEqualTo(Status.OK);
   }
 
+  @Test
+  void testRejectsCancellationOfTaskOfOtherClient() {
+    String sessionId = "valid-session";
+    when(sessionManager.isValid(sessionId)).thenReturn(true);
+    when(sessionManager.getClientId(sessionId)).thenReturn("test-client");
+    when(timer.findClientId("order-123")).thenReturn(Optional.of("other-client"));
+
+    channel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setCancellationRequest(
+                io.boomerang.proto.CancellationRequest.newBuilder().setTaskId("order-123"))
+            .build());
+
+    verify(timer, never()).cancel(any());
+    BoomerangEnvelope response = channel.readOutbound();
+    assertThat(response.getCancellationResponse().getStatus()).isEqualTo(Status.UNAUTHORIZED);
+  }
+
   @Test
   void testHandleCancellationUnauthorized() {
     String sessionId = "invalid-session";
@@ -283,4 +474,260 @@ class BoomerangServerHandlerTest {
     assertThat(response.getClientDeregistrationResponse().getStatus())
         .isEqualTo(Status.UNAUTHORIZED);
   }
+
+  @Test
+  void testHandleGetTaskFromMemoryInline() {
+    String sessionId = "valid-session";
+    when(sessionManager.getClientId(sessionId)).thenReturn("test-client");
+    TimerTask task = new TimerTask("task-1", "test-client", 1000, new byte[0], 0, () -> {});
+    when(timer.getIfInMemory("task-1")).thenReturn(Optional.of(task));
+
+    List<Runnable> deferred = new ArrayList<>();
+    EmbeddedChannel hybridChannel =
+        new EmbeddedChannel(
+            new BoomerangServerHandler(authService, sessionManager, timer, deferred::add));
+    hybridChannel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setGetTaskRequest(
+                io.boomerang.proto.GetTaskRequest.newBuilder().setTaskId("task-1").build())
+            .build());
+
+    BoomerangEnvelope response = hybridChannel.readOutbound();
+    assertThat(response.getGetTaskResponse().getStatus()).isEqualTo(Status.OK);
+    assertThat(deferred).isEmpty();
+    verify(timer, never()).get(any());
+  }
+
+  @Test
+  void testOffloadsBlockingRequests() {
+    String sessionId = "valid-session";
+    when(sessionManager.isValid(sessionId)).thenReturn(true);
+    when(sessionManager.getClientId(sessionId)).thenReturn("test-client");
+
+    List<Runnable> deferred = new ArrayList<>();
+    EmbeddedChannel hybridChannel =
+        new EmbeddedChannel(
+            new BoomerangServerHandler(authService, sessionManager, timer, deferred::add));
+    hybridChannel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setRegistrationRequest(io.boomerang.proto.Task.newBuilder().setDelayMs(1000).build())
+            .build());
+
+    assertThat((Object) hybridChannel.readOutbound()).isNull();
+    assertThat(deferred).hasSize(1);
+
+    deferred.forEach(Runnable::run);
+    verify(timer).add(any(TimerTask.class));
+    BoomerangEnvelope response = hybridChannel.readOutbound();
+    assertThat(response.getRegistrationResponse().getStatus()).isEqualTo(Status.OK);
+  }
+
+  @Test
+  void testAnswersInMemoryRequestAfterEarlierOffloadedRequest() {
+    String sessionId = "valid-session";
+    when(sessionManager.isValid(sessionId)).thenReturn(true);
+    when(sessionManager.getClientId(sessionId)).thenReturn("test-client");
+    TimerTask task = new TimerTask("task-1", "test-client", 1000, new byte[0], 0, () -> {});
+    when(timer.getIfInMemory("task-1")).thenReturn(Optional.of(task));
+    when(timer.get("task-1")).thenReturn(Optional.of(task));
+
+    List<Runnable> deferred = new ArrayList<>();
+    EmbeddedChannel hybridChannel =
+        new EmbeddedChannel(
+            new BoomerangServerHandler(authService, sessionManager, timer, deferred::add));
+    hybridChannel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setRegistrationRequest(io.boomerang.proto.Task.newBuilder().setDelayMs(1000).build())
+            .build());
+    hybridChannel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setGetTaskRequest(
+                io.boomerang.proto.GetTaskRequest.newBuilder().setTaskId("task-1").build())
+            .build());
+
+    assertThat((Object) hybridChannel.readOutbound()).isNull();
+    assertThat(deferred).hasSize(2);
+
+    deferred.forEach(Runnable::run);
+    BoomerangEnvelope first = hybridChannel.readOutbound();
+    BoomerangEnvelope second = hybridChannel.readOutbound();
+    assertThat(first.getPayloadCase())
+        .isEqualTo(BoomerangEnvelope.PayloadCase.REGISTRATION_RESPONSE);
+    assertThat(second.getGetTaskResponse().getStatus()).isEqualTo(Status.OK);
+  }
+
+  @Test
+  void testHoldsBackRequestsWhileAuthenticating() {
+    CompletableFuture<Optional<Session>> authentication = new CompletableFuture<>();
+    when(authService.authenticateAsync("test-client", "password")).thenReturn(authentication);
+    String sessionId = "valid-session";
+    Session session =
+        new Session(sessionId, "test-client", null, null, null, Instant.now().plusSeconds(3600));
+    when(sessionManager.refreshSession(sessionId)).thenReturn(Optional.of(session));
+
+    channel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setAuthHandshake(
+                AuthHandshake.newBuilder().setClientId("test-client").setPassword("password"))
+            .build());
+    channel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setSessionRefresh(io.boomerang.proto.SessionRefreshRequest.newBuilder().build())
+            .build());
+
+    assertThat((Object) channel.readOutbound()).isNull();
+    assertThat(channel.config().isAutoRead()).isFalse();
+
+    authentication.complete(Optional.of(session));
+    BoomerangEnvelope first = channel.readOutbound();
+    BoomerangEnvelope second = channel.readOutbound();
+    assertThat(first.getPayloadCase()).isEqualTo(BoomerangEnvelope.PayloadCase.AUTH_RESPONSE);
+    assertThat(second.getSessionRefreshResponse().getStatus()).isEqualTo(Status.OK);
+    assertThat(channel.config().isAutoRead()).isTrue();
+  }
+
+  @Test
+  void testRejectsRegistrationOverQuota() {
+    String sessionId = "valid-session";
+    when(sessionManager.isValid(sessionId)).thenReturn(true);
+    when(sessionManager.getClientId(sessionId)).thenReturn("test-client");
+
+    EmbeddedChannel limitedChannel =
+        new EmbeddedChannel(
+            new BoomerangServerHandler(
+                authService,
+                sessionManager,
+                timer,
+                Runnable::run,
+                new AdmissionController(1, 1, 0, 0, 0)));
+    BoomerangEnvelope envelope =
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setRegistrationRequest(io.boomerang.proto.Task.newBuilder().setDelayMs(1000).build())
+            .build();
+
+    limitedChannel.writeInbound(envelope);
+    limitedChannel.writeInbound(envelope);
+
+    BoomerangEnvelope admitted = limitedChannel.readOutbound();
+    assertThat(admitted.getRegistrationResponse().getStatus()).isEqualTo(Status.OK);
+    BoomerangEnvelope rejected = limitedChannel.readOutbound();
+    assertThat(rejected.getRegistrationResponse().getStatus()).isEqualTo(Status.OVERLOADED);
+    assertThat(rejected.getRegistrationResponse().getRetryAfterMs()).isPositive();
+    verify(timer).add(any(TimerTask.class));
+  }
+
+  @Test
+  void testPausesReadingWhileConnectionIsSaturated() {
+    String sessionId = "valid-session";
+    when(sessionManager.isValid(sessionId)).thenReturn(true);
+    when(sessionManager.getClientId(sessionId)).thenReturn("test-client");
+
+    List<Runnable> deferred = new ArrayList<>();
+    EmbeddedChannel limitedChannel =
+        new EmbeddedChannel(
+            new BoomerangServerHandler(
+                authService,
+                sessionManager,
+                timer,
+                deferred::add,
+                new AdmissionController(0, 0, 0, 1, 0)));
+    limitedChannel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setRegistrationRequest(io.boomerang.proto.Task.newBuilder().setDelayMs(1000).build())
+            .build());
+
+    assertThat(limitedChannel.config().isAutoRead()).isFalse();
+
+    deferred.forEach(Runnable::run);
+    assertThat(limitedChannel.config().isAutoRead()).isTrue();
+  }
+
+  @Test
+  void testRejectsCancellationOfTaskOwnedByAnotherNode() {
+    String sessionId = "valid-session";
+    when(sessionManager.isValid(sessionId)).thenReturn(true);
+
+    ClusterTopology topology =
+        new ClusterTopology(
+            List.of("localhost:9973", "localhost:9974", "localhost:9975"), "localhost:9973", 256);
+    EmbeddedChannel nodeChannel =
+        new EmbeddedChannel(
+            new BoomerangServerHandler(
+                authService,
+                sessionManager,
+                timer,
+                Runnable::run,
+                AdmissionController.unlimited(),
+                topology));
+    nodeChannel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setCancellationRequest(
+                io.boomerang.proto.CancellationRequest.newBuilder().setTaskId("task-1").build())
+            .build());
+
+    BoomerangEnvelope response = nodeChannel.readOutbound();
+    assertThat(response.getCancellationResponse().getStatus()).isEqualTo(Status.NOT_OWNER);
+    assertThat(response.getCancellationResponse().getErrorMessage()).contains("localhost:9975");
+    verify(timer, never()).cancel(any());
+  }
+
+  private EmbeddedChannel dlqChannel(DLQService dlqService) {
+    return new EmbeddedChannel(
+        new BoomerangServerHandler(
+            authService,
+            sessionManager,
+            timer,
+            Runnable::run,
+            AdmissionController.unlimited(),
+            ClusterTopology.standalone(),
+            dlqService));
+  }
+
+  @Test
+  void testRejectsListingDLQOfOtherClient() {
+    String sessionId = "valid-session";
+    when(sessionManager.isValid(sessionId)).thenReturn(true);
+    when(sessionManager.getClientId(sessionId)).thenReturn("client-1");
+    DLQService dlqService = mock(DLQService.class);
+    EmbeddedChannel dlqChannel = dlqChannel(dlqService);
+
+    dlqChannel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setListDlqRequest(
+                io.boomerang.proto.ListDLQRequest.newBuilder().setClientId("client-2").build())
+            .build());
+
+    BoomerangEnvelope response = dlqChannel.readOutbound();
+    assertThat(response.getListDlqResponse().getStatus()).isEqualTo(Status.UNAUTHORIZED);
+    verify(dlqService, never()).list(any(), anyInt(), any());
+  }
+
+  @Test
+  void testReplaysOwnDLQ() {
+    String sessionId = "valid-session";
+    when(sessionManager.isValid(sessionId)).thenReturn(true);
+    when(sessionManager.getClientId(sessionId)).thenReturn("client-1");
+    DLQService dlqService = mock(DLQService.class);
+    when(dlqService.replay("client-1", 50)).thenReturn(7L);
+    EmbeddedChannel dlqChannel = dlqChannel(dlqService);
+
+    dlqChannel.writeInbound(
+        BoomerangEnvelope.newBuilder()
+            .setSessionId(sessionId)
+            .setReplayDlqRequest(io.boomerang.proto.ReplayDLQRequest.newBuilder().setLimit(50))
+            .build());
+
+    BoomerangEnvelope response = dlqChannel.readOutbound();
+    assertThat(response.getReplayDlqResponse().getStatus()).isEqualTo(Status.OK);
+    assertThat(response.getReplayDlqResponse().getReplayedCount()).isEqualTo(7);
+  }
 }
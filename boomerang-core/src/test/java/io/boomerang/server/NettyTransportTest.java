@@ -0,0 +1,29 @@
+package io.boomerang.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class NettyTransportTest {
+
+  @Test
+  void shouldSelectNioWhenRequested() {
+    assertThat(NettyTransport.select("nio")).isEqualTo(NettyTransport.NIO);
+    assertThat(NettyTransport.select(" NIO ")).isEqualTo(NettyTransport.NIO);
+  }
+
+  @Test
+  void shouldSelectAnAvailableTransportAutomatically() {
+    assertThat(NettyTransport.select("auto").isAvailable()).isTrue();
+    assertThat(NettyTransport.select(null).isAvailable()).isTrue();
+  }
+
+  @Test
+  void shouldFallBackToNioForUnavailableOrUnknownTransport() {
+    NettyTransport expectedEpoll =
+        NettyTransport.EPOLL.isAvailable() ? NettyTransport.EPOLL : NettyTransport.NIO;
+
+    assertThat(NettyTransport.select("epoll")).isEqualTo(expectedEpoll);
+    assertThat(NettyTransport.select("carrier-pigeon")).isEqualTo(NettyTransport.NIO);
+  }
+}
@@ -0,0 +1,130 @@
+package io.boomerang.server.callback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.boomerang.model.CallbackConfig;
+import io.boomerang.timer.TimerTask;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CallbackBatcherTest {
+  private final List<TimerTask> delivered = new CopyOnWriteArrayList<>();
+  private final Map<TimerTask, CallbackException> failed = new ConcurrentHashMap<>();
+  private CallbackHandler handler;
+  private CallbackBatcher batcher;
+
+  @BeforeEach
+  void setUp() {
+    handler = mock(CallbackHandler.class);
+    batcher =
+        new CallbackBatcher(
+            100,
+            1,
+            new CallbackBatcher.Listener() {
+              @Override
+              public void onDelivered(TimerTask task) {
+                delivered.add(task);
+              }
+
+              @Override
+              public void onFailed(Map<TimerTask, CallbackException> failures) {
+                failed.putAll(failures);
+              }
+            });
+  }
+
+  @AfterEach
+  void tearDown() {
+    batcher.shutdown();
+  }
+
+  private static TimerTask task(String taskId) {
+    return new TimerTask(taskId, "client-1", 100, null, 0, () -> {});
+  }
+
+  @Test
+  void shouldDeliverTasksWithinWindowAsOneBatch() throws CallbackException {
+    CallbackConfig config = new CallbackConfig(CallbackConfig.Protocol.TCP, "localhost:1", 200, 0);
+    when(handler.handleBatch(anyList(), any())).thenReturn(Map.of());
+    TimerTask first = task("task-1");
+    TimerTask second = task("task-2");
+
+    batcher.add(first, config, handler);
+    batcher.add(second, config, handler);
+
+    await().atMost(Duration.ofSeconds(2)).until(() -> delivered.size() == 2);
+    verify(handler).handleBatch(List.of(first, second), config);
+    assertThat(failed).isEmpty();
+  }
+
+  @Test
+  void shouldDeliverFullBatchWithoutWaitingForWindow() throws CallbackException {
+    CallbackConfig config =
+        new CallbackConfig(CallbackConfig.Protocol.GRPC, "localhost:1", 60_000, 2);
+    when(handler.handleBatch(anyList(), any())).thenReturn(Map.of());
+
+    batcher.add(task("task-1"), config, handler);
+    batcher.add(task("task-2"), config, handler);
+    batcher.add(task("task-3"), config, handler);
+
+    verify(handler, timeout(2000)).handleBatch(List.of(task("task-1"), task("task-2")), config);
+    // The third task opened a new batch that is still within its window.
+    assertThat(delivered).extracting(TimerTask::getTaskId).containsExactly("task-1", "task-2");
+  }
+
+  @Test
+  void shouldReportOnlyUnacknowledgedTasksAsFailed() throws CallbackException {
+    CallbackConfig config = new CallbackConfig(CallbackConfig.Protocol.HTTP, "http://test", 10, 0);
+    TimerTask acked = task("task-1");
+    TimerTask nacked = task("task-2");
+    CallbackException nack = new CallbackException("nack");
+    when(handler.handleBatch(anyList(), any())).thenReturn(Map.of(nacked, nack));
+
+    batcher.add(acked, config, handler);
+    batcher.add(nacked, config, handler);
+
+    await().atMost(Duration.ofSeconds(2)).until(() -> !failed.isEmpty());
+    assertThat(delivered).containsExactly(acked);
+    assertThat(failed).containsExactly(Map.entry(nacked, nack));
+  }
+
+  @Test
+  void shouldFailWholeBatchWhenDeliveryFails() throws CallbackException {
+    CallbackConfig config = new CallbackConfig(CallbackConfig.Protocol.TCP, "localhost:1", 10, 0);
+    when(handler.handleBatch(anyList(), any()))
+        .thenThrow(new CallbackException("connection refused"));
+
+    batcher.add(task("task-1"), config, handler);
+    batcher.add(task("task-2"), config, handler);
+
+    await().atMost(Duration.ofSeconds(2)).until(() -> failed.size() == 2);
+    assertThat(delivered).isEmpty();
+  }
+
+  @Test
+  void shouldDeliverOpenBatchesOnShutdown() throws CallbackException {
+    CallbackConfig config =
+        new CallbackConfig(CallbackConfig.Protocol.TCP, "localhost:1", 60_000, 0);
+    when(handler.handleBatch(anyList(), any())).thenReturn(Map.of());
+
+    batcher.add(task("task-1"), config, handler);
+    verify(handler, never()).handleBatch(anyList(), any());
+    batcher.shutdown();
+
+    assertThat(delivered).extracting(TimerTask::getTaskId).containsExactly("task-1");
+  }
+}
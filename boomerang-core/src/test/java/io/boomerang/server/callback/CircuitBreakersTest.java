@@ -0,0 +1,83 @@
+package io.boomerang.server.callback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakersTest {
+  private static final String ENDPOINT = "localhost:1234";
+
+  private CircuitBreakers.Listener listener;
+
+  @BeforeEach
+  void setUp() {
+    listener = mock(CircuitBreakers.Listener.class);
+  }
+
+  @Test
+  void shouldOpenAfterConsecutiveFailures() {
+    CircuitBreakers breakers = new CircuitBreakers(3, 60_000, listener);
+
+    breakers.onFailure(ENDPOINT);
+    breakers.onFailure(ENDPOINT);
+    breakers.onSuccess(ENDPOINT);
+    breakers.onFailure(ENDPOINT);
+    breakers.onFailure(ENDPOINT);
+    assertThat(breakers.tryAcquire(ENDPOINT)).isTrue();
+    verify(listener, never()).onOpened(ENDPOINT);
+
+    breakers.onFailure(ENDPOINT);
+
+    assertThat(breakers.getState(ENDPOINT)).isEqualTo(CircuitBreakers.State.OPEN);
+    assertThat(breakers.tryAcquire(ENDPOINT)).isFalse();
+    assertThat(breakers.tryAcquire("other:1234")).isTrue();
+    verify(listener).onOpened(ENDPOINT);
+  }
+
+  @Test
+  void shouldLetSingleProbeThroughAfterOpenPeriod() {
+    CircuitBreakers breakers = new CircuitBreakers(1, 0, listener);
+    breakers.onFailure(ENDPOINT);
+
+    assertThat(breakers.tryAcquire(ENDPOINT)).isTrue();
+    assertThat(breakers.getState(ENDPOINT)).isEqualTo(CircuitBreakers.State.HALF_OPEN);
+    assertThat(breakers.tryAcquire(ENDPOINT)).isFalse();
+
+    breakers.onSuccess(ENDPOINT);
+
+    assertThat(breakers.getState(ENDPOINT)).isEqualTo(CircuitBreakers.State.CLOSED);
+    assertThat(breakers.tryAcquire(ENDPOINT)).isTrue();
+    verify(listener).onClosed(ENDPOINT);
+  }
+
+  @Test
+  void shouldReopenWhenProbeFails() {
+    CircuitBreakers breakers = new CircuitBreakers(1, 0, listener);
+    breakers.onFailure(ENDPOINT);
+    assertThat(breakers.tryAcquire(ENDPOINT)).isTrue();
+
+    breakers.onFailure(ENDPOINT);
+
+    assertThat(breakers.getState(ENDPOINT)).isEqualTo(CircuitBreakers.State.OPEN);
+    verify(listener, times(2)).onOpened(ENDPOINT);
+    verify(listener, never()).onClosed(ENDPOINT);
+  }
+
+  @Test
+  void shouldNeverOpenWhenDisabled() {
+    CircuitBreakers breakers = new CircuitBreakers(0, 60_000, listener);
+
+    for (int i = 0; i < 10; i++) {
+      breakers.onFailure(ENDPOINT);
+    }
+
+    assertThat(breakers.tryAcquire(ENDPOINT)).isTrue();
+    verifyNoInteractions(listener);
+  }
+}
@@ -1,5 +1,6 @@
 package io.boomerang.server.callback;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
@@ -94,4 +95,51 @@ class DefaultCallbackDispatcherTest {
     verify(tcpHandler).shutdown();
     verify(httpHandler).shutdown();
   }
+
+  @Test
+  void shouldHoldBackTasksOfBatchedClients() throws CallbackException {
+    CallbackBatcher batcher = mock(CallbackBatcher.class);
+    dispatcher =
+        new DefaultCallbackDispatcher(clientStore, List.of(tcpHandler, httpHandler), batcher);
+    CallbackConfig batched =
+        new CallbackConfig(CallbackConfig.Protocol.TCP, "localhost:1234", 50, 0);
+    CallbackConfig single = new CallbackConfig(CallbackConfig.Protocol.HTTP, "http://test");
+    when(clientStore.findById("batched-client"))
+        .thenReturn(Optional.of(new Client("batched-client", "hash", false, batched, null, null)));
+    when(clientStore.findById("single-client"))
+        .thenReturn(Optional.of(new Client("single-client", "hash", false, single, null, null)));
+    TimerTask batchedTask = new TimerTask("task-1", "batched-client", 100, null, 0, () -> {});
+    TimerTask singleTask = new TimerTask("task-2", "single-client", 100, null, 0, () -> {});
+
+    assertThat(dispatcher.dispatchOrBatch(batchedTask)).isFalse();
+    assertThat(dispatcher.dispatchOrBatch(singleTask)).isTrue();
+
+    verify(batcher).add(batchedTask, batched, tcpHandler);
+    verify(tcpHandler, never()).handle(any(), any());
+    verify(httpHandler).handle(singleTask, single);
+  }
+
+  @Test
+  void shouldFailFastWhileEndpointBreakerIsOpen() throws CallbackException {
+    CircuitBreakers breakers = new CircuitBreakers(2, 60_000, mock(CircuitBreakers.Listener.class));
+    dispatcher =
+        new DefaultCallbackDispatcher(
+            clientStore, List.of(tcpHandler, httpHandler), null, breakers);
+    CallbackConfig config = new CallbackConfig(CallbackConfig.Protocol.TCP, "localhost:1234");
+    when(clientStore.findById("test-client"))
+        .thenReturn(Optional.of(new Client("test-client", "hash", false, config, null, null)));
+    TimerTask task = new TimerTask("task-1", "test-client", 100, null, 0, () -> {});
+    doThrow(new CallbackException("connection refused")).when(tcpHandler).handle(task, config);
+
+    for (int i = 0; i < 2; i++) {
+      assertThatThrownBy(() -> dispatcher.dispatch(task))
+          .isNotInstanceOf(EndpointUnavailableException.class);
+    }
+    assertThatThrownBy(() -> dispatcher.dispatch(task))
+        .isInstanceOfSatisfying(
+            EndpointUnavailableException.class,
+            e -> assertThat(e.getEndpoint()).isEqualTo("localhost:1234"));
+
+    verify(tcpHandler, times(2)).handle(task, config);
+  }
 }
@@ -0,0 +1,141 @@
+package io.boomerang.server.callback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.boomerang.timer.LongTermTaskStore;
+import io.boomerang.timer.ParkedTaskStore;
+import io.boomerang.timer.TimerTask;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EndpointParkingTest {
+  private static final String ENDPOINT = "localhost:1234";
+
+  private final List<TimerTask> released = new CopyOnWriteArrayList<>();
+  private ParkedTaskStore parkedStore;
+  private LongTermTaskStore taskStore;
+  private EndpointParking parking;
+
+  @BeforeEach
+  void setUp() {
+    parkedStore = mock(ParkedTaskStore.class);
+    taskStore = mock(LongTermTaskStore.class);
+    parking = new EndpointParking(parkedStore, taskStore, released::add, 0, 10);
+  }
+
+  @AfterEach
+  void tearDown() {
+    parking.shutdown();
+  }
+
+  @Test
+  void shouldKeepParkedTaskInTaskStore() {
+    TimerTask task = new TimerTask("task-1", "client-1", 100, null, 0, () -> {});
+
+    parking.park(ENDPOINT, task);
+
+    verify(parkedStore).park(ENDPOINT, task);
+    verifyNoInteractions(taskStore);
+  }
+
+  @Test
+  void shouldDropParkedTaskCancelledWhileParked() {
+    TimerTask cancelled = new TimerTask("task-1", "client-1", 100, null, 0, () -> {});
+    TimerTask probe = new TimerTask("task-2", "client-1", 200, null, 0, () -> {});
+    when(parkedStore.peek(ENDPOINT, 1)).thenReturn(List.of(cancelled)).thenReturn(List.of(probe));
+    when(taskStore.isCancelled("task-1")).thenReturn(true);
+    stored(probe);
+
+    parking.onOpened(ENDPOINT);
+
+    verify(parkedStore, timeout(2000)).remove(ENDPOINT, probe);
+    verify(taskStore).delete(cancelled);
+    verify(parkedStore).remove(ENDPOINT, cancelled);
+    assertThat(released).extracting(TimerTask::getTaskId).containsExactly("task-2");
+  }
+
+  @Test
+  void shouldDropParkedTaskScheduledAnewWhileParked() {
+    TimerTask parked = new TimerTask("task-1", "client-1", 100, null, 0, () -> {});
+    when(parkedStore.peek(ENDPOINT, 100)).thenReturn(List.of(parked)).thenReturn(List.of());
+    when(taskStore.findById("task-1")).thenReturn(Optional.of(parked.withExpiration(60_000)));
+
+    parking.onClosed(ENDPOINT);
+
+    verify(parkedStore, timeout(2000)).remove(ENDPOINT, parked);
+    verify(taskStore, never()).delete(parked);
+    assertThat(released).isEmpty();
+  }
+
+  @Test
+  void shouldDiscardTasksParkedByPreviousRun() {
+    TimerTask leftover = new TimerTask("task-1", "client-1", 100, null, 0, () -> {});
+    when(parkedStore.endpoints()).thenReturn(List.of(ENDPOINT));
+    when(parkedStore.peek(ENDPOINT, 100)).thenReturn(List.of(leftover)).thenReturn(List.of());
+
+    new EndpointParking(parkedStore, taskStore, released::add, 0, 10).shutdown();
+
+    verify(parkedStore).remove(ENDPOINT, leftover);
+    assertThat(released).isEmpty();
+  }
+
+  @Test
+  void shouldReleaseEarliestParkedTaskAsProbe() {
+    TimerTask first = new TimerTask("task-1", "client-1", 100, null, 0, () -> {});
+    when(parkedStore.peek(ENDPOINT, 1)).thenReturn(List.of(first));
+    stored(first);
+
+    parking.onOpened(ENDPOINT);
+
+    verify(parkedStore, timeout(2000)).remove(ENDPOINT, first);
+    assertThat(released).extracting(TimerTask::getTaskId).containsExactly("task-1");
+  }
+
+  @Test
+  void shouldDrainAtBoundedRateOnceClosed() {
+    TimerTask first = new TimerTask("task-1", "client-1", 100, null, 0, () -> {});
+    TimerTask second = new TimerTask("task-2", "client-1", 200, null, 0, () -> {});
+    when(parkedStore.peek(ENDPOINT, 100)).thenReturn(List.of(first, second)).thenReturn(List.of());
+    stored(first);
+    stored(second);
+
+    parking.onClosed(ENDPOINT);
+
+    await().atMost(Duration.ofSeconds(2)).until(() -> released.size() == 2);
+    verify(parkedStore).remove(ENDPOINT, first);
+    verify(parkedStore).remove(ENDPOINT, second);
+    // At 10 tasks per second, the second task is released 100 ms after the first.
+    assertThat(released.get(1).getExpirationMs() - released.get(0).getExpirationMs())
+        .isGreaterThanOrEqualTo(90);
+  }
+
+  @Test
+  void shouldKeepAttemptCountOfParkedTasks() {
+    TimerTask retried = new TimerTask("task-1", "client-1", 100, null, 0, () -> {}).nextAttempt(10);
+    when(parkedStore.peek(ENDPOINT, 100)).thenReturn(List.of(retried)).thenReturn(List.of());
+    // A retried task is stored at the attempt that failed.
+    when(taskStore.findById("task-1"))
+        .thenReturn(Optional.of(retried.withExpiration(retried.getExpirationMs() - 10)));
+
+    parking.onClosed(ENDPOINT);
+
+    await().atMost(Duration.ofSeconds(2)).until(() -> released.size() == 1);
+    assertThat(released.get(0).getAttemptCount()).isEqualTo(1);
+  }
+
+  private void stored(TimerTask task) {
+    when(taskStore.findById(task.getTaskId())).thenReturn(Optional.of(task));
+  }
+}
@@ -1,14 +1,18 @@
 package io.boomerang.session;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
+import io.boomerang.config.ServerConfig;
 import io.boomerang.model.CallbackConfig;
 import io.boomerang.model.DLQPolicy;
 import io.boomerang.model.RetryPolicy;
 import io.boomerang.model.Session;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -104,4 +108,122 @@ class SessionManagerTest {
     assertThat(sessionManager.getClientId(session.sessionId())).isEqualTo("client-1");
     assertThat(sessionManager.getClientId("non-existent")).isNull();
   }
+
+  @Test
+  void shouldReportActiveSessionCount() {
+    Session first = sessionManager.createSession("client-1", null, null, null);
+    sessionManager.createSession("client-2", null, null, null);
+
+    assertThat(sessionManager.getActiveSessionCount()).isEqualTo(2);
+    assertThat(sessionManager.getActiveSessionCount("client-1")).isEqualTo(1);
+
+    sessionManager.invalidateSession(first.sessionId());
+    sessionManager.cleanupExpiredSessions();
+
+    assertThat(sessionManager.getActiveSessionCount()).isEqualTo(1);
+    assertThat(sessionManager.getActiveSessionCount("client-1")).isZero();
+  }
+
+  @Test
+  void shouldEvictOldestSessionWhenClientExceedsCap() {
+    System.setProperty("session.max.per.client", "2");
+    try {
+      SessionManager capped = new SessionManager(new ServerConfig(null));
+      Session oldest = capped.createSession("client-1", null, null, null);
+      Session middle = capped.createSession("client-1", null, null, null);
+      Session newest = capped.createSession("client-1", null, null, null);
+
+      assertThat(capped.isValid(oldest.sessionId())).isFalse();
+      assertThat(capped.isValid(middle.sessionId())).isTrue();
+      assertThat(capped.isValid(newest.sessionId())).isTrue();
+      assertThat(capped.getActiveSessionCount("client-1")).isEqualTo(2);
+    } finally {
+      System.clearProperty("session.max.per.client");
+    }
+  }
+
+  @Test
+  void shouldReapExpiredSessions() {
+    System.setProperty("session.timeout.minutes", "0");
+    try {
+      SessionManager shortLived = new SessionManager(new ServerConfig(null));
+      Session session = shortLived.createSession("client-1", null, null, null);
+
+      await()
+          .atMost(2, TimeUnit.SECONDS)
+          .untilAsserted(
+              () -> {
+                shortLived.cleanupExpiredSessions();
+                assertThat(shortLived.getActiveSessionCount()).isZero();
+              });
+      assertThat(shortLived.isValid(session.sessionId())).isFalse();
+      assertThat(shortLived.getActiveSessionCount("client-1")).isZero();
+    } finally {
+      System.clearProperty("session.timeout.minutes");
+    }
+  }
+
+  @Test
+  void shouldRevokeAllSessionsOfClient() {
+    Session first = sessionManager.createSession("client-1", null, null, null);
+    Session second = sessionManager.createSession("client-1", null, null, null);
+    Session other = sessionManager.createSession("client-2", null, null, null);
+
+    sessionManager.revokeClient("client-1");
+
+    assertThat(sessionManager.isValid(first.sessionId())).isFalse();
+    assertThat(sessionManager.isValid(second.sessionId())).isFalse();
+    assertThat(sessionManager.isValid(other.sessionId())).isTrue();
+  }
+
+  @Test
+  void shouldIssueAndValidateStatelessTokens() {
+    withTokenMode(
+        () -> {
+          SessionManager issuer = new SessionManager(new ServerConfig(null));
+          Session session = issuer.createSession("client-1", null, null, null);
+
+          // A second node sharing the master key accepts the token without any shared state.
+          SessionManager verifier = new SessionManager(new ServerConfig(null));
+          assertThat(verifier.isValid(session.sessionId())).isTrue();
+          assertThat(verifier.getClientId(session.sessionId())).isEqualTo("client-1");
+          assertThat(verifier.getSession(session.sessionId())).isPresent();
+          assertThat(verifier.isValid(session.sessionId() + "x")).isFalse();
+          assertThat(verifier.getActiveSessionCount()).isZero();
+        });
+  }
+
+  @Test
+  void shouldRefreshAndRevokeStatelessTokens() {
+    withTokenMode(
+        () -> {
+          SessionManager manager = new SessionManager(new ServerConfig(null));
+          Session session = manager.createSession("client-1", null, null, null);
+
+          Optional<Session> refreshed = manager.refreshSession(session.sessionId());
+          assertThat(refreshed).isPresent();
+          assertThat(manager.isValid(refreshed.get().sessionId())).isTrue();
+
+          // Logging out revokes the session nonce, which covers every refreshed token.
+          manager.invalidateSession(session.sessionId());
+          assertThat(manager.isValid(session.sessionId())).isFalse();
+          assertThat(manager.isValid(refreshed.get().sessionId())).isFalse();
+
+          Session another = manager.createSession("client-1", null, null, null);
+          manager.revokeClient("client-1");
+          assertThat(manager.isValid(another.sessionId())).isFalse();
+        });
+  }
+
+  private static void withTokenMode(Runnable test) {
+    System.setProperty("session.token.enabled", "true");
+    System.setProperty(
+        "BOOMERANG_MASTER_KEY", Base64.getEncoder().encodeToString(new byte[32]));
+    try {
+      test.run();
+    } finally {
+      System.clearProperty("session.token.enabled");
+      System.clearProperty("BOOMERANG_MASTER_KEY");
+    }
+  }
 }
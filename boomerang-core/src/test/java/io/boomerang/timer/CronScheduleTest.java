@@ -0,0 +1,132 @@
+package io.boomerang.timer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.Test;
+
+class CronScheduleTest {
+  private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+  private static long at(String dateTime, ZoneId zone) {
+    return ZonedDateTime.of(LocalDateTime.parse(dateTime), zone).toInstant().toEpochMilli();
+  }
+
+  @Test
+  void shouldComputeNextFireTimeInTimeZone() {
+    CronSchedule schedule = CronSchedule.of("0 9 * * MON-FRI", "Europe/Berlin", 0);
+
+    // Friday 10:00 is past the fire time, so the next one is on Monday.
+    long next = schedule.nextFireAfter(at("2026-10-16T10:00", BERLIN), "task-1");
+
+    assertThat(next).isEqualTo(at("2026-10-19T09:00", BERLIN));
+  }
+
+  @Test
+  void shouldSupportStepsListsAndRanges() {
+    CronSchedule schedule = CronSchedule.of("*/20 8-9,17 1,15 * *", "UTC", 0);
+    ZoneId utc = ZoneId.of("UTC");
+
+    long first = schedule.nextFireAfter(at("2026-10-14T23:00", utc), "task-1");
+    long second = schedule.nextFireAfter(first, "task-1");
+    long afterMorning = schedule.nextFireAfter(at("2026-10-15T09:40", utc), "task-1");
+
+    assertThat(first).isEqualTo(at("2026-10-15T08:00", utc));
+    assertThat(second).isEqualTo(at("2026-10-15T08:20", utc));
+    assertThat(afterMorning).isEqualTo(at("2026-10-15T17:00", utc));
+  }
+
+  @Test
+  void shouldFireOnceAcrossDaylightSavingTransitions() {
+    CronSchedule schedule = CronSchedule.of("30 2 * * *", "Europe/Berlin", 0);
+
+    // 02:30 does not exist on 2026-03-29, so the task fires right after the clocks go forward.
+    long spring = schedule.nextFireAfter(at("2026-03-29T01:00", BERLIN), "task-1");
+    assertThat(spring).isEqualTo(at("2026-03-29T03:30", BERLIN));
+
+    // 02:30 happens twice on 2026-10-25; the task fires at the first one only.
+    long autumn = schedule.nextFireAfter(at("2026-10-25T01:00", BERLIN), "task-1");
+    long following = schedule.nextFireAfter(autumn, "task-1");
+    assertThat(following).isEqualTo(at("2026-10-26T02:30", BERLIN));
+  }
+
+  @Test
+  void shouldApplyStableJitterOffsetPerTask() {
+    CronSchedule schedule = CronSchedule.of("0 * * * *", "UTC", 60_000);
+    long hour = at("2026-10-19T10:00", ZoneId.of("UTC"));
+
+    long first = schedule.nextFireAfter(hour - 1, "task-1");
+    long second = schedule.nextFireAfter(first, "task-1");
+
+    assertThat(first).isBetween(hour, hour + 60_000);
+    // The offset is the same in every cycle, so the period stays exactly one hour.
+    assertThat(second - first).isEqualTo(3_600_000);
+  }
+
+  @Test
+  void shouldComputeNextCycleFromNominalFireTime() {
+    CronSchedule schedule = CronSchedule.of("* * * * *", "UTC", 0);
+    long now = System.currentTimeMillis();
+    long nominal = now - now % 60_000;
+    TimerTask task =
+        TimerTask.withSchedule("task-1", "client-1", nominal, null, schedule, 2, () -> {});
+
+    TimerTask next = task.nextCycle();
+
+    // Dispatch latency does not shift the next fire time off the minute boundary.
+    assertThat(next.getExpirationMs()).isEqualTo(nominal + 60_000);
+    assertThat(next.getAttemptCount()).isZero();
+    assertThat(next.getSchedule()).isSameAs(schedule);
+  }
+
+  @Test
+  void shouldSkipMissedIntervalCycles() {
+    long now = System.currentTimeMillis();
+    TimerTask task =
+        TimerTask.withExpiration("task-1", "client-1", now - 3_500, null, 1_000, 0, () -> {});
+
+    TimerTask next = task.nextCycle();
+
+    // The cycles missed while the task was late collapse into the next one on the same grid.
+    assertThat(next.getExpirationMs()).isGreaterThan(now).isLessThanOrEqualTo(now + 1_000);
+    assertThat((next.getExpirationMs() - task.getExpirationMs()) % 1_000).isZero();
+  }
+
+  @Test
+  void shouldSerializeSchedule() throws IOException {
+    CronSchedule schedule = CronSchedule.of("15 4 * * SUN", "America/New_York", 500);
+    TimerTask task =
+        TimerTask.withSchedule("task-1", "client-1", 1000, null, schedule, 0, () -> {});
+
+    TimerTask deserialized = TimerTaskSerializer.deserialize(TimerTaskSerializer.serialize(task));
+
+    assertThat(deserialized.isRecurring()).isTrue();
+    assertThat(deserialized.getSchedule()).isSameAs(schedule);
+  }
+
+  @Test
+  void shouldAcceptStepLargerThanField() {
+    CronSchedule schedule = CronSchedule.of("5/2147483647 * * * *", "UTC", 0);
+
+    // Only the start of the step fits in the field.
+    long next = schedule.nextFireAfter(at("2026-10-19T10:00", ZoneId.of("UTC")), "task-1");
+
+    assertThat(next).isEqualTo(at("2026-10-19T10:05", ZoneId.of("UTC")));
+  }
+
+  @Test
+  void shouldRejectInvalidSchedules() {
+    assertThatThrownBy(() -> CronSchedule.of("0 9 * *", "UTC", 0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> CronSchedule.of("61 * * * *", "UTC", 0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> CronSchedule.of("0 0 30 2 *", "UTC", 0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> CronSchedule.of("0 9 * * *", "Mars/Olympus", 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,116 @@
+package io.boomerang.timer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.boomerang.auth.ClientStore;
+import io.boomerang.model.Client;
+import io.boomerang.model.DLQPolicy;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class DLQServiceTest {
+  private DLQStore store;
+  private Timer timer;
+  private ClientStore clientStore;
+  private DLQService service;
+
+  @BeforeEach
+  void setUp() {
+    store = mock(DLQStore.class);
+    timer = mock(Timer.class);
+    clientStore = mock(ClientStore.class);
+    service = new DLQService(store, timer, clientStore, 10, 60_000);
+  }
+
+  private static DLQStore.DLQEntry entry(String taskId, int attemptCount) {
+    TimerTask task =
+        TimerTask.withExpiration(taskId, "client1", 1000, null, 0, attemptCount, () -> {});
+    return new DLQStore.DLQEntry(task, "error");
+  }
+
+  @Test
+  void shouldReplayEntriesWithFreshAttemptsAtPacedExpirations() {
+    when(store.list(eq("client1"), anyInt(), isNull()))
+        .thenReturn(new ListResult<>(List.of(entry("task1", 5), entry("task2", 5)), "cursor"));
+    when(store.list(eq("client1"), anyInt(), eq("cursor")))
+        .thenReturn(new ListResult<>(List.of(entry("task3", 5)), null));
+
+    long replayed = service.replay("client1", 0);
+
+    assertThat(replayed).isEqualTo(3);
+    ArgumentCaptor<TimerTask> scheduled = ArgumentCaptor.forClass(TimerTask.class);
+    verify(timer, times(3)).add(scheduled.capture());
+    assertThat(scheduled.getAllValues()).allMatch(task -> task.getAttemptCount() == 0);
+    // At 10 tasks per second, the client's tasks become due 100 ms apart.
+    assertThat(
+            scheduled.getAllValues().get(2).getExpirationMs()
+                - scheduled.getAllValues().get(0).getExpirationMs())
+        .isGreaterThanOrEqualTo(190);
+    verify(store, times(3)).delete(any(DLQStore.DLQEntry.class));
+  }
+
+  @Test
+  void shouldStopReplayingAtLimit() {
+    when(store.list(eq("client1"), eq(2), any()))
+        .thenReturn(new ListResult<>(List.of(entry("task1", 5), entry("task2", 5)), "cursor"));
+
+    long replayed = service.replay("client1", 2);
+
+    assertThat(replayed).isEqualTo(2);
+    verify(store, never()).list(any(), anyInt(), eq("cursor"));
+  }
+
+  @Test
+  void shouldPurgeClient() {
+    service.purge("client1");
+
+    verify(store).purge("client1");
+  }
+
+  @Test
+  void shouldExpireEntriesPastRetentionOfTheirClient() {
+    when(store.clients()).thenReturn(List.of("client1", "client2", "client3"));
+    when(clientStore.findById("client1"))
+        .thenReturn(
+            Optional.of(
+                new Client("client1", "hash", false, null, null, new DLQPolicy("", 1_000))));
+    when(clientStore.findById("client2"))
+        .thenReturn(Optional.of(new Client("client2", "hash", false, null, null, null)));
+    when(clientStore.findById("client3")).thenReturn(Optional.empty());
+    long now = System.currentTimeMillis();
+
+    service.expire();
+
+    ArgumentCaptor<Long> cutoff = ArgumentCaptor.forClass(Long.class);
+    verify(store).expire(eq("client1"), cutoff.capture());
+    assertThat(cutoff.getValue()).isBetween(now - 1_000, now);
+    // Clients without a retention of their own, or no longer registered, use the default.
+    verify(store).expire(eq("client2"), cutoff.capture());
+    assertThat(cutoff.getValue()).isBetween(now - 60_000, now - 59_000);
+    verify(store).expire(eq("client3"), anyLong());
+  }
+
+  @Test
+  void shouldKeepEntriesWithoutRetention() {
+    service = new DLQService(store, timer, clientStore, 10, 0);
+    when(store.clients()).thenReturn(List.of("client1"));
+    when(clientStore.findById("client1")).thenReturn(Optional.empty());
+
+    service.expire();
+
+    verify(store, never()).expire(any(), anyLong());
+  }
+}
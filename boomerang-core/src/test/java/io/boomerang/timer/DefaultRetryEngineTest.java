@@ -6,6 +6,10 @@ import static org.mockito.Mockito.*;
 import io.boomerang.auth.ClientStore;
 import io.boomerang.model.Client;
 import io.boomerang.model.RetryPolicy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.BeforeEach;
@@ -109,4 +113,70 @@ class DefaultRetryEngineTest {
                         && entry.errorMessage().contains("system task failure")));
     verify(longTermStore).delete(failedTask);
   }
+
+  @Test
+  void shouldRetryWithFullJitterBackoff() {
+    String clientId = "client1";
+    RetryPolicy policy = new RetryPolicy(10, RetryPolicy.BackoffStrategy.FULL_JITTER, 1000, 3000);
+    Client client = new Client(clientId, "hash", false, null, policy, null);
+    when(clientStore.findById(clientId)).thenReturn(Optional.of(client));
+
+    for (int i = 0; i < 20; i++) {
+      TimerTask task =
+          TimerTask.withExpiration("task" + i, clientId, 100, null, 0, 2, () -> {});
+      long before = System.currentTimeMillis();
+      retryEngine.handleFailure(task, new RuntimeException("failure"));
+      long after = System.currentTimeMillis();
+
+      // Between 0 and min(1000 * 2^2, 3000)
+      assertThat(resubmittedTask.get().getExpirationMs()).isBetween(before, after + 3000);
+    }
+  }
+
+  @Test
+  void shouldRetryWithDecorrelatedJitterBackoff() {
+    String clientId = "client1";
+    RetryPolicy policy =
+        new RetryPolicy(10, RetryPolicy.BackoffStrategy.DECORRELATED_JITTER, 1000, 5000);
+    Client client = new Client(clientId, "hash", false, null, policy, null);
+    when(clientStore.findById(clientId)).thenReturn(Optional.of(client));
+
+    TimerTask task = new TimerTask("task1", clientId, 100, null, 0, () -> {});
+    for (int attempt = 0; attempt < 5; attempt++) {
+      long before = System.currentTimeMillis();
+      retryEngine.handleFailure(task, new RuntimeException("failure"));
+      long after = System.currentTimeMillis();
+
+      TimerTask retry = resubmittedTask.get();
+      assertThat(retry.getAttemptCount()).isEqualTo(attempt + 1);
+      assertThat(retry.getExpirationMs()).isBetween(before + 1000, after + 5000);
+      task = retry;
+    }
+  }
+
+  @Test
+  void shouldRetryOnlyFailedTasksOfBatch() {
+    String clientId = "client1";
+    RetryPolicy policy = new RetryPolicy(2, RetryPolicy.BackoffStrategy.FIXED, 1000, 5000);
+    Client client = new Client(clientId, "hash", false, null, policy, null);
+    when(clientStore.findById(clientId)).thenReturn(Optional.of(client));
+    List<TimerTask> resubmitted = new ArrayList<>();
+    retryEngine = new DefaultRetryEngine(clientStore, longTermStore, dlqStore, resubmitted::add);
+
+    TimerTask retried = new TimerTask("task1", clientId, 100, null, 0, () -> {});
+    TimerTask exhausted =
+        TimerTask.withExpiration(
+            "task2", clientId, System.currentTimeMillis(), null, 0, 2, () -> {});
+    Map<TimerTask, Exception> failures = new LinkedHashMap<>();
+    failures.put(retried, new RuntimeException("nack"));
+    failures.put(exhausted, new RuntimeException("nack"));
+
+    retryEngine.handleFailures(failures);
+
+    assertThat(resubmitted).extracting(TimerTask::getTaskId).containsExactly("task1");
+    verify(dlqStore).save(argThat(entry -> entry.task().equals(exhausted)));
+    verify(longTermStore).delete(exhausted);
+    // The client is looked up once for the whole batch.
+    verify(clientStore, times(1)).findById(clientId);
+  }
 }
@@ -5,13 +5,22 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import io.boomerang.config.ServerConfig;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.DBOptions;
+import org.rocksdb.RocksDB;
 
 class RocksDBDLQStoreTest {
   @TempDir Path tempDir;
@@ -110,4 +119,204 @@ class RocksDBDLQStoreTest {
 
     assertThat(store.findAll()).isEmpty();
   }
+
+  @Test
+  void testListPaginates() {
+    for (int i = 1; i <= 5; i++) {
+      store.save(
+          new DLQStore.DLQEntry(
+              new TimerTask("task" + i, "client1", 1000, null, 0, () -> {}), "error" + i));
+    }
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("other", "client2", 1000, null, 0, () -> {}), "e"));
+
+    ListResult<DLQStore.DLQEntry> first = store.list("client1", 2, null);
+    ListResult<DLQStore.DLQEntry> second = store.list("client1", 2, first.nextToken());
+    ListResult<DLQStore.DLQEntry> third = store.list("client1", 2, second.nextToken());
+
+    assertThat(first.items())
+        .extracting(e -> e.task().getTaskId())
+        .containsExactly("task1", "task2");
+    assertThat(second.items())
+        .extracting(e -> e.task().getTaskId())
+        .containsExactly("task3", "task4");
+    assertThat(third.items()).extracting(e -> e.task().getTaskId()).containsExactly("task5");
+    assertThat(third.nextToken()).isNull();
+    assertThat(store.list(null, 10, null).items()).hasSize(6);
+  }
+
+  @Test
+  void testPurgeRemovesOnlyEntriesOfClient() {
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("task1", "client1", 1000, null, 0, () -> {}), "e"));
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("task2", "client1", 2000, null, 0, () -> {}), "e"));
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("task3", "client10", 1000, null, 0, () -> {}), "e"));
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("task4", "client2", 1000, null, 0, () -> {}), "e"));
+
+    store.purge("client1");
+
+    assertThat(store.findAll())
+        .extracting(e -> e.task().getTaskId())
+        .containsExactlyInAnyOrder("task3", "task4");
+  }
+
+  @Test
+  void testListOrdersEntriesOfClientByFailureTime() {
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("b", "client1", 1000, null, 0, () -> {}), "e", 300));
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("a", "client1", 1000, null, 0, () -> {}), "e", 200));
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("c", "client1", 1000, null, 0, () -> {}), "e", 100));
+
+    assertThat(store.list("client1", 10, null).items())
+        .extracting(e -> e.task().getTaskId() + "@" + e.failedAtMs())
+        .containsExactly("c@100", "a@200", "b@300");
+  }
+
+  @Test
+  void testExpireRemovesOnlyEntriesOfClientFailedBeforeCutoff() {
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("old", "client1", 1000, null, 0, () -> {}), "e", 100));
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("new", "client1", 1000, null, 0, () -> {}), "e", 500));
+    store.save(
+        new DLQStore.DLQEntry(
+            new TimerTask("other", "client10", 1000, null, 0, () -> {}), "e", 100));
+
+    store.expire("client1", 500);
+
+    assertThat(store.findAll())
+        .extracting(e -> e.task().getTaskId())
+        .containsExactlyInAnyOrder("new", "other");
+  }
+
+  @Test
+  void testFindEntryByIdReturnsMostRecentFailure() {
+    TimerTask task = new TimerTask("task1", "client1", 1000, null, 0, () -> {});
+    store.save(new DLQStore.DLQEntry(task, "first", 100));
+    store.save(new DLQStore.DLQEntry(task, "second", 200));
+
+    assertThat(store.findEntryById("client1", "task1"))
+        .get()
+        .extracting(DLQStore.DLQEntry::errorMessage)
+        .isEqualTo("second");
+
+    store.delete(new DLQStore.DLQEntry(task, "second", 200));
+
+    assertThat(store.findEntryById("client1", "task1"))
+        .get()
+        .extracting(DLQStore.DLQEntry::errorMessage)
+        .isEqualTo("first");
+  }
+
+  @Test
+  void testClientsListsEachClientOnce() {
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("task1", "client1", 1000, null, 0, () -> {}), "e"));
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("task2", "client1", 1000, null, 0, () -> {}), "e"));
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("task3", "client10", 1000, null, 0, () -> {}), "e"));
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("task4", "client2", 1000, null, 0, () -> {}), "e"));
+
+    assertThat(store.clients()).containsExactly("client1", "client10", "client2");
+  }
+
+  @Test
+  void testKeepsEntriesOfClientsSharingPrefixApart() {
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("task1", "a", 1000, null, 0, () -> {}), "e", 100));
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("task2", "a:b", 1000, null, 0, () -> {}), "e", 100));
+    store.save(
+        new DLQStore.DLQEntry(new TimerTask("task3", "a\0b", 1000, null, 0, () -> {}), "e", 100));
+
+    assertThat(store.list("a", 10, null).items())
+        .extracting(e -> e.task().getTaskId())
+        .containsExactly("task1");
+    assertThat(store.clients()).containsExactlyInAnyOrder("a", "a:b", "a\0b");
+
+    store.purge("a");
+    store.expire("a\0b", 200);
+
+    assertThat(store.findAll()).extracting(e -> e.task().getTaskId()).containsExactly("task2");
+  }
+
+  @Test
+  void testReKeysEntriesOfColonSeparatedLayoutOnStartup() throws Exception {
+    store.close();
+    store = null;
+    TimerTask task = new TimerTask("task1", "a:b", 1000, null, 0, () -> {});
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (DataOutputStream dos = new DataOutputStream(baos)) {
+      byte[] taskData = TimerTaskSerializer.serialize(task);
+      dos.writeInt(taskData.length);
+      dos.write(taskData);
+      dos.writeBoolean(true);
+      dos.writeUTF("old error");
+    }
+    ByteBuffer key = ByteBuffer.allocate(4 + Long.BYTES + 5);
+    key.put("a:b:".getBytes()).putLong(300).put("task1".getBytes());
+    List<ColumnFamilyDescriptor> descriptors =
+        List.of(
+            new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY),
+            new ColumnFamilyDescriptor("dlq_by_failure".getBytes()));
+    List<ColumnFamilyHandle> handles = new ArrayList<>();
+    try (DBOptions options =
+            new DBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true);
+        RocksDB db =
+            RocksDB.open(options, tempDir.resolve("dlq").toString(), descriptors, handles)) {
+      db.put(handles.get(1), key.array(), baos.toByteArray());
+      handles.forEach(ColumnFamilyHandle::close);
+    }
+
+    store = new RocksDBDLQStore(serverConfig);
+
+    assertThat(store.list("a:b", 10, null).items())
+        .extracting(e -> e.errorMessage() + "@" + e.failedAtMs())
+        .containsExactly("old error@300");
+    assertThat(store.clients()).containsExactly("a:b");
+  }
+
+  @Test
+  void testMovesEntriesOfLegacyLayoutOnStartup() throws Exception {
+    store.close();
+    store = null;
+    TimerTask task = new TimerTask("task1", "client1", 1000, null, 0, () -> {});
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (DataOutputStream dos = new DataOutputStream(baos)) {
+      byte[] taskData = TimerTaskSerializer.serialize(task);
+      dos.writeInt(taskData.length);
+      dos.write(taskData);
+      dos.writeBoolean(true);
+      dos.writeUTF("legacy error");
+    }
+    List<ColumnFamilyDescriptor> descriptors =
+        List.of(
+            new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY),
+            new ColumnFamilyDescriptor("dlq_by_failure".getBytes()),
+            new ColumnFamilyDescriptor("dlq".getBytes()));
+    List<ColumnFamilyHandle> handles = new ArrayList<>();
+    try (DBOptions options = new DBOptions().setCreateIfMissing(true);
+        RocksDB db =
+            RocksDB.open(options, tempDir.resolve("dlq").toString(), descriptors, handles)) {
+      db.put(handles.get(2), "client1:task1".getBytes(), baos.toByteArray());
+      handles.forEach(ColumnFamilyHandle::close);
+    }
+
+    store = new RocksDBDLQStore(serverConfig);
+
+    assertThat(store.findEntryById("client1", "task1"))
+        .get()
+        .extracting(DLQStore.DLQEntry::errorMessage)
+        .isEqualTo("legacy error");
+    store.close();
+    store = new RocksDBDLQStore(serverConfig);
+    assertThat(store.findAll()).hasSize(1);
+  }
 }
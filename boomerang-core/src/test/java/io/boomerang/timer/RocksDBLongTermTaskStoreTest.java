@@ -8,6 +8,7 @@ import io.boomerang.config.ServerConfig;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -70,6 +71,89 @@ class RocksDBLongTermTaskStoreTest {
     assertThat(dueBeforeNew).hasSize(1);
   }
 
+  @Test
+  void testRescheduleMovesTaskWithoutRewritingIt() {
+    TimerTask task = new TimerTask("task1", "client1", 10000, "payload".getBytes(), 0, () -> {});
+    store.save(task);
+    store.recordAttempt(task.nextAttempt(100));
+    TimerTask moved = task.withExpiration(task.getExpirationMs() + 50000);
+    assertThat(store.reschedule("task1", moved.getExpirationMs())).isTrue();
+
+    Optional<TimerTask> found = store.findById("task1");
+    assertThat(found).isPresent();
+    assertThat(found.get().getExpirationMs()).isEqualTo(moved.getExpirationMs());
+    assertThat(found.get().getPayload()).isEqualTo("payload".getBytes());
+    assertThat(found.get().getAttemptCount()).isEqualTo(1);
+    assertThat(store.fetchTasksDueBefore(task.getExpirationMs() + 1)).isEmpty();
+    assertThat(store.fetchTasksDueBefore(moved.getExpirationMs() + 1))
+        .extracting(TimerTask::getExpirationMs)
+        .containsExactly(moved.getExpirationMs());
+  }
+
+  @Test
+  void testRescheduleMovesCurrentCycleOfRecurringTask() {
+    TimerTask task =
+        new TimerTask("task1", "client1", 10000, "payload".getBytes(), 60000, () -> {});
+    store.save(task);
+
+    TimerTask moved = task.withExpiration(task.getExpirationMs() + 5000);
+    assertThat(store.reschedule("task1", moved.getExpirationMs())).isTrue();
+
+    Optional<TimerTask> found = store.findById("task1");
+    assertThat(found).isPresent();
+    assertThat(found.get().getExpirationMs()).isEqualTo(moved.getExpirationMs());
+    assertThat(found.get().getRepeatIntervalMs()).isEqualTo(60000);
+    assertThat(found.get().getPayload()).isEqualTo("payload".getBytes());
+  }
+
+  @Test
+  void testRetryOfRecurringTaskKeepsTheScheduleOfItsCycles() {
+    long cycleMs = System.currentTimeMillis() + 60000;
+    TimerTask saved =
+        TimerTask.withExpiration("saved", "client1", cycleMs, null, 60000, 0, () -> {});
+    TimerTask recorded =
+        TimerTask.withExpiration("recorded", "client1", cycleMs, null, 60000, 0, () -> {});
+    store.save(saved);
+    store.save(recorded);
+
+    // Retried long after the cycle, in full and as an attempt count respectively.
+    TimerTask retry = saved.nextAttempt(90000);
+    store.save(retry);
+    store.recordAttempt(recorded.nextAttempt(90000));
+
+    assertThat(retry.nextCycle().getExpirationMs()).isEqualTo(cycleMs + 60000);
+    assertThat(store.findById("saved").orElseThrow().nextCycle().getExpirationMs())
+        .isEqualTo(cycleMs + 60000);
+    assertThat(store.findById("recorded").orElseThrow().nextCycle().getExpirationMs())
+        .isEqualTo(cycleMs + 60000);
+  }
+
+  @Test
+  void testRescheduleSkipsTaskThatIsCancelledOrMissing() {
+    TimerTask task = new TimerTask("task1", "client1", 10000, "payload".getBytes(), 0, () -> {});
+    store.save(task);
+    store.cancel("task1");
+
+    assertThat(store.reschedule("task1", 60000)).isFalse();
+    assertThat(store.reschedule("missing", 60000)).isFalse();
+    assertThat(store.fetchTasksDueBefore(60001)).isEmpty();
+  }
+
+  @Test
+  void testFetchTaskMetadataLeavesOutPayloads() {
+    TimerTask task = new TimerTask("task1", "client1", 1000, "payload".getBytes(), 0, () -> {});
+    store.save(task);
+
+    Collection<TimerTask> due = store.fetchTaskMetadataDueBetween(0, task.getExpirationMs());
+
+    assertThat(due).hasSize(1);
+    TimerTask metadata = due.iterator().next();
+    assertThat(metadata.isPayloadDeferred()).isTrue();
+    assertThat(metadata.getPayload()).isNull();
+    assertThat(metadata.getExpirationMs()).isEqualTo(task.getExpirationMs());
+    assertThat(store.findById("task1").orElseThrow().getPayload()).isEqualTo("payload".getBytes());
+  }
+
   @Test
   void testFetchTasksDueBefore() {
     long now = System.currentTimeMillis();
@@ -97,6 +181,222 @@ class RocksDBLongTermTaskStoreTest {
     assertThat(store.findById("task1")).isEmpty();
   }
 
+  @Test
+  void testFetchTasksDueBetween() {
+    long now = System.currentTimeMillis();
+    store.save(TimerTask.withExpiration("early", "client1", now + 100, null, 0, 0, () -> {}));
+    store.save(TimerTask.withExpiration("middle", "client1", now + 200, null, 0, 0, () -> {}));
+    store.save(TimerTask.withExpiration("late", "client1", now + 300, null, 0, 0, () -> {}));
+
+    Collection<TimerTask> due = store.fetchTasksDueBetween(now + 200, now + 300);
+
+    assertThat(due).extracting(TimerTask::getTaskId).containsExactly("middle", "late");
+    assertThat(store.fetchTasksDueBetween(now + 301, now + 400)).isEmpty();
+  }
+
+  @Test
+  void testPersistRecoveryWatermark() {
+    assertThat(store.getRecoveryWatermark()).isZero();
+
+    store.saveRecoveryWatermark(123456789L);
+    store.close();
+    store = new RocksDBLongTermTaskStore(serverConfig);
+
+    assertThat(store.getRecoveryWatermark()).isEqualTo(123456789L);
+  }
+
+  @Test
+  void testFindClientIdOfOneShotAndRecurringTasks() {
+    store.save(new TimerTask("one-shot", "client1", 10000, "payload".getBytes(), 0, () -> {}));
+    store.save(
+        TimerTask.withExpiration(
+            "recurring", "client2", 10000, "payload".getBytes(), 1000, 0, () -> {}));
+    store.save(new TimerTask("cancelled", "client1", 10000, null, 0, () -> {}));
+    store.cancel("cancelled");
+
+    assertThat(store.findClientId("one-shot")).hasValue("client1");
+    assertThat(store.findClientId("recurring")).hasValue("client2");
+    assertThat(store.findClientId("cancelled")).isEmpty();
+    assertThat(store.findClientId("unknown")).isEmpty();
+  }
+
+  @Test
+  void testDropsTimeIndexPartitionsPassedByWatermark() {
+    reopenWithPartitionMs(1000);
+    store.save(
+        TimerTask.withExpiration("early", "client1", 500, "payload".getBytes(), 0, 0, () -> {}));
+    store.save(
+        TimerTask.withExpiration("middle", "client1", 1500, "payload".getBytes(), 0, 0, () -> {}));
+    store.save(
+        TimerTask.withExpiration("late", "client1", 2500, "payload".getBytes(), 0, 0, () -> {}));
+    // The tasks that fired leave tombstones in the first two partitions.
+    store.delete(store.findById("early").orElseThrow());
+    store.delete(store.findById("middle").orElseThrow());
+
+    store.saveRecoveryWatermark(2100);
+
+    assertThat(store.getTimeIndexDroppedUntilMs()).isEqualTo(2000);
+    assertThat(store.fetchTasksDueBefore(3000))
+        .extracting(TimerTask::getTaskId)
+        .containsExactly("late");
+
+    store.close();
+    store = new RocksDBLongTermTaskStore(serverConfig);
+    assertThat(store.getTimeIndexDroppedUntilMs()).isEqualTo(2000);
+    assertThat(store.findById("late")).isPresent();
+  }
+
+  @Test
+  void testKeepsTimeIndexPartitionThatStillHoldsTask() {
+    reopenWithPartitionMs(1000);
+    store.save(
+        TimerTask.withExpiration("stuck", "client1", 1500, "payload".getBytes(), 0, 0, () -> {}));
+
+    store.saveRecoveryWatermark(2100);
+
+    assertThat(store.getTimeIndexDroppedUntilMs()).isZero();
+    assertThat(store.getRecoveryWatermark()).isEqualTo(2100);
+    assertThat(store.findById("stuck")).isPresent();
+  }
+
+  @Test
+  void testDropsTimeIndexPartitionHoldingOnlyCancelledTasks() {
+    reopenWithPartitionMs(1000);
+    store.save(
+        TimerTask.withExpiration(
+            "cancelled", "client1", 1500, "payload".getBytes(), 0, 0, () -> {}));
+    store.save(
+        TimerTask.withExpiration("late", "client1", 2500, "payload".getBytes(), 0, 0, () -> {}));
+    store.cancel("cancelled");
+
+    store.saveRecoveryWatermark(2100);
+
+    // The cancelled task is removed along with its partition instead of keeping it.
+    assertThat(store.getTimeIndexDroppedUntilMs()).isEqualTo(2000);
+    assertThat(store.isCancelled("cancelled")).isFalse();
+    assertThat(store.findById("cancelled")).isEmpty();
+    assertThat(store.findById("late")).isPresent();
+  }
+
+  @Test
+  void testDropsTaskCancelledDuringDeliveryInsteadOfMovingIt() {
+    TimerTask recurring =
+        TimerTask.withExpiration(
+            "recurring", "client1", 10000, "payload".getBytes(), 1000, 0, () -> {});
+    TimerTask failed = new TimerTask("failed", "client1", 10000, "payload".getBytes(), 0, () -> {});
+    store.save(recurring);
+    store.save(failed);
+    store.cancel("recurring");
+    store.cancel("failed");
+
+    assertThat(store.advanceCycle(recurring, recurring.nextCycle())).isFalse();
+    assertThat(store.recordAttempt(failed.nextAttempt(100))).isFalse();
+
+    for (String taskId : List.of("recurring", "failed")) {
+      assertThat(store.findById(taskId)).isEmpty();
+      assertThat(store.isCancelled(taskId)).isFalse();
+    }
+    assertThat(store.fetchTasksDueBefore(Long.MAX_VALUE)).isEmpty();
+  }
+
+  @Test
+  void testAdvanceCycleKeepsPayloadOfRecurringTask() {
+    long now = System.currentTimeMillis();
+    TimerTask task =
+        TimerTask.withExpiration(
+            "recurring", "client1", now + 1000, "payload".getBytes(), 1000, 0, () -> {});
+    store.save(task);
+    TimerTask next = task.withExpiration(now + 2000);
+
+    store.advanceCycle(task, next);
+
+    TimerTask found = store.findById("recurring").orElseThrow();
+    assertThat(found.getExpirationMs()).isEqualTo(now + 2000);
+    assertThat(found.getRepeatIntervalMs()).isEqualTo(1000);
+    assertThat(found.getPayload()).isEqualTo("payload".getBytes());
+    assertThat(store.fetchTasksDueBetween(now, now + 1999)).isEmpty();
+    assertThat(store.fetchTasksDueBetween(now, now + 2000))
+        .extracting(TimerTask::getTaskId)
+        .containsExactly("recurring");
+
+    store.delete(found);
+    assertThat(store.findById("recurring")).isEmpty();
+    assertThat(store.fetchTasksDueBefore(now + 3000)).isEmpty();
+  }
+
+  @Test
+  void testRecordAttemptKeepsStoredEntry() {
+    long now = System.currentTimeMillis();
+    TimerTask task =
+        TimerTask.withExpiration("retried", "client1", now, "payload".getBytes(), 0, 0, () -> {});
+    store.save(task);
+    TimerTask retry = task.nextAttempt(500);
+
+    store.recordAttempt(retry);
+
+    // The entry stays at the failed attempt, which is recovered as overdue after a restart.
+    TimerTask found = store.findById("retried").orElseThrow();
+    assertThat(found.getExpirationMs()).isEqualTo(now);
+    assertThat(found.getAttemptCount()).isEqualTo(1);
+    assertThat(found.getPayload()).isEqualTo("payload".getBytes());
+    assertThat(store.fetchTasksDueBetween(now, now))
+        .extracting(TimerTask::getAttemptCount)
+        .containsExactly(1);
+
+    // Deleting the retry removes the entry stored under the earlier expiration.
+    store.delete(retry);
+    assertThat(store.findById("retried")).isEmpty();
+    assertThat(store.fetchTasksDueBefore(now + 1000)).isEmpty();
+  }
+
+  @Test
+  void testSaveClearsRecordedAttempt() {
+    long now = System.currentTimeMillis();
+    TimerTask task = TimerTask.withExpiration("retried", "client1", now, null, 0, 0, () -> {});
+    store.save(task);
+    store.recordAttempt(task.nextAttempt(500));
+
+    store.save(task.withExpiration(now + 5000));
+
+    TimerTask found = store.findById("retried").orElseThrow();
+    assertThat(found.getExpirationMs()).isEqualTo(now + 5000);
+    assertThat(found.getAttemptCount()).isZero();
+    assertThat(store.fetchTasksDueBefore(now + 1000)).isEmpty();
+  }
+
+  @Test
+  void testBatchedCursorUpdates() {
+    store.close();
+    when(serverConfig.getRocksDbCursorBatchIntervalMs()).thenReturn(60_000L);
+    when(serverConfig.getRocksDbCursorBatchMaxSize()).thenReturn(1000);
+    store = new RocksDBLongTermTaskStore(serverConfig);
+    long now = System.currentTimeMillis();
+    TimerTask task =
+        TimerTask.withExpiration(
+            "recurring", "client1", now + 1000, "payload".getBytes(), 1000, 0, () -> {});
+    store.save(task);
+    TimerTask second = task.withExpiration(now + 2000);
+    TimerTask third = task.withExpiration(now + 3000);
+
+    store.advanceCycle(task, second);
+    store.advanceCycle(second, third);
+
+    // Buffered updates are visible to lookups and written before scans.
+    assertThat(store.findById("recurring").orElseThrow().getExpirationMs()).isEqualTo(now + 3000);
+    assertThat(store.fetchTasksDueBefore(now + 5000))
+        .extracting(TimerTask::getExpirationMs)
+        .containsExactly(now + 3000);
+
+    TimerTask fourth = task.withExpiration(now + 4000);
+    store.advanceCycle(third, fourth);
+    store.delete(fourth);
+    store.close();
+    store = new RocksDBLongTermTaskStore(serverConfig);
+
+    assertThat(store.findById("recurring")).isEmpty();
+    assertThat(store.fetchTasksDueBefore(now + 5000)).isEmpty();
+  }
+
   @Test
   void testDelete() {
     TimerTask task = new TimerTask("task1", "client1", 10000, null, 0, () -> {});
@@ -113,6 +413,62 @@ class RocksDBLongTermTaskStoreTest {
     assertThat(due).isEmpty();
   }
 
+  @Test
+  void testCancelHidesTaskUntilFetchRemovesIt() {
+    TimerTask task = new TimerTask("task1", "client1", 10000, null, 0, () -> {});
+    store.save(task);
+
+    store.cancel("task1");
+
+    assertThat(store.isCancelled("task1")).isTrue();
+    assertThat(store.findById("task1")).isEmpty();
+    assertThat(store.list(null, 0, Long.MAX_VALUE, null, 10, null).items()).isEmpty();
+    assertThat(store.fetchTasksDueBefore(task.getExpirationMs() + 1)).isEmpty();
+    // The fetch removed the task together with its marker.
+    assertThat(store.isCancelled("task1")).isFalse();
+    assertThat(store.findById("task1")).isEmpty();
+  }
+
+  @Test
+  void testSaveUndoesCancellation() {
+    TimerTask task = new TimerTask("task1", "client1", 10000, null, 0, () -> {});
+    store.save(task);
+    store.cancel("task1");
+
+    store.save(task);
+
+    assertThat(store.isCancelled("task1")).isFalse();
+    assertThat(store.findById("task1")).isPresent();
+  }
+
+  @Test
+  void testSweepRemovesOnlyMarkersOfTasksNotStored() {
+    store.save(new TimerTask("stored", "client1", 10000, null, 0, () -> {}));
+    store.cancel("stored");
+    store.cancel("unknown");
+
+    store.sweepCancelled();
+
+    assertThat(store.isCancelled("stored")).isTrue();
+    assertThat(store.isCancelled("unknown")).isFalse();
+  }
+
+  @Test
+  void testSweepResumesAfterBatchOfMarkers() {
+    for (int i = 0; i < 1001; i++) {
+      store.cancel(String.format("unknown-%04d", i));
+    }
+
+    store.sweepCancelled();
+
+    assertThat(store.isCancelled("unknown-0999")).isFalse();
+    assertThat(store.isCancelled("unknown-1000")).isTrue();
+
+    store.sweepCancelled();
+
+    assertThat(store.isCancelled("unknown-1000")).isFalse();
+  }
+
   @Test
   void testIsAfterBoundaryCases() {
     TimerTask task = new TimerTask("task1", "client1", 5000, null, 0, () -> {}); // exp = now + 5000
@@ -219,4 +575,10 @@ class RocksDBLongTermTaskStoreTest {
         .extracting(TimerTask::getTaskId)
         .containsExactly("t2", "t3", "t4");
   }
+
+  private void reopenWithPartitionMs(long partitionMs) {
+    store.close();
+    when(serverConfig.getRocksDbTimeIndexPartitionMs()).thenReturn(partitionMs);
+    store = new RocksDBLongTermTaskStore(serverConfig);
+  }
 }
@@ -0,0 +1,76 @@
+package io.boomerang.timer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.boomerang.config.ServerConfig;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RocksDBParkedTaskStoreTest {
+  @TempDir Path tempDir;
+
+  private RocksDBParkedTaskStore store;
+
+  @BeforeEach
+  void setUp() {
+    ServerConfig serverConfig = mock(ServerConfig.class);
+    when(serverConfig.getRocksDbParkedPath()).thenReturn(tempDir.resolve("parked").toString());
+    store = new RocksDBParkedTaskStore(serverConfig);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (store != null) {
+      store.close();
+    }
+  }
+
+  private static TimerTask task(String taskId, String clientId, long expirationMs) {
+    return TimerTask.withExpiration(taskId, clientId, expirationMs, null, 0, 0, () -> {});
+  }
+
+  @Test
+  void testPeekReturnsTasksOfEndpointInExpirationOrder() {
+    TimerTask late =
+        TimerTask.withExpiration("task1", "client1", 3000, "late".getBytes(), 0, 0, () -> {});
+    TimerTask early = task("task2", "client1", 1000);
+    TimerTask other = task("task3", "client2", 2000);
+    store.park("localhost:1234", late);
+    store.park("localhost:1234", early);
+    store.park("localhost:12345", other);
+
+    List<TimerTask> parked = store.peek("localhost:1234", 10);
+
+    assertThat(parked).extracting(TimerTask::getTaskId).containsExactly("task2", "task1");
+    assertThat(parked.get(1).getPayload()).isEqualTo("late".getBytes());
+    assertThat(store.peek("localhost:1234", 1))
+        .extracting(TimerTask::getTaskId)
+        .containsExactly("task2");
+  }
+
+  @Test
+  void testRemove() {
+    TimerTask task = task("task1", "client1", 1000);
+    store.park("localhost:1234", task);
+
+    store.remove("localhost:1234", task);
+
+    assertThat(store.peek("localhost:1234", 10)).isEmpty();
+    assertThat(store.endpoints()).isEmpty();
+  }
+
+  @Test
+  void testEndpoints() {
+    store.park("http://a", task("task1", "client1", 1000));
+    store.park("http://a", task("task2", "client1", 2000));
+    store.park("http://b", task("task3", "client2", 1000));
+
+    assertThat(store.endpoints()).containsExactly("http://a", "http://b");
+  }
+}
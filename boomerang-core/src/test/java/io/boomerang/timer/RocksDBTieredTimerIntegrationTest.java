@@ -1,6 +1,7 @@
 package io.boomerang.timer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -98,4 +99,29 @@ class RocksDBTieredTimerIntegrationTest {
       tieredTimer = null;
     }
   }
+
+  @Test
+  void shouldDeleteOverdueTaskCancelledWhileQueuedForRecovery() {
+    tieredTimer.shutdown();
+    when(serverConfig.getRecoveryParallelism()).thenReturn(1);
+    when(serverConfig.getRecoveryCatchUpRatePerSecond()).thenReturn(1.0);
+    LongTermTaskStore store = currentStore.get();
+    long now = System.currentTimeMillis();
+    for (int i = 0; i < 3; i++) {
+      store.save(
+          TimerTask.withExpiration(
+              "overdue-" + i, "client1", now - 3000 + i, null, 0, 0, () -> {}));
+    }
+
+    tieredTimer = new TieredTimer(dispatcher, store, serverConfig);
+    // The first task goes out at once, the others wait for the catch-up rate.
+    await().atMost(2, TimeUnit.SECONDS).until(() -> tieredTimer.getRecoveredTaskCount() == 1);
+    tieredTimer.cancel("overdue-2");
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> !tieredTimer.isRecovering());
+    assertThat(tieredTimer.getRecoveredTaskCount()).isEqualTo(2);
+    // The task and its marker are gone, rather than left behind the recovery watermark.
+    assertThat(store.isCancelled("overdue-2")).isFalse();
+    assertThat(store.findById("overdue-2")).isEmpty();
+  }
 }
@@ -5,15 +5,23 @@ import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.*;
 
 import io.boomerang.config.ServerConfig;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 class TieredTimerTest {
   private TieredTimer tieredTimer;
@@ -32,9 +40,10 @@ class TieredTimerTest {
           executionCount.incrementAndGet();
           task.getTask().run();
           // The dispatcher is now responsible for cleanup and rescheduling
-          longTermStore.delete(task);
           if (task.getRepeatIntervalMs() > 0) {
-            tieredTimer.add(task.nextCycle());
+            tieredTimer.advanceCycle(task);
+          } else {
+            longTermStore.delete(task);
           }
         };
     serverConfig = mock(ServerConfig.class);
@@ -112,6 +121,9 @@ class TieredTimerTest {
     assertThat(latch.await(1, TimeUnit.SECONDS)).isFalse();
     assertThat(executionCount.get()).isZero();
     assertThat(tieredTimer.get(task.getTaskId())).isEmpty();
+    // The task is deleted while it is at hand, so no marker is written for it.
+    verify(longTermStore).delete(task);
+    verify(longTermStore, never()).cancel(any());
   }
 
   @Test
@@ -125,6 +137,162 @@ class TieredTimerTest {
     verify(longTermStore, times(1)).delete(task);
   }
 
+  @Test
+  void shouldReplaceTaskWithSameId() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    tieredTimer.add(new TimerTask("debounced", "client1", 200, null, 0, latch::countDown));
+
+    tieredTimer.replace(new TimerTask("debounced", "client1", 5000, null, 0, latch::countDown));
+
+    assertThat(latch.await(600, TimeUnit.MILLISECONDS)).isFalse();
+    assertThat(executionCount.get()).isZero();
+    assertThat(tieredTimer.get("debounced")).isPresent();
+    assertThat(longTermStore.fetchTasksDueBefore(Long.MAX_VALUE)).hasSize(1);
+  }
+
+  @Test
+  void shouldHoldTasksWithoutPayloadsAndRestoreThemOnExpiry() {
+    tieredTimer.shutdown();
+    when(serverConfig.isTimerPayloadLazyEnabled()).thenReturn(true);
+    when(serverConfig.getTimerPayloadPrefetchLeadMs()).thenReturn(200L);
+    List<TimerTask> dispatched = Collections.synchronizedList(new ArrayList<>());
+    tieredTimer = new TieredTimer(dispatched::add, longTermStore, serverConfig);
+
+    tieredTimer.add(new TimerTask("lazy", "client1", 600, "payload".getBytes(), 0, () -> {}));
+
+    // Only the metadata is in memory; lookups read the payload from the store.
+    assertThat(tieredTimer.getIfInMemory("lazy")).isEmpty();
+    assertThat(tieredTimer.get("lazy")).map(TimerTask::getPayload).hasValue("payload".getBytes());
+    await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertThat(dispatched).hasSize(1));
+    assertThat(dispatched.get(0).isPayloadDeferred()).isFalse();
+    assertThat(dispatched.get(0).getPayload()).isEqualTo("payload".getBytes());
+    assertThat(tieredTimer.getPayloadMissCount()).isZero();
+    // The prefetch takes the payload from its scan; the only lookup is the one above.
+    verify(longTermStore, times(1)).findById("lazy");
+  }
+
+  @Test
+  void shouldResizeImminentWindowToTaskBudget() {
+    tieredTimer.shutdown();
+    when(serverConfig.getTimerImminentMaxTasks()).thenReturn(2);
+    when(serverConfig.getTimerImminentMinWindowMs()).thenReturn(200L);
+    for (int i = 0; i < 5; i++) {
+      longTermStore.save(new TimerTask("task-" + i, "client1", 300 + i * 100, null, 0, () -> {}));
+    }
+
+    tieredTimer = new TieredTimer(dispatcher, longTermStore, serverConfig);
+
+    // The load stopped at the budget and shrank the window to its minimum.
+    assertThat(tieredTimer.getImminentWindowMs()).isEqualTo(200);
+    assertThat(tieredTimer.getLoadIntervalMs()).isEqualTo(100);
+    // Tasks left in the store by the truncated load are loaded in time.
+    await().atMost(3, TimeUnit.SECONDS).until(() -> executionCount.get() == 5);
+    // Once the wheel is sparse again, the window grows back to its configured size.
+    await().atMost(3, TimeUnit.SECONDS).until(() -> tieredTimer.getImminentWindowMs() == WINDOW_MS);
+  }
+
+  @Test
+  void shouldMoveRescheduledTaskInStoreAndMemory() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    TimerTask task = new TimerTask("heartbeat", "client1", 200, null, 0, latch::countDown);
+    tieredTimer.add(task);
+
+    long expirationMs = System.currentTimeMillis() + 5000;
+    assertThat(tieredTimer.reschedule("heartbeat", expirationMs)).isTrue();
+
+    assertThat(latch.await(600, TimeUnit.MILLISECONDS)).isFalse();
+    assertThat(executionCount.get()).isZero();
+    // The task is moved rather than cancelled and registered again.
+    verify(longTermStore).reschedule("heartbeat", expirationMs);
+    verify(longTermStore, never()).cancel(any());
+    assertThat(tieredTimer.get("heartbeat"))
+        .map(TimerTask::getExpirationMs)
+        .hasValue(expirationMs);
+  }
+
+  @Test
+  void shouldDropTaskCancelledAfterItWasLoaded() {
+    // Replaced by a timer that is started with the task already stored.
+    tieredTimer.shutdown();
+    // Beyond the initial load, so that the next load brings it into memory.
+    TimerTask task =
+        TimerTask.withExpiration(
+            "cancelled-task", "client1", System.currentTimeMillis() + 1200, null, 0, 0, () -> {});
+    longTermStore.save(task);
+    AtomicInteger dispatched = new AtomicInteger();
+    AtomicReference<TieredTimer> racingTimer = new AtomicReference<>();
+    // The task is cancelled while the load is scanning the store, after it was read.
+    doAnswer(
+            invocation -> {
+              Object loaded = invocation.callRealMethod();
+              TieredTimer timer = racingTimer.getAndSet(null);
+              if (timer != null && !((Collection<?>) loaded).isEmpty()) {
+                timer.cancel("cancelled-task");
+              } else if (timer != null) {
+                racingTimer.set(timer);
+              }
+              return loaded;
+            })
+        .when(longTermStore)
+        .fetchTasksDueBetween(anyLong(), anyLong());
+    tieredTimer =
+        new TieredTimer(expired -> dispatched.incrementAndGet(), longTermStore, serverConfig);
+    racingTimer.set(tieredTimer);
+
+    // Deleted once by the cancellation, and once more when the loaded copy expires.
+    await()
+        .atMost(3, TimeUnit.SECONDS)
+        .untilAsserted(() -> verify(longTermStore, times(2)).delete(task));
+    assertThat(dispatched.get()).isZero();
+    verify(longTermStore, never()).isCancelled(any());
+  }
+
+  @Test
+  void shouldDropRecurringTaskCancelledDuringItsDelivery() {
+    tieredTimer.shutdown();
+    AtomicInteger deliveries = new AtomicInteger();
+    tieredTimer =
+        new TieredTimer(
+            task -> {
+              deliveries.incrementAndGet();
+              // The client cancels the task while its callback is in flight.
+              tieredTimer.cancel(task.getTaskId());
+              tieredTimer.advanceCycle(task);
+            },
+            longTermStore,
+            serverConfig);
+
+    tieredTimer.add(new TimerTask("recurring", "client1", 100, null, 700, () -> {}));
+
+    // The next cycle would fire after a load has dropped the cancellation from memory.
+    await()
+        .during(1200, TimeUnit.MILLISECONDS)
+        .atMost(2, TimeUnit.SECONDS)
+        .until(() -> deliveries.get() == 1);
+    assertThat(longTermStore.findById("recurring")).isEmpty();
+  }
+
+  @Test
+  void shouldKeepShortRetriesInMemory() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    TimerTask failed = new TimerTask("retried-task", "client1", 5000, null, 0, latch::countDown);
+    tieredTimer.add(failed);
+    TimerTask shortRetry = failed.nextAttempt(100);
+    TimerTask longRetry = failed.nextAttempt(5000);
+
+    tieredTimer.retry(longRetry);
+    tieredTimer.retry(shortRetry);
+
+    // Task equality is by ID, so the calls are told apart by expiration.
+    verify(longTermStore)
+        .recordAttempt(argThat(t -> t.getExpirationMs() == shortRetry.getExpirationMs()));
+    verify(longTermStore, never())
+        .recordAttempt(argThat(t -> t.getExpirationMs() == longRetry.getExpirationMs()));
+    verify(longTermStore).save(argThat(t -> t.getExpirationMs() == longRetry.getExpirationMs()));
+    // The short retry fires from memory.
+    assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+  }
+
   @Test
   void shouldRescheduleRepeatableTask() throws InterruptedException {
     CountDownLatch latch = new CountDownLatch(3);
@@ -151,6 +319,9 @@ class TieredTimerTest {
               assertThat(nextTask).isPresent();
               assertThat(nextTask.get().getRepeatIntervalMs()).isEqualTo(100);
             });
+    // Each cycle replaces the previous one in the store rather than deleting it.
+    verify(longTermStore, atLeastOnce()).advanceCycle(eq(task), any(TimerTask.class));
+    verify(longTermStore, never()).delete(any(TimerTask.class));
   }
 
   @Test
@@ -295,8 +466,22 @@ class TieredTimerTest {
     LongTermTaskStore startupStore = mock(LongTermTaskStore.class);
     // Create a new timer with the mocked store
     new TieredTimer(dispatcher, startupStore, serverConfig);
-    // Verify fetchTasksDueBefore was called once during construction
-    verify(startupStore, times(1)).fetchTasksDueBefore(anyLong());
+    // Verify the imminent window was loaded once during construction
+    verify(startupStore, times(1)).fetchTasksDueBetween(anyLong(), anyLong());
+  }
+
+  @Test
+  void shouldLoadOnlyTasksBeyondThePreviousWindow() {
+    long initialLoadTime = tieredTimer.getLastLoadedTime();
+    await()
+        .atMost(2, TimeUnit.SECONDS)
+        .until(() -> tieredTimer.getLastLoadedTime() > initialLoadTime);
+
+    ArgumentCaptor<Long> from = ArgumentCaptor.forClass(Long.class);
+    ArgumentCaptor<Long> to = ArgumentCaptor.forClass(Long.class);
+    verify(longTermStore, atLeast(2)).fetchTasksDueBetween(from.capture(), to.capture());
+    // The second load starts right after the end of the first one.
+    assertThat(from.getAllValues().get(1)).isEqualTo(to.getAllValues().get(0) + 1);
   }
 
   @Test
@@ -338,4 +523,183 @@ class TieredTimerTest {
     assertThat(result).isSameAs(expectedResult);
     verify(longTermStore).list(clientId, after, before, recurring, limit, token);
   }
+
+  @Test
+  void shouldDeferTaskToStoreWhenDispatcherIsSaturated() {
+    when(serverConfig.getCallbackOverflowDeferMs()).thenReturn(50L);
+    List<String> savingThreads = Collections.synchronizedList(new ArrayList<>());
+    doAnswer(
+            invocation -> {
+              savingThreads.add(Thread.currentThread().getName());
+              return invocation.callRealMethod();
+            })
+        .when(longTermStore)
+        .save(any(TimerTask.class));
+    AtomicInteger attempts = new AtomicInteger();
+    AtomicInteger dispatched = new AtomicInteger();
+    TieredTimer saturatedTimer =
+        new TieredTimer(
+            task -> {
+              if (attempts.incrementAndGet() == 1) {
+                throw new RejectedExecutionException("Callback queue full");
+              }
+              dispatched.incrementAndGet();
+              longTermStore.delete(task);
+            },
+            longTermStore,
+            serverConfig);
+    try {
+      TimerTask task = new TimerTask("deferred-task", "client-1", 50, new byte[0], 0, () -> {});
+      saturatedTimer.add(task);
+
+      await().atMost(2, TimeUnit.SECONDS).until(() -> dispatched.get() == 1);
+      assertThat(saturatedTimer.getDeferredTaskCount()).isEqualTo(1);
+      // Saved once on registration and once more with the deferred expiration.
+      verify(longTermStore, times(2)).save(any(TimerTask.class));
+      // The deferred expiration is written off the timing wheel thread.
+      assertThat(savingThreads).last().isEqualTo("overflow-defer");
+      assertThat(longTermStore.findById("deferred-task")).isEmpty();
+    } finally {
+      saturatedTimer.shutdown();
+    }
+  }
+
+  @Test
+  void shouldHoldDispatchWhileStandbyAndDispatchAfterPromotion() throws InterruptedException {
+    TieredTimer standbyTimer = new TieredTimer(dispatcher, longTermStore, serverConfig, true);
+    try {
+      long expiration = System.currentTimeMillis() + 50;
+      TimerTask kept =
+          TimerTask.withExpiration("kept-task", "client-1", expiration, null, 0, 0, () -> {});
+      TimerTask deleted =
+          TimerTask.withExpiration("deleted-task", "client-1", expiration, null, 0, 0, () -> {});
+      standbyTimer.applyReplicatedSave(kept);
+      standbyTimer.applyReplicatedSave(deleted);
+      standbyTimer.applyReplicatedDelete(deleted);
+
+      Thread.sleep(300);
+      assertThat(executionCount.get()).isZero();
+      assertThat(longTermStore.findById("kept-task")).isPresent();
+      assertThat(standbyTimer.isStandby()).isTrue();
+
+      standbyTimer.promote();
+
+      await().atMost(2, TimeUnit.SECONDS).until(() -> executionCount.get() == 1);
+      assertThat(standbyTimer.isStandby()).isFalse();
+      assertThat(longTermStore.findById("kept-task")).isEmpty();
+      assertThat(longTermStore.findById("deleted-task")).isEmpty();
+    } finally {
+      standbyTimer.shutdown();
+    }
+  }
+
+  @Test
+  void shouldRecoverOverdueTasksAtCatchUpRateWhileAcceptingRegistrations()
+      throws InterruptedException {
+    when(serverConfig.getRecoveryParallelism()).thenReturn(3);
+    when(serverConfig.getRecoveryCatchUpRatePerSecond()).thenReturn(5.0);
+    LongTermTaskStore store = new InMemoryLongTermTaskStore();
+    long now = System.currentTimeMillis();
+    for (int i = 0; i < 10; i++) {
+      long expiration = now - 1000 - i;
+      store.save(
+          TimerTask.withExpiration("overdue-" + i, "client-1", expiration, null, 0, 0, () -> {}));
+    }
+    AtomicInteger dispatched = new AtomicInteger();
+
+    TieredTimer recoveringTimer =
+        new TieredTimer(
+            task -> {
+              dispatched.incrementAndGet();
+              task.getTask().run();
+              store.delete(task);
+            },
+            store,
+            serverConfig);
+    try {
+      // Registrations are served while the backlog is still being released.
+      CountDownLatch registered = new CountDownLatch(1);
+      recoveringTimer.add(new TimerTask(50, registered::countDown));
+      assertThat(registered.await(1, TimeUnit.SECONDS)).isTrue();
+      assertThat(recoveringTimer.isRecovering()).isTrue();
+
+      await().atMost(5, TimeUnit.SECONDS).until(() -> !recoveringTimer.isRecovering());
+      // 5 tasks go out as the initial burst, the rest at 5 per second.
+      assertThat(recoveringTimer.getRecoveredTaskCount()).isEqualTo(10);
+      assertThat(recoveringTimer.getRecoveryDurationMs()).isGreaterThanOrEqualTo(800);
+      assertThat(recoveringTimer.getCatchUpRatePerSecond()).isLessThanOrEqualTo(15.0);
+      await().atMost(2, TimeUnit.SECONDS).until(() -> dispatched.get() == 11);
+    } finally {
+      recoveringTimer.shutdown();
+    }
+  }
+
+  @Test
+  void shouldPostponeOverdueTasksOverTheirClientCatchUpRate() {
+    when(serverConfig.getRecoveryParallelism()).thenReturn(2);
+    when(serverConfig.getRecoveryClientCatchUpRatePerSecond()).thenReturn(5.0);
+    when(serverConfig.getRecoveryClientCatchUpBurst()).thenReturn(2);
+    LongTermTaskStore store = new InMemoryLongTermTaskStore();
+    long now = System.currentTimeMillis();
+    for (int i = 0; i < 6; i++) {
+      store.save(
+          TimerTask.withExpiration("busy-" + i, "busy", now - 1000 - i, null, 0, 0, () -> {}));
+    }
+    for (int i = 0; i < 2; i++) {
+      store.save(
+          TimerTask.withExpiration("quiet-" + i, "quiet", now - 500 - i, null, 0, 0, () -> {}));
+    }
+    Map<String, Long> dispatchedAt = new ConcurrentHashMap<>();
+
+    TieredTimer recoveringTimer =
+        new TieredTimer(
+            task -> {
+              dispatchedAt.put(task.getTaskId(), System.currentTimeMillis());
+              store.delete(task);
+            },
+            store,
+            serverConfig);
+    try {
+      // The quiet client is not held up behind the busy client's backlog.
+      await()
+          .atMost(500, TimeUnit.MILLISECONDS)
+          .until(() -> dispatchedAt.containsKey("quiet-0") && dispatchedAt.containsKey("quiet-1"));
+      await().atMost(2, TimeUnit.SECONDS).until(() -> !recoveringTimer.isRecovering());
+      // 2 busy tasks go out as the burst, the other 4 are re-keyed 200 ms apart.
+      assertThat(recoveringTimer.getRecoveredTaskCount()).isEqualTo(4);
+      assertThat(recoveringTimer.getPostponedTaskCount()).isEqualTo(4);
+
+      await().atMost(3, TimeUnit.SECONDS).until(() -> dispatchedAt.size() == 8);
+      long firstBusy = Collections.min(busyDispatchTimes(dispatchedAt));
+      long lastBusy = Collections.max(busyDispatchTimes(dispatchedAt));
+      assertThat(lastBusy - firstBusy).isGreaterThanOrEqualTo(600);
+    } finally {
+      recoveringTimer.shutdown();
+    }
+  }
+
+  private static List<Long> busyDispatchTimes(Map<String, Long> dispatchedAt) {
+    return dispatchedAt.entrySet().stream()
+        .filter(e -> e.getKey().startsWith("busy-"))
+        .map(Map.Entry::getValue)
+        .toList();
+  }
+
+  @Test
+  void shouldAdvanceRecoveryWatermarkPastDispatchedTasks() {
+    long start = System.currentTimeMillis();
+    tieredTimer.add(new TimerTask(50, () -> {}));
+
+    // The watermark trails the scans, each of which runs every half window.
+    await()
+        .atMost(3, TimeUnit.SECONDS)
+        .until(() -> tieredTimer.getRecoveryWatermark() >= start);
+    assertThat(longTermStore.getRecoveryWatermark()).isEqualTo(tieredTimer.getRecoveryWatermark());
+
+    // A task saved below the watermark lowers it again.
+    TimerTask late = TimerTask.withExpiration("late-task", "client-1", 1000, null, 0, 0, () -> {});
+    tieredTimer.add(late);
+
+    verify(longTermStore).saveRecoveryWatermark(1000L);
+  }
 }